@@ -3,7 +3,23 @@ package org.MineSweeperGUI;
 import javax.swing.*;
 
 public class Game {
-    public static void main(String[] args) {
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("--server")) {
+            // runs a headless game server instead of the GUI
+            String[] serverArgs = new String[args.length - 1];
+            System.arraycopy(args, 1, serverArgs, 0, serverArgs.length);
+            org.MineSweeperGUI.MineSweeper.GameServer.main(serverArgs);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--cds")) {
+            // class-data-sharing launch profile: launch, train, first-frame or measure
+            String[] cdsArgs = new String[args.length - 1];
+            System.arraycopy(args, 1, cdsArgs, 0, cdsArgs.length);
+            org.MineSweeperGUI.MineSweeper.CdsProfile.main(cdsArgs);
+            return;
+        }
+        // the rendering pipeline is fixed once the first window is made
+        org.MineSweeperGUI.MineSweeper.RunMineSweeper.selectPipeline();
         Runnable game = new org.MineSweeperGUI.MineSweeper.RunMineSweeper(); // Sets the game you want to run
         // here
         SwingUtilities.invokeLater(game);
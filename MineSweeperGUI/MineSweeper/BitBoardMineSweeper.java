@@ -0,0 +1,508 @@
+package org.MineSweeperGUI.MineSweeper;
+
+import java.util.Random;
+
+/**
+ * This class is an alternative MineSweeper engine for running large numbers of
+ * simulated games. It follows exactly the same rules as MineSweeper, but
+ * instead of a Cell object per cell it keeps the mines, opened cells and flags
+ * as bitboards: every row of the board is a run of longs with one bit per
+ * cell. Adjacent mine counts, flood fills and the win check then work on 64
+ * cells at a time using shifts and masks.
+ * <p>
+ * Adjacent mine counts are kept as four bit planes, so bit x of plane k holds
+ * bit k of the count for cell x. They are computed by adding up the eight
+ * shifted neighbour masks of every row with a bit-sliced adder. A flood fill
+ * grows the opened region one ring at a time by spreading the newly opened
+ * 0-value cells to their neighbours with shifts, which opens exactly the cells
+ * MineSweeper.recOpenCells opens.
+ * <p>
+ * Both engines implement MineSweeperEngine, so a simulation written against
+ * it runs on either. Only the square grid is supported, and moves cannot be
+ * undone, since simulations have no use for either.
+ */
+public class BitBoardMineSweeper implements MineSweeperEngine {
+
+    private final int xDimension;
+    private final int yDimension;
+    private final int words; // longs per row
+    private final long lastMask; // valid bits of the last long of a row
+    private final long[] mines;
+    private final long[] clicked;
+    private final long[] flagged;
+    private final long[][] counts = new long[4][];
+    private long[] fresh; // cells opened by the last pass of a flood fill
+    private long[] spread; // those cells widened by one cell either way
+    private int moveCounter;
+    private int gameOver;
+
+    /**
+     * Constructor sets up an empty board of the given size.
+     *
+     * @param xDimension number of columns on the board
+     * @param yDimension number of rows on the board
+     */
+    public BitBoardMineSweeper(int xDimension, int yDimension) {
+        if (xDimension <= 0 || yDimension <= 0) {
+            throw new IllegalArgumentException("Board dimensions must be positive");
+        }
+        this.xDimension = xDimension;
+        this.yDimension = yDimension;
+        words = (xDimension + 63) >>> 6;
+        lastMask = (xDimension & 63) == 0 ? -1L : (1L << (xDimension & 63)) - 1;
+        mines = new long[words * yDimension];
+        clicked = new long[words * yDimension];
+        flagged = new long[words * yDimension];
+        for (int k = 0; k < 4; k++) {
+            counts[k] = new long[words * yDimension];
+        }
+    }
+
+    /**
+     * Constructor sets up a board with mines placed exactly like
+     * MineSweeper.gameBoard places them for a game with the same size and seed.
+     *
+     * @param xDimension number of columns on the board
+     * @param yDimension number of rows on the board
+     * @param seed       seed for placing the mines
+     * @param x          lower bound for the number of mines
+     * @param y          upper bound for the number of mines
+     */
+    public BitBoardMineSweeper(int xDimension, int yDimension, long seed, int x, int y) {
+        this(xDimension, yDimension);
+        Random random = new Random(seed);
+        int numMines = (int) (random.nextDouble() * (y - x)) + x;
+        for (int i = 0; i < numMines;) {
+            int randX = (int) (random.nextDouble() * xDimension);
+            int randY = (int) (random.nextDouble() * yDimension);
+            if (!isMine(randX, randY)) {
+                mines[bitWord(randX, randY)] |= 1L << randX;
+                i++;
+            }
+        }
+        setAdjacentValues();
+    }
+
+    /**
+     * Creates an engine holding the same state as a gameBoard.
+     *
+     * @param game the gameBoard to copy
+     * @return engine with the same mines, opened cells and flags
+     */
+    public static BitBoardMineSweeper fromCells(Cell[][] game) {
+        BitBoardMineSweeper b = new BitBoardMineSweeper(game.length, game[0].length);
+        for (int i = 0; i < b.xDimension; i++) {
+            for (int j = 0; j < b.yDimension; j++) {
+                long bit = 1L << i;
+                int w = b.bitWord(i, j);
+                if (game[i][j].getIsMine()) {
+                    b.mines[w] |= bit;
+                }
+                if (game[i][j].getIsClicked()) {
+                    b.clicked[w] |= bit;
+                }
+                if (game[i][j].getIsFlagged()) {
+                    b.flagged[w] |= bit;
+                }
+            }
+        }
+        b.setAdjacentValues();
+        return b;
+    }
+
+    /**
+     * Gets the number of columns on the board
+     *
+     * @return xDimension noting the width of the board
+     */
+    @Override
+    public int getXDimension() {
+        return xDimension;
+    }
+
+    /**
+     * Gets the number of rows on the board
+     *
+     * @return yDimension noting the height of the board
+     */
+    @Override
+    public int getYDimension() {
+        return yDimension;
+    }
+
+    /**
+     * Gets the move counter
+     *
+     * @return moveCounter noting the number of moves made
+     */
+    @Override
+    public int getMoveCounter() {
+        return moveCounter;
+    }
+
+    /**
+     * Gets the status of the game
+     * 0 --> game is not done, 1 --> game over and user won, 2 --> game over and
+     * user lost
+     *
+     * @return gameOver noting the status of the game
+     */
+    @Override
+    public int getStatus() {
+        return gameOver;
+    }
+
+    /**
+     * Checks if the cell is a mine
+     *
+     * @param x x value of the cell
+     * @param y y value of the cell
+     * @return boolean noting if the cell is a mine
+     */
+    @Override
+    public boolean isMine(int x, int y) {
+        return (mines[bitWord(x, y)] & (1L << x)) != 0;
+    }
+
+    /**
+     * Checks if the cell has been opened
+     *
+     * @param x x value of the cell
+     * @param y y value of the cell
+     * @return boolean noting if the cell has been opened
+     */
+    @Override
+    public boolean isClicked(int x, int y) {
+        return (clicked[bitWord(x, y)] & (1L << x)) != 0;
+    }
+
+    /**
+     * Checks if the cell is flagged
+     *
+     * @param x x value of the cell
+     * @param y y value of the cell
+     * @return boolean noting if the cell is flagged
+     */
+    @Override
+    public boolean isFlagged(int x, int y) {
+        return (flagged[bitWord(x, y)] & (1L << x)) != 0;
+    }
+
+    /**
+     * Gets the number of mines adjacent to a cell, or -1 for a mine, matching
+     * Cell.getMineNumber.
+     *
+     * @param x x value of the cell
+     * @param y y value of the cell
+     * @return number of adjacent mines
+     */
+    @Override
+    public int getMineNumber(int x, int y) {
+        if (isMine(x, y)) {
+            return -1;
+        }
+        int w = bitWord(x, y);
+        int n = 0;
+        for (int k = 0; k < 4; k++) {
+            n |= (int) ((counts[k][w] >>> x) & 1) << k;
+        }
+        return n;
+    }
+
+    /**
+     * Counts the adjacent mines of every cell. For each row, the eight
+     * neighbour masks (the rows above and below, and all three rows shifted by
+     * one cell either way) are added into the four count planes 64 cells at a
+     * time.
+     */
+    public void setAdjacentValues() {
+        long[] c0 = counts[0];
+        long[] c1 = counts[1];
+        long[] c2 = counts[2];
+        long[] c3 = counts[3];
+        long[] sum = new long[4];
+        for (int y = 0; y < yDimension; y++) {
+            for (int w = 0; w < words; w++) {
+                sum[0] = 0;
+                sum[1] = 0;
+                sum[2] = 0;
+                sum[3] = 0;
+                for (int r = y - 1; r <= y + 1; r++) {
+                    if (r < 0 || r >= yDimension) {
+                        continue;
+                    }
+                    add(sum, west(mines, r, w));
+                    add(sum, east(mines, r, w));
+                    if (r != y) {
+                        add(sum, mines[r * words + w]);
+                    }
+                }
+                int i = y * words + w;
+                c0[i] = sum[0];
+                c1[i] = sum[1];
+                c2[i] = sum[2];
+                c3[i] = sum[3];
+            }
+        }
+    }
+
+    /**
+     * Adds one bit to each of the 64 counts held in the four planes, like a
+     * ripple-carry adder working on all 64 cells at once.
+     *
+     * @param sum  the four count planes
+     * @param bits the bits to add
+     */
+    private static void add(long[] sum, long bits) {
+        long carry = bits;
+        long t = sum[0] & carry;
+        sum[0] ^= carry;
+        carry = t;
+        t = sum[1] & carry;
+        sum[1] ^= carry;
+        carry = t;
+        t = sum[2] & carry;
+        sum[2] ^= carry;
+        sum[3] |= t;
+    }
+
+    /**
+     * Contains the play logic, following the same rules as MineSweeper.play.
+     *
+     * @param x       x value of the cell
+     * @param y       y value of the cell
+     * @param isRight true to toggle a flag, false to click
+     */
+    @Override
+    public void play(int x, int y, boolean isRight) {
+        if (x >= xDimension || y >= yDimension || x < 0 || y < 0) {
+            return;
+        }
+        if (gameOver == 1 || gameOver == 2) {
+            return;
+        }
+        int w = bitWord(x, y);
+        long bit = 1L << x;
+        if (!isRight) {
+            if ((flagged[w] & bit) != 0) {
+                return;
+            } else if ((mines[w] & bit) != 0) {
+                moveCounter++;
+                gameOver = 2;
+            } else {
+                if ((clicked[w] & bit) != 0) {
+                    return;
+                }
+                clicked[w] |= bit;
+                if (getMineNumber(x, y) == 0) {
+                    flood(x, y);
+                }
+                moveCounter++;
+                gameOver = checkGameStatus();
+            }
+        } else {
+            if ((clicked[w] & bit) != 0) {
+                return;
+            }
+            flagged[w] ^= bit;
+            moveCounter++;
+        }
+    }
+
+    /**
+     * Contains the chord logic, following the same rules as MineSweeper.chord:
+     * if the number of flags around an opened cell matches its number, every
+     * covered neighbour that is not flagged is opened.
+     *
+     * @param x x value of the opened cell
+     * @param y y value of the opened cell
+     */
+    @Override
+    public void chord(int x, int y) {
+        if (x >= xDimension || y >= yDimension || x < 0 || y < 0) {
+            return;
+        }
+        if (gameOver == 1 || gameOver == 2) {
+            return;
+        }
+        if (!isClicked(x, y) || getMineNumber(x, y) <= 0) {
+            return;
+        }
+        int x0 = Math.max(0, x - 1);
+        int x1 = Math.min(xDimension - 1, x + 1);
+        int y0 = Math.max(0, y - 1);
+        int y1 = Math.min(yDimension - 1, y + 1);
+        int flags = 0;
+        boolean covered = false;
+        for (int j = y0; j <= y1; j++) {
+            for (int i = x0; i <= x1; i++) {
+                if (i == x && j == y) {
+                    continue;
+                }
+                if (isFlagged(i, j)) {
+                    flags++;
+                } else if (!isClicked(i, j)) {
+                    covered = true;
+                }
+            }
+        }
+        if (flags != getMineNumber(x, y) || !covered) {
+            return;
+        }
+        boolean hitMine = false;
+        for (int j = y0; j <= y1; j++) {
+            for (int i = x0; i <= x1; i++) {
+                int w = bitWord(i, j);
+                long bit = 1L << i;
+                if (((flagged[w] | clicked[w]) & bit) != 0) {
+                    continue;
+                }
+                if ((mines[w] & bit) != 0) {
+                    hitMine = true;
+                } else {
+                    clicked[w] |= bit;
+                    if (getMineNumber(i, j) == 0) {
+                        flood(i, j);
+                    }
+                }
+            }
+        }
+        moveCounter++;
+        gameOver = hitMine ? 2 : checkGameStatus();
+    }
+
+    /**
+     * Opens everything reachable from an opened 0-value cell. Each pass spreads
+     * the 0-value cells opened by the previous pass to their eight neighbours
+     * and opens the ones that are still covered, only looking at the rows the
+     * previous pass changed.
+     *
+     * @param x x value of the opened 0-value cell
+     * @param y y value of the opened 0-value cell
+     */
+    private void flood(int x, int y) {
+        if (fresh == null) {
+            fresh = new long[words * yDimension];
+            spread = new long[words * yDimension];
+        }
+        fresh[bitWord(x, y)] = 1L << x;
+        int minRow = y;
+        int maxRow = y;
+        while (minRow <= maxRow) {
+            // newly opened 0-value cells, widened by one cell to either side
+            for (int r = minRow; r <= maxRow; r++) {
+                for (int w = 0; w < words; w++) {
+                    int i = r * words + w;
+                    fresh[i] &= zeros(i);
+                }
+                for (int w = 0; w < words; w++) {
+                    int i = r * words + w;
+                    spread[i] = fresh[i] | west(fresh, r, w) | east(fresh, r, w);
+                }
+            }
+            int nextMin = Integer.MAX_VALUE;
+            int nextMax = -1;
+            int from = Math.max(0, minRow - 1);
+            int to = Math.min(yDimension - 1, maxRow + 1);
+            for (int r = from; r <= to; r++) {
+                for (int w = 0; w < words; w++) {
+                    int i = r * words + w;
+                    long reach = 0;
+                    if (r - 1 >= minRow) {
+                        reach |= spread[i - words];
+                    }
+                    if (r >= minRow && r <= maxRow) {
+                        reach |= spread[i];
+                    }
+                    if (r + 1 <= maxRow) {
+                        reach |= spread[i + words];
+                    }
+                    long opened = reach & ~clicked[i] & (w == words - 1 ? lastMask : -1L);
+                    clicked[i] |= opened;
+                    fresh[i] = opened;
+                    if (opened != 0) {
+                        nextMin = Math.min(nextMin, r);
+                        nextMax = Math.max(nextMax, r);
+                    }
+                }
+            }
+            for (int r = minRow; r <= maxRow; r++) {
+                for (int w = 0; w < words; w++) {
+                    spread[r * words + w] = 0;
+                }
+            }
+            minRow = nextMin;
+            maxRow = nextMax;
+        }
+    }
+
+    /**
+     * Checks if the game has been won: every cell that is not a mine has been
+     * opened. Checks 64 cells at a time.
+     *
+     * @return int winner, 1 if the game is won and 0 otherwise
+     */
+    public int checkGameStatus() {
+        for (int y = 0; y < yDimension; y++) {
+            for (int w = 0; w < words; w++) {
+                int i = y * words + w;
+                long covered = ~mines[i] & ~clicked[i] & (w == words - 1 ? lastMask : -1L);
+                if (covered != 0) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * Copies the state of the engine into a gameBoard of the same size.
+     *
+     * @param game the gameBoard to copy into
+     */
+    public void copyTo(Cell[][] game) {
+        for (int i = 0; i < xDimension; i++) {
+            for (int j = 0; j < yDimension; j++) {
+                Cell c = game[i][j];
+                c.setIsMine(isMine(i, j));
+                c.setMineNumber(getMineNumber(i, j));
+                c.setIsClicked(isClicked(i, j));
+                c.setIsFlagged(isFlagged(i, j));
+            }
+        }
+    }
+
+    /**
+     * Gets the 0-value safe cells of a long.
+     */
+    private long zeros(int i) {
+        return ~(counts[0][i] | counts[1][i] | counts[2][i] | counts[3][i]) & ~mines[i];
+    }
+
+    /**
+     * Gets the bits of the cells to the left of each cell of a long, so bit x
+     * of the result is bit x - 1 of the row.
+     */
+    private long west(long[] board, int row, int w) {
+        int i = row * words + w;
+        long carry = w > 0 ? board[i - 1] >>> 63 : 0;
+        return (board[i] << 1) | carry;
+    }
+
+    /**
+     * Gets the bits of the cells to the right of each cell of a long, so bit x
+     * of the result is bit x + 1 of the row.
+     */
+    private long east(long[] board, int row, int w) {
+        int i = row * words + w;
+        long carry = w < words - 1 ? board[i + 1] << 63 : 0;
+        return (board[i] >>> 1) | carry;
+    }
+
+    /**
+     * Gets the index of the long holding a cell.
+     */
+    private int bitWord(int x, int y) {
+        return y * words + (x >>> 6);
+    }
+}
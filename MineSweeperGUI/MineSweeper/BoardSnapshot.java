@@ -0,0 +1,263 @@
+package org.MineSweeperGUI.MineSweeper;
+
+/**
+ * This class is an immutable view of a board at one point of a game. A model
+ * publishes a new snapshot after every move, so painting, saving, bots and
+ * hints running on other threads can read a board that never changes under
+ * them, without locking the game.
+ * <p>
+ * The board is cut into square tiles of TILE x TILE cells, each cell stored
+ * as one byte packed like Protocol.pack. A new snapshot only copies the tiles
+ * the move changed and shares every other tile with the snapshot before it,
+ * so publishing a move costs a few small copies instead of a copy of the
+ * whole board, and old snapshots stay valid for as long as they are held.
+ */
+public final class BoardSnapshot {
+
+    public static final int TILE_BITS = 3;
+    public static final int TILE = 1 << TILE_BITS; // cells along each side of a tile
+    private static final int TILE_MASK = TILE - 1;
+
+    private final Topology topology;
+    private final int xDimension;
+    private final int yDimension;
+    private final int tilesY; // tiles along the y axis
+    private final byte[][] tiles; // packed cells of each tile, shared between snapshots
+    private final int status;
+    private final int moveCounter;
+    private final long version;
+
+    private BoardSnapshot(Topology topology, int xDimension, int yDimension, byte[][] tiles,
+                          int status, int moveCounter, long version) {
+        this.topology = topology;
+        this.xDimension = xDimension;
+        this.yDimension = yDimension;
+        this.tilesY = (yDimension + TILE_MASK) >> TILE_BITS;
+        this.tiles = tiles;
+        this.status = status;
+        this.moveCounter = moveCounter;
+        this.version = version;
+    }
+
+    /**
+     * Creates the first snapshot of a board, copying every tile.
+     *
+     * @param m    model of the game
+     * @param game gameBoard of the game
+     * @return snapshot of the whole board
+     */
+    static BoardSnapshot of(MineSweeper m, Cell[][] game) {
+        int tilesX = (m.getXDimension() + TILE_MASK) >> TILE_BITS;
+        int tilesY = (m.getYDimension() + TILE_MASK) >> TILE_BITS;
+        byte[][] tiles = new byte[tilesX * tilesY][];
+        for (int t = 0; t < tiles.length; t++) {
+            tiles[t] = copyTile(game, t / tilesY, t % tilesY);
+        }
+        return new BoardSnapshot(m.getTopology(), m.getXDimension(), m.getYDimension(), tiles,
+                m.getStatus(), m.getMoveCounter(), 0);
+    }
+
+    /**
+     * Creates the snapshot after a move was made, undone or redone. Only the
+     * tiles holding a cell the move changed are copied again from the board.
+     *
+     * @param m    model of the game
+     * @param game gameBoard of the game, after the move
+     * @param move the move whose cells changed
+     * @return snapshot sharing every tile the move did not change
+     */
+    BoardSnapshot next(MineSweeper m, Cell[][] game, MoveLog.Move move) {
+        byte[][] next = tiles.clone();
+        boolean[] copied = new boolean[tiles.length];
+        copy(next, copied, game, move.index);
+        for (long run : move.runs) {
+            int start = (int) (run >>> 32);
+            int end = start + (int) run;
+            for (int i = start; i < end; i++) {
+                copy(next, copied, game, i);
+            }
+        }
+        return new BoardSnapshot(topology, xDimension, yDimension, next, m.getStatus(),
+                m.getMoveCounter(), version + 1);
+    }
+
+    /**
+     * Creates the snapshot after cells all over the board changed without a
+     * move, like mines being placed or moved. Every tile is copied again.
+     *
+     * @param m    model of the game
+     * @param game gameBoard of the game, after the change
+     * @return snapshot of the whole board, one version after this one
+     */
+    BoardSnapshot renew(MineSweeper m, Cell[][] game) {
+        BoardSnapshot all = of(m, game);
+        return new BoardSnapshot(topology, xDimension, yDimension, all.tiles, all.status,
+                all.moveCounter, version + 1);
+    }
+
+    /**
+     * Creates the snapshot after the game ended without a move, like when its
+     * time ran out. Every tile is shared with this snapshot.
+     *
+     * @param m model of the game
+     * @return snapshot with the status of the game, one version after this one
+     */
+    BoardSnapshot withStatus(MineSweeper m) {
+        return new BoardSnapshot(topology, xDimension, yDimension, tiles, m.getStatus(),
+                m.getMoveCounter(), version + 1);
+    }
+
+    /**
+     * Copies the tile holding a cell from the board, unless it was copied
+     * already.
+     */
+    private void copy(byte[][] next, boolean[] copied, Cell[][] game, int index) {
+        int x = index / yDimension;
+        int y = index % yDimension;
+        int t = (x >> TILE_BITS) * tilesY + (y >> TILE_BITS);
+        if (!copied[t]) {
+            copied[t] = true;
+            next[t] = copyTile(game, x >> TILE_BITS, y >> TILE_BITS);
+        }
+    }
+
+    private static byte[] copyTile(Cell[][] game, int tileX, int tileY) {
+        byte[] tile = new byte[TILE * TILE];
+        int x0 = tileX << TILE_BITS;
+        int y0 = tileY << TILE_BITS;
+        int x1 = Math.min(game.length, x0 + TILE);
+        int y1 = Math.min(game[0].length, y0 + TILE);
+        for (int i = x0; i < x1; i++) {
+            for (int j = y0; j < y1; j++) {
+                tile[((i & TILE_MASK) << TILE_BITS) | (j & TILE_MASK)] = Protocol.pack(game[i][j]);
+            }
+        }
+        return tile;
+    }
+
+    /**
+     * Gets a cell packed like Protocol.pack
+     *
+     * @param x x value of the cell
+     * @param y y value of the cell
+     * @return number bits with the CLICKED, FLAGGED and MINE bits of Protocol
+     */
+    public byte get(int x, int y) {
+        return tiles[(x >> TILE_BITS) * tilesY + (y >> TILE_BITS)]
+                [((x & TILE_MASK) << TILE_BITS) | (y & TILE_MASK)];
+    }
+
+    /**
+     * Checks if a cell was opened
+     *
+     * @param x x value of the cell
+     * @param y y value of the cell
+     * @return boolean noting if the cell is clicked
+     */
+    public boolean isClicked(int x, int y) {
+        return (get(x, y) & Protocol.CLICKED) != 0;
+    }
+
+    /**
+     * Checks if a cell was flagged
+     *
+     * @param x x value of the cell
+     * @param y y value of the cell
+     * @return boolean noting if the cell is flagged
+     */
+    public boolean isFlagged(int x, int y) {
+        return (get(x, y) & Protocol.FLAGGED) != 0;
+    }
+
+    /**
+     * Checks if a cell is a mine
+     *
+     * @param x x value of the cell
+     * @param y y value of the cell
+     * @return boolean noting if the cell is a mine
+     */
+    public boolean isMine(int x, int y) {
+        return (get(x, y) & Protocol.MINE) != 0;
+    }
+
+    /**
+     * Gets the number of mines next to a cell
+     *
+     * @param x x value of the cell
+     * @param y y value of the cell
+     * @return number of adjacent mines, or -1 for a mine
+     */
+    public int getMineNumber(int x, int y) {
+        byte state = get(x, y);
+        return (state & Protocol.MINE) != 0 ? -1 : state & Protocol.NUMBER_MASK;
+    }
+
+    /**
+     * Checks if a cell is stored in the same tile object as in another
+     * snapshot, which is the case when no move in between changed its tile.
+     *
+     * @param other another snapshot of the same game
+     * @param x     x value of the cell
+     * @param y     y value of the cell
+     * @return boolean noting if the tile is shared
+     */
+    public boolean sharesTile(BoardSnapshot other, int x, int y) {
+        int t = (x >> TILE_BITS) * tilesY + (y >> TILE_BITS);
+        return t < other.tiles.length && tiles[t] == other.tiles[t];
+    }
+
+    /**
+     * Gets the topology of the board
+     *
+     * @return topology deciding the neighbours of each cell
+     */
+    public Topology getTopology() {
+        return topology;
+    }
+
+    /**
+     * Gets the number of columns of the board
+     *
+     * @return xDimension of the board
+     */
+    public int getXDimension() {
+        return xDimension;
+    }
+
+    /**
+     * Gets the number of rows of the board
+     *
+     * @return yDimension of the board
+     */
+    public int getYDimension() {
+        return yDimension;
+    }
+
+    /**
+     * Gets the status of the game when the snapshot was taken
+     * 0 --> still playing, 1 --> user won, 2 --> user lost
+     *
+     * @return status of the game
+     */
+    public int getStatus() {
+        return status;
+    }
+
+    /**
+     * Gets the number of moves made when the snapshot was taken
+     *
+     * @return moveCounter of the game
+     */
+    public int getMoveCounter() {
+        return moveCounter;
+    }
+
+    /**
+     * Gets the number of snapshots published before this one in the game
+     *
+     * @return version of the board, 0 for a new game
+     */
+    public long getVersion() {
+        return version;
+    }
+}
@@ -0,0 +1,396 @@
+package org.MineSweeperGUI.MineSweeper;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * This class is the class-data-sharing launch profile of the game. Most of the
+ * time before the first frame is spent loading and verifying the classes of
+ * Swing, AWT and the game. A CDS archive stores those classes already parsed,
+ * so a JVM started with the archive maps them in instead of loading them.
+ * <p>
+ * The archive is made by a training run, which plays a few games and paints
+ * the GameBoard offscreen so every class the game needs at startup is loaded,
+ * and is written when the training JVM exits. On JDK 25 and newer the same
+ * training run records an AOT cache instead, which also keeps linked classes
+ * and method profiles.
+ * <p>
+ * Modes, passed after {@code Game --cds}:
+ * <ul>
+ * <li>launch: creates the archive if it is missing or older than the game's
+ * classes, then starts the game with it.</li>
+ * <li>train: runs the training workload in a temporary directory and exits.</li>
+ * <li>first-frame: shows the board, reports the time from JVM start to its
+ * first paint, and exits. Without a display the board is painted offscreen.</li>
+ * <li>measure [runs]: compares first-frame times with class-data sharing off,
+ * with the JDK's default archive and with the game's archive.</li>
+ * </ul>
+ * The JVM can only archive classes that come from JAR files, so the game has
+ * to be run from a JAR for its own classes to be archived.
+ */
+public final class CdsProfile {
+
+    public static final String ARCHIVE = "minesweeper.jsa";
+    public static final String AOT_CACHE = "minesweeper.aot";
+    private static final String FIRST_FRAME = "first_frame=";
+
+    private CdsProfile() {
+    }
+
+    /**
+     * Checks if this JVM records AOT caches rather than dynamic CDS archives
+     *
+     * @return boolean noting if JDK 25 or newer is running
+     */
+    static boolean useAotCache() {
+        return Runtime.version().feature() >= 25;
+    }
+
+    /**
+     * Gets the archive file in the working directory
+     *
+     * @return the CDS archive or AOT cache file
+     */
+    static File archive() {
+        return new File(useAotCache() ? AOT_CACHE : ARCHIVE);
+    }
+
+    /**
+     * Gets the JVM flags that write an archive when the JVM exits
+     *
+     * @param archive archive to write
+     * @return flags for the training JVM
+     */
+    static List<String> createFlags(File archive) {
+        if (useAotCache()) {
+            return List.of("-XX:AOTCacheOutput=" + archive.getPath());
+        }
+        // JFR event classes cannot be archived, which is expected
+        return List.of("-XX:ArchiveClassesAtExit=" + archive.getPath(), "-Xlog:cds=error");
+    }
+
+    /**
+     * Gets the JVM flags that start a JVM with an archive
+     *
+     * @param archive archive to use
+     * @return flags for the game JVM
+     */
+    static List<String> useFlags(File archive) {
+        if (useAotCache()) {
+            return List.of("-XX:AOTCache=" + archive.getPath());
+        }
+        return List.of("-XX:SharedArchiveFile=" + archive.getPath());
+    }
+
+    /**
+     * Builds the command line of a new JVM running the game with the same
+     * java binary and class path as this one.
+     *
+     * @param flags JVM flags
+     * @param args  arguments of Game.main
+     * @return the command line
+     */
+    static List<String> command(List<String> flags, String... args) {
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command()
+                .orElse(System.getProperty("java.home") + File.separator + "bin"
+                        + File.separator + "java"));
+        command.addAll(flags);
+        if (GraphicsEnvironment.isHeadless()) {
+            command.add("-Djava.awt.headless=true");
+        }
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add("org.MineSweeperGUI.Game");
+        command.addAll(Arrays.asList(args));
+        return command;
+    }
+
+    /**
+     * Plays a few games and paints them offscreen so the classes used at
+     * startup and during play are loaded. The games are practice games, so
+     * none of them is ranked or kept in the history, and the board keeps
+     * anything it would write in the given directory rather than in those of
+     * the player.
+     *
+     * @param directory directory for the history, leaderboards and saves of
+     *                  the training board
+     */
+    public static void train(File directory) {
+        BufferedImage image = new BufferedImage(600, 600, BufferedImage.TYPE_INT_ARGB);
+        GameBoard board = new GameBoard(new JLabel(), null, directory);
+        for (Topology topology : Topology.values()) {
+            MineSweeper m = new MineSweeper(10, 10, topology.ordinal(), topology);
+            m.setSaveFile(null);
+            m.setPractice(true);
+            Cell[][] game = m.gameBoard(12, 15, false);
+            board.setGame(m, game);
+            board.setSize(board.getPreferredSize());
+            paint(board, image);
+            // flags one mine, opens safe cells, chords and undoes until
+            // a few moves have been made
+            int moves = 0;
+            for (int i = 0; i < 10 && moves < 8; i++) {
+                for (int j = 0; j < 10 && moves < 8; j++) {
+                    if (game[i][j].getIsMine()) {
+                        if (moves == 0) {
+                            m.play(game, i, j, true);
+                            moves++;
+                        }
+                    } else if (!game[i][j].getIsClicked()) {
+                        m.play(game, i, j, false);
+                        m.chord(game, i, j);
+                        moves++;
+                    }
+                }
+            }
+            m.undo(game);
+            m.redo(game);
+            paint(board, image);
+            // ends the game on a mine to paint the game over board
+            for (int i = 0; i < 10 && m.getStatus() == 0; i++) {
+                for (int j = 0; j < 10 && m.getStatus() == 0; j++) {
+                    if (game[i][j].getIsMine()) {
+                        if (game[i][j].getIsFlagged()) {
+                            m.play(game, i, j, true);
+                        }
+                        m.play(game, i, j, false);
+                    }
+                }
+            }
+            paint(board, image);
+        }
+        // the instructions are HTML, which loads the HTML editor kit
+        new JEditorPane("text/html", "<h1>MineSweeper</h1><p>Good luck!!</p>")
+                .setSize(400, 400);
+    }
+
+    private static void paint(GameBoard board, BufferedImage image) {
+        Graphics2D g = image.createGraphics();
+        board.paint(g);
+        g.dispose();
+    }
+
+    /**
+     * Shows a board and prints the time from JVM start to its first paint.
+     * The JVM exits once the time has been printed.
+     */
+    static void firstFrame() {
+        StartupTiming timing = new StartupTiming();
+        if (GraphicsEnvironment.isHeadless()) {
+            GameBoard board = new GameBoard(new JLabel());
+            board.start();
+            board.setSize(board.getPreferredSize());
+            Dimension size = board.getPreferredSize();
+            BufferedImage image = new BufferedImage(
+                    size.width, size.height, BufferedImage.TYPE_INT_ARGB
+            );
+            paint(board, image);
+            timing.mark("first_frame");
+            System.out.println(FIRST_FRAME + timing.getElapsed("first_frame"));
+            System.exit(0);
+        }
+        SwingUtilities.invokeLater(() -> {
+            JFrame frame = new JFrame("MineSweeper");
+            JLabel status = new JLabel("Setting up...");
+            GameBoard board = new GameBoard(status);
+            board.start();
+            board.setFirstPaintListener(() -> {
+                timing.mark("first_frame");
+                System.out.println(FIRST_FRAME + timing.getElapsed("first_frame"));
+                System.exit(0);
+            });
+            frame.add(board, BorderLayout.CENTER);
+            frame.add(status, BorderLayout.SOUTH);
+            frame.pack();
+            frame.setVisible(true);
+        });
+    }
+
+    /**
+     * Creates the archive with a training run in a new JVM.
+     *
+     * @param archive archive to write
+     * @throws IOException if the training JVM could not be run or failed
+     */
+    public static void createArchive(File archive) throws IOException {
+        List<String> command = command(createFlags(archive), "--cds", "train");
+        Process p = new ProcessBuilder(command).inheritIO().start();
+        try {
+            if (p.waitFor() != 0 || !archive.exists()) {
+                throw new IOException("Training run failed: " + String.join(" ", command));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while training", e);
+        }
+    }
+
+    /**
+     * Checks if the archive is missing or older than any part of the class
+     * path, in which case the JVM would refuse it.
+     *
+     * @param archive archive to check
+     * @return boolean noting if the archive has to be created again
+     */
+    static boolean stale(File archive) {
+        if (!archive.exists()) {
+            return true;
+        }
+        for (String entry : System.getProperty("java.class.path").split(File.pathSeparator)) {
+            if (new File(entry).lastModified() > archive.lastModified()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Starts the game in a new JVM using the archive, creating it first if
+     * needed. If the archive cannot be created the game starts without it.
+     *
+     * @return exit code of the game JVM
+     * @throws IOException if the game JVM could not be started
+     */
+    static int launch() throws IOException {
+        File archive = archive();
+        List<String> flags = new ArrayList<>();
+        try {
+            if (stale(archive)) {
+                createArchive(archive);
+            }
+            flags.addAll(useFlags(archive));
+        } catch (IOException e) {
+            System.err.println(e.getMessage() + ", starting without an archive");
+        }
+        Process p = new ProcessBuilder(command(flags)).inheritIO().start();
+        try {
+            return p.waitFor();
+        } catch (InterruptedException e) {
+            p.destroy();
+            return 1;
+        }
+    }
+
+    /**
+     * Runs one first-frame JVM and reads the time it reports.
+     *
+     * @param flags JVM flags
+     * @return milliseconds from starting the JVM to the first frame
+     * @throws IOException if the JVM could not be run or reported nothing
+     */
+    private static long timeFirstFrame(List<String> flags) throws IOException {
+        // measures from just before the JVM is started, so starting it counts too
+        List<String> timed = new ArrayList<>(flags);
+        timed.add("-Dminesweeper.launchTime=" + System.currentTimeMillis());
+        Process p = new ProcessBuilder(command(timed, "--cds", "first-frame"))
+                .redirectErrorStream(true).start();
+        long result = -1;
+        try (BufferedReader br = new BufferedReader(new InputStreamReader(p.getInputStream()))) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                if (line.startsWith(FIRST_FRAME)) {
+                    result = Long.parseLong(line.substring(FIRST_FRAME.length()).trim());
+                }
+            }
+        }
+        try {
+            p.waitFor();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (result < 0) {
+            throw new IOException("No first frame reported with " + flags);
+        }
+        return result;
+    }
+
+    /**
+     * Measures the time to the first frame with class-data sharing off, with
+     * the JDK's default archive and with the game's archive, and prints the
+     * median and best time of each. The runs of the three setups take turns
+     * so that noise from the machine affects all of them alike.
+     *
+     * @param runs number of JVMs started per setup
+     * @throws IOException if a JVM could not be run
+     */
+    static void measure(int runs) throws IOException {
+        File archive = archive();
+        if (stale(archive)) {
+            createArchive(archive);
+        }
+        String[] names = { "sharing off", "JDK archive", "game archive" };
+        List<List<String>> flags = List.of(List.of("-Xshare:off"), List.of(), useFlags(archive));
+        long[][] times = new long[names.length][runs];
+        for (int r = 0; r < runs; r++) {
+            for (int s = 0; s < names.length; s++) {
+                times[s][r] = timeFirstFrame(flags.get(s));
+            }
+        }
+        System.out.printf("time to first frame over %d runs (ms)%n", runs);
+        for (int s = 0; s < names.length; s++) {
+            Arrays.sort(times[s]);
+            System.out.printf("%-13s median %5d  best %5d%n", names[s], times[s][runs / 2],
+                    times[s][0]);
+        }
+    }
+
+    /**
+     * Deletes a directory and everything in it.
+     *
+     * @param directory directory to delete
+     * @throws IOException if a file could not be deleted
+     */
+    private static void delete(File directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory.toPath())) {
+            for (Path p : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(p);
+            }
+        }
+    }
+
+    /**
+     * Runs one of the modes of the launch profile.
+     *
+     * @param args mode followed by its arguments
+     * @throws IOException if a JVM could not be run
+     */
+    public static void main(String[] args) throws IOException {
+        String mode = args.length > 0 ? args[0] : "launch";
+        switch (mode) {
+            case "train":
+                File directory = Files.createTempDirectory("minesweeper-train").toFile();
+                try {
+                    train(directory);
+                } finally {
+                    delete(directory);
+                }
+                System.exit(0);
+                break;
+            case "first-frame":
+                firstFrame();
+                break;
+            case "measure":
+                measure(args.length > 1 ? Integer.parseInt(args[1]) : 10);
+                break;
+            case "launch":
+                System.exit(launch());
+                break;
+            default:
+                System.err.println("Modes: launch, train, first-frame, measure [runs]");
+                System.exit(2);
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package org.MineSweeperGUI.MineSweeper;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+
+/**
+ * This class draws every kind of cell the board can show once, into an image
+ * per kind, so painting the board is one image copy per cell instead of the
+ * shapes and text of each cell. The images are drawn at the resolution of the
+ * device, taking the scale of the Graphics into account, so cells stay sharp
+ * on high DPI displays and are drawn again if the scale changes.
+ * <p>
+ * On a display the images are VolatileImages, which the accelerated pipelines
+ * (Direct3D, OpenGL, Metal and XRender) keep in video memory and copy on the
+ * graphics card. Their contents can be lost at any time, for example when the
+ * display mode changes, so they are checked before each frame and drawn again
+ * when lost. In headless mode, or where no VolatileImage can be made, plain
+ * BufferedImages are used instead.
+ * <p>
+ * Each image is one cell of 50 x 50 units with its border, drawn with
+ * antialiasing on the background of the board. The images are opaque, so
+ * copying one is a plain copy of pixels with no blending.
+ */
+final class CellSprites {
+
+    // kinds of cell
+    static final int COVERED = 0;
+    static final int FLAGGED = 1;
+    static final int MINE = 2;
+    static final int NUMBER = 3; // plus the number, while playing
+    static final int LOST_NUMBER = NUMBER + 9; // plus the number, once the game is lost
+    static final int WON_NUMBER = LOST_NUMBER + 9; // plus the number, once the game is won
+    private static final int KINDS = WON_NUMBER + 9;
+
+    static final int SIZE = 51; // a cell of 50 units and the right and bottom border
+
+    private static final Font FONT = new Font(Font.SANS_SERIF, Font.BOLD, 22);
+
+    private final Image[] images = new Image[KINDS];
+    private double scale; // device pixels per unit the images were drawn at
+    private Color background; // background the images were drawn on
+    private boolean volatileImages;
+    private boolean unsupported; // noting if VolatileImages could not be made here
+
+    /**
+     * Makes sure every image is drawn at the scale of the Graphics and has
+     * its contents, drawing again any that were lost.
+     *
+     * @param g          Graphics the board is painted with
+     * @param background background of the board
+     */
+    void validate(Graphics2D g, Color background) {
+        double s = g.getTransform().getScaleX();
+        GraphicsConfiguration gc = g.getDeviceConfiguration();
+        boolean accelerate = !unsupported && !GraphicsEnvironment.isHeadless() && gc != null
+                && gc.getDevice().getType() == GraphicsDevice.TYPE_RASTER_SCREEN;
+        if (s != scale || accelerate != volatileImages || !background.equals(this.background)) {
+            scale = s;
+            this.background = background;
+            volatileImages = accelerate;
+            flush();
+        }
+        int pixels = (int) Math.ceil(SIZE * scale);
+        for (int kind = 0; kind < KINDS; kind++) {
+            if (volatileImages) {
+                VolatileImage image = (VolatileImage) images[kind];
+                int state = image == null ? VolatileImage.IMAGE_INCOMPATIBLE : image.validate(gc);
+                if (state == VolatileImage.IMAGE_INCOMPATIBLE) {
+                    if (image != null) {
+                        image.flush();
+                    }
+                    try {
+                        image = gc.createCompatibleVolatileImage(
+                                pixels, pixels, Transparency.OPAQUE);
+                    } catch (UnsupportedOperationException | IllegalArgumentException e) {
+                        // no accelerated images here, use plain ones from now on
+                        unsupported = true;
+                        validate(g, background);
+                        return;
+                    }
+                    images[kind] = image;
+                    draw(image, kind);
+                } else if (state == VolatileImage.IMAGE_RESTORED) {
+                    draw(image, kind);
+                }
+            } else if (images[kind] == null) {
+                BufferedImage image = new BufferedImage(pixels, pixels,
+                        BufferedImage.TYPE_INT_RGB);
+                images[kind] = image;
+                draw(image, kind);
+            }
+        }
+    }
+
+    /**
+     * Checks if an accelerated image lost its contents while the last frame
+     * was painted, in which case the frame must be painted again.
+     *
+     * @return boolean noting if any image was lost
+     */
+    boolean contentsLost() {
+        if (!volatileImages) {
+            return false;
+        }
+        for (Image image : images) {
+            if (image != null && ((VolatileImage) image).contentsLost()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the image of a kind of cell. validate must have been called for
+     * the frame being painted.
+     *
+     * @param kind kind of cell
+     * @return image of SIZE x SIZE units, scaled to the device
+     */
+    Image get(int kind) {
+        return images[kind];
+    }
+
+    /**
+     * Gets the kind of a cell while the game is running.
+     *
+     * @param c the cell
+     * @return COVERED, FLAGGED or NUMBER plus its number
+     */
+    static int kindOf(Cell c) {
+        if (c.getIsClicked()) {
+            return NUMBER + Math.max(0, Math.min(8, c.getMineNumber()));
+        }
+        return c.getIsFlagged() ? FLAGGED : COVERED;
+    }
+
+    /**
+     * Gets the kind of a cell once the game is over, when every cell shows
+     * what it holds.
+     *
+     * @param c      the cell
+     * @param status 1 if the game was won, 2 if it was lost
+     * @return MINE, or LOST_NUMBER or WON_NUMBER plus its number
+     */
+    static int finalKindOf(Cell c, int status) {
+        if (c.getIsMine()) {
+            return MINE;
+        }
+        return (status == 1 ? WON_NUMBER : LOST_NUMBER) + Math.max(0, Math.min(8,
+                c.getMineNumber()));
+    }
+
+    private void flush() {
+        for (int kind = 0; kind < KINDS; kind++) {
+            if (images[kind] != null) {
+                images[kind].flush();
+                images[kind] = null;
+            }
+        }
+    }
+
+    /**
+     * Draws a kind of cell into its image, in units scaled to the image.
+     */
+    private void draw(Image image, int kind) {
+        Graphics2D g = (Graphics2D) image.getGraphics();
+        g.setColor(background);
+        g.fillRect(0, 0, image.getWidth(null), image.getHeight(null));
+        g.scale(scale, scale);
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
+                RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL,
+                RenderingHints.VALUE_STROKE_PURE);
+        g.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS,
+                RenderingHints.VALUE_FRACTIONALMETRICS_ON);
+        if (kind == COVERED) {
+            g.setColor(Color.BLUE);
+            g.fillRect(4, 4, 42, 42);
+        } else if (kind == FLAGGED) {
+            g.setColor(Color.LIGHT_GRAY);
+            g.fillRect(4, 4, 42, 42);
+            GameBoard.drawFlag(g, 0, 0);
+        } else if (kind == MINE) {
+            g.setColor(Color.RED);
+            g.fillOval(20, 20, 15, 15);
+        } else {
+            int number;
+            if (kind >= WON_NUMBER) {
+                number = kind - WON_NUMBER;
+                g.setColor(new Color(51, 153, 255));
+            } else if (kind >= LOST_NUMBER) {
+                number = kind - LOST_NUMBER;
+                g.setColor(Color.RED);
+            } else {
+                number = kind - NUMBER;
+                g.setColor(Color.LIGHT_GRAY);
+                g.fillRect(4, 4, 42, 42);
+                g.setColor(GameBoard.numberColor(number));
+            }
+            g.setFont(FONT);
+            FontMetrics metrics = g.getFontMetrics();
+            String text = Integer.toString(number);
+            g.drawString(text, (50 - metrics.stringWidth(text)) / 2f,
+                    (50 - metrics.getHeight()) / 2f + metrics.getAscent());
+        }
+        // the border stays one crisp line at every scale
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
+        g.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL,
+                RenderingHints.VALUE_STROKE_NORMALIZE);
+        g.setColor(Color.BLACK);
+        g.drawRect(0, 0, 50, 50);
+        g.dispose();
+    }
+}
@@ -0,0 +1,454 @@
+package org.MineSweeperGUI.MineSweeper;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.SplittableRandom;
+
+/**
+ * This class is the model for the endless game mode, where the board has no
+ * bounds. The board is split into chunks of CHUNK_SIZE x CHUNK_SIZE cells kept
+ * in a map keyed by chunk coordinate. A chunk only exists once a cell in it is
+ * touched: its mines are generated from the seed and the chunk coordinate, so
+ * the same seed always produces the same board no matter which order chunks
+ * are visited in. Adjacent mine counts along a chunk's border are worked out
+ * by generating the mines of the neighbouring chunks, without creating them.
+ * <p>
+ * Only a limited number of chunks are kept in memory. Once a call has touched
+ * the chunks it needs, the least recently used chunks beyond that limit are
+ * dropped. A chunk the player has not changed can simply be generated again
+ * later, while a changed chunk is first written to the chunk directory and
+ * read back when it is next touched. A chunk that cannot be written stays in
+ * memory and the error is thrown to the caller, so no change is lost. Without
+ * a chunk directory changed chunks can only be kept in memory, so once the
+ * limit is full of them no more moves are accepted.
+ * <p>
+ * Cells are packed into a byte using the same bits as Protocol. There is no
+ * way to win an endless game; the score is the number of cells opened before
+ * a mine is hit.
+ */
+public class ChunkedBoard {
+
+    public static final int CHUNK_SIZE = 64;
+
+    // below this density a single empty region could go on forever
+    public static final double MIN_DENSITY = 0.12;
+
+    private final long seed;
+    private final double density;
+    private final int maxResident;
+    private final File directory;
+    private final LinkedHashMap<Long, Chunk> chunks; // least recently used first
+    private int dirtyChunks; // resident chunks the player changed
+    private int moveCounter;
+    private int gameOver;
+    private long opened;
+
+    /**
+     * Holds the cells of a single chunk.
+     */
+    private static final class Chunk {
+        final int cx;
+        final int cy;
+        final byte[] cells;
+        boolean dirty;
+
+        Chunk(int cx, int cy, byte[] cells) {
+            this.cx = cx;
+            this.cy = cy;
+            this.cells = cells;
+        }
+    }
+
+    /**
+     * Constructor sets up an endless board.
+     *
+     * @param seed        seed the mines are generated from
+     * @param density     chance of any cell being a mine
+     * @param maxResident number of chunks kept in memory
+     * @param directory   directory changed chunks are evicted to, or null to
+     *                    keep changed chunks in memory, up to maxResident of them
+     */
+    public ChunkedBoard(long seed, double density, int maxResident, File directory) {
+        if (density < MIN_DENSITY || density >= 1) {
+            throw new IllegalArgumentException("Density must be between " + MIN_DENSITY + " and 1");
+        }
+        if (maxResident < 9) {
+            throw new IllegalArgumentException("At least 9 chunks must fit in memory");
+        }
+        this.seed = seed;
+        this.density = density;
+        this.maxResident = maxResident;
+        this.directory = directory;
+        if (directory != null) {
+            directory.mkdirs();
+        }
+        chunks = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Gets the seed of the board
+     *
+     * @return seed the mines are generated from
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Gets the move counter
+     *
+     * @return moveCounter noting the number of moves made
+     */
+    public int getMoveCounter() {
+        return moveCounter;
+    }
+
+    /**
+     * Gets the status of the game
+     * 0 --> game is not done, 2 --> game over and user hit a mine
+     *
+     * @return gameOver noting the status of the game
+     */
+    public int getStatus() {
+        return gameOver;
+    }
+
+    /**
+     * Gets the number of cells opened so far, which is the score
+     *
+     * @return opened noting how many cells were opened
+     */
+    public long getOpenedCells() {
+        return opened;
+    }
+
+    /**
+     * Gets the number of chunks currently held in memory
+     *
+     * @return number of resident chunks
+     */
+    public int getResidentChunks() {
+        return chunks.size();
+    }
+
+    /**
+     * Gets the packed state of a cell, see Protocol for the bits. This creates
+     * the chunk holding the cell if it does not exist yet.
+     *
+     * @param x x value of the cell
+     * @param y y value of the cell
+     * @return byte holding the state of the cell
+     * @throws IOException if an evicted chunk could not be read back, or a
+     *                     changed chunk could not be evicted
+     */
+    public byte getState(int x, int y) throws IOException {
+        byte state = chunk(x, y).cells[localIndex(x, y)];
+        evict();
+        return state;
+    }
+
+    /**
+     * Contains the play logic, matching MineSweeper.play: a flag can only be
+     * placed on a covered cell, a flagged cell cannot be clicked, clicking a
+     * mine ends the game and clicking a 0-value cell opens the region around it.
+     *
+     * @param x       x value of the cell
+     * @param y       y value of the cell
+     * @param isRight true to toggle a flag, false to click
+     * @throws IOException if a chunk could not be read or evicted, or if there
+     *                     is no chunk directory and memory is full of changed
+     *                     chunks, in which case no move is made
+     */
+    public void play(int x, int y, boolean isRight) throws IOException {
+        if (gameOver != 0) {
+            return;
+        }
+        if (directory == null && dirtyChunks >= maxResident) {
+            throw new IOException("No room for more changed chunks without a chunk directory");
+        }
+        try {
+            move(x, y, isRight);
+        } finally {
+            evict();
+        }
+    }
+
+    /**
+     * Makes a move. The chunks it touches stay in memory until it is done.
+     */
+    private void move(int x, int y, boolean isRight) throws IOException {
+        Chunk c = chunk(x, y);
+        int local = localIndex(x, y);
+        byte state = c.cells[local];
+        if ((state & Protocol.CLICKED) != 0) {
+            return;
+        }
+        if (isRight) {
+            c.cells[local] = (byte) (state ^ Protocol.FLAGGED);
+            markDirty(c);
+            moveCounter++;
+            return;
+        }
+        if ((state & Protocol.FLAGGED) != 0) {
+            return;
+        }
+        moveCounter++;
+        if ((state & Protocol.MINE) != 0) {
+            gameOver = 2;
+            return;
+        }
+        open(x, y);
+    }
+
+    /**
+     * Opens a cell and, if it is a 0-value cell, the region around it. Pending
+     * cells are kept as packed (x, y) pairs on an explicit stack.
+     *
+     * @param x x value of the first cell
+     * @param y y value of the first cell
+     */
+    private void open(int x, int y) throws IOException {
+        long[] stack = new long[64];
+        int size = 0;
+        stack[size++] = pack(x, y);
+        while (size > 0) {
+            long p = stack[--size];
+            int cx = (int) (p >> 32);
+            int cy = (int) p;
+            Chunk c = chunk(cx, cy);
+            int local = localIndex(cx, cy);
+            byte state = c.cells[local];
+            if ((state & Protocol.CLICKED) != 0) {
+                continue;
+            }
+            c.cells[local] = (byte) (state | Protocol.CLICKED);
+            markDirty(c);
+            opened++;
+            if ((state & Protocol.NUMBER_MASK) != 0) {
+                continue;
+            }
+            for (int i = cx - 1; i <= cx + 1; i++) {
+                for (int j = cy - 1; j <= cy + 1; j++) {
+                    if (size == stack.length) {
+                        stack = Arrays.copyOf(stack, size * 2);
+                    }
+                    stack[size++] = pack(i, j);
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the chunk holding a cell, loading or generating it if needed.
+     *
+     * @param x x value of the cell
+     * @param y y value of the cell
+     * @return the chunk holding the cell
+     */
+    private Chunk chunk(int x, int y) throws IOException {
+        int cx = Math.floorDiv(x, CHUNK_SIZE);
+        int cy = Math.floorDiv(y, CHUNK_SIZE);
+        long key = pack(cx, cy);
+        Chunk c = chunks.get(key);
+        if (c == null) {
+            c = load(cx, cy);
+            if (c == null) {
+                c = new Chunk(cx, cy, generate(cx, cy));
+            }
+            chunks.put(key, c);
+            if (c.dirty) {
+                dirtyChunks++;
+            }
+        }
+        return c;
+    }
+
+    /**
+     * Notes that the player changed a chunk.
+     */
+    private void markDirty(Chunk c) {
+        if (!c.dirty) {
+            c.dirty = true;
+            dirtyChunks++;
+        }
+    }
+
+    /**
+     * Drops the least recently used chunks until no more than maxResident
+     * are left, writing changed chunks to the chunk directory first. This is
+     * only called between moves, never while the map is being changed. Changed
+     * chunks are kept if there is no chunk directory.
+     *
+     * @throws IOException if a changed chunk could not be written; it is then
+     *                     still in memory
+     */
+    private void evict() throws IOException {
+        int excess = chunks.size() - maxResident;
+        if (excess <= 0) {
+            return;
+        }
+        Iterator<Chunk> eldest = chunks.values().iterator();
+        while (excess > 0 && eldest.hasNext()) {
+            Chunk c = eldest.next();
+            if (c.dirty) {
+                if (directory == null) {
+                    continue;
+                }
+                save(c);
+                dirtyChunks--;
+            }
+            eldest.remove();
+            excess--;
+        }
+    }
+
+    /**
+     * Generates the cells of a chunk: its mines, and the number of mines
+     * adjacent to every other cell, including mines in neighbouring chunks.
+     *
+     * @param cx x coordinate of the chunk
+     * @param cy y coordinate of the chunk
+     * @return packed cells of the chunk, indexed by localIndex
+     */
+    private byte[] generate(int cx, int cy) {
+        // mines of the 3 x 3 block of chunks around this one
+        int span = CHUNK_SIZE * 3;
+        boolean[] mines = new boolean[span * span];
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dy = -1; dy <= 1; dy++) {
+                boolean[] m = mines(cx + dx, cy + dy);
+                for (int i = 0; i < CHUNK_SIZE; i++) {
+                    System.arraycopy(
+                            m, i * CHUNK_SIZE, mines,
+                            ((dx + 1) * CHUNK_SIZE + i) * span + (dy + 1) * CHUNK_SIZE, CHUNK_SIZE
+                    );
+                }
+            }
+        }
+        byte[] cells = new byte[CHUNK_SIZE * CHUNK_SIZE];
+        for (int i = 0; i < CHUNK_SIZE; i++) {
+            for (int j = 0; j < CHUNK_SIZE; j++) {
+                int bx = i + CHUNK_SIZE;
+                int by = j + CHUNK_SIZE;
+                if (mines[bx * span + by]) {
+                    cells[i * CHUNK_SIZE + j] = (byte) (Protocol.MINE | Protocol.NUMBER_MASK);
+                    continue;
+                }
+                int count = 0;
+                for (int z = bx - 1; z <= bx + 1; z++) {
+                    for (int w = by - 1; w <= by + 1; w++) {
+                        if (mines[z * span + w]) {
+                            count++;
+                        }
+                    }
+                }
+                cells[i * CHUNK_SIZE + j] = (byte) count;
+            }
+        }
+        return cells;
+    }
+
+    /**
+     * Generates where the mines of a chunk are. The random generator is seeded
+     * from the board seed and the chunk coordinate only.
+     *
+     * @param cx x coordinate of the chunk
+     * @param cy y coordinate of the chunk
+     * @return mine flags indexed by localIndex
+     */
+    private boolean[] mines(int cx, int cy) {
+        SplittableRandom random = new SplittableRandom(
+                seed ^ (cx * 0x9E3779B97F4A7C15L) ^ (cy * 0xC2B2AE3D27D4EB4FL)
+        );
+        boolean[] mines = new boolean[CHUNK_SIZE * CHUNK_SIZE];
+        for (int i = 0; i < mines.length; i++) {
+            mines[i] = random.nextDouble() < density;
+        }
+        return mines;
+    }
+
+    /**
+     * Gets the file a chunk is evicted to.
+     *
+     * @param cx x coordinate of the chunk
+     * @param cy y coordinate of the chunk
+     * @return file in the chunk directory
+     */
+    private File chunkFile(int cx, int cy) {
+        return new File(directory, "chunk_" + seed + "_" + cx + "_" + cy + ".bin");
+    }
+
+    /**
+     * Writes a changed chunk to the chunk directory.
+     *
+     * @param c the chunk to write
+     * @throws IOException if the chunk could not be written
+     */
+    private void save(Chunk c) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(
+                new FileOutputStream(chunkFile(c.cx, c.cy)))) {
+            out.write(c.cells);
+        }
+    }
+
+    /**
+     * Reads a chunk that was evicted earlier.
+     *
+     * @param cx x coordinate of the chunk
+     * @param cy y coordinate of the chunk
+     * @return the chunk, or null if it was never evicted
+     * @throws IOException if the chunk could not be read
+     */
+    private Chunk load(int cx, int cy) throws IOException {
+        if (directory == null) {
+            return null;
+        }
+        File f = chunkFile(cx, cy);
+        if (!f.exists()) {
+            return null;
+        }
+        byte[] cells = new byte[CHUNK_SIZE * CHUNK_SIZE];
+        try (DataInputStream in = new DataInputStream(new FileInputStream(f))) {
+            in.readFully(cells);
+        }
+        Chunk c = new Chunk(cx, cy, cells);
+        c.dirty = true;
+        return c;
+    }
+
+    /**
+     * Removes every chunk this board evicted to the chunk directory.
+     */
+    public void deleteEvicted() {
+        if (directory == null) {
+            return;
+        }
+        File[] files = directory.listFiles((dir, name) -> name.startsWith("chunk_" + seed + "_"));
+        if (files != null) {
+            for (File f : files) {
+                f.delete();
+            }
+        }
+    }
+
+    /**
+     * Gets the index of a cell inside its chunk.
+     */
+    private static int localIndex(int x, int y) {
+        return Math.floorMod(x, CHUNK_SIZE) * CHUNK_SIZE + Math.floorMod(y, CHUNK_SIZE);
+    }
+
+    /**
+     * Packs a pair of ints into a long.
+     */
+    private static long pack(int a, int b) {
+        return ((long) a << 32) | (b & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,60 @@
+package org.MineSweeperGUI.MineSweeper;
+
+import java.util.Random;
+
+/**
+ * This class is the classic game: a 10x10 board with 12 to 15 mines, no
+ * time limit, any number of flags, and won games ranked by their time. The
+ * first click never hits a mine, and the mines are only placed once it is
+ * made. It is built into GameModes rather than loaded as a plugin, so the
+ * game starts without looking for plugins.
+ */
+public class ClassicMode implements GameMode {
+
+    /**
+     * Gets the name of the mode
+     *
+     * @return "Classic"
+     */
+    @Override
+    public String getName() {
+        return "Classic";
+    }
+
+    /**
+     * Gets a line telling the player what the mode is about
+     *
+     * @return description of the mode
+     */
+    @Override
+    public String getDescription() {
+        return "Open every cell without a mine.";
+    }
+
+    /**
+     * Creates the model of a new 10x10 game with a random seed.
+     *
+     * @param topology neighbourhood of the cells
+     * @return model whose first click is safe and whose mines are placed lazily
+     */
+    @Override
+    public MineSweeper newModel(Topology topology) {
+        MineSweeper model = new MineSweeper(10, 10, new Random().nextLong(), topology);
+        // the first click never hits a mine, and the mines are only placed
+        // once that click is made
+        model.setSafeStart(MineSweeper.SAFE_START_CELL);
+        model.setLazyMines(true);
+        return model;
+    }
+
+    /**
+     * Creates the board of a new game with 12 to 15 mines.
+     *
+     * @param m model of the game
+     * @return the gameBoard
+     */
+    @Override
+    public Cell[][] newBoard(MineSweeper m) {
+        return m.gameBoard(12, 15, false);
+    }
+}
@@ -0,0 +1,491 @@
+package org.MineSweeperGUI.MineSweeper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * This class measures how hard a board is, to calibrate the board generator.
+ * For each board it finds:
+ * <ul>
+ * <li>the 3BV, the least number of clicks that opens every safe cell: one per
+ * opening, plus one per numbered cell that no opening reveals,</li>
+ * <li>the number of openings, the connected regions of cells with no mines
+ * around them, found with a union-find over those cells,</li>
+ * <li>the number of forced guesses, the times a solver using the same single
+ * cell reasoning as SinglePointStrategy gets stuck and has to open a cell it
+ * cannot prove is safe. The first click is not counted.</li>
+ * </ul>
+ * Every metric takes time linear in the number of cells. The solver keeps a
+ * worklist of opened cells whose neighbourhood changed, so each cell is only
+ * looked at again when one of its neighbours was opened or flagged, and when
+ * stuck it opens the next safe cell, an opening if there is one left, with
+ * cursors that only ever move forwards.
+ * <p>
+ * An analyser keeps its work arrays between boards, so analysing a board
+ * allocates nothing but the result. Analysers are not thread safe; bulk runs
+ * use one per thread.
+ */
+public class DifficultyAnalyser {
+
+    // metrics counted by a Histogram
+    public static final int THREE_BV = 0;
+    public static final int OPENINGS = 1;
+    public static final int FORCED_GUESSES = 2;
+    private static final String[] METRIC_NAMES = { "3BV", "openings", "forced guesses" };
+
+    // states of a cell for the solver
+    private static final byte COVERED = 0;
+    private static final byte OPENED = 1;
+    private static final byte FLAGGED = 2;
+    private static final byte QUEUED = 4; // on the worklist, next to the state
+
+    private final int yDimension;
+    private final NeighbourTable neighbours;
+    private final boolean[] mines; // by flat index
+    private final byte[] numbers; // mines around each safe cell
+    private final int[] parent; // union-find over the cells with no mines around them
+    private final byte[] state;
+    private final int[] worklist;
+    private int pending; // cells on the worklist
+    private int opened; // safe cells opened by the solver
+
+    /**
+     * The metrics of one board.
+     */
+    public static final class Metrics {
+        private final int threeBV;
+        private final int openings;
+        private final int forcedGuesses;
+
+        Metrics(int threeBV, int openings, int forcedGuesses) {
+            this.threeBV = threeBV;
+            this.openings = openings;
+            this.forcedGuesses = forcedGuesses;
+        }
+
+        /**
+         * Gets the least number of clicks that opens every safe cell
+         *
+         * @return 3BV of the board
+         */
+        public int getThreeBV() {
+            return threeBV;
+        }
+
+        /**
+         * Gets the number of regions of cells with no mines around them
+         *
+         * @return openings of the board
+         */
+        public int getOpenings() {
+            return openings;
+        }
+
+        /**
+         * Gets the number of times a single cell solver has to guess after
+         * the first click
+         *
+         * @return forced guesses of the board
+         */
+        public int getForcedGuesses() {
+            return forcedGuesses;
+        }
+
+        /**
+         * Gets a metric by its constant
+         *
+         * @param metric THREE_BV, OPENINGS or FORCED_GUESSES
+         * @return value of the metric
+         */
+        public int get(int metric) {
+            return metric == THREE_BV ? threeBV : metric == OPENINGS ? openings : forcedGuesses;
+        }
+
+        @Override
+        public String toString() {
+            return "3BV " + threeBV + ", openings " + openings + ", forced guesses "
+                    + forcedGuesses;
+        }
+    }
+
+    /**
+     * The distribution of the metrics over many boards.
+     */
+    public static final class Histogram {
+        private final long[][] counts; // boards with each value, by metric
+        private long boards;
+
+        Histogram(int cells) {
+            counts = new long[METRIC_NAMES.length][cells + 1];
+        }
+
+        void add(Metrics metrics) {
+            for (int metric = 0; metric < counts.length; metric++) {
+                counts[metric][metrics.get(metric)]++;
+            }
+            boards++;
+        }
+
+        void add(Histogram other) {
+            for (int metric = 0; metric < counts.length; metric++) {
+                for (int v = 0; v < counts[metric].length; v++) {
+                    counts[metric][v] += other.counts[metric][v];
+                }
+            }
+            boards += other.boards;
+        }
+
+        /**
+         * Gets the number of boards analysed
+         *
+         * @return boards in the histogram
+         */
+        public long getBoards() {
+            return boards;
+        }
+
+        /**
+         * Gets the number of boards with a value of a metric
+         *
+         * @param metric THREE_BV, OPENINGS or FORCED_GUESSES
+         * @param value  value of the metric
+         * @return boards with that value
+         */
+        public long getCount(int metric, int value) {
+            return value < 0 || value >= counts[metric].length ? 0 : counts[metric][value];
+        }
+
+        /**
+         * Gets the average of a metric over all boards
+         *
+         * @param metric THREE_BV, OPENINGS or FORCED_GUESSES
+         * @return mean value of the metric, 0 if there are no boards
+         */
+        public double getMean(int metric) {
+            long sum = 0;
+            for (int v = 0; v < counts[metric].length; v++) {
+                sum += v * counts[metric][v];
+            }
+            return boards == 0 ? 0 : (double) sum / boards;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            for (int metric = 0; metric < counts.length; metric++) {
+                sb.append(String.format("%s (mean %.2f)%n", METRIC_NAMES[metric],
+                        getMean(metric)));
+                for (int v = 0; v < counts[metric].length; v++) {
+                    if (counts[metric][v] > 0) {
+                        sb.append(String.format("%6d %10d  %6.2f%%%n", v, counts[metric][v],
+                                100.0 * counts[metric][v] / boards));
+                    }
+                }
+            }
+            return sb.toString();
+        }
+    }
+
+    /**
+     * Constructor sets up an analyser for boards of the given shape.
+     *
+     * @param topology   neighbourhood of the cells
+     * @param xDimension number of columns of each board
+     * @param yDimension number of rows of each board
+     */
+    public DifficultyAnalyser(Topology topology, int xDimension, int yDimension) {
+        this.yDimension = yDimension;
+        neighbours = NeighbourTable.of(topology, xDimension, yDimension);
+        int cells = xDimension * yDimension;
+        mines = new boolean[cells];
+        numbers = new byte[cells];
+        parent = new int[cells];
+        state = new byte[cells];
+        worklist = new int[cells];
+    }
+
+    /**
+     * Measures a board. The cells of the board are only read.
+     *
+     * @param game gameBoard of the shape the analyser was set up for
+     * @return the metrics of the board
+     */
+    public Metrics analyse(Cell[][] game) {
+        int cells = mines.length;
+        int safe = 0;
+        for (int i = 0; i < cells; i++) {
+            mines[i] = game[i / yDimension][i % yDimension].getIsMine();
+            safe += mines[i] ? 0 : 1;
+        }
+        for (int i = 0; i < cells; i++) {
+            if (mines[i]) {
+                continue;
+            }
+            int[] deltas = neighbours.deltas(neighbours.classOf(i));
+            int count = 0;
+            for (int d : deltas) {
+                if (mines[i + d]) {
+                    count++;
+                }
+            }
+            numbers[i] = (byte) count;
+        }
+        int openings = 0;
+        int threeBV = 0;
+        if (safe > 0) {
+            openings = countOpenings();
+            threeBV = openings + countIsolated();
+        }
+        return new Metrics(threeBV, openings, safe > 0 ? solve(safe) : 0);
+    }
+
+    /**
+     * Joins every cell with no mines around it to its neighbours of the same
+     * kind, and counts the regions that result.
+     */
+    private int countOpenings() {
+        int cells = mines.length;
+        for (int i = 0; i < cells; i++) {
+            parent[i] = i;
+        }
+        int openings = 0;
+        for (int i = 0; i < cells; i++) {
+            if (mines[i] || numbers[i] != 0) {
+                continue;
+            }
+            openings++;
+            for (int d : neighbours.deltas(neighbours.classOf(i))) {
+                int j = i + d;
+                if (!mines[j] && numbers[j] == 0) {
+                    int a = find(i);
+                    int b = find(j);
+                    if (a != b) {
+                        // every join removes one region
+                        parent[Math.max(a, b)] = Math.min(a, b);
+                        openings--;
+                    }
+                }
+            }
+        }
+        return openings;
+    }
+
+    /**
+     * Finds the root of a cell's region, halving the path on the way.
+     */
+    private int find(int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    /**
+     * Counts the numbered cells that are not next to an opening, which each
+     * take a click of their own.
+     */
+    private int countIsolated() {
+        int isolated = 0;
+        for (int i = 0; i < mines.length; i++) {
+            if (mines[i] || numbers[i] == 0) {
+                continue;
+            }
+            boolean revealed = false;
+            for (int d : neighbours.deltas(neighbours.classOf(i))) {
+                int j = i + d;
+                if (!mines[j] && numbers[j] == 0) {
+                    revealed = true;
+                    break;
+                }
+            }
+            if (!revealed) {
+                isolated++;
+            }
+        }
+        return isolated;
+    }
+
+    /**
+     * Plays the board with single cell reasoning, opening a safe cell
+     * whenever the reasoning is stuck.
+     *
+     * @param safe number of safe cells on the board
+     * @return guesses made after the first click
+     */
+    private int solve(int safe) {
+        Arrays.fill(state, COVERED);
+        pending = 0;
+        opened = 0;
+        int zeroCursor = 0;
+        int safeCursor = 0;
+        int guesses = -1;
+        while (opened < safe) {
+            // an opening is the best guess, since it reveals the most
+            while (zeroCursor < mines.length && (mines[zeroCursor] || numbers[zeroCursor] != 0
+                    || state[zeroCursor] != COVERED)) {
+                zeroCursor++;
+            }
+            int guess = zeroCursor;
+            if (guess == mines.length) {
+                while (mines[safeCursor] || state[safeCursor] != COVERED) {
+                    safeCursor++;
+                }
+                guess = safeCursor;
+            }
+            guesses++;
+            open(guess);
+            while (pending > 0) {
+                int i = worklist[--pending];
+                state[i] &= ~QUEUED;
+                deduce(i);
+            }
+        }
+        return guesses;
+    }
+
+    /**
+     * Opens a cell and puts it and its opened neighbours on the worklist,
+     * since what can be deduced from them has changed.
+     */
+    private void open(int i) {
+        state[i] = OPENED;
+        opened++;
+        enqueue(i);
+        for (int d : neighbours.deltas(neighbours.classOf(i))) {
+            if ((state[i + d] & OPENED) != 0) {
+                enqueue(i + d);
+            }
+        }
+    }
+
+    /**
+     * Flags a cell and puts its opened neighbours on the worklist.
+     */
+    private void flag(int i) {
+        state[i] = FLAGGED;
+        for (int d : neighbours.deltas(neighbours.classOf(i))) {
+            if ((state[i + d] & OPENED) != 0) {
+                enqueue(i + d);
+            }
+        }
+    }
+
+    private void enqueue(int i) {
+        if ((state[i] & QUEUED) == 0) {
+            state[i] |= QUEUED;
+            worklist[pending++] = i;
+        }
+    }
+
+    /**
+     * Opens the covered neighbours of an opened cell if its flags account for
+     * its number, or flags them if they are exactly its missing mines.
+     */
+    private void deduce(int i) {
+        int[] deltas = neighbours.deltas(neighbours.classOf(i));
+        int flags = 0;
+        int covered = 0;
+        for (int d : deltas) {
+            byte s = (byte) (state[i + d] & ~QUEUED);
+            if (s == FLAGGED) {
+                flags++;
+            } else if (s == COVERED) {
+                covered++;
+            }
+        }
+        if (covered == 0) {
+            return;
+        }
+        if (flags == numbers[i]) {
+            for (int d : deltas) {
+                if (state[i + d] == COVERED) {
+                    open(i + d);
+                }
+            }
+        } else if (flags + covered == numbers[i]) {
+            for (int d : deltas) {
+                if (state[i + d] == COVERED) {
+                    flag(i + d);
+                }
+            }
+        }
+    }
+
+    /**
+     * Measures the boards of consecutive seeds, as the game would deal them,
+     * spread over a thread pool. Each thread fills its own histogram with its
+     * own analyser, and the histograms are added up at the end.
+     *
+     * @param topology   neighbourhood of the cells
+     * @param xDimension number of columns of each board
+     * @param yDimension number of rows of each board
+     * @param minMines   lower bound for the number of mines of a board
+     * @param maxMines   upper bound for the number of mines of a board, exclusive
+     * @param firstSeed  seed of the first board; the others follow it
+     * @param boards     number of boards
+     * @param threads    number of threads
+     * @return histogram of the metrics of every board
+     * @throws InterruptedException if interrupted while waiting for the threads
+     */
+    public static Histogram histogram(Topology topology, int xDimension, int yDimension,
+                                      int minMines, int maxMines, long firstSeed, long boards,
+                                      int threads) throws InterruptedException {
+        int cells = xDimension * yDimension;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Histogram>> parts = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                long from = boards * t / threads;
+                long to = boards * (t + 1) / threads;
+                parts.add(pool.submit(() -> {
+                    DifficultyAnalyser analyser =
+                            new DifficultyAnalyser(topology, xDimension, yDimension);
+                    Histogram part = new Histogram(cells);
+                    for (long b = from; b < to; b++) {
+                        MineSweeper m = new MineSweeper(xDimension, yDimension, firstSeed + b,
+                                topology);
+                        m.setSaveFile(null);
+                        part.add(analyser.analyse(m.gameBoard(minMines, maxMines, false)));
+                    }
+                    return part;
+                }));
+            }
+            Histogram histogram = new Histogram(cells);
+            for (Future<Histogram> part : parts) {
+                try {
+                    histogram.add(part.get());
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException(e.getCause());
+                }
+            }
+            return histogram;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Measures boards like those of the game itself, 10x10 with 12 to 15
+     * mines, and prints the histograms.
+     *
+     * @param args number of boards and number of threads, both optional
+     * @throws InterruptedException if interrupted while waiting for the threads
+     */
+    public static void main(String[] args) throws InterruptedException {
+        long boards = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1])
+                : Runtime.getRuntime().availableProcessors();
+        long start = System.nanoTime();
+        Histogram histogram = histogram(Topology.SQUARE, 10, 10, 12, 15, 0, boards, threads);
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("%d boards on %d threads in %d ms%n", boards, threads,
+                elapsed / 1_000_000);
+        System.out.print(histogram);
+    }
+}
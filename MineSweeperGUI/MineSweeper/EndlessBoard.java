@@ -0,0 +1,188 @@
+package org.MineSweeperGUI.MineSweeper;
+
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * This class is the view and controller for the endless game mode. It shows a
+ * window onto a ChunkedBoard which can be moved around by dragging the mouse.
+ * Only the cells inside the window are painted, so only the chunks around the
+ * window are ever generated.
+ * <p>
+ * Clicking without dragging plays a move, exactly like on the GameBoard: the
+ * left button opens a cell and any other button toggles a flag.
+ */
+@SuppressWarnings("serial")
+public class EndlessBoard extends JPanel {
+
+    // Game constants
+    public static final int BOARD_WIDTH = 500;
+    public static final int BOARD_HEIGHT = 500;
+    public static final double DENSITY = 0.16;
+    public static final int MAX_RESIDENT_CHUNKS = 256;
+
+    private ChunkedBoard board; // model for the endless game
+    private final JLabel status; // current status text
+    private final File chunkDirectory; // where changed chunks are evicted to
+
+    // pixel position of the top left corner of the window on the board
+    private long originX;
+    private long originY;
+
+    // state of the current mouse drag
+    private Point pressed;
+    private boolean dragged;
+
+    /**
+     * Initializes the endless board.
+     *
+     * @param statusInit     label showing the status of the game
+     * @param chunkDirectory directory changed chunks are evicted to
+     */
+    public EndlessBoard(JLabel statusInit, File chunkDirectory) {
+        setBorder(BorderFactory.createLineBorder(Color.BLACK));
+        setFocusable(true);
+        status = statusInit;
+        this.chunkDirectory = chunkDirectory;
+
+        MouseAdapter mouse = new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent e) {
+                pressed = e.getPoint();
+                dragged = false;
+            }
+
+            @Override
+            public void mouseDragged(MouseEvent e) {
+                if (pressed == null) {
+                    return;
+                }
+                Point p = e.getPoint();
+                if (dragged || Math.abs(p.x - pressed.x) + Math.abs(p.y - pressed.y) > 4) {
+                    dragged = true;
+                    originX -= p.x - pressed.x;
+                    originY -= p.y - pressed.y;
+                    pressed = p;
+                    repaint();
+                }
+            }
+
+            @Override
+            public void mouseReleased(MouseEvent e) {
+                if (!dragged && board != null) {
+                    Point p = e.getPoint();
+                    int x = (int) Math.floorDiv(originX + p.x, 50);
+                    int y = (int) Math.floorDiv(originY + p.y, 50);
+                    try {
+                        board.play(x, y, e.getButton() != MouseEvent.BUTTON1);
+                        updateStatus();
+                    } catch (IOException ex) {
+                        status.setText("Could not make the move: " + ex.getMessage());
+                    }
+                    repaint();
+                }
+                pressed = null;
+            }
+        };
+        addMouseListener(mouse);
+        addMouseMotionListener(mouse);
+    }
+
+    /**
+     * (Re-)sets the game on a freshly seeded board centred on the origin.
+     */
+    public void reset() {
+        if (board != null) {
+            board.deleteEvicted();
+        }
+        board = new ChunkedBoard(new Random().nextLong(), DENSITY, MAX_RESIDENT_CHUNKS,
+                chunkDirectory);
+        originX = -BOARD_WIDTH / 2;
+        originY = -BOARD_HEIGHT / 2;
+        status.setText("Start Playing! Drag to explore.");
+        repaint();
+        requestFocusInWindow();
+    }
+
+    /**
+     * Updates the JLabel to reflect the current state of the game.
+     */
+    private void updateStatus() {
+        if (board.getStatus() == 0) {
+            status.setText(
+                    "Keep Playing! Opened cells: " + board.getOpenedCells() + ". Moves: "
+                            + board.getMoveCounter() + "."
+            );
+        } else {
+            status.setText(
+                    "You hit a mine. Opened cells: " + board.getOpenedCells() + ". Moves: "
+                            + board.getMoveCounter() + ". Play again?"
+            );
+        }
+    }
+
+    /**
+     * Draws the cells inside the window. Once a mine has been hit, the mines
+     * in the window are shown as well.
+     *
+     * @param g Graphics to print to the GUI
+     */
+    @Override
+    public void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        if (board == null) {
+            return;
+        }
+        g.setFont(new Font("TimesRoman", Font.PLAIN, 20));
+        boolean over = board.getStatus() != 0;
+        int firstX = (int) Math.floorDiv(originX, 50);
+        int firstY = (int) Math.floorDiv(originY, 50);
+        int lastX = (int) Math.floorDiv(originX + getWidth(), 50);
+        int lastY = (int) Math.floorDiv(originY + getHeight(), 50);
+        for (int i = firstX; i <= lastX; i++) {
+            for (int j = firstY; j <= lastY; j++) {
+                int px = (int) (i * 50L - originX);
+                int py = (int) (j * 50L - originY);
+                g.setColor(Color.BLACK);
+                g.drawRect(px, py, 50, 50);
+                g.setColor(Color.LIGHT_GRAY);
+                g.fillRect(px + 4, py + 4, 42, 42);
+                byte state;
+                try {
+                    state = board.getState(i, j);
+                } catch (IOException e) {
+                    status.setText("Could not read the board: " + e.getMessage());
+                    return;
+                }
+                if (over && (state & Protocol.MINE) != 0) {
+                    g.setColor(Color.RED);
+                    g.fillOval(px + 20, py + 20, 15, 15);
+                } else if ((state & Protocol.CLICKED) != 0) {
+                    int numMines = state & Protocol.NUMBER_MASK;
+                    g.setColor(GameBoard.numberColor(numMines));
+                    g.drawString("" + numMines, px + 20, py + 30);
+                } else if ((state & Protocol.FLAGGED) != 0) {
+                    GameBoard.drawFlag(g, px, py);
+                } else {
+                    g.setColor(Color.BLUE);
+                    g.fillRect(px + 4, py + 4, 42, 42);
+                }
+            }
+        }
+        g.setColor(Color.BLACK);
+    }
+
+    /**
+     * Returns the size of the window onto the board.
+     */
+    @Override
+    public Dimension getPreferredSize() {
+        return new Dimension(BOARD_WIDTH, BOARD_HEIGHT);
+    }
+}
@@ -3,9 +3,18 @@ package org.MineSweeperGUI.MineSweeper;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.InputEvent;
+import java.awt.event.KeyEvent;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
 import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
 
 /**
  * This class instantiates a MineSweeper object, which is the model for the
@@ -19,6 +28,17 @@ import java.io.File;
  * In a Model-View-Controller framework, GameBoard stores the model as a field
  * and acts as both the controller (with a MouseListener) and the view (with
  * its paintComponent method and the status JLabel).
+ * <p>
+ * The game can also be played from the keyboard: the arrow keys move a cursor,
+ * space reveals, F flags and C chords the cell under it. Key presses are
+ * queued and played as one batch once the events already waiting have been
+ * taken in, so a held key that repeats faster than the board is drawn makes
+ * several moves per batch. The cells a batch changes are collected into one
+ * dirty area that is repainted once at the end of the batch.
+ * <p>
+ * New local games are played in the mode chosen with setMode, which decides
+ * the board, the rules and the score. Only games of the classic mode are
+ * saved to the save slots, and each mode has a leaderboard of its own.
  */
 @SuppressWarnings("serial")
 public class GameBoard extends JPanel {
@@ -29,11 +49,73 @@ public class GameBoard extends JPanel {
     private MineSweeper m; // MineSweeper model for game
     private Cell[][] ms; // GameBoard for game
     private final JLabel status; // current status text
+    private final Supplier<MineSweeper> models; // creates the model for each new game
+    private Topology topology = Topology.SQUARE; // topology of new local games
+    private boolean practice; // noting if new local games are played for practice
+    private final GameHistory history; // finished games
+    private final File scores; // directory of the leaderboards
+    private final Leaderboard leaderboard; // of the classic mode
+    private final Map<String, Leaderboard> modeLeaderboards = new HashMap<>(); // by mode
+    private final GameModes modes = new GameModes(); // plugins are looked up on first use
+    private GameMode mode = GameModes.CLASSIC; // mode of new local games
+    private String table = GameModes.CLASSIC.getLeaderboardName(); // of the current game
+    private final SaveSlots slots;
+    private final String player = System.getProperty("user.name", "player");
+    private boolean scored; // noting if the current game is on the leaderboard
+    private Runnable firstPaint; // run once after the board is first painted
+    private String rankText = ""; // rank of the current game, once won
+    private Replay replay; // recorded game being shown, or null while playing
+    private boolean waiting; // noting if moves are ignored until a question is answered
+    private final GameListener listener = this::onEvent; // follows the model's events
+    private boolean heard; // noting if the model sent events for the last action
+    private final Timer clock = new Timer(250, e -> m.tick()); // asks the model for ticks
+    private int cursorX; // cell under the keyboard cursor
+    private int cursorY;
+    private boolean showCursor; // noting if the keyboard was used on this board
+    private final ArrayDeque<Runnable> keyInput = new ArrayDeque<>(); // queued key presses
+    private boolean batching; // noting if queued key presses are being played
+    private Rectangle dirty; // area a batch changed, repainted at its end
+    private boolean missed; // noting if a move of the batch sent no events
+    private final double zoom = displayZoom(); // screen pixels per unit of the board
+    private final CellSprites sprites = new CellSprites(); // every kind of cell, drawn once
 
     /**
      * Initializes the game board.
      */
     public GameBoard(JLabel statusInit) {
+        this(statusInit, null);
+    }
+
+    /**
+     * Initializes the game board with a custom source of models, for example
+     * models that play on a GameServer. Without one, every new game is a local
+     * 10x10 game using the board's topology.
+     *
+     * @param statusInit label showing the status of the game
+     * @param models     creates the model for every new game, or null
+     */
+    public GameBoard(JLabel statusInit, Supplier<MineSweeper> models) {
+        this(statusInit, models, null);
+    }
+
+    /**
+     * Initializes the game board keeping its history, leaderboards and saves
+     * in a directory of its own, for example one that is thrown away after a
+     * training run or a test.
+     *
+     * @param statusInit label showing the status of the game
+     * @param models     creates the model for every new game, or null
+     * @param directory  directory holding the history, leaderboard and saves
+     *                   directories, or null for the working directory and
+     *                   the saves directory of the player
+     */
+    public GameBoard(JLabel statusInit, Supplier<MineSweeper> models, File directory) {
+        history = new GameHistory(new File(directory, "history"));
+        scores = new File(directory, "leaderboard");
+        leaderboard = new Leaderboard(scores);
+        slots = new SaveSlots(directory == null ? SaveSlots.defaultDirectory()
+                : new File(directory, "saves"));
+
         // creates border around the court area, JComponent method
         setBorder(BorderFactory.createLineBorder(Color.BLACK));
 
@@ -41,7 +123,9 @@ public class GameBoard extends JPanel {
         // keyboard focus, key events are handled by its key listener.
         setFocusable(true);
 
-        m = new MineSweeper(); // initializes model for the game
+        this.models = models;
+        m = newModel(mode); // initializes model for the game
+        m.addListener(listener);
         status = statusInit; // initializes the status JLabel
         /*
          * Listens for mouseclicks. Updates the model, then updates the game
@@ -51,28 +135,354 @@ public class GameBoard extends JPanel {
         addMouseListener(new MouseAdapter() {
             @Override
             public void mouseReleased(MouseEvent e) {
+                if (replay != null || waiting) {
+                    // a replay is only watched, and no move is made while waiting
+                    return;
+                }
                 Point p = e.getPoint();
-                boolean isRight;
-                isRight = e.getButton() != MouseEvent.BUTTON1;
-                // updates the model given the coordinates of the mouseclick
-                m.play(ms, p.x / 50, p.y / 50, isRight);
-                updateStatus(); // updates the status JLabel
-                repaint(); // repaints the game board
+                int y = (int) Math.floor(p.y / zoom / 50);
+                int x = (int) Math.floor((p.x / zoom - cellX(0, y)) / 50);
+                heard = false;
+                if (e.getButton() == MouseEvent.BUTTON2) {
+                    // middle click chords on an opened cell
+                    m.chord(ms, x, y);
+                } else {
+                    boolean isRight;
+                    isRight = e.getButton() != MouseEvent.BUTTON1;
+                    // updates the model given the coordinates of the mouseclick
+                    m.play(ms, x, y, isRight);
+                }
+                if (!heard) {
+                    // models that send no events, like remote games, are
+                    // redrawn in full
+                    recordWin(); // puts a won game on the leaderboard
+                    updateStatus(); // updates the status JLabel
+                    repaint(); // repaints the game board
+                }
+            }
+        });
+
+        bindKey("cursor-left", KeyEvent.VK_LEFT, 0, () -> moveCursor(-1, 0));
+        bindKey("cursor-right", KeyEvent.VK_RIGHT, 0, () -> moveCursor(1, 0));
+        bindKey("cursor-up", KeyEvent.VK_UP, 0, () -> moveCursor(0, -1));
+        bindKey("cursor-down", KeyEvent.VK_DOWN, 0, () -> moveCursor(0, 1));
+        bindKey("reveal", KeyEvent.VK_SPACE, 0, () -> playAtCursor(false));
+        bindKey("flag", KeyEvent.VK_F, 0, () -> playAtCursor(true));
+        bindKey("chord", KeyEvent.VK_C, 0, this::chordAtCursor);
+        bindKey("undo", KeyEvent.VK_Z, InputEvent.CTRL_DOWN_MASK, this::undo);
+        bindKey("redo", KeyEvent.VK_Y, InputEvent.CTRL_DOWN_MASK, this::redo);
+    }
+
+    /**
+     * Binds a key of the focused board to an action, which is queued rather
+     * than run at once.
+     *
+     * @param name      name of the action in the action map
+     * @param keyCode   key code of the key
+     * @param modifiers modifier keys held with it
+     * @param action    what the key does
+     */
+    private void bindKey(String name, int keyCode, int modifiers, Runnable action) {
+        getInputMap(WHEN_FOCUSED).put(KeyStroke.getKeyStroke(keyCode, modifiers), name);
+        getActionMap().put(name, new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                if (replay != null || waiting) {
+                    // a replay is only watched, and no move is made while waiting
+                    return;
+                }
+                queueKey(action);
             }
         });
     }
 
     /**
-     * (Re-)sets the game to its initial state. Tells user to start playing the game
+     * Queues a key press. The first press queued schedules a batch, which runs
+     * after every event already waiting, so the presses that pile up while a
+     * key repeats are all played by that batch.
+     *
+     * @param action what the key does
+     */
+    private void queueKey(Runnable action) {
+        keyInput.add(action);
+        if (keyInput.size() == 1 && !batching) {
+            SwingUtilities.invokeLater(this::playKeys);
+        }
+    }
+
+    /**
+     * Plays every queued key press, then repaints what they changed and
+     * updates the status once.
+     */
+    private void playKeys() {
+        batching = true;
+        dirty = null;
+        missed = false;
+        try {
+            Runnable action;
+            while ((action = keyInput.poll()) != null) {
+                action.run();
+            }
+        } finally {
+            batching = false;
+        }
+        if (missed) {
+            // models that send no events, like remote games, are redrawn in full
+            recordWin();
+            updateStatus();
+            repaint();
+        } else if (dirty != null) {
+            updateStatus();
+            repaintUnits(dirty.x, dirty.y, dirty.width, dirty.height);
+        }
+        dirty = null;
+    }
+
+    /**
+     * Repaints an area given in units of the board, which are screen pixels
+     * multiplied by the zoom.
+     */
+    private void repaintUnits(int x, int y, int width, int height) {
+        int x0 = (int) Math.floor(x * zoom);
+        int y0 = (int) Math.floor(y * zoom);
+        repaint(x0, y0, (int) Math.ceil((x + width) * zoom) - x0,
+                (int) Math.ceil((y + height) * zoom) - y0);
+    }
+
+    /**
+     * Gets how much the board is enlarged on a high DPI screen that Java does
+     * not scale itself. Java scales windows by the scale set for the screen on
+     * Windows, macOS and GTK desktops; where it does not, cells are enlarged
+     * to keep their size on a screen with more than the usual 96 pixels per
+     * inch. The system property minesweeper.zoom overrides it.
+     *
+     * @return screen pixels per unit of the board, in steps of a quarter
+     */
+    private static double displayZoom() {
+        String zoom = System.getProperty("minesweeper.zoom");
+        if (zoom != null) {
+            try {
+                return Math.max(0.25, Double.parseDouble(zoom));
+            } catch (NumberFormatException e) {
+            }
+        }
+        if (GraphicsEnvironment.isHeadless()) {
+            return 1;
+        }
+        GraphicsConfiguration gc = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                .getDefaultScreenDevice().getDefaultConfiguration();
+        if (gc.getDefaultTransform().getScaleX() > 1) {
+            // Java already scales everything drawn on this screen
+            return 1;
+        }
+        int dpi = Toolkit.getDefaultToolkit().getScreenResolution();
+        return Math.max(1, Math.round(dpi / 96.0 * 4) / 4.0);
+    }
+
+    /**
+     * Moves the keyboard cursor by one cell, stopping at the edges.
+     */
+    private void moveCursor(int dx, int dy) {
+        repaintCell(cursorX, cursorY);
+        cursorX = Math.max(0, Math.min(ms.length - 1, cursorX + dx));
+        cursorY = Math.max(0, Math.min(ms[0].length - 1, cursorY + dy));
+        showCursor = true;
+        repaintCell(cursorX, cursorY);
+    }
+
+    /**
+     * Moves the keyboard cursor onto the board after a board of another size
+     * is shown.
+     */
+    private void keepCursorOnBoard() {
+        cursorX = Math.min(cursorX, ms.length - 1);
+        cursorY = Math.min(cursorY, ms[0].length - 1);
+    }
+
+    /**
+     * Reveals or flags the cell under the keyboard cursor.
+     */
+    private void playAtCursor(boolean isRight) {
+        showCursor = true;
+        heard = false;
+        int before = m.getMoveCounter();
+        m.play(ms, cursorX, cursorY, isRight);
+        missed |= !heard && m.getMoveCounter() != before;
+    }
+
+    /**
+     * Chords on the cell under the keyboard cursor.
+     */
+    private void chordAtCursor() {
+        showCursor = true;
+        heard = false;
+        int before = m.getMoveCounter();
+        m.chord(ms, cursorX, cursorY);
+        missed |= !heard && m.getMoveCounter() != before;
+    }
+
+    /**
+     * Repaints a single cell, with its border.
+     *
+     * @param x x value of the cell
+     * @param y y value of the cell
+     */
+    private void repaintCell(int x, int y) {
+        repaintArea(cellX(x, y), y * 50, 51, 51);
+    }
+
+    /**
+     * Repaints an area of the board, or adds it to the area a batch of key
+     * presses repaints at its end.
+     */
+    private void repaintArea(int x, int y, int width, int height) {
+        if (!batching) {
+            repaintUnits(x, y, width, height);
+        } else if (dirty == null) {
+            dirty = new Rectangle(x, y, width, height);
+        } else {
+            dirty.add(new Rectangle(x, y, width, height));
+        }
+    }
+
+    /**
+     * (Re-)sets the game to its initial state. Tells user to start playing the game.
+     * A new game is saved to a slot of its own, so the saves of earlier
+     * unfinished games are kept and can still be loaded.
+     *
+     * @param loadPrevious noting if the game played most recently is loaded
+     *                     instead
      */
     public void reset(boolean loadPrevious) {
-        if (!loadPrevious) {
-            File f = new File("moves.csv");
-            f.delete();
+        SaveSlots.Slot latest = loadPrevious && models == null ? slots.latest() : null;
+        newGame(latest != null ? latest.getName() : null, latest != null);
+    }
+
+    /**
+     * Starts a fresh game. Used at startup to show the board before the saves
+     * have been checked.
+     */
+    public void start() {
+        newGame(null, false);
+    }
+
+    /**
+     * Sets if clicks and keys on the board are ignored, for example while the
+     * player is asked whether to load a saved game. A move made meanwhile
+     * would save the shown game and make it the latest one.
+     *
+     * @param waiting noting if moves are ignored
+     */
+    public void setWaiting(boolean waiting) {
+        this.waiting = waiting;
+    }
+
+    /**
+     * Loads the game saved in a slot.
+     *
+     * @param name name of the slot
+     */
+    public void load(String name) {
+        newGame(name, true);
+    }
+
+    /**
+     * Shows a game that was set up elsewhere, for example a replayed game or
+     * one built by a benchmark. The model is used as it is, so it keeps its
+     * own save file and history settings, and a game that is already won is
+     * not put on the leaderboard.
+     *
+     * @param model model of the game
+     * @param game  gameBoard of the game
+     */
+    public void setGame(MineSweeper model, Cell[][] game) {
+        follow(model);
+        table = model.getMode().getLeaderboardName();
+        ms = game;
+        keepCursorOnBoard();
+        replay = null;
+        scored = model.getStatus() == 1;
+        rankText = "";
+        updateStatus();
+        repaint();
+    }
+
+    /**
+     * Shows a recorded game in replay mode. Clicks, undo and redo are ignored
+     * until another game is started or shown, and the status shows the
+     * position in the replay instead of the running time.
+     *
+     * @param replay the recorded game
+     */
+    public void showReplay(Replay replay) {
+        setGame(replay.getModel(), replay.getGame());
+        this.replay = replay;
+        updateStatus();
+    }
+
+    /**
+     * Shows the replayed game as it was after the given number of moves.
+     * Does nothing when no replay is shown.
+     *
+     * @param position number of moves played
+     */
+    public void seekReplay(int position) {
+        if (replay == null || replay.getPosition() == position) {
+            return;
+        }
+        replay.seek(position);
+        updateStatus();
+        repaint();
+    }
+
+    /**
+     * Gets the recorded game being shown
+     *
+     * @return the replay, or null while a game is being played
+     */
+    public Replay getReplay() {
+        return replay;
+    }
+
+    /**
+     * Creates the model and gameBoard of a new or loaded game and shows it.
+     *
+     * @param slot         slot the game is loaded from, or null for a new slot
+     * @param loadPrevious noting if the game is loaded from its slot, in
+     *                     which case it is played in the classic mode
+     */
+    private void newGame(String slot, boolean loadPrevious) {
+        GameMode play = loadPrevious ? GameModes.CLASSIC : mode;
+        if (loadPrevious && models == null) {
+            // a saved game is loaded on the topology it was played on
+            Topology saved = SaveFile.readTopology(slots.file(slot));
+            if (saved != null) {
+                topology = saved;
+            }
+        }
+        follow(newModel(play));
+        // chosen now, so a puzzle won after midnight is ranked with its own day
+        table = play.getLeaderboardName();
+        if (models == null && play == GameModes.CLASSIC) {
+            m.setSaveSlot(slots, slot != null ? slot : slots.newName());
+        } else if (models == null) {
+            m.setSaveFile(null);
         }
-        m = new MineSweeper();
-        ms = m.gameBoard(12, 15, loadPrevious);
-        if (loadPrevious) {
+        ms = models != null || loadPrevious ? m.gameBoard(12, 15, loadPrevious)
+                : play.newBoard(m);
+        keepCursorOnBoard();
+        replay = null;
+        scored = false;
+        rankText = "";
+        SaveFile.Report report = m.getLoadReport();
+        if (loadPrevious && report != null) {
+            updateStatus();
+            if (report.getResult() == SaveFile.REJECTED) {
+                status.setText(report + " Start Playing!");
+            } else {
+                status.setText(report + " " + status.getText());
+            }
+        } else if (loadPrevious) {
             updateStatus();
         } else {
             status.setText("Start Playing!");
@@ -82,11 +492,327 @@ public class GameBoard extends JPanel {
         requestFocusInWindow();
     }
 
+    /**
+     * Makes a model the one shown, moving the listener over from the old one.
+     *
+     * @param model model of the game to show
+     */
+    private void follow(MineSweeper model) {
+        m.removeListener(listener);
+        m = model;
+        m.addListener(listener);
+    }
+
+    /**
+     * Updates the board for an event of the model. Only the cells an event
+     * changed are repainted, except when the game ends or resumes, which
+     * changes how every cell is drawn.
+     *
+     * @param e event of the model
+     */
+    private void onEvent(GameEvent e) {
+        heard = true;
+        switch (e.getType()) {
+            case GameEvent.CELLS_REVEALED:
+            case GameEvent.CELLS_COVERED:
+            case GameEvent.CELL_FLAGGED:
+                repaintCells(e.getIndex(), e.getLength());
+                if (!batching) {
+                    updateStatus();
+                }
+                break;
+            case GameEvent.TIMER_TICK:
+                if (e.getMoveCounter() > 0) {
+                    // a new game shows "Start Playing!" until the first move
+                    updateStatus();
+                }
+                break;
+            default:
+                recordWin(); // puts a won game on the leaderboard
+                if (batching) {
+                    repaintArea(0, 0, m.getXDimension() * 50 + 26, m.getYDimension() * 50 + 1);
+                } else {
+                    updateStatus();
+                    repaint();
+                }
+        }
+    }
+
+    /**
+     * Repaints a range of cells by flat index. A range within one column
+     * repaints those cells, a longer one the whole columns it spans.
+     *
+     * @param index  flat index of the first cell
+     * @param length number of cells
+     */
+    private void repaintCells(int index, int length) {
+        int yDimension = m.getYDimension();
+        int x0 = index / yDimension;
+        int x1 = (index + length - 1) / yDimension;
+        int y0 = x0 == x1 ? index % yDimension : 0;
+        int y1 = x0 == x1 ? (index + length - 1) % yDimension : yDimension - 1;
+        int shift = m.getTopology() == Topology.HEX ? 25 : 0;
+        repaintArea(x0 * 50, y0 * 50, (x1 - x0 + 1) * 50 + shift + 1, (y1 - y0 + 1) * 50 + 1);
+    }
+
+    /**
+     * Starts asking the model for timer ticks once the board is on screen.
+     */
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        clock.start();
+    }
+
+    /**
+     * Stops the timer ticks once the board is no longer on screen.
+     */
+    @Override
+    public void removeNotify() {
+        clock.stop();
+        super.removeNotify();
+    }
+
+    /**
+     * Creates the model for a new game.
+     *
+     * @param play mode of a local game
+     * @return model from the supplier, or a local game of the mode with the
+     *         board's topology, recording finished games in the history
+     */
+    private MineSweeper newModel(GameMode play) {
+        MineSweeper model;
+        if (models != null) {
+            model = models.get();
+        } else {
+            model = play.newModel(topology);
+            model.setMode(play);
+            model.setPractice(practice);
+        }
+        model.setHistory(history);
+        return model;
+    }
+
+    /**
+     * Gets the slots games on this board are saved to
+     *
+     * @return save slots of the player
+     */
+    public SaveSlots getSaveSlots() {
+        return slots;
+    }
+
+    /**
+     * Gets the history every finished game on this board is appended to
+     *
+     * @return history of finished games
+     */
+    public GameHistory getHistory() {
+        return history;
+    }
+
+    /**
+     * Gets the topology used for new local games
+     *
+     * @return topology deciding the neighbours of each cell
+     */
+    public Topology getTopology() {
+        return topology;
+    }
+
+    /**
+     * Sets the topology used for new local games. Takes effect on the next
+     * reset.
+     *
+     * @param topology neighbourhood of the cells
+     */
+    public void setTopology(Topology topology) {
+        this.topology = topology;
+    }
+
+    /**
+     * Gets whether new local games are played for practice
+     *
+     * @return practice noting if a mine hit may be undone
+     */
+    public boolean getPractice() {
+        return practice;
+    }
+
+    /**
+     * Sets whether new local games are played for practice, where the move
+     * that hit a mine can be undone. Practice games are not ranked or put in
+     * the history. Takes effect on the next reset.
+     *
+     * @param practice noting if a mine hit may be undone
+     */
+    public void setPractice(boolean practice) {
+        this.practice = practice;
+    }
+
+    /**
+     * Gets the modes new local games can be played in. The plugins are only
+     * looked up when the modes are first listed.
+     *
+     * @return modes of the game
+     */
+    public GameModes getModes() {
+        return modes;
+    }
+
+    /**
+     * Gets the mode of new local games
+     *
+     * @return the chosen mode
+     */
+    public GameMode getMode() {
+        return mode;
+    }
+
+    /**
+     * Sets the mode of new local games. Takes effect on the next reset.
+     *
+     * @param mode mode of the game
+     */
+    public void setMode(GameMode mode) {
+        this.mode = mode;
+    }
+
+    /**
+     * Gets the leaderboard the game shown is ranked on, which is that of the
+     * mode it was started in
+     *
+     * @return leaderboard of won games
+     */
+    public Leaderboard getLeaderboard() {
+        return leaderboardOf(table);
+    }
+
+    /**
+     * Gets the name of the leaderboard the game shown is ranked on
+     *
+     * @return name of the leaderboard, see GameMode.getLeaderboardName
+     */
+    public String getLeaderboardName() {
+        return table;
+    }
+
+    /**
+     * Gets the model of the game shown
+     *
+     * @return model of the game
+     */
+    public MineSweeper getModel() {
+        return m;
+    }
+
+    /**
+     * Gets a leaderboard by the name a mode gives it. The classic mode keeps
+     * the leaderboard directory itself, and every other leaderboard is a
+     * directory inside it named after the leaderboard.
+     *
+     * @param name name of the leaderboard, see GameMode.getLeaderboardName
+     * @return leaderboard of won games
+     */
+    private Leaderboard leaderboardOf(String name) {
+        if (name.equals(GameModes.CLASSIC.getLeaderboardName())) {
+            return leaderboard;
+        }
+        return modeLeaderboards.computeIfAbsent(name, n -> new Leaderboard(
+                new File(scores, n.toLowerCase().replaceAll("[^a-z0-9]+", "-"))));
+    }
+
+    /**
+     * Gets the name games on this board are submitted under
+     *
+     * @return name of the player
+     */
+    public String getPlayer() {
+        return player;
+    }
+
+    /**
+     * Puts the current game on the leaderboard of its mode the first time it
+     * is won, ranked by the score of the mode. Practice games and games in
+     * which a move was undone are not ranked.
+     */
+    private void recordWin() {
+        if (m.getStatus() != 1 || scored) {
+            return;
+        }
+        scored = true;
+        if (m.getPractice() || m.getUsedUndo()) {
+            rankText = m.getPractice() ? " Practice games are not ranked."
+                    : " Not ranked, since a move was undone.";
+            return;
+        }
+        Leaderboard scores = leaderboardOf(table);
+        Leaderboard.Entry entry = new Leaderboard.Entry(
+                player, m.getMode().score(m, ms), m.getMoveCounter(), System.currentTimeMillis()
+        );
+        try {
+            int rank = scores.submit(
+                    m.getTopology(), m.getXDimension(), m.getYDimension(), entry
+            );
+            Leaderboard.Entry best = scores.personalBest(
+                    m.getTopology(), m.getXDimension(), m.getYDimension(), player
+            );
+            rankText = best == entry ? " New personal best! Rank: " + rank + "."
+                    : " Rank: " + rank + ".";
+        } catch (IOException e) {
+            rankText = " Could not save the leaderboard.";
+        }
+    }
+
+    /**
+     * Gets the x value of the left edge of a cell on the screen. Rows of a hex
+     * board are shifted, so this depends on the row as well.
+     *
+     * @param i x value of cell
+     * @param j y value of cell
+     * @return left edge of the cell in pixels
+     */
+    private int cellX(int i, int j) {
+        return i * 50 + (int) (m.getTopology().rowShift(j) * 50);
+    }
+
+    /**
+     * Undoes the last move made on the board and redraws it.
+     */
+    public void undo() {
+        heard = false;
+        if (m.undo(ms) && !heard) {
+            updateStatus();
+            repaint();
+        }
+        requestFocusInWindow();
+    }
+
+    /**
+     * Redoes the last move that was undone and redraws the board.
+     */
+    public void redo() {
+        heard = false;
+        if (m.redo(ms) && !heard) {
+            recordWin();
+            updateStatus();
+            repaint();
+        }
+        requestFocusInWindow();
+    }
+
     /**
      * Updates the JLabel to reflect the current state of the game.
      */
     private void updateStatus() {
-        if (m.getStatus() == 0) {
+        if (replay != null) {
+            long time = replay.getTime(replay.getPosition());
+            status.setText(
+                    "Replay: move " + replay.getPosition() + " of " + replay.getLength()
+                            + ". Time: " + time / 60000 + ":"
+                            + String.format("%02d", time / 1000 % 60) + "."
+            );
+        } else if (m.getStatus() == 0) {
             long current = System.currentTimeMillis();
             int timeSeconds = (int) ((current - m.getStartTime()) / 1000);
             int minutes = m.getMinutes() + timeSeconds / 60;
@@ -97,18 +823,22 @@ public class GameBoard extends JPanel {
                 m.setMinutes(minutes);
                 m.setSeconds(seconds);
             }
+            String extra = m.getMode().status(m, ms, minutes * 60 + seconds);
             status.setText(
                     "Keep Playing! Current Moves: " + m.getMoveCounter() + ". Minutes: " +
                             minutes + ". Seconds: " + seconds + "."
+                            + (extra.isEmpty() ? "" : " " + extra)
             );
         } else if (m.getStatus() == 1) {
             status.setText(
                     "Congratulations! You won the game! Moves: " + m.getMoveCounter() +
                             ". Minutes: " + m.getMinutes() + ". Seconds: " + m.getSeconds() + "."
+                            + rankText
             );
         } else {
             status.setText(
-                    "You hit a mine. Moves: " + m.getMoveCounter() + ". Minutes: "
+                    (m.getTimeUp() ? "Time is up!" : "You hit a mine.") + " Moves: "
+                            + m.getMoveCounter() + ". Minutes: "
                             + m.getMinutes() + ". Seconds: " + m.getSeconds() + ". Play again?"
             );
         }
@@ -116,117 +846,166 @@ public class GameBoard extends JPanel {
     }
 
     /**
-     * Draws the game board. If the game is over, printBoard is called. This
-     * printBoard method
-     * is not to be confused with the printBoard method which prints to the
-     * terminal.
-     * If the current cell is neither flagged nor is not clicked (i.e. the cell is
-     * opened
-     * and has a value associated with adjacent mines) a helper method is called to
-     * print.
+     * Draws the game board. Every cell is copied from the image of its kind
+     * in the CellSprites, so a frame draws no shapes or text apart from the
+     * keyboard cursor. Only the cells within the clip are drawn, which is all
+     * a repaint of a few cells asks for. If the game is over, printBoard is
+     * called instead, which shows every cell.
      *
      * @param g Graphics to print to the GUI
      */
     @Override
     public void paintComponent(Graphics g) {
         super.paintComponent(g);
-        g.setFont(new Font("TimesRoman", Font.PLAIN, 20));
-        // Draws board grid
-
-        for (int i = 0; i < 10; i++) {
-            g.drawLine(0, i * 50, BOARD_WIDTH, i * 50);
-            g.drawLine(i * 50, 0, i * 50, BOARD_HEIGHT);
-        }
-
+        Graphics2D g2 = (Graphics2D) g.create();
+        g2.scale(zoom, zoom);
         if (m.getStatus() == 1 || m.getStatus() == 2) {
-            printBoard(ms, g);
-            return;
+            printBoard(ms, g2);
+        } else {
+            sprites.validate(g2, getBackground());
+            paintCells(g2, ms, false);
+            if (showCursor && replay == null) {
+                // the keyboard cursor is a thick outline inside the cell
+                g2.setColor(Color.ORANGE);
+                g2.setStroke(new BasicStroke(3));
+                g2.drawRect(cellX(cursorX, cursorY) + 2, cursorY * 50 + 2, 46, 46);
+            }
+        }
+        g2.dispose();
+        if (sprites.contentsLost()) {
+            // the graphics card dropped the images while they were drawn
+            repaint();
         }
+    }
 
-        for (int i = 0; i < 10; i++) {
-            for (int j = 0; j < 10; j++) {
-                g.setColor(Color.LIGHT_GRAY);
-                g.fillRect(i * 50 + 4, j * 50 + 4, 42, 42);
-                if (ms[i][j].getIsClicked()) {
-                    helpPrintBoard(g, i, j);
-                } else if (ms[i][j].getIsFlagged()) {
-                    g.setColor(Color.RED);
-                    g.drawRect(i * 50 + 25, j * 50 + 10, 3, 30);
-                    g.fillRect(i * 50 + 25, j * 50 + 10, 3, 30);
-                    for (int f = 0; f < 16; f++) {
-                        g.drawLine(i * 50 + 10, j * 50 + 18, i * 50 + 25, j * 50 + 10 + f);
-                    }
-                    g.drawRect(i * 50 + 10, j * 50 + 40, 30, 3);
-                    g.fillRect(i * 50 + 10, j * 50 + 40, 30, 3);
-                    g.setColor(Color.BLACK);
-                } else {
-                    g.setColor(Color.BLUE);
-                    g.fillRect(i * 50 + 4, j * 50 + 4, 42, 42);
-                    g.setColor(Color.BLACK);
-                }
+    /**
+     * Draws the cells within the clip from their images.
+     *
+     * @param g    Graphics scaled to units of the board
+     * @param game contains the gameBoard to draw
+     * @param over noting if every cell is shown as it is at the end of a game
+     */
+    private void paintCells(Graphics2D g, Cell[][] game, boolean over) {
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) {
+            clip = new Rectangle(0, 0, Integer.MAX_VALUE / 2, Integer.MAX_VALUE / 2);
+        }
+        int status = m.getStatus();
+        // a cell's image also covers the left and top border of the next cells
+        int j0 = Math.max(0, Math.floorDiv(clip.y - 1, 50));
+        int j1 = Math.min(game[0].length - 1, Math.floorDiv(clip.y + clip.height, 50));
+        for (int j = j0; j <= j1; j++) {
+            int shift = cellX(0, j);
+            int i0 = Math.max(0, Math.floorDiv(clip.x - 1 - shift, 50));
+            int i1 = Math.min(game.length - 1, Math.floorDiv(clip.x + clip.width - shift, 50));
+            for (int i = i0; i <= i1; i++) {
+                Cell c = game[i][j];
+                int kind = over ? CellSprites.finalKindOf(c, status) : CellSprites.kindOf(c);
+                g.drawImage(sprites.get(kind), shift + i * 50, j * 50, CellSprites.SIZE,
+                        CellSprites.SIZE, null);
             }
         }
     }
 
     /**
-     * Draws the current cell to the GUI. Uses an algorithm to color-code the
-     * different
-     * adjacent mines values. Draws the string in approximately the center of the
-     * cell
+     * Draws a flag in the cell whose top left corner is at the given point.
      *
-     * @param g Graphics to print to the GUI
-     * @param i x value of cell
-     * @param j y value of cell
+     * @param g  Graphics to print to the GUI
+     * @param px x value of the top left corner of the cell
+     * @param py y value of the top left corner of the cell
      */
-    private void helpPrintBoard(Graphics g, int i, int j) {
-        int numMines = ms[i][j].getMineNumber();
-        if (m.getStatus() == 2) {
-            g.setColor(Color.RED);
-        } else if (m.getStatus() == 1) {
-            g.setColor(new Color(51, 153, 255));
-        } else {
-            if (numMines == 0) {
-                g.setColor(new Color(51, 153, 255));
-            } else if (numMines == 1) {
-                g.setColor(new Color(0, 152, 51));
-            } else if (numMines == 2) {
-                g.setColor(new Color(76, 0, 153));
-            } else if (numMines == 3) {
-                g.setColor(new Color(0, 0, 204));
-            } else if (numMines == 4) {
-                g.setColor(new Color(204, 102, 0));
-            } else if (numMines == 5) {
-                g.setColor(Color.BLACK);
-            } else if (numMines == 6) {
-                g.setColor(Color.CYAN);
-            } else {
-                g.setColor(Color.RED);
-            }
+    static void drawFlag(Graphics g, int px, int py) {
+        g.setColor(Color.RED);
+        g.drawRect(px + 25, py + 10, 3, 30);
+        g.fillRect(px + 25, py + 10, 3, 30);
+        for (int f = 0; f < 16; f++) {
+            g.drawLine(px + 10, py + 18, px + 25, py + 10 + f);
         }
-        g.drawString("" + numMines, i * 50 + 20, j * 50 + 30);
+        g.drawRect(px + 10, py + 40, 30, 3);
+        g.fillRect(px + 10, py + 40, 30, 3);
         g.setColor(Color.BLACK);
     }
 
+    /**
+     * Gets the color a number of adjacent mines is drawn in while the game is
+     * still running.
+     *
+     * @param numMines number of adjacent mines
+     * @return Color to draw the number in
+     */
+    static Color numberColor(int numMines) {
+        if (numMines == 0) {
+            return new Color(51, 153, 255);
+        } else if (numMines == 1) {
+            return new Color(0, 152, 51);
+        } else if (numMines == 2) {
+            return new Color(76, 0, 153);
+        } else if (numMines == 3) {
+            return new Color(0, 0, 204);
+        } else if (numMines == 4) {
+            return new Color(204, 102, 0);
+        } else if (numMines == 5) {
+            return Color.BLACK;
+        } else if (numMines == 6) {
+            return Color.CYAN;
+        } else {
+            return Color.RED;
+        }
+    }
+
     /**
      * Prints the entire gameBoard to the GUI screen with true values displayed.
      * This method is
-     * executed when the game is over.
+     * executed when the game is over. The cells are laid out by the topology
+     * of the game shown, and coloured by its outcome.
      *
-     * @param g    Graphics to print to the GUI
-     * @param game contains the GameBoard
+     * @param game contains the GameBoard to print
+     * @param g    Graphics to print to the GUI, in units of the board
      */
     public void printBoard(Cell[][] game, Graphics g) {
-        for (int i = 0; i < 10; i++) {
-            for (int j = 0; j < 10; j++) {
-                if (game[i][j].getIsMine()) {
-                    g.setColor(Color.RED);
-                    g.drawOval(i * 50 + 20, j * 50 + 20, 15, 15);
-                    g.fillOval(i * 50 + 20, j * 50 + 20, 15, 15);
-                    g.setColor(Color.BLACK);
-                } else {
-                    helpPrintBoard(g, i, j);
-                }
-            }
+        if (g instanceof Graphics2D) {
+            Graphics2D g2 = (Graphics2D) g;
+            sprites.validate(g2, getBackground());
+            paintCells(g2, game, true);
+            return;
+        }
+        // a Graphics without the 2D API gets the board as one image
+        int width = game.length * 50 + (m.getTopology() == Topology.HEX ? 25 : 0);
+        BufferedImage image = new BufferedImage(
+                width + 1, game[0].length * 50 + 1, BufferedImage.TYPE_INT_RGB
+        );
+        Graphics2D g2 = image.createGraphics();
+        g2.setColor(getBackground());
+        g2.fillRect(0, 0, image.getWidth(), image.getHeight());
+        sprites.validate(g2, getBackground());
+        paintCells(g2, game, true);
+        g2.dispose();
+        g.drawImage(image, 0, 0, null);
+    }
+
+    /**
+     * Sets an action to run once, right after the board is painted for the
+     * first time, for example to measure startup.
+     *
+     * @param listener action to run after the first paint
+     */
+    public void setFirstPaintListener(Runnable listener) {
+        firstPaint = listener;
+    }
+
+    /**
+     * Paints the board and its border, then runs the first paint listener if
+     * it has not run yet.
+     *
+     * @param g Graphics to print to the GUI
+     */
+    @Override
+    public void paint(Graphics g) {
+        super.paint(g);
+        if (firstPaint != null) {
+            Runnable listener = firstPaint;
+            firstPaint = null;
+            listener.run();
         }
     }
 
@@ -235,6 +1014,11 @@ public class GameBoard extends JPanel {
      */
     @Override
     public Dimension getPreferredSize() {
-        return new Dimension(BOARD_WIDTH, BOARD_HEIGHT);
+        int width = m.getXDimension() * 50;
+        if (m.getTopology() == Topology.HEX && m.getYDimension() > 1) {
+            width += 25;
+        }
+        return new Dimension((int) Math.ceil(width * zoom),
+                (int) Math.ceil(m.getYDimension() * 50 * zoom));
     }
 }
@@ -0,0 +1,76 @@
+package org.MineSweeperGUI.MineSweeper;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+/**
+ * This class is a blocking connection to a GameServer. Each request writes a
+ * single frame and waits for the reply, which keeps the client simple since a
+ * player only ever has one move in flight.
+ */
+public class GameClient implements Closeable {
+
+    private final SocketChannel channel;
+    private final ByteBuffer header = ByteBuffer.allocate(4);
+
+    /**
+     * Connects to a server.
+     *
+     * @param host host name of the server
+     * @param port port of the server
+     * @throws IOException if the server cannot be reached
+     */
+    public GameClient(String host, int port) throws IOException {
+        channel = SocketChannel.open(new InetSocketAddress(host, port));
+        channel.socket().setTcpNoDelay(true);
+    }
+
+    /**
+     * Sends a frame and waits for the reply.
+     *
+     * @param frame the frame built by Protocol
+     * @return the reply, positioned at its opcode
+     * @throws IOException if the connection fails
+     */
+    public synchronized ByteBuffer request(ByteBuffer frame) throws IOException {
+        while (frame.hasRemaining()) {
+            channel.write(frame);
+        }
+        header.clear();
+        readFully(header);
+        int length = header.getInt(0);
+        if (length <= 0 || length > Protocol.MAX_FRAME) {
+            throw new IOException("Invalid frame length " + length);
+        }
+        ByteBuffer reply = ByteBuffer.allocate(length);
+        readFully(reply);
+        reply.flip();
+        return reply;
+    }
+
+    /**
+     * Reads until the buffer is full.
+     *
+     * @param buf the buffer to fill
+     * @throws IOException if the connection is closed early
+     */
+    private void readFully(ByteBuffer buf) throws IOException {
+        while (buf.hasRemaining()) {
+            if (channel.read(buf) < 0) {
+                throw new EOFException("Server closed the connection");
+            }
+        }
+    }
+
+    /**
+     * Closes the connection.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,130 @@
+package org.MineSweeperGUI.MineSweeper;
+
+/**
+ * This class is one event of a MineSweeper game. Events are slots of a ring
+ * buffer that are filled in again for every new event, so no object is
+ * created per event; see GameListener for what that means for listeners.
+ * <p>
+ * A range of opened or closed cells is one event: the cells from getIndex()
+ * to getIndex() + getLength() - 1 by flat index x * yDimension + y, which is
+ * the same range the move log keeps for the move.
+ */
+public final class GameEvent {
+
+    // types of events
+    public static final int CELLS_REVEALED = 0; // a range of cells was opened
+    public static final int CELLS_COVERED = 1; // a range of cells was closed by an undo
+    public static final int CELL_FLAGGED = 2; // a flag was placed or removed
+    public static final int GAME_WON = 3;
+    public static final int GAME_LOST = 4;
+    public static final int GAME_RESUMED = 5; // the move that ended the game was undone
+    public static final int TIMER_TICK = 6; // another second of the game has passed
+
+    private int type;
+    private int index;
+    private int length;
+    private boolean flagged;
+    private int status;
+    private int moveCounter;
+    private int minutes;
+    private int seconds;
+
+    GameEvent() {
+    }
+
+    /**
+     * Fills in the slot for a new event.
+     */
+    void set(int type, int index, int length, boolean flagged, MineSweeper m) {
+        this.type = type;
+        this.index = index;
+        this.length = length;
+        this.flagged = flagged;
+        this.status = m.getStatus();
+        this.moveCounter = m.getMoveCounter();
+        this.minutes = m.getMinutes();
+        this.seconds = m.getSeconds();
+    }
+
+    /**
+     * Sets the time of a timer tick, which runs ahead of the time the model
+     * has recorded.
+     */
+    void setTime(int minutes, int seconds) {
+        this.minutes = minutes;
+        this.seconds = seconds;
+    }
+
+    /**
+     * Gets the type of the event
+     *
+     * @return one of the event types of this class
+     */
+    public int getType() {
+        return type;
+    }
+
+    /**
+     * Gets the first cell of the event
+     *
+     * @return flat index of the first cell, or -1 for events without cells
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Gets the number of cells of the event
+     *
+     * @return cells in the range, 1 for a flag and 0 for events without cells
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * Gets whether a flag was placed or removed
+     *
+     * @return boolean noting if the cell of a CELL_FLAGGED event is now flagged
+     */
+    public boolean isFlagged() {
+        return flagged;
+    }
+
+    /**
+     * Gets the status of the game after the event
+     * 0 --> still playing, 1 --> user won, 2 --> user lost
+     *
+     * @return status of the game
+     */
+    public int getStatus() {
+        return status;
+    }
+
+    /**
+     * Gets the number of moves made after the event
+     *
+     * @return moveCounter of the game
+     */
+    public int getMoveCounter() {
+        return moveCounter;
+    }
+
+    /**
+     * Gets the minutes of the game at the event
+     *
+     * @return minutes played
+     */
+    public int getMinutes() {
+        return minutes;
+    }
+
+    /**
+     * Gets the seconds of the game at the event, on top of the minutes
+     *
+     * @return seconds played
+     */
+    public int getSeconds() {
+        return seconds;
+    }
+}
@@ -0,0 +1,76 @@
+package org.MineSweeperGUI.MineSweeper;
+
+import java.util.Arrays;
+
+/**
+ * This class queues the events of a move in a ring buffer of reusable
+ * GameEvent slots and delivers them to the listeners once the move is
+ * complete. The slots are created once, so a game makes no garbage however
+ * many events it sends. A move with more events than there are slots, like a
+ * flood fill opening many separate ranges, delivers the events queued so far
+ * whenever the ring is full.
+ */
+final class GameEvents {
+
+    private static final int CAPACITY = 64; // a power of two
+
+    private final GameEvent[] ring = new GameEvent[CAPACITY];
+    private int head; // slot of the oldest queued event
+    private int size; // number of queued events
+    private GameListener[] listeners = new GameListener[0]; // replaced, never changed
+
+    GameEvents() {
+        for (int i = 0; i < ring.length; i++) {
+            ring[i] = new GameEvent();
+        }
+    }
+
+    void add(GameListener listener) {
+        listeners = Arrays.copyOf(listeners, listeners.length + 1);
+        listeners[listeners.length - 1] = listener;
+    }
+
+    void remove(GameListener listener) {
+        for (int i = 0; i < listeners.length; i++) {
+            if (listeners[i] == listener) {
+                GameListener[] rest = new GameListener[listeners.length - 1];
+                System.arraycopy(listeners, 0, rest, 0, i);
+                System.arraycopy(listeners, i + 1, rest, i, rest.length - i);
+                listeners = rest;
+                return;
+            }
+        }
+    }
+
+    boolean hasListeners() {
+        return listeners.length > 0;
+    }
+
+    /**
+     * Claims the next free slot, delivering the queued events first if the
+     * ring is full.
+     *
+     * @return slot to fill in
+     */
+    GameEvent claim() {
+        if (size == ring.length) {
+            flush();
+        }
+        return ring[(head + size++) & (CAPACITY - 1)];
+    }
+
+    /**
+     * Delivers the queued events to every listener, oldest first.
+     */
+    void flush() {
+        GameListener[] current = listeners;
+        while (size > 0) {
+            GameEvent e = ring[head];
+            for (GameListener l : current) {
+                l.onEvent(e);
+            }
+            head = (head + 1) & (CAPACITY - 1);
+            size--;
+        }
+    }
+}
@@ -0,0 +1,320 @@
+package org.MineSweeperGUI.MineSweeper;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.DataFormatException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * This class keeps the history of finished games as gzip compressed CSV
+ * files in a directory, one GameRecord per line.
+ * <p>
+ * Records are appended to the newest segment file. Every append writes a new
+ * gzip member to the end of the file, so nothing already written is ever
+ * read back or rewritten, and a crash can at worst cut off the last member.
+ * If the newest segment was cut off this way, appends continue in a new one.
+ * Once a segment grows past its size limit the next append starts a new one,
+ * so no single file grows without bound and old segments can be archived or
+ * deleted on their own.
+ * <p>
+ * Reader streams records one line at a time through all segments in order,
+ * so scanning millions of records only ever holds one of them in memory. A
+ * member cut off by a crash ends its segment instead of failing the scan.
+ */
+public class GameHistory {
+
+    public static final long DEFAULT_SEGMENT_BYTES = 4L << 20;
+    private static final String PREFIX = "games-";
+    private static final String SUFFIX = ".csv.gz";
+
+    private final File directory;
+    private final long maxSegmentBytes;
+    private int segment = -1; // number of the segment being appended to
+
+    /**
+     * Constructor sets up a history in the given directory, which is created
+     * on the first append.
+     *
+     * @param directory directory holding the segment files
+     */
+    public GameHistory(File directory) {
+        this(directory, DEFAULT_SEGMENT_BYTES);
+    }
+
+    /**
+     * Constructor sets up a history with a custom segment size.
+     *
+     * @param directory       directory holding the segment files
+     * @param maxSegmentBytes compressed size after which a new segment starts
+     */
+    public GameHistory(File directory, long maxSegmentBytes) {
+        if (maxSegmentBytes <= 0) {
+            throw new IllegalArgumentException("Segment size must be positive");
+        }
+        this.directory = directory;
+        this.maxSegmentBytes = maxSegmentBytes;
+    }
+
+    /**
+     * Appends a finished game to the history.
+     *
+     * @param record the finished game
+     * @throws IOException if the segment could not be written
+     */
+    public void append(GameRecord record) throws IOException {
+        append(Collections.singletonList(record));
+    }
+
+    /**
+     * Appends several finished games to the history as a single gzip member,
+     * which compresses better than appending them one at a time.
+     *
+     * @param records the finished games
+     * @throws IOException if the segment could not be written
+     */
+    public synchronized void append(List<GameRecord> records) throws IOException {
+        if (records.isEmpty()) {
+            return;
+        }
+        if (segment < 0) {
+            directory.mkdirs();
+            File[] existing = segments();
+            segment = existing.length == 0 ? 0 : number(existing[existing.length - 1]);
+            if (existing.length > 0 && !intact(existing[existing.length - 1])) {
+                // members appended after a cut off one could never be read
+                segment++;
+            }
+        }
+        File f = segmentFile(segment);
+        if (f.length() >= maxSegmentBytes) {
+            segment++;
+            f = segmentFile(segment);
+        }
+        boolean fresh = f.length() == 0;
+        StringBuilder sb = new StringBuilder();
+        if (fresh) {
+            sb.append(GameRecord.HEADER).append('\n');
+        }
+        for (GameRecord record : records) {
+            record.toCsv(sb).append('\n');
+        }
+        try (Writer w = new OutputStreamWriter(
+                new GZIPOutputStream(new FileOutputStream(f, true)), StandardCharsets.UTF_8)) {
+            w.write(sb.toString());
+        }
+    }
+
+    /**
+     * Gets the segment files of the history, oldest first
+     *
+     * @return the segment files, empty if nothing was recorded yet
+     */
+    public File[] segments() {
+        File[] files = directory.listFiles(
+                (dir, name) -> name.startsWith(PREFIX) && name.endsWith(SUFFIX)
+        );
+        if (files == null) {
+            return new File[0];
+        }
+        Arrays.sort(files);
+        return files;
+    }
+
+    /**
+     * Checks if a segment is made of whole gzip members only. GZIPInputStream
+     * quietly stops at a damaged member, so the members are walked here one by
+     * one to find out if the file ends exactly where the last member does.
+     *
+     * @param f segment file
+     * @return boolean noting if the segment is intact
+     */
+    private static boolean intact(File f) {
+        byte[] data;
+        try {
+            data = Files.readAllBytes(f.toPath());
+        } catch (IOException e) {
+            return false;
+        }
+        byte[] scratch = new byte[1 << 16];
+        Inflater inflater = new Inflater(true);
+        try {
+            int pos = 0;
+            while (pos < data.length) {
+                // GZIPOutputStream writes a fixed ten byte header with no flags
+                if (data.length - pos < 18 || (data[pos] & 0xFF) != 0x1f
+                        || (data[pos + 1] & 0xFF) != 0x8b || data[pos + 2] != 8
+                        || data[pos + 3] != 0) {
+                    return false;
+                }
+                inflater.reset();
+                inflater.setInput(data, pos + 10, data.length - pos - 10);
+                while (!inflater.finished()) {
+                    if (inflater.inflate(scratch) == 0
+                            && (inflater.needsInput() || inflater.needsDictionary())) {
+                        return false;
+                    }
+                }
+                // the eight byte trailer follows the deflate data
+                pos = data.length - inflater.getRemaining() + 8;
+            }
+            return pos == data.length;
+        } catch (DataFormatException e) {
+            return false;
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private File segmentFile(int number) {
+        return new File(directory, String.format("%s%06d%s", PREFIX, number, SUFFIX));
+    }
+
+    private static int number(File f) {
+        String name = f.getName();
+        try {
+            return Integer.parseInt(
+                    name.substring(PREFIX.length(), name.length() - SUFFIX.length())
+            );
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Opens a reader over every record in the history, oldest first.
+     *
+     * @return a reader that must be closed after use
+     */
+    public Reader open() {
+        return new Reader(segments());
+    }
+
+    /**
+     * Passes every record in the history to the consumer, oldest first.
+     *
+     * @param consumer receives each record
+     * @return the number of records read
+     * @throws IOException if a segment could not be read
+     */
+    public long scan(Consumer<GameRecord> consumer) throws IOException {
+        long count = 0;
+        try (Reader reader = open()) {
+            GameRecord record;
+            while ((record = reader.next()) != null) {
+                consumer.accept(record);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Ends a decompressed stream at a cut off member. Turning the error into
+     * the end of the stream here, below the readers, keeps the lines that were
+     * already decompressed but not yet handed out.
+     */
+    private static final class CutOffInputStream extends FilterInputStream {
+        private boolean ended;
+
+        CutOffInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            return read(b, 0, 1) < 0 ? -1 : b[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (ended) {
+                return -1;
+            }
+            try {
+                return super.read(b, off, len);
+            } catch (EOFException | ZipException e) {
+                // the last member was cut off while being written
+                ended = true;
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * Streams the records of a list of segment files.
+     */
+    public static final class Reader implements Closeable {
+        private final File[] files;
+        private int nextFile;
+        private BufferedReader current;
+
+        Reader(File[] files) {
+            this.files = files;
+        }
+
+        /**
+         * Reads the next record.
+         *
+         * @return the next record, or null when every segment has been read
+         * @throws IOException if a segment could not be read
+         * @throws IllegalArgumentException if a line is not a valid record
+         */
+        public GameRecord next() throws IOException {
+            while (true) {
+                if (current == null) {
+                    if (nextFile == files.length) {
+                        return null;
+                    }
+                    FileInputStream in = new FileInputStream(files[nextFile++]);
+                    try {
+                        current = new BufferedReader(new InputStreamReader(
+                                new CutOffInputStream(new GZIPInputStream(in, 1 << 16)),
+                                StandardCharsets.UTF_8
+                        ), 1 << 16);
+                    } catch (EOFException | ZipException e) {
+                        // the segment was cut off before its first member was written
+                        in.close();
+                        continue;
+                    }
+                }
+                String line = current.readLine();
+                if (line == null) {
+                    current.close();
+                    current = null;
+                } else if (!line.isEmpty() && !line.startsWith("end_time,")) {
+                    // not a header, of this version or an older one
+                    return GameRecord.parse(line);
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (current != null) {
+                current.close();
+                current = null;
+            }
+            nextFile = files.length;
+        }
+    }
+}
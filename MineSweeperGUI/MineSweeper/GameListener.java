@@ -0,0 +1,20 @@
+package org.MineSweeperGUI.MineSweeper;
+
+/**
+ * This interface receives the events of a MineSweeper game, so views, savers
+ * and metrics can follow a game without polling its getters.
+ * <p>
+ * Events are delivered on the thread that made the move, once the move is
+ * complete. The event object is a reused slot that is overwritten by later
+ * events, so a listener must copy anything it wants to keep, and must not
+ * make moves on the game while handling an event.
+ */
+public interface GameListener {
+
+    /**
+     * Handles an event of the game.
+     *
+     * @param event the event, only valid until this method returns
+     */
+    void onEvent(GameEvent event);
+}
@@ -0,0 +1,117 @@
+package org.MineSweeperGUI.MineSweeper;
+
+/**
+ * This interface is a way of playing MineSweeper: how a new board is made,
+ * when a game is won or lost beyond the usual rules, how long the player has
+ * and how a won game is scored. The model asks its mode at each point where
+ * the rules can differ, so a mode never has to change the engine.
+ * <p>
+ * Apart from the modes built into GameModes, modes are plugins found with a
+ * ServiceLoader. A plugin is a public class with a public constructor taking
+ * no arguments, listed in META-INF/services/org.MineSweeperGUI.MineSweeper.GameMode
+ * of its jar, which must be on the class path. A mode is shared by every game
+ * played in it, so it must not keep the state of a game.
+ */
+public interface GameMode {
+
+    /**
+     * Gets the name of the mode, shown to the player and used to keep the
+     * leaderboard of the mode apart
+     *
+     * @return name of the mode
+     */
+    String getName();
+
+    /**
+     * Gets the name of the leaderboard a game started now is ranked on. A
+     * mode whose games are only comparable within a set, like the puzzle of
+     * one day, names a leaderboard of its own for each set.
+     *
+     * @return name of the leaderboard, by default the name of the mode
+     */
+    default String getLeaderboardName() {
+        return getName();
+    }
+
+    /**
+     * Gets a line telling the player what the mode is about
+     *
+     * @return description of the mode
+     */
+    String getDescription();
+
+    /**
+     * Creates the model of a new game: the size of the board, the seed its
+     * mines are placed with and what a first click is guaranteed not to hit.
+     *
+     * @param topology neighbourhood of the cells chosen by the player
+     * @return model of the game, whose gameBoard is not made yet
+     */
+    MineSweeper newModel(Topology topology);
+
+    /**
+     * Creates the board of a new game made by newModel, placing its mines.
+     *
+     * @param m model of the game
+     * @return the gameBoard
+     */
+    Cell[][] newBoard(MineSweeper m);
+
+    /**
+     * Checks if a covered cell may be flagged. Taking a flag off is always
+     * allowed.
+     *
+     * @param m    model of the game
+     * @param game gameBoard of the game
+     * @param x    x value of the cell
+     * @param y    y value of the cell
+     * @return boolean noting if the flag is placed
+     */
+    default boolean canFlag(MineSweeper m, Cell[][] game, int x, int y) {
+        return true;
+    }
+
+    /**
+     * Gets the time a game may take. A game still running when the time is
+     * up is lost.
+     *
+     * @return time limit in seconds, or 0 for no limit
+     */
+    default int getTimeLimit() {
+        return 0;
+    }
+
+    /**
+     * Checks if moves may be undone and redone.
+     *
+     * @return boolean noting if undo and redo are allowed
+     */
+    default boolean allowsUndo() {
+        return true;
+    }
+
+    /**
+     * Gets the score a won game is ranked by on the leaderboard of the mode,
+     * which like a time is better when lower.
+     *
+     * @param m    model of the won game
+     * @param game gameBoard of the won game
+     * @return score of the game in seconds
+     */
+    default int score(MineSweeper m, Cell[][] game) {
+        return m.getMinutes() * 60 + m.getSeconds();
+    }
+
+    /**
+     * Gets what the mode adds to the status of a running game, like the time
+     * or flags left.
+     *
+     * @param m       model of the game
+     * @param game    gameBoard of the game
+     * @param elapsed seconds the game has taken so far
+     * @return text for the status, or an empty string
+     */
+    default String status(MineSweeper m, Cell[][] game, int elapsed) {
+        return "";
+    }
+}
@@ -0,0 +1,102 @@
+package org.MineSweeperGUI.MineSweeper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+
+/**
+ * This class finds the modes the game can be played in. The modes that come
+ * with the game are built in, so they are offered however the game is run,
+ * even from a build that leaves resource files off the class path. Any other
+ * mode is a plugin found with a ServiceLoader, so new modes can be shipped in
+ * a jar of their own without touching the game.
+ * <p>
+ * Nothing is looked up until the modes are first asked for, so a player who
+ * only plays the classic game never pays for the other modes: no services
+ * file is read and no class of a mode is loaded. A plugin that cannot be
+ * loaded is left out rather than keeping the other modes from being offered.
+ */
+public class GameModes {
+
+    public static final GameMode CLASSIC = new ClassicMode();
+
+    private final ClassLoader loader;
+    private List<GameMode> modes; // built in first, then the plugins, found on first use
+
+    /**
+     * Constructor sets up the modes found by the class loader of the game.
+     * Nothing is looked up yet.
+     */
+    public GameModes() {
+        this(GameModes.class.getClassLoader());
+    }
+
+    /**
+     * Constructor sets up the modes found by a class loader, for example one
+     * that also sees a directory of plugin jars. Nothing is looked up yet.
+     *
+     * @param loader class loader the plugins are looked up with
+     */
+    public GameModes(ClassLoader loader) {
+        this.loader = loader;
+    }
+
+    /**
+     * Gets every mode, looking up the plugins on first use.
+     *
+     * @return the classic mode, the other built in modes, then the plugins in
+     *         the order they are listed
+     */
+    public synchronized List<GameMode> list() {
+        if (modes != null) {
+            return modes;
+        }
+        List<GameMode> found = new ArrayList<>();
+        found.add(CLASSIC);
+        found.add(new TimeAttackMode());
+        found.add(new PuzzleMode());
+        found.add(new LimitedFlagsMode());
+        Iterator<GameMode> plugins = ServiceLoader.load(GameMode.class, loader).iterator();
+        while (true) {
+            try {
+                if (!plugins.hasNext()) {
+                    break;
+                }
+                GameMode mode = plugins.next();
+                if (find(found, mode.getName()) == null) {
+                    found.add(mode);
+                }
+            } catch (ServiceConfigurationError e) {
+                // a broken plugin is skipped, the iterator moves on to the next
+            }
+        }
+        modes = Collections.unmodifiableList(found);
+        return modes;
+    }
+
+    /**
+     * Gets a mode by its name.
+     *
+     * @param name name of the mode
+     * @return the mode, or null if there is none of that name
+     */
+    public GameMode find(String name) {
+        if (CLASSIC.getName().equals(name)) {
+            // the classic mode is found without looking up the plugins
+            return CLASSIC;
+        }
+        return find(list(), name);
+    }
+
+    private static GameMode find(List<GameMode> modes, String name) {
+        for (GameMode mode : modes) {
+            if (mode.getName().equals(name)) {
+                return mode;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,343 @@
+package org.MineSweeperGUI.MineSweeper;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * This class is one finished game as stored by GameHistory: the seed and
+ * shape of the board, the outcome, the time taken and every move that was
+ * made. A record is written as a single CSV line, so files of records can be
+ * read one line at a time.
+ * <p>
+ * The columns are:
+ * end_time,seed,topology,x_dimension,y_dimension,mines,outcome,moves,minutes,seconds,
+ * safe_start,mode,move_list
+ * <p>
+ * The safe start is the setting the game was played with, as a number, and
+ * the mode is the name of its game mode. Records written before those two
+ * columns existed have 11 columns; they are read with SAFE_START_UNKNOWN and
+ * the classic mode.
+ * <p>
+ * The move list holds one kind:cell:time entry per move, separated by
+ * semicolons. The kind is R for a reveal, F for a flag and M for clicking a
+ * mine, the cell is the flat index x * yDimension + y, and the time is the
+ * number of milliseconds since the game started.
+ */
+public final class GameRecord {
+
+    public static final String HEADER =
+            "end_time,seed,topology,x_dimension,y_dimension,mines,outcome,moves,minutes,seconds,"
+                    + "safe_start,mode,move_list";
+    public static final int SAFE_START_UNKNOWN = -1; // of records without the column
+
+    private static final char[] KINDS = { 'R', 'F', 'M' };
+
+    private final long endTime;
+    private final long seed;
+    private final Topology topology;
+    private final int xDimension;
+    private final int yDimension;
+    private final int numMines;
+    private final int status;
+    private final int moveCounter;
+    private final int minutes;
+    private final int seconds;
+    private final int safeStart;
+    private final String mode;
+    private final int[] moveKinds;
+    private final int[] moveCells;
+    private final int[] moveTimes;
+
+    /**
+     * Constructor sets up a record from its fields. The move arrays are kept,
+     * not copied, and commas and semicolons in the name of the mode are
+     * replaced.
+     */
+    public GameRecord(long endTime, long seed, Topology topology, int xDimension,
+                      int yDimension, int numMines, int status, int moveCounter, int minutes,
+                      int seconds, int safeStart, String mode, int[] moveKinds, int[] moveCells,
+                      int[] moveTimes) {
+        if (moveKinds.length != moveCells.length || moveKinds.length != moveTimes.length) {
+            throw new IllegalArgumentException("Move arrays differ in length");
+        }
+        this.endTime = endTime;
+        this.seed = seed;
+        this.topology = topology;
+        this.xDimension = xDimension;
+        this.yDimension = yDimension;
+        this.numMines = numMines;
+        this.status = status;
+        this.moveCounter = moveCounter;
+        this.minutes = minutes;
+        this.seconds = seconds;
+        this.safeStart = safeStart;
+        this.mode = mode.replaceAll("[,;\\r\\n]", "_");
+        this.moveKinds = moveKinds;
+        this.moveCells = moveCells;
+        this.moveTimes = moveTimes;
+    }
+
+    /**
+     * Creates the record of a finished game from its model.
+     *
+     * @param m model of the finished game
+     * @return record of the game, ending now
+     */
+    static GameRecord of(MineSweeper m) {
+        MoveLog log = m.getMoveLog();
+        int[] kinds = new int[log.size()];
+        int[] cells = new int[kinds.length];
+        int[] times = new int[kinds.length];
+        int n = 0;
+        for (Iterator<MoveLog.Move> it = log.moves(); it.hasNext() && n < kinds.length; n++) {
+            MoveLog.Move move = it.next();
+            kinds[n] = move.kind;
+            cells[n] = move.index;
+            times[n] = (int) Math.max(0, move.time - m.getStartTime());
+        }
+        return new GameRecord(
+                System.currentTimeMillis(), m.getSeed(), m.getTopology(), m.getXDimension(),
+                m.getYDimension(), m.getNumMines(), m.getStatus(), m.getMoveCounter(),
+                m.getMinutes(), m.getSeconds(), m.getSafeStart(), m.getMode().getName(),
+                Arrays.copyOf(kinds, n), Arrays.copyOf(cells, n), Arrays.copyOf(times, n)
+        );
+    }
+
+    /**
+     * Writes the record as a CSV line, without the line break.
+     *
+     * @param out builder the line is appended to
+     * @return the builder
+     */
+    public StringBuilder toCsv(StringBuilder out) {
+        out.append(endTime).append(',').append(seed).append(',').append(topology).append(',')
+                .append(xDimension).append(',').append(yDimension).append(',').append(numMines)
+                .append(',').append(status == 1 ? "won" : "lost").append(',').append(moveCounter)
+                .append(',').append(minutes).append(',').append(seconds).append(',')
+                .append(safeStart).append(',').append(mode).append(',');
+        for (int i = 0; i < moveKinds.length; i++) {
+            if (i > 0) {
+                out.append(';');
+            }
+            out.append(KINDS[moveKinds[i]]).append(':').append(moveCells[i]).append(':')
+                    .append(moveTimes[i]);
+        }
+        return out;
+    }
+
+    /**
+     * Reads a record from a CSV line written by toCsv, or by a version that
+     * did not keep the safe start and mode yet.
+     *
+     * @param line CSV line without the line break
+     * @return the record
+     * @throws IllegalArgumentException if the line is not a valid record
+     */
+    public static GameRecord parse(String line) {
+        String[] columns = line.split(",", -1);
+        if (columns.length != 11 && columns.length != 13) {
+            throw new IllegalArgumentException("Expected 13 columns: " + line);
+        }
+        boolean legacy = columns.length == 11;
+        String list = columns[columns.length - 1];
+        int moves = list.isEmpty() ? 0 : 1;
+        for (int i = 0; i < list.length(); i++) {
+            if (list.charAt(i) == ';') {
+                moves++;
+            }
+        }
+        int[] kinds = new int[moves];
+        int[] cells = new int[moves];
+        int[] times = new int[moves];
+        int start = 0;
+        for (int i = 0; i < moves; i++) {
+            int end = list.indexOf(';', start);
+            if (end < 0) {
+                end = list.length();
+            }
+            int colon = list.indexOf(':', start + 2);
+            if (list.charAt(start + 1) != ':' || colon < 0 || colon > end) {
+                throw new IllegalArgumentException("Bad move: " + list.substring(start, end));
+            }
+            kinds[i] = kind(list.charAt(start));
+            cells[i] = Integer.parseInt(list, start + 2, colon, 10);
+            times[i] = Integer.parseInt(list, colon + 1, end, 10);
+            start = end + 1;
+        }
+        int status;
+        if (columns[6].equals("won")) {
+            status = 1;
+        } else if (columns[6].equals("lost")) {
+            status = 2;
+        } else {
+            throw new IllegalArgumentException("Bad outcome: " + columns[6]);
+        }
+        return new GameRecord(
+                Long.parseLong(columns[0]), Long.parseLong(columns[1]),
+                Topology.valueOf(columns[2]), Integer.parseInt(columns[3]),
+                Integer.parseInt(columns[4]), Integer.parseInt(columns[5]), status,
+                Integer.parseInt(columns[7]), Integer.parseInt(columns[8]),
+                Integer.parseInt(columns[9]),
+                legacy ? SAFE_START_UNKNOWN : Integer.parseInt(columns[10]),
+                legacy ? GameModes.CLASSIC.getName() : columns[11], kinds, cells, times
+        );
+    }
+
+    private static int kind(char c) {
+        for (int k = 0; k < KINDS.length; k++) {
+            if (KINDS[k] == c) {
+                return k;
+            }
+        }
+        throw new IllegalArgumentException("Bad move kind: " + c);
+    }
+
+    /**
+     * Gets the time the game ended
+     *
+     * @return end time in milliseconds since the epoch
+     */
+    public long getEndTime() {
+        return endTime;
+    }
+
+    /**
+     * Gets the seed the mines were placed with
+     *
+     * @return seed of the board
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Gets the topology of the board
+     *
+     * @return topology deciding the neighbours of each cell
+     */
+    public Topology getTopology() {
+        return topology;
+    }
+
+    /**
+     * Gets the number of columns of the board
+     *
+     * @return xDimension of the board
+     */
+    public int getXDimension() {
+        return xDimension;
+    }
+
+    /**
+     * Gets the number of rows of the board
+     *
+     * @return yDimension of the board
+     */
+    public int getYDimension() {
+        return yDimension;
+    }
+
+    /**
+     * Gets the number of mines on the board
+     *
+     * @return numMines of the board
+     */
+    public int getNumMines() {
+        return numMines;
+    }
+
+    /**
+     * Gets the outcome of the game
+     * 1 --> game over and user won, 2 --> game over and user lost
+     *
+     * @return status of the finished game
+     */
+    public int getStatus() {
+        return status;
+    }
+
+    /**
+     * Gets the number of moves the game took
+     *
+     * @return moveCounter of the finished game
+     */
+    public int getMoveCounter() {
+        return moveCounter;
+    }
+
+    /**
+     * Gets the minutes the game took
+     *
+     * @return minutes of the finished game
+     */
+    public int getMinutes() {
+        return minutes;
+    }
+
+    /**
+     * Gets the seconds the game took, on top of the minutes
+     *
+     * @return seconds of the finished game
+     */
+    public int getSeconds() {
+        return seconds;
+    }
+
+    /**
+     * Gets the safe start the game was played with
+     *
+     * @return MineSweeper.SAFE_START_OFF, SAFE_START_CELL or SAFE_START_OPENING,
+     *         or SAFE_START_UNKNOWN for a record of an older version
+     */
+    public int getSafeStart() {
+        return safeStart;
+    }
+
+    /**
+     * Gets the name of the mode the game was played in
+     *
+     * @return name of the game mode
+     */
+    public String getMode() {
+        return mode;
+    }
+
+    /**
+     * Gets the number of moves in the move list
+     *
+     * @return number of moves that were made and not undone
+     */
+    public int getMoveCount() {
+        return moveKinds.length;
+    }
+
+    /**
+     * Gets the kind of a move
+     *
+     * @param i position of the move in the move list
+     * @return MoveLog.REVEAL, MoveLog.FLAG or MoveLog.MINE
+     */
+    public int getMoveKind(int i) {
+        return moveKinds[i];
+    }
+
+    /**
+     * Gets the cell a move was made on
+     *
+     * @param i position of the move in the move list
+     * @return flat index x * yDimension + y of the cell
+     */
+    public int getMoveCell(int i) {
+        return moveCells[i];
+    }
+
+    /**
+     * Gets the time a move was made
+     *
+     * @param i position of the move in the move list
+     * @return milliseconds since the game started
+     */
+    public int getMoveTime(int i) {
+        return moveTimes[i];
+    }
+}
@@ -0,0 +1,401 @@
+package org.MineSweeperGUI.MineSweeper;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class hosts MineSweeper games over the network. Every connection owns
+ * one session, which holds a MineSweeper model and its gameBoard. The server
+ * speaks the binary format described in Protocol.
+ * <p>
+ * A single selector thread accepts connections and reads and writes bytes
+ * without blocking. Complete frames are handed to worker threads, which play
+ * the moves and queue the replies. Frames from one session are always handled
+ * one at a time and in order, so a model is never touched by two threads at
+ * once, while different sessions run in parallel. Workers are virtual threads
+ * when the runtime supports them, and a fixed pool sized to the machine
+ * otherwise.
+ * <p>
+ * Games hosted by the server are never saved to disk.
+ */
+public class GameServer implements Closeable {
+
+    public static final int DEFAULT_PORT = 7777;
+
+    private final ServerSocketChannel server;
+    private final Selector selector;
+    private final ExecutorService workers;
+    private final Thread selectorThread;
+    private final Queue<Session> pendingWrites = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger sessionCount = new AtomicInteger();
+    private volatile boolean running = true;
+
+    /**
+     * Holds the state of a single connection.
+     */
+    private final class Session {
+        final SocketChannel channel;
+        final SelectionKey key;
+        final Queue<byte[]> inbound = new ConcurrentLinkedQueue<>();
+        final Queue<ByteBuffer> outbound = new ConcurrentLinkedQueue<>();
+        final AtomicBoolean scheduled = new AtomicBoolean();
+        ByteBuffer readBuffer = ByteBuffer.allocate(256);
+        MineSweeper model;
+        Cell[][] game;
+
+        Session(SocketChannel channel, SelectionKey key) {
+            this.channel = channel;
+            this.key = key;
+        }
+    }
+
+    /**
+     * Starts a server listening on the given address.
+     *
+     * @param address address to bind to, port 0 picks a free port
+     * @throws IOException if the address cannot be bound
+     */
+    public GameServer(InetSocketAddress address) throws IOException {
+        selector = Selector.open();
+        server = ServerSocketChannel.open();
+        server.bind(address, 1024);
+        server.configureBlocking(false);
+        server.register(selector, SelectionKey.OP_ACCEPT);
+        workers = newWorkers();
+        selectorThread = new Thread(this::selectLoop, "minesweeper-selector");
+        selectorThread.setDaemon(true);
+        selectorThread.start();
+    }
+
+    /**
+     * Starts a server on a free port of the loopback interface, so a game can
+     * be played over the protocol without leaving the machine.
+     *
+     * @return the running server
+     * @throws IOException if no port can be bound
+     */
+    public static GameServer loopback() throws IOException {
+        return new GameServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+    }
+
+    /**
+     * Gets the port the server is listening on
+     *
+     * @return port of the server socket
+     */
+    public int getPort() {
+        return server.socket().getLocalPort();
+    }
+
+    /**
+     * Gets the number of connected sessions
+     *
+     * @return sessionCount noting how many clients are connected
+     */
+    public int getSessionCount() {
+        return sessionCount.get();
+    }
+
+    /**
+     * Stops accepting connections, closes every session and stops the workers.
+     */
+    @Override
+    public void close() throws IOException {
+        running = false;
+        selector.wakeup();
+        try {
+            selectorThread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        workers.shutdown();
+        try {
+            workers.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Creates the worker pool. Virtual threads are looked up reflectively so
+     * the server still runs on runtimes that do not have them.
+     *
+     * @return executor that plays the moves
+     */
+    private static ExecutorService newWorkers() {
+        try {
+            Method m = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) m.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger ids = new AtomicInteger();
+            return Executors.newFixedThreadPool(
+                    Runtime.getRuntime().availableProcessors(), r -> {
+                        Thread t = new Thread(r, "minesweeper-worker-" + ids.incrementAndGet());
+                        t.setDaemon(true);
+                        return t;
+                    }
+            );
+        }
+    }
+
+    /**
+     * Runs on the selector thread. Accepts connections, reads frames and
+     * flushes queued replies until the server is closed.
+     */
+    private void selectLoop() {
+        try {
+            while (running) {
+                selector.select();
+                Session pending;
+                while ((pending = pendingWrites.poll()) != null) {
+                    if (pending.key.isValid()) {
+                        pending.key.interestOps(pending.key.interestOps() | SelectionKey.OP_WRITE);
+                    }
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                        continue;
+                    }
+                    Session s = (Session) key.attachment();
+                    try {
+                        if (key.isReadable()) {
+                            read(s);
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            write(s);
+                        }
+                    } catch (IOException e) {
+                        closeSession(s);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // selector failed, fall through and shut down
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                if (key.attachment() instanceof Session) {
+                    closeSession((Session) key.attachment());
+                }
+            }
+            try {
+                server.close();
+                selector.close();
+            } catch (IOException e) {
+            }
+        }
+    }
+
+    /**
+     * Accepts every pending connection and registers a session for it.
+     */
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = server.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+            SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+            key.attach(new Session(channel, key));
+            sessionCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * Reads whatever bytes are available and splits them into frames. Every
+     * complete frame is queued on the session, which is then scheduled on a
+     * worker.
+     *
+     * @param s the session to read from
+     */
+    private void read(Session s) throws IOException {
+        if (s.channel.read(s.readBuffer) < 0) {
+            closeSession(s);
+            return;
+        }
+        ByteBuffer buf = s.readBuffer;
+        buf.flip();
+        boolean received = false;
+        while (buf.remaining() >= 4) {
+            int length = buf.getInt(buf.position());
+            if (length <= 0 || length > Protocol.MAX_FRAME) {
+                closeSession(s);
+                return;
+            }
+            if (buf.remaining() < 4 + length) {
+                if (buf.capacity() < 4 + length) {
+                    ByteBuffer bigger = ByteBuffer.allocate(4 + length);
+                    bigger.put(buf);
+                    bigger.flip();
+                    buf = bigger;
+                }
+                break;
+            }
+            buf.getInt();
+            byte[] frame = new byte[length];
+            buf.get(frame);
+            s.inbound.add(frame);
+            received = true;
+        }
+        buf.compact();
+        s.readBuffer = buf;
+        if (received) {
+            schedule(s);
+        }
+    }
+
+    /**
+     * Writes as many queued replies as the socket will take. Interest in
+     * writing is dropped once the queue is empty.
+     *
+     * @param s the session to write to
+     */
+    private void write(Session s) throws IOException {
+        ByteBuffer buf;
+        while ((buf = s.outbound.peek()) != null) {
+            s.channel.write(buf);
+            if (buf.hasRemaining()) {
+                return;
+            }
+            s.outbound.poll();
+        }
+        s.key.interestOps(s.key.interestOps() & ~SelectionKey.OP_WRITE);
+        if (!s.outbound.isEmpty()) {
+            pendingWrites.add(s);
+        }
+    }
+
+    /**
+     * Hands the session to a worker unless one is already draining it.
+     *
+     * @param s the session with new frames
+     */
+    private void schedule(Session s) {
+        if (s.scheduled.compareAndSet(false, true)) {
+            workers.execute(() -> drain(s));
+        }
+    }
+
+    /**
+     * Runs on a worker. Handles every queued frame of the session in order.
+     *
+     * @param s the session to drain
+     */
+    private void drain(Session s) {
+        do {
+            byte[] frame;
+            while ((frame = s.inbound.poll()) != null) {
+                s.outbound.add(handle(s, ByteBuffer.wrap(frame)));
+            }
+            pendingWrites.add(s);
+            selector.wakeup();
+            s.scheduled.set(false);
+        } while (!s.inbound.isEmpty() && s.scheduled.compareAndSet(false, true));
+    }
+
+    /**
+     * Plays a single frame against the session's game and builds the reply.
+     *
+     * @param s     the session the frame came from
+     * @param frame the frame, positioned at its opcode
+     * @return the reply frame
+     */
+    private ByteBuffer handle(Session s, ByteBuffer frame) {
+        byte op = frame.get();
+        if (op == Protocol.NEW_GAME) {
+            if (frame.remaining() < 8) {
+                return Protocol.error("Malformed frame");
+            }
+            MineSweeper model = new MineSweeper();
+            int lower = frame.getInt();
+            int upper = frame.getInt();
+            int cells = model.getXDimension() * model.getYDimension();
+            if (lower < 0 || upper < lower || upper > cells) {
+                return Protocol.error("Invalid number of mines");
+            }
+            model.setSaveFile(null);
+            s.model = model;
+            s.game = model.gameBoard(lower, upper, false);
+            return Protocol.delta(model, s.game, new long[0], true);
+        }
+        if (op != Protocol.REVEAL && op != Protocol.FLAG && op != Protocol.CHORD) {
+            return Protocol.error("Unknown opcode " + op);
+        }
+        if (s.model == null) {
+            return Protocol.error("No game in progress");
+        }
+        if (frame.remaining() < 4) {
+            return Protocol.error("Malformed frame");
+        }
+        int x = frame.getShort();
+        int y = frame.getShort();
+        MineSweeper m = s.model;
+        int movesBefore = m.getMoveCounter();
+        if (op == Protocol.CHORD) {
+            m.chord(s.game, x, y);
+        } else {
+            m.play(s.game, x, y, op == Protocol.FLAG);
+        }
+        long[] runs;
+        if (m.getMoveCounter() == movesBefore) {
+            runs = new long[0];
+        } else if (m.getStatus() != 0) {
+            runs = new long[] { (long) m.getXDimension() * m.getYDimension() };
+        } else {
+            MoveLog.Move move = m.getMoveLog().last();
+            runs = move.kind == MoveLog.FLAG ? new long[] { ((long) move.index << 32) | 1 }
+                    : move.runs;
+        }
+        return Protocol.delta(m, s.game, runs, false);
+    }
+
+    /**
+     * Closes the connection of a session and forgets about it.
+     *
+     * @param s the session to close
+     */
+    private void closeSession(Session s) {
+        if (!s.channel.isOpen()) {
+            return;
+        }
+        s.key.cancel();
+        try {
+            s.channel.close();
+        } catch (IOException e) {
+        }
+        sessionCount.decrementAndGet();
+    }
+
+    /**
+     * Runs a standalone server. The port can be given as the first argument.
+     *
+     * @param args optional port number
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        GameServer server = new GameServer(new InetSocketAddress(port));
+        System.out.println("MineSweeper server listening on port " + server.getPort());
+        server.selectorThread.join();
+    }
+}
@@ -0,0 +1,470 @@
+package org.MineSweeperGUI.MineSweeper;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+/**
+ * This class keeps the best scores of won games, with one table per board
+ * configuration (topology and dimensions). Each table is a file in the
+ * leaderboard directory holding one line per entry. Entries are ranked by
+ * score, then moves, then the date the game was won.
+ * <p>
+ * A table is only read the first time it is used, so creating a Leaderboard
+ * costs nothing at startup. Once loaded, the entries are kept in a sorted
+ * tree that knows the size of each subtree, with the best entry of every
+ * player next to it. Adding an entry and finding its rank is one walk down
+ * the tree, which takes logarithmic time on average, the top entries are the
+ * start of the tree, and a personal best is a single lookup.
+ * <p>
+ * A table file is an append log: a new entry is written as one line at the
+ * end of the file, so a submit never rewrites the entries already there.
+ * Every so many entries, counting those found past the sorted start of the
+ * file when it is read, and whenever the file turns out to be damaged, the
+ * table is compacted: written sorted to a temporary file which then replaces
+ * the old file in one atomic move. A crash while appending costs at most the
+ * line being written, and a crash while compacting leaves either the old
+ * file or the new one, never a mix of both.
+ */
+public class Leaderboard {
+
+    // entries appended to a table file before it is compacted
+    private static final int COMPACT_AFTER = 64;
+
+    private static final Comparator<Entry> ORDER = Comparator.comparingInt(Entry::getScore)
+            .thenComparingInt(Entry::getMoves)
+            .thenComparingLong(Entry::getDate)
+            .thenComparing(Entry::getName);
+
+    private final File directory;
+    private final Map<String, Table> tables = new HashMap<>(); // tables loaded so far
+
+    /**
+     * A single won game on the leaderboard.
+     */
+    public static final class Entry {
+        private final String name;
+        private final int score;
+        private final int moves;
+        private final long date;
+
+        /**
+         * Constructor sets up an entry.
+         *
+         * @param name  name of the player, commas and line breaks are replaced
+         * @param score what the game is ranked by, lower is better; the time
+         *              in seconds for a classic game, see GameMode.score
+         * @param moves number of moves the game took
+         * @param date  time the game was won in milliseconds since the epoch
+         */
+        public Entry(String name, int score, int moves, long date) {
+            this.name = clean(name);
+            this.score = score;
+            this.moves = moves;
+            this.date = date;
+        }
+
+        /**
+         * Gets the name of the player
+         *
+         * @return name of the player
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Gets the score the game is ranked by
+         *
+         * @return score in seconds, lower is better
+         */
+        public int getScore() {
+            return score;
+        }
+
+        /**
+         * Gets the number of moves the game took
+         *
+         * @return moves of the game
+         */
+        public int getMoves() {
+            return moves;
+        }
+
+        /**
+         * Gets the time the game was won
+         *
+         * @return date in milliseconds since the epoch
+         */
+        public long getDate() {
+            return date;
+        }
+
+        /**
+         * Gets the line of a table file holding the entry
+         *
+         * @return score, moves, date and name separated by commas
+         */
+        String toLine() {
+            return score + "," + moves + "," + date + "," + name + "\n";
+        }
+    }
+
+    /**
+     * The entries of one board configuration, in a treap: a binary search
+     * tree ordered by ORDER whose shape is kept balanced by random
+     * priorities. Each node knows the size of its subtree, so the rank of a
+     * new entry is counted on the way down while it is inserted. Entries
+     * that compare equal are kept, the newer one after the older.
+     */
+    private static final class Ranking implements Iterable<Entry> {
+
+        private static final class Node {
+            final Entry entry;
+            final int priority;
+            Node left;
+            Node right;
+            int size = 1; // entries in the subtree of this node
+
+            Node(Entry entry, int priority) {
+                this.entry = entry;
+                this.priority = priority;
+            }
+        }
+
+        private final Random priorities = new Random(0);
+        private Node root;
+        private int rank; // entries ahead of the entry being inserted
+
+        /**
+         * Adds an entry in its sorted position.
+         *
+         * @return zero-based position of the entry
+         */
+        int add(Entry e) {
+            rank = 0;
+            root = insert(root, new Node(e, priorities.nextInt()));
+            return rank;
+        }
+
+        private Node insert(Node t, Node n) {
+            if (t == null) {
+                return n;
+            }
+            if (ORDER.compare(n.entry, t.entry) < 0) {
+                t.left = insert(t.left, n);
+                if (t.left.priority > t.priority) {
+                    t = rotateRight(t);
+                }
+            } else {
+                rank += size(t.left) + 1;
+                t.right = insert(t.right, n);
+                if (t.right.priority > t.priority) {
+                    t = rotateLeft(t);
+                }
+            }
+            t.size = size(t.left) + size(t.right) + 1;
+            return t;
+        }
+
+        private static Node rotateRight(Node t) {
+            Node l = t.left;
+            t.left = l.right;
+            l.right = t;
+            t.size = size(t.left) + size(t.right) + 1;
+            return l;
+        }
+
+        private static Node rotateLeft(Node t) {
+            Node r = t.right;
+            t.right = r.left;
+            r.left = t;
+            t.size = size(t.left) + size(t.right) + 1;
+            return r;
+        }
+
+        private static int size(Node t) {
+            return t == null ? 0 : t.size;
+        }
+
+        int size() {
+            return size(root);
+        }
+
+        /**
+         * Walks the entries in order, best first.
+         */
+        @Override
+        public Iterator<Entry> iterator() {
+            ArrayDeque<Node> path = new ArrayDeque<>();
+            for (Node t = root; t != null; t = t.left) {
+                path.push(t);
+            }
+            return new Iterator<Entry>() {
+                @Override
+                public boolean hasNext() {
+                    return !path.isEmpty();
+                }
+
+                @Override
+                public Entry next() {
+                    if (path.isEmpty()) {
+                        throw new NoSuchElementException();
+                    }
+                    Node t = path.pop();
+                    for (Node n = t.right; n != null; n = n.left) {
+                        path.push(n);
+                    }
+                    return t.entry;
+                }
+            };
+        }
+    }
+
+    /**
+     * The entries of one board configuration.
+     */
+    private static final class Table {
+        final File file;
+        final Ranking entries = new Ranking();
+        final Map<String, Entry> best = new HashMap<>(); // best entry of each player
+        int appended; // lines appended since the file was last compacted
+        boolean damaged; // if the file has a line that could not be read
+
+        Table(File file) {
+            this.file = file;
+        }
+
+        /**
+         * Adds an entry in its sorted position.
+         *
+         * @return zero-based position of the entry
+         */
+        int add(Entry e) {
+            int pos = entries.add(e);
+            Entry old = best.get(e.getName());
+            if (old == null || ORDER.compare(e, old) < 0) {
+                best.put(e.getName(), e);
+            }
+            return pos;
+        }
+    }
+
+    /**
+     * Constructor sets up a leaderboard in the given directory. Nothing is
+     * read until a table is first used.
+     *
+     * @param directory directory holding one file per board configuration
+     */
+    public Leaderboard(File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Replaces the characters that would break a line of a table file.
+     *
+     * @param name name of a player
+     * @return name without commas or line breaks
+     */
+    private static String clean(String name) {
+        return name.replaceAll("[,\\r\\n]", "_");
+    }
+
+    /**
+     * Gets the name of the file holding a board configuration
+     *
+     * @param topology   topology of the board
+     * @param xDimension number of columns of the board
+     * @param yDimension number of rows of the board
+     * @return file name of the table
+     */
+    static String fileName(Topology topology, int xDimension, int yDimension) {
+        return topology.name().toLowerCase() + "-" + xDimension + "x" + yDimension + ".csv";
+    }
+
+    /**
+     * Gets the table of a board configuration, reading it on first use. A
+     * missing file is an empty table, and unreadable lines are skipped.
+     */
+    private Table table(Topology topology, int xDimension, int yDimension) {
+        String name = fileName(topology, xDimension, yDimension);
+        Table t = tables.get(name);
+        if (t != null) {
+            return t;
+        }
+        t = new Table(new File(directory, name));
+        if (t.file.exists()) {
+            try (BufferedReader br = new BufferedReader(new FileReader(t.file))) {
+                String line;
+                Entry previous = null;
+                boolean sorted = true; // noting if the lines so far were in order
+                while ((line = br.readLine()) != null) {
+                    String[] splitted = line.split(",", 4);
+                    if (splitted.length != 4) {
+                        t.damaged = true;
+                        continue;
+                    }
+                    Entry entry;
+                    try {
+                        entry = new Entry(splitted[3], Integer.parseInt(splitted[0]),
+                                Integer.parseInt(splitted[1]), Long.parseLong(splitted[2]));
+                    } catch (NumberFormatException e) {
+                        t.damaged = true;
+                        continue;
+                    }
+                    t.add(entry);
+                    // lines past the sorted start were appended since the last
+                    // compaction, and count towards the next one
+                    sorted &= previous == null || ORDER.compare(previous, entry) <= 0;
+                    if (!sorted) {
+                        t.appended++;
+                    }
+                    previous = entry;
+                }
+            } catch (IOException e) {
+            }
+            // a line cut short by a crash would swallow the next appended line
+            t.damaged |= !endsWithNewline(t.file);
+        }
+        tables.put(name, t);
+        return t;
+    }
+
+    /**
+     * Checks if a file is empty or its last line is complete.
+     *
+     * @param file a table file
+     * @return boolean noting if a line can be appended to the file
+     */
+    private static boolean endsWithNewline(File file) {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            if (raf.length() == 0) {
+                return true;
+            }
+            raf.seek(raf.length() - 1);
+            return raf.read() == '\n';
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Adds a won game to the table of its board configuration and saves it,
+     * appending it to the table file or compacting the file when it is due.
+     *
+     * @param topology   topology of the board
+     * @param xDimension number of columns of the board
+     * @param yDimension number of rows of the board
+     * @param entry      the won game
+     * @return rank of the game on its table, starting at 1
+     * @throws IOException if the table could not be saved; the entry is then
+     *                     still on the table in memory
+     */
+    public synchronized int submit(Topology topology, int xDimension, int yDimension, Entry entry)
+            throws IOException {
+        Table t = table(topology, xDimension, yDimension);
+        int rank = t.add(entry) + 1;
+        if (t.damaged || t.appended + 1 >= COMPACT_AFTER) {
+            compact(t);
+        } else {
+            append(t, entry);
+        }
+        return rank;
+    }
+
+    /**
+     * Writes one entry at the end of a table file.
+     */
+    private void append(Table t, Entry e) throws IOException {
+        directory.mkdirs();
+        try (FileWriter fw = new FileWriter(t.file, true)) {
+            fw.write(e.toLine());
+        }
+        t.appended++;
+    }
+
+    /**
+     * Writes a table sorted to a temporary file and moves it over the old
+     * file.
+     */
+    private void compact(Table t) throws IOException {
+        directory.mkdirs();
+        File tmp = new File(directory, t.file.getName() + ".tmp");
+        try (FileWriter fw = new FileWriter(tmp)) {
+            StringBuilder sb = new StringBuilder();
+            for (Entry e : t.entries) {
+                sb.append(e.toLine());
+            }
+            fw.write(sb.toString());
+        }
+        try {
+            Files.move(tmp.toPath(), t.file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp.toPath(), t.file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        t.appended = 0;
+        t.damaged = false;
+    }
+
+    /**
+     * Gets the best entries of a board configuration.
+     *
+     * @param topology   topology of the board
+     * @param xDimension number of columns of the board
+     * @param yDimension number of rows of the board
+     * @param n          largest number of entries to return
+     * @return up to n entries, best first
+     */
+    public synchronized List<Entry> top(Topology topology, int xDimension, int yDimension, int n) {
+        List<Entry> top = new ArrayList<>(n);
+        for (Entry e : table(topology, xDimension, yDimension).entries) {
+            if (top.size() >= n) {
+                break;
+            }
+            top.add(e);
+        }
+        return top;
+    }
+
+    /**
+     * Gets the best entry of one player on a board configuration.
+     *
+     * @param topology   topology of the board
+     * @param xDimension number of columns of the board
+     * @param yDimension number of rows of the board
+     * @param name       name of the player
+     * @return the best entry of the player, or null if they have none
+     */
+    public synchronized Entry personalBest(Topology topology, int xDimension, int yDimension,
+                                           String name) {
+        return table(topology, xDimension, yDimension).best.get(clean(name));
+    }
+
+    /**
+     * Gets the number of entries of a board configuration
+     *
+     * @param topology   topology of the board
+     * @param xDimension number of columns of the board
+     * @param yDimension number of rows of the board
+     * @return number of won games on the table
+     */
+    public synchronized int size(Topology topology, int xDimension, int yDimension) {
+        return table(topology, xDimension, yDimension).entries.size();
+    }
+}
@@ -0,0 +1,91 @@
+package org.MineSweeperGUI.MineSweeper;
+
+/**
+ * This class is the limited flags mode: the classic board, with only a few
+ * flags to mark mines with. Every flag still unused when the game is won
+ * takes a few seconds off its score, so games solved in the head rank best.
+ */
+public class LimitedFlagsMode extends ClassicMode {
+
+    // flags a game may have on the board at once
+    static final int FLAGS = 5;
+    // seconds taken off the score for each flag left
+    static final int FLAG_BONUS = 5;
+
+    /**
+     * Gets the name of the mode
+     *
+     * @return "Limited flags"
+     */
+    @Override
+    public String getName() {
+        return "Limited flags";
+    }
+
+    /**
+     * Gets a line telling the player what the mode is about
+     *
+     * @return description of the mode
+     */
+    @Override
+    public String getDescription() {
+        return "Only " + FLAGS + " flags. Each flag left takes " + FLAG_BONUS
+                + " seconds off the time.";
+    }
+
+    /**
+     * Counts the flags on the board. The board of this mode is small, so
+     * the flags are counted when asked for rather than kept by the model.
+     */
+    private static int flags(Cell[][] game) {
+        int flags = 0;
+        for (Cell[] column : game) {
+            for (Cell c : column) {
+                if (c.getIsFlagged()) {
+                    flags++;
+                }
+            }
+        }
+        return flags;
+    }
+
+    /**
+     * Allows a flag while fewer than FLAGS cells are flagged.
+     *
+     * @param m    model of the game
+     * @param game gameBoard of the game
+     * @param x    x value of the cell
+     * @param y    y value of the cell
+     * @return boolean noting if a flag is left
+     */
+    @Override
+    public boolean canFlag(MineSweeper m, Cell[][] game, int x, int y) {
+        return flags(game) < FLAGS;
+    }
+
+    /**
+     * Scores a won game by its time less FLAG_BONUS for every flag left.
+     *
+     * @param m    model of the won game
+     * @param game gameBoard of the won game
+     * @return score of the game in seconds, at least 0
+     */
+    @Override
+    public int score(MineSweeper m, Cell[][] game) {
+        int time = m.getMinutes() * 60 + m.getSeconds();
+        return Math.max(0, time - (FLAGS - flags(game)) * FLAG_BONUS);
+    }
+
+    /**
+     * Shows the flags left.
+     *
+     * @param m       model of the game
+     * @param game    gameBoard of the game
+     * @param elapsed seconds the game has taken so far
+     * @return flags left as text
+     */
+    @Override
+    public String status(MineSweeper m, Cell[][] game, int elapsed) {
+        return "Flags left: " + (FLAGS - flags(game)) + ".";
+    }
+}
@@ -2,8 +2,15 @@ package org.MineSweeperGUI.MineSweeper;
 
 
 import java.io.*;
+import java.util.Arrays;
+import java.util.Random;
 
-public class MineSweeper {
+public class MineSweeper implements MineSweeperEngine {
+
+    // what a first click is guaranteed not to hit
+    public static final int SAFE_START_OFF = 0;
+    public static final int SAFE_START_CELL = 1; // the clicked cell
+    public static final int SAFE_START_OPENING = 2; // the clicked cell and its neighbours
 
     // instance variables associated with the MineSweeper class
     private final int xDimension;
@@ -14,13 +21,80 @@ public class MineSweeper {
     private int minutes;
     private int seconds;
     private int numMines;
+    private final MoveLog log = new MoveLog();
+    private File saveFile = new File("moves.csv");
+    private SaveSlots slots; // index kept up to date with the save, if any
+    private String slotName;
+
+    private boolean parallelReveal;
+    private GameHistory history; // where finished games are recorded, if anywhere
+    private final long seed;
+    private final Random random;
+    private final Topology topology;
+    private NeighbourTable neighbours; // shared table, looked up on first use
+    private volatile BoardSnapshot snapshot; // board after the latest move
+    private GameEvents events; // listeners and their event slots, made on first use
+    private int lastTick = -1; // seconds of the game at the last timer tick
+    private SaveFile.Report loadReport; // what the last load of the save found
+    private int safeStart = SAFE_START_OFF;
+    private boolean firstClick; // noting if no cell was opened on the new board yet
+    private boolean lazyMines;
+    private boolean minesPending; // noting if the mines of a lazy board are not placed yet
+    private GameMode mode = GameModes.CLASSIC; // rules beyond the usual ones
+    private boolean timeUp; // noting if the game was lost because its time ran out
+    private boolean practice; // noting if a mine hit may be undone
+    private boolean usedUndo; // noting if a move of the game was undone
+    private boolean recorded; // noting if the game was put in the history
+    private Cell[][] board; // gameBoard made last, which the engine methods play on
 
     /**
      * Constructor sets up game state.
      */
     public MineSweeper() {
-        xDimension = 10;
-        yDimension = 10;
+        this(10, 10);
+    }
+
+    /**
+     * Constructor sets up game state for a board of the given size.
+     *
+     * @param xDimension number of columns on the board
+     * @param yDimension number of rows on the board
+     */
+    public MineSweeper(int xDimension, int yDimension) {
+        this(xDimension, yDimension, new Random().nextLong());
+    }
+
+    /**
+     * Constructor sets up game state for a board of the given size whose mines
+     * are placed by a random generator with the given seed. Two games with the
+     * same size and seed are given the same gameBoard.
+     *
+     * @param xDimension number of columns on the board
+     * @param yDimension number of rows on the board
+     * @param seed       seed for placing the mines
+     */
+    public MineSweeper(int xDimension, int yDimension, long seed) {
+        this(xDimension, yDimension, seed, Topology.SQUARE);
+    }
+
+    /**
+     * Constructor sets up game state for a seeded board of the given size and
+     * topology, which decides what the neighbours of a cell are.
+     *
+     * @param xDimension number of columns on the board
+     * @param yDimension number of rows on the board
+     * @param seed       seed for placing the mines
+     * @param topology   neighbourhood of the cells
+     */
+    public MineSweeper(int xDimension, int yDimension, long seed, Topology topology) {
+        if (xDimension < topology.minDimension() || yDimension < topology.minDimension()) {
+            throw new IllegalArgumentException("Board is too small for " + topology);
+        }
+        this.xDimension = xDimension;
+        this.yDimension = yDimension;
+        this.topology = topology;
+        this.seed = seed;
+        random = new Random(seed);
         moveCounter = 0;
         gameOver = 0;
         startTime = System.currentTimeMillis();
@@ -28,6 +102,63 @@ public class MineSweeper {
         minutes = 0;
     }
 
+    /**
+     * Gets the number of columns on the gameBoard
+     *
+     * @return xDimension noting the width of the board
+     */
+    public int getXDimension() {
+        return xDimension;
+    }
+
+    /**
+     * Gets the number of rows on the gameBoard
+     *
+     * @return yDimension noting the height of the board
+     */
+    public int getYDimension() {
+        return yDimension;
+    }
+
+    /**
+     * Gets the NeighbourTable for the dimensions and topology of the board.
+     *
+     * @return neighbours of every cell, shared with other boards of this size
+     */
+    private NeighbourTable neighbours() {
+        if (neighbours == null) {
+            neighbours = NeighbourTable.of(topology, xDimension, yDimension);
+        }
+        return neighbours;
+    }
+
+    /**
+     * Gets the topology of the board
+     *
+     * @return topology deciding the neighbours of each cell
+     */
+    public Topology getTopology() {
+        return topology;
+    }
+
+    /**
+     * Gets the seed the mines are placed with
+     *
+     * @return seed of the random generator
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Gets the number of mines placed on the gameBoard
+     *
+     * @return numMines noting how many mines there are
+     */
+    public int getNumMines() {
+        return numMines;
+    }
+
     /**
      * Gets the move counter
      *
@@ -102,9 +233,215 @@ public class MineSweeper {
         startTime = start;
     }
 
+    /**
+     * Gets the file the game state is saved to after every move
+     *
+     * @return saveFile holding the game state, or null if saving is disabled
+     */
+    public File getSaveFile() {
+        return saveFile;
+    }
+
+    /**
+     * Sets the file the game state is saved to after every move. Games that are
+     * not played from the GUI (for example on a server) pass null so nothing
+     * is written to disk.
+     *
+     * @param file the save file, or null to disable saving
+     */
+    public void setSaveFile(File file) {
+        saveFile = file;
+        slots = null;
+        slotName = null;
+    }
+
+    /**
+     * Saves the game to a slot of the save slots after every move, keeping
+     * the index of the slots up to date as it goes.
+     *
+     * @param slots the save slots
+     * @param name  name of the slot of this game
+     */
+    public void setSaveSlot(SaveSlots slots, String name) {
+        saveFile = slots.file(name);
+        this.slots = slots;
+        slotName = name;
+    }
+
+    /**
+     * Gets the name of the slot the game is saved to
+     *
+     * @return slotName of the game, or null if it is not saved to a slot
+     */
+    public String getSlotName() {
+        return slotName;
+    }
+
+    /**
+     * Gets whether large empty regions are opened in parallel
+     *
+     * @return parallelReveal noting if ParallelFloodFill is used
+     */
+    public boolean getParallelReveal() {
+        return parallelReveal;
+    }
+
+    /**
+     * Sets whether large empty regions are opened in parallel. The cells opened
+     * are exactly the same either way, this only changes how fast it happens on
+     * large boards.
+     *
+     * @param parallel true to open regions with ParallelFloodFill
+     */
+    public void setParallelReveal(boolean parallel) {
+        parallelReveal = parallel;
+    }
+
+    /**
+     * Gets the history finished games are appended to
+     *
+     * @return history of finished games, or null if games are not recorded
+     */
+    public GameHistory getHistory() {
+        return history;
+    }
+
+    /**
+     * Sets the history finished games are appended to. Games are not recorded
+     * unless a history is set.
+     *
+     * @param history history of finished games, or null to stop recording
+     */
+    public void setHistory(GameHistory history) {
+        this.history = history;
+    }
+
+    /**
+     * Gets what the first click of a game is guaranteed not to hit
+     *
+     * @return SAFE_START_OFF, SAFE_START_CELL or SAFE_START_OPENING
+     */
+    public int getSafeStart() {
+        return safeStart;
+    }
+
+    /**
+     * Sets what the first click of a game is guaranteed not to hit. Mines in
+     * the way are moved elsewhere when the first cell is opened, drawing the
+     * new places from the seeded random generator of the game, so a game
+     * played again from its seed with the same clicks gets the same board.
+     * Games that only ever clear the clicked cell can always be replayed from
+     * their seed with SAFE_START_CELL, since a first click on a mine is the
+     * only case in which the board is changed.
+     *
+     * @param safeStart SAFE_START_OFF, SAFE_START_CELL or SAFE_START_OPENING
+     */
+    public void setSafeStart(int safeStart) {
+        this.safeStart = safeStart;
+    }
+
+    /**
+     * Gets whether the mines of new boards are placed on the first reveal
+     *
+     * @return lazyMines noting if mine placement is deferred
+     */
+    public boolean getLazyMines() {
+        return lazyMines;
+    }
+
+    /**
+     * Sets whether the mines of new boards are placed when the first cell is
+     * opened instead of when the board is created. A lazy board starts out
+     * with every cell covered and no mines, and gets the same mines and
+     * numbers an eager board of the same seed would have had. The mines are
+     * also placed before a lazy board is first saved.
+     *
+     * @param lazyMines noting if mine placement is deferred
+     */
+    public void setLazyMines(boolean lazyMines) {
+        this.lazyMines = lazyMines;
+    }
+
+    /**
+     * Gets the mode whose rules the game is played by
+     *
+     * @return mode of the game, the classic mode unless another was set
+     */
+    public GameMode getMode() {
+        return mode;
+    }
+
+    /**
+     * Sets the mode whose rules the game is played by: which flags may be
+     * placed, how long the game may take and if moves may be undone.
+     *
+     * @param mode mode of the game
+     */
+    public void setMode(GameMode mode) {
+        this.mode = mode;
+    }
+
+    /**
+     * Gets whether the game is played for practice
+     *
+     * @return practice noting if a mine hit may be undone
+     */
+    public boolean getPractice() {
+        return practice;
+    }
+
+    /**
+     * Sets whether the game is played for practice. Only a practice game
+     * lets the move that hit a mine be undone, since the lost board shows
+     * where every mine is. Practice games are never put in the history.
+     *
+     * @param practice noting if a mine hit may be undone
+     */
+    public void setPractice(boolean practice) {
+        this.practice = practice;
+    }
+
+    /**
+     * Checks if a move of the game was undone, in which case a win is not
+     * ranked
+     *
+     * @return boolean noting if undo was used
+     */
+    public boolean getUsedUndo() {
+        return usedUndo;
+    }
+
+    /**
+     * Checks if the game was lost because the time limit of its mode ran out
+     *
+     * @return boolean noting if the time is up
+     */
+    public boolean getTimeUp() {
+        return timeUp;
+    }
+
+    /**
+     * Gets the seconds the game has taken so far, including the time of
+     * earlier sessions of a loaded game
+     *
+     * @return elapsed time in seconds
+     */
+    public int getElapsedSeconds() {
+        return minutes * 60 + seconds + (int) ((System.currentTimeMillis() - startTime) / 1000);
+    }
+
+    /**
+     * Gets the log of moves that can be undone and redone
+     *
+     * @return log holding the deltas of the moves made
+     */
+    public MoveLog getMoveLog() {
+        return log;
+    }
+
     /**
      * Creates the gameBoard with a random placement of mines with a random number
-     * of mines.
+     * of mines, drawn from the seeded random generator of this game.
      * Code ensures there are no repeat placement of mines and that mines are placed
      * within
      * the bounds of the gameBoard. Makes a call to countAdjacementMines which
@@ -121,69 +458,111 @@ public class MineSweeper {
      */
     public Cell[][] gameBoard(int x, int y, boolean loadPrevious) {
         if (loadPrevious) {
-            return recreateGame();
-        }
-        Cell[][] msGameBoard = new Cell[xDimension][yDimension];
-        numMines = (int) (Math.random() * (y - x)) + x;
-        int[] xValues = new int[numMines];
-        int[] yValues = new int[numMines];
-        for (int i = 0; i < numMines;) {
-            boolean insert = true;
-            int randX = (int) (Math.random() * xDimension);
-            int randY = (int) (Math.random() * yDimension);
-            for (int j = 0; j < i; j++) {
-                if (xValues[j] == randX && yValues[j] == randY) {
-                    insert = false;
-                    j = i;
-                }
-            }
-            if (insert) {
-                xValues[i] = randX;
-                yValues[i] = randY;
-                i++;
+            Cell[][] loaded = recreateGame();
+            if (loaded != null) {
+                return loaded;
             }
+            // a missing or rejected save starts a new game instead
         }
+        Cell[][] msGameBoard = new Cell[xDimension][yDimension];
+        numMines = (int) (random.nextDouble() * (y - x)) + x;
         for (int i = 0; i < xDimension; i++) {
             for (int j = 0; j < yDimension; j++) {
                 msGameBoard[i][j] = new Cell();
             }
         }
-        for (int i = 0; i < xValues.length; i++) {
-            msGameBoard[xValues[i]][yValues[i]] = new Cell(true);
+        firstClick = true;
+        minesPending = lazyMines;
+        timeUp = false;
+        usedUndo = false;
+        recorded = false;
+        if (!lazyMines) {
+            placeMines(msGameBoard);
+            setAdjacentValues(msGameBoard);
         }
-        setAdjacentValues(msGameBoard);
+        snapshot = BoardSnapshot.of(this, msGameBoard);
+        board = msGameBoard;
         return msGameBoard;
     }
 
+    /**
+     * Places the mines of a new board, drawing their places from the seeded
+     * random generator of the game.
+     *
+     * @param game contains the gameBoard, without mines
+     * @return flat indices of the mines, in the order they were placed
+     */
+    private int[] placeMines(Cell[][] game) {
+        int[] placed = new int[numMines];
+        // the board itself tells us if a position was already taken, so each
+        // attempt is checked in constant time
+        for (int i = 0; i < numMines;) {
+            int randX = (int) (random.nextDouble() * xDimension);
+            int randY = (int) (random.nextDouble() * yDimension);
+            if (!game[randX][randY].getIsMine()) {
+                game[randX][randY].setIsMine(true);
+                placed[i++] = randX * yDimension + randY;
+            }
+        }
+        return placed;
+    }
+
+    /**
+     * Places the mines of a board created with lazy mines, if they were not
+     * placed yet. The places are drawn exactly as gameBoard would have drawn
+     * them, so the board is the same as an eager board of the same seed. The
+     * numbers are worked out by counting each mine into its neighbours, on
+     * cells that all start at 0, so the work grows with the number of mines
+     * rather than with the size of the board.
+     *
+     * @param game contains the gameBoard
+     */
+    private void materialiseMines(Cell[][] game) {
+        if (!minesPending) {
+            return;
+        }
+        minesPending = false;
+        NeighbourTable neighbours = neighbours();
+        for (int mine : placeMines(game)) {
+            game[mine / yDimension][mine % yDimension].setMineNumber(-1);
+            for (int d : neighbours.deltas(neighbours.classOf(mine))) {
+                Cell c = game[(mine + d) / yDimension][(mine + d) % yDimension];
+                if (!c.getIsMine()) {
+                    c.setMineNumber(c.getMineNumber() + 1);
+                }
+            }
+        }
+        snapshot = snapshot.renew(this, game);
+    }
+
     /**
      * Modifies the gameBoard, updating individual cells to reflect how many
      * adjacent mines
      * are there. This method moreover updates the content of the cells to reflect
      * the new values
-     * that can be printed via the printBoard method.
+     * that can be printed via the printBoard method. The neighbours of each cell
+     * are read from the NeighbourTable of the board.
      *
      * @param game which is the main gameBoard
      */
     public void setAdjacentValues(Cell[][] game) {
-        int adjacentMineCount = 0;
+        NeighbourTable neighbours = neighbours();
         for (int i = 0; i < xDimension; i++) {
             for (int j = 0; j < yDimension; j++) {
-                for (int z = i - 1; z <= i + 1; z++) {
-                    for (int w = j - 1; w <= j + 1; w++) {
-                        if (!(w < 0) && !(z < 0) && (z < xDimension) && (w < yDimension)) {
-                            if (game[z][w].getIsMine() && !(w == j && z == i)) {
-                                adjacentMineCount++;
-                            }
-                        }
-                    }
-                }
-
                 if (game[i][j].getIsMine()) {
                     game[i][j].setMineNumber(-1);
-                } else {
-                    game[i][j].setMineNumber(adjacentMineCount);
+                    continue;
                 }
-                adjacentMineCount = 0;
+                int adjacentMineCount = 0;
+                int c = neighbours.classOf(i, j);
+                int[] dx = neighbours.dx(c);
+                int[] dy = neighbours.dy(c);
+                for (int k = 0; k < dx.length; k++) {
+                    if (game[i + dx[k]][j + dy[k]].getIsMine()) {
+                        adjacentMineCount++;
+                    }
+                }
+                game[i][j].setMineNumber(adjacentMineCount);
             }
         }
     }
@@ -212,25 +591,41 @@ public class MineSweeper {
      *                clicking
      */
     public void play(Cell[][] game, int x, int y, boolean isRight) {
-        if (x > 9 || y > 9 || x < 0 || y < 0) {
+        if (x >= xDimension || y >= yDimension || x < 0 || y < 0) {
             return;
         }
         if (gameOver == 1 || gameOver == 2) {
             return;
         }
+        int statusBefore = gameOver;
+        int minutesBefore = minutes;
+        int secondsBefore = seconds;
+        if (!isRight && !game[x][y].getIsFlagged()) {
+            materialiseMines(game);
+        }
+        if (!isRight && firstClick && !game[x][y].getIsFlagged()) {
+            firstClick = false;
+            if (safeStart != SAFE_START_OFF) {
+                clearStart(game, x, y);
+            }
+        }
         if (!isRight) {
             if (game[x][y].getIsFlagged()) {
                 return;
             } else if (game[x][y].getIsMine()) {
+                log.begin(MoveLog.MINE, x * yDimension + y);
                 moveCounter++;
                 gameOver = 2;
             } else {
                 if (game[x][y].getIsClicked()) {
                     return;
-                } else if (game[x][y].getMineNumber() == 0) {
+                }
+                log.begin(MoveLog.REVEAL, x * yDimension + y);
+                if (game[x][y].getMineNumber() == 0) {
                     recOpenCells(x, y, game);
                 } else {
                     game[x][y].setIsClicked(true);
+                    log.opened(x * yDimension + y);
                 }
                 moveCounter++;
                 gameOver = checkGameStatus(game);
@@ -239,9 +634,253 @@ public class MineSweeper {
             if (game[x][y].getIsClicked()) {
                 return;
             }
+            if (!game[x][y].getIsFlagged() && !mode.canFlag(this, game, x, y)) {
+                return;
+            }
+            log.begin(MoveLog.FLAG, x * yDimension + y);
             game[x][y].setIsFlagged(!game[x][y].getIsFlagged());
             moveCounter++;
         }
+        finishMove(game, statusBefore, minutesBefore, secondsBefore);
+    }
+
+    /**
+     * Moves the mines out of the way of the first click. Each mine is moved to
+     * a random cell outside the cleared area that is not a mine yet, which
+     * takes a constant number of tries on average unless the board is nearly
+     * full of mines, and only the numbers around the old and new places of
+     * the mine are updated. If there is no room outside the neighbours for
+     * their mines, only the clicked cell is cleared.
+     *
+     * @param game contains the gameBoard
+     * @param x    x value of the first click
+     * @param y    y value of the first click
+     */
+    private void clearStart(Cell[][] game, int x, int y) {
+        if (numMines == xDimension * yDimension) {
+            // no cell to move a mine to
+            return;
+        }
+        NeighbourTable neighbours = neighbours();
+        int index = x * yDimension + y;
+        int[] cleared = { index };
+        if (safeStart == SAFE_START_OPENING) {
+            int[] deltas = neighbours.deltas(neighbours.classOf(index));
+            int[] opening = new int[deltas.length + 1];
+            opening[0] = index;
+            for (int k = 0; k < deltas.length; k++) {
+                opening[k + 1] = index + deltas[k];
+            }
+            int mines = 0;
+            for (int i : opening) {
+                mines += game[i / yDimension][i % yDimension].getIsMine() ? 1 : 0;
+            }
+            // cells that are not mines and not in the opening
+            int room = xDimension * yDimension - numMines - (opening.length - mines);
+            if (room >= mines) {
+                cleared = opening;
+            }
+        }
+        boolean moved = false;
+        for (int i : cleared) {
+            Cell from = game[i / yDimension][i % yDimension];
+            if (!from.getIsMine()) {
+                continue;
+            }
+            int to;
+            do {
+                to = (int) (random.nextDouble() * xDimension) * yDimension
+                        + (int) (random.nextDouble() * yDimension);
+            } while (game[to / yDimension][to % yDimension].getIsMine() || contains(cleared, to));
+            moveMine(game, i, to);
+            moved = true;
+        }
+        if (moved) {
+            snapshot = snapshot.renew(this, game);
+        }
+    }
+
+    private static boolean contains(int[] cells, int cell) {
+        for (int c : cells) {
+            if (c == cell) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Moves a mine from one cell to another, changing the numbers of the
+     * neighbours of both cells by one instead of counting the board again.
+     */
+    private void moveMine(Cell[][] game, int from, int to) {
+        NeighbourTable neighbours = neighbours();
+        Cell mine = game[to / yDimension][to % yDimension];
+        mine.setIsMine(true);
+        mine.setMineNumber(-1);
+        for (int d : neighbours.deltas(neighbours.classOf(to))) {
+            Cell c = game[(to + d) / yDimension][(to + d) % yDimension];
+            if (!c.getIsMine()) {
+                c.setMineNumber(c.getMineNumber() + 1);
+            }
+        }
+        Cell safe = game[from / yDimension][from % yDimension];
+        safe.setIsMine(false);
+        int count = 0;
+        for (int d : neighbours.deltas(neighbours.classOf(from))) {
+            Cell c = game[(from + d) / yDimension][(from + d) % yDimension];
+            if (c.getIsMine()) {
+                count++;
+            } else {
+                c.setMineNumber(c.getMineNumber() - 1);
+            }
+        }
+        safe.setMineNumber(count);
+    }
+
+    /**
+     * Gets the gameBoard the model made last, with gameBoard or recreateGame,
+     * which the methods taking no gameBoard play on
+     *
+     * @return the gameBoard, or null before one is made
+     */
+    public Cell[][] getBoard() {
+        return board;
+    }
+
+    /**
+     * Gets the gameBoard the engine methods play on, which must exist.
+     */
+    private Cell[][] engineBoard() {
+        Cell[][] game = getBoard();
+        if (game == null) {
+            throw new IllegalStateException("No gameBoard was made yet");
+        }
+        return game;
+    }
+
+    @Override
+    public boolean isMine(int x, int y) {
+        return engineBoard()[x][y].getIsMine();
+    }
+
+    @Override
+    public boolean isClicked(int x, int y) {
+        return engineBoard()[x][y].getIsClicked();
+    }
+
+    @Override
+    public boolean isFlagged(int x, int y) {
+        return engineBoard()[x][y].getIsFlagged();
+    }
+
+    @Override
+    public int getMineNumber(int x, int y) {
+        return engineBoard()[x][y].getMineNumber();
+    }
+
+    /**
+     * Makes a move on the gameBoard made last, like play with that gameBoard.
+     *
+     * @param x       x value of the cell
+     * @param y       y value of the cell
+     * @param isRight true to toggle a flag, false to open the cell
+     */
+    @Override
+    public void play(int x, int y, boolean isRight) {
+        play(engineBoard(), x, y, isRight);
+    }
+
+    /**
+     * Chords on the gameBoard made last, like chord with that gameBoard.
+     *
+     * @param x x value of the opened cell
+     * @param y y value of the opened cell
+     */
+    @Override
+    public void chord(int x, int y) {
+        chord(engineBoard(), x, y);
+    }
+
+    /**
+     * Contains the logic for chording on an opened cell. If the number of flags
+     * surrounding the cell matches its mine number, every surrounding cell that
+     * is neither flagged nor opened is clicked in a single move. A wrongly
+     * placed flag means one of those cells is a mine, and the game is lost.
+     *
+     * @param game contains the gameBoard
+     * @param x    contains the x value corresponding to the opened cell
+     * @param y    contains the y value corresponding to the opened cell
+     */
+    public void chord(Cell[][] game, int x, int y) {
+        if (x >= xDimension || y >= yDimension || x < 0 || y < 0) {
+            return;
+        }
+        if (gameOver == 1 || gameOver == 2) {
+            return;
+        }
+        if (!game[x][y].getIsClicked() || game[x][y].getMineNumber() <= 0) {
+            return;
+        }
+        int flags = 0;
+        boolean covered = false;
+        NeighbourTable neighbours = neighbours();
+        int c = neighbours.classOf(x, y);
+        int[] dx = neighbours.dx(c);
+        int[] dy = neighbours.dy(c);
+        for (int k = 0; k < dx.length; k++) {
+            int i = x + dx[k];
+            int j = y + dy[k];
+            if (game[i][j].getIsFlagged()) {
+                flags++;
+            } else if (!game[i][j].getIsClicked()) {
+                covered = true;
+            }
+        }
+        if (flags != game[x][y].getMineNumber() || !covered) {
+            return;
+        }
+        int statusBefore = gameOver;
+        int minutesBefore = minutes;
+        int secondsBefore = seconds;
+        log.begin(MoveLog.REVEAL, x * yDimension + y);
+        boolean hitMine = false;
+        for (int k = 0; k < dx.length; k++) {
+            int i = x + dx[k];
+            int j = y + dy[k];
+            if (game[i][j].getIsFlagged() || game[i][j].getIsClicked()) {
+                continue;
+            }
+            if (game[i][j].getIsMine()) {
+                hitMine = true;
+            } else {
+                recOpenCells(i, j, game);
+            }
+        }
+        moveCounter++;
+        gameOver = hitMine ? 2 : checkGameStatus(game);
+        finishMove(game, statusBefore, minutesBefore, secondsBefore);
+    }
+
+    /**
+     * Saves the game after a move has been made and, if the move ended the
+     * game, records the end time and removes the save file. The move is then
+     * committed to the move log so it can be undone, and a finished game is
+     * appended to the history.
+     *
+     * @param game          contains the gameBoard
+     * @param statusBefore  contains the game status before the move
+     * @param minutesBefore contains the minutes recorded before the move
+     * @param secondsBefore contains the seconds recorded before the move
+     */
+    private void finishMove(Cell[][] game, int statusBefore, int minutesBefore,
+            int secondsBefore) {
+        if (gameOver != 2 && mode.getTimeLimit() > 0
+                && getElapsedSeconds() >= mode.getTimeLimit()) {
+            // a move made after the time ran out, before the timer noticed
+            gameOver = 2;
+            timeUp = true;
+        }
         writeToCSV(game);
         if (gameOver == 1 || gameOver == 2) {
             int timeSeconds = (int) ((System.currentTimeMillis() - startTime) / 1000);
@@ -251,127 +890,324 @@ public class MineSweeper {
                 minutes += 1;
                 seconds -= 60;
             }
-            File f = new File("moves.csv");
-            f.delete();
+            deleteSave();
+        }
+        log.commit(statusBefore, gameOver, minutesBefore, secondsBefore, minutes, seconds);
+        publish(game, log.last());
+        announce(game, log.last(), true, statusBefore);
+        if (gameOver == 1 || gameOver == 2) {
+            record();
+        }
+    }
+
+    /**
+     * Appends the game to the history the first time it ends. A game that
+     * ends again after its last move was undone is not recorded a second
+     * time, and practice games are not recorded at all.
+     */
+    private void record() {
+        if (history == null || recorded || practice) {
+            return;
+        }
+        recorded = true;
+        try {
+            history.append(GameRecord.of(this));
+        } catch (IOException e) {
         }
     }
 
     /**
-     * Writes the current game state to the file. When the game is terminated,
-     * additional
-     * information through a separate method is written to the file, logging the
-     * moves
-     * made and time taken altogether.
+     * Publishes the snapshot of the board after a move was made, undone or
+     * redone. Only the tiles holding cells of the move are copied.
      *
      * @param game contains the gameBoard
+     * @param move contains the cells that changed
      */
-    public void writeToCSV(Cell[][] game) {
-        File f = new File("moves.csv");
-        if (!f.exists()) {
-            try {
-                f.createNewFile();
-            } catch (Exception e) {
+    private void publish(Cell[][] game, MoveLog.Move move) {
+        BoardSnapshot last = snapshot;
+        snapshot = last == null ? BoardSnapshot.of(this, game) : last.next(this, game, move);
+    }
+
+    /**
+     * Adds a listener for the events of this game.
+     *
+     * @param listener receives the events of every move from now on
+     */
+    public void addListener(GameListener listener) {
+        if (events == null) {
+            events = new GameEvents();
+        }
+        events.add(listener);
+    }
+
+    /**
+     * Removes a listener added with addListener.
+     *
+     * @param listener the listener to remove
+     */
+    public void removeListener(GameListener listener) {
+        if (events != null) {
+            events.remove(listener);
+        }
+    }
+
+    /**
+     * Sends the events of a move that was made, undone or redone: the ranges
+     * of cells opened or closed, a flag, and a change of the game status.
+     *
+     * @param game         contains the gameBoard
+     * @param move         contains the cells that changed
+     * @param forward      false if the move was undone
+     * @param statusBefore contains the game status before the change
+     */
+    private void announce(Cell[][] game, MoveLog.Move move, boolean forward, int statusBefore) {
+        if (events == null || !events.hasListeners()) {
+            return;
+        }
+        if (move.kind == MoveLog.FLAG) {
+            boolean flagged = game[move.index / yDimension][move.index % yDimension].getIsFlagged();
+            events.claim().set(GameEvent.CELL_FLAGGED, move.index, 1, flagged, this);
+        }
+        int type = forward ? GameEvent.CELLS_REVEALED : GameEvent.CELLS_COVERED;
+        for (long run : move.runs) {
+            events.claim().set(type, (int) (run >>> 32), (int) run, false, this);
+        }
+        if (gameOver != statusBefore) {
+            if (gameOver == 1) {
+                type = GameEvent.GAME_WON;
+            } else if (gameOver == 2) {
+                type = GameEvent.GAME_LOST;
+            } else {
+                type = GameEvent.GAME_RESUMED;
             }
+            events.claim().set(type, -1, 0, false, this);
         }
-        try {
-            FileWriter fw = new FileWriter(f);
-            StringBuilder sb = new StringBuilder();
-            for (int i = 0; i < yDimension; i++) {
-                for (int j = 0; j < xDimension; j++) {
-                    String s = game[j][i].getMineNumber() + "";
-                    if (game[j][i].getIsFlagged()) {
-                        s += "@";
-                    } else if (!game[j][i].getIsClicked()) {
-                        s += "~";
-                    }
-                    sb.append(s);
-                    if (j != (xDimension - 1)) {
-                        sb.append(',');
-                    }
-                }
-                if (i != (yDimension - 1)) {
-                    sb.append("\n");
-                }
+        events.flush();
+    }
+
+    /**
+     * Sends a timer tick if another second of the game has passed since the
+     * last one. Meant to be called a few times a second by whatever shows the
+     * time, so the listeners never have to work out the time themselves. If
+     * the mode of the game has a time limit and it ran out, the game is lost
+     * instead.
+     */
+    public void tick() {
+        if (gameOver != 0 || snapshot == null) {
+            return;
+        }
+        int total = getElapsedSeconds();
+        if (mode.getTimeLimit() > 0 && total >= mode.getTimeLimit()) {
+            runOutOfTime();
+            return;
+        }
+        if (events == null || !events.hasListeners() || total == lastTick) {
+            return;
+        }
+        lastTick = total;
+        GameEvent e = events.claim();
+        e.set(GameEvent.TIMER_TICK, -1, 0, false, this);
+        e.setTime(total / 60, total % 60);
+        events.flush();
+    }
+
+    /**
+     * Ends the game as lost because its time ran out, without a move. The
+     * time is recorded as the limit, the save is removed and the game is
+     * recorded in the history like a game that hit a mine.
+     */
+    private void runOutOfTime() {
+        gameOver = 2;
+        timeUp = true;
+        minutes = mode.getTimeLimit() / 60;
+        seconds = mode.getTimeLimit() % 60;
+        startTime = System.currentTimeMillis();
+        deleteSave();
+        snapshot = snapshot.withStatus(this);
+        if (events != null && events.hasListeners()) {
+            events.claim().set(GameEvent.GAME_LOST, -1, 0, false, this);
+            events.flush();
+        }
+        record();
+    }
+
+    /**
+     * Gets an immutable snapshot of the board after the latest move. It can
+     * be read from any thread while the game goes on, and never changes.
+     *
+     * @return snapshot of the board, or null before the gameBoard is created
+     */
+    public BoardSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Removes the save file, and the slot of the game if it has one.
+     */
+    private void deleteSave() {
+        if (slots != null) {
+            slots.delete(slotName);
+        } else if (saveFile != null) {
+            saveFile.delete();
+        }
+    }
+
+    /**
+     * Undoes the most recent move. Only the cells changed by that move are
+     * touched: a flag is toggled back, and the runs of cells opened by a reveal
+     * are closed again. Undoing the move that ended the game resumes the game
+     * with the time that was recorded before it. The move that hit a mine can
+     * only be undone in a practice game. Nothing is undone if the mode of the
+     * game does not allow it, or if its time ran out.
+     *
+     * @param game contains the gameBoard
+     * @return boolean noting if a move was undone
+     */
+    public boolean undo(Cell[][] game) {
+        if (!mode.allowsUndo() || timeUp) {
+            return false;
+        }
+        MoveLog.Move last = log.last();
+        if (last != null && last.statusAfter == 2 && !practice) {
+            // the lost board has shown every mine
+            return false;
+        }
+        MoveLog.Move move = log.popUndo();
+        if (move == null) {
+            return false;
+        }
+        usedUndo = true;
+        applyDelta(game, move, false);
+        moveCounter--;
+        gameOver = move.statusBefore;
+        minutes = move.minutesBefore;
+        seconds = move.secondsBefore;
+        publish(game, move);
+        announce(game, move, false, move.statusAfter);
+        writeToCSV(game);
+        return true;
+    }
+
+    /**
+     * Redoes the most recently undone move by applying its recorded delta again.
+     * Nothing is redone if the mode of the game does not allow undo, or if its
+     * time ran out.
+     *
+     * @param game contains the gameBoard
+     * @return boolean noting if a move was redone
+     */
+    public boolean redo(Cell[][] game) {
+        if (!mode.allowsUndo() || timeUp) {
+            return false;
+        }
+        MoveLog.Move move = log.popRedo();
+        if (move == null) {
+            return false;
+        }
+        applyDelta(game, move, true);
+        moveCounter++;
+        gameOver = move.statusAfter;
+        minutes = move.minutesAfter;
+        seconds = move.secondsAfter;
+        publish(game, move);
+        announce(game, move, true, move.statusBefore);
+        if (gameOver == 1 || gameOver == 2) {
+            deleteSave();
+        } else {
+            writeToCSV(game);
+        }
+        return true;
+    }
+
+    /**
+     * Applies or reverts the cell changes recorded for a move.
+     *
+     * @param game    contains the gameBoard
+     * @param move    contains the recorded delta
+     * @param forward true to reapply the move, false to revert it
+     */
+    private void applyDelta(Cell[][] game, MoveLog.Move move, boolean forward) {
+        if (move.kind == MoveLog.FLAG) {
+            Cell c = game[move.index / yDimension][move.index % yDimension];
+            c.setIsFlagged(!c.getIsFlagged());
+            return;
+        }
+        for (long run : move.runs) {
+            int start = (int) (run >>> 32);
+            int end = start + (int) run;
+            for (int i = start; i < end; i++) {
+                game[i / yDimension][i % yDimension].setIsClicked(forward);
             }
-            fw.write(sb.toString());
-            long currTime = System.currentTimeMillis();
-            int timeSeconds = (int) ((currTime - startTime) / 1000);
-            int currMinutes = timeSeconds / 60;
-            int currSeconds = timeSeconds % 60;
-            fw.write("\n" + moveCounter + "," + currMinutes + "," + currSeconds + "," + gameOver);
-            fw.close();
+        }
+    }
+
+    /**
+     * Writes the current game state to the save file, in the checksummed
+     * format of SaveFile, along with the moves made and time taken.
+     *
+     * @param game contains the gameBoard
+     */
+    public void writeToCSV(Cell[][] game) {
+        if (saveFile == null) {
+            return;
+        }
+        materialiseMines(game);
+        int timeSeconds = (int) ((System.currentTimeMillis() - startTime) / 1000);
+        try {
+            SaveFile.write(this, game, saveFile, timeSeconds / 60, timeSeconds % 60);
         } catch (IOException e) {
+            return;
+        }
+        if (slots != null) {
+            slots.update(slotName, this, game);
         }
     }
 
     /**
-     * Creates a brand-new gameboard based on the existing csv file that documents
-     * the previous
-     * iteration. This method is only called if the game is not over in some way
-     * shape or form.
-     * It relies on the invariants established in the MineSweeper game (that there
-     * are set
-     * dimensions, that you cannot flag a clicked cell, etc.).
+     * Creates a brand-new gameboard from the save file of the previous game.
+     * The file is checked in full before anything is built: a damaged save is
+     * repaired where possible, and rejected otherwise. What was found and how
+     * long loading took is kept in the load report.
      *
-     * @return game contains the recreated gameBoard
+     * @return game contains the recreated gameBoard, or null if there is no
+     *         save or it was rejected
      */
     public Cell[][] recreateGame() {
-        File f = new File("moves.csv");
-        if (!f.exists()) {
+        File f = saveFile;
+        if (f == null || !f.exists()) {
             return null;
         }
-        Cell[][] game = new Cell[xDimension][yDimension];
-        for (int i = 0; i < xDimension; i++) {
-            for (int j = 0; j < yDimension; j++) {
-                game[i][j] = new Cell();
-            }
-        }
-        int xCounter = 0;
-        int yCounter = 0;
-        try {
-            FileReader fr = new FileReader(f);
-            BufferedReader br = new BufferedReader(fr);
-            while (xCounter < xDimension && yCounter < yDimension) {
-                String currLine = br.readLine();
-                if (currLine == null) {
-                    break;
-                }
-                String[] splitted = currLine.split(",");
-                for (String s : splitted) {
-                    if (s.length() > 2) {
-                        game[xCounter][yCounter].setIsMine(true);
-                        game[xCounter][yCounter].setIsClicked(false);
-                        game[xCounter][yCounter].setMineNumber(-1);
-                        if (s.endsWith("@")) {
-                            game[xCounter][yCounter].setIsFlagged(true);
-                        }
-                    } else if (s.length() > 1) {
-                        int num = Integer.parseInt(s.substring(0, 1));
-                        game[xCounter][yCounter].setMineNumber(num);
-                        game[xCounter][yCounter].setIsClicked(false);
-                        if (s.endsWith("@")) {
-                            game[xCounter][yCounter].setIsFlagged(true);
-                        }
-                    } else {
-                        game[xCounter][yCounter].setIsClicked(true);
-                        int num = Integer.parseInt(s);
-                        game[xCounter][yCounter].setMineNumber(num);
-                    }
-                    xCounter++;
-                }
-                xCounter = 0;
-                yCounter++;
-            }
-            String[] splitted = br.readLine().split(",");
-            startTime = System.currentTimeMillis();
-            moveCounter = Integer.parseInt(splitted[0]);
-            minutes = Integer.parseInt(splitted[1]);
-            seconds = Integer.parseInt(splitted[2]);
-        } catch (Exception e) {
+        SaveFile save = SaveFile.read(f, topology, xDimension, yDimension);
+        loadReport = save.getReport();
+        Cell[][] game = save.getGame();
+        if (game == null) {
+            return null;
         }
+        setAdjacentValues(game);
+        startTime = System.currentTimeMillis();
+        numMines = save.getNumMines();
+        moveCounter = save.getMoveCounter();
+        firstClick = false;
+        minesPending = false;
+        timeUp = false;
+        usedUndo = false;
+        recorded = false;
+        minutes = save.getMinutes();
+        seconds = save.getSeconds();
+        snapshot = BoardSnapshot.of(this, game);
+        board = game;
         return game;
     }
 
+    /**
+     * Gets what the last load of the save file found
+     *
+     * @return report of the last load, or null if nothing was loaded
+     */
+    public SaveFile.Report getLoadReport() {
+        return loadReport;
+    }
+
     /**
      * Checks if the game has been won. Only two possibilities: game is still
      * running or game
@@ -398,14 +1234,13 @@ public class MineSweeper {
 
     /**
      * Contains the logic for revealing surrounding cells for 0-value cells. If the
-     * cell is 0,
-     * the method iterates through the surrounding cells and opens them. If a
-     * surrounding cell
-     * is also 0, recOpenCells is recursively called in order to check the
-     * surrounding cells
-     * of the nearby 0-value cell. The base case checks if the current cell is
-     * clicked. If it is,
-     * the method terminates.
+     * cell is 0, the surrounding cells are opened, and the surrounding cells of any
+     * of those that are also 0 are opened in turn until the whole empty region and
+     * its border are open. Cells still waiting to be visited are kept on an explicit
+     * stack rather than the call stack, so opening a region spanning most of a
+     * very large board cannot overflow. If the current cell is already clicked, the
+     * method terminates. When parallel reveal is enabled, the region is opened by
+     * ParallelFloodFill instead, which opens exactly the same cells.
      *
      * @param x    contains the x value corresponding to the current cell in the
      *             GameBoard
@@ -417,15 +1252,41 @@ public class MineSweeper {
         if (game[x][y].getIsClicked()) {
             return;
         }
+        if (parallelReveal && game[x][y].getMineNumber() == 0) {
+            ParallelFloodFill.common().fill(game, x, y, log, topology);
+            return;
+        }
 
         game[x][y].setIsClicked(true);
+        log.opened(x * yDimension + y);
+        if (game[x][y].getMineNumber() != 0) {
+            return;
+        }
 
-        if (game[x][y].getMineNumber() == 0) {
-            for (int i = (x - 1); i <= (x + 1); i++) {
-                for (int j = (y - 1); j <= (y + 1); j++) {
-                    if (!(i < 0) && !(j < 0) && (i < xDimension) && (j < yDimension)) {
-                        recOpenCells(i, j, game);
+        NeighbourTable neighbours = neighbours();
+        int[] stack = new int[64];
+        int size = 0;
+        stack[size++] = x * yDimension + y;
+        while (size > 0) {
+            int index = stack[--size];
+            int cx = index / yDimension;
+            int cy = index % yDimension;
+            int c = neighbours.classOf(index);
+            int[] dx = neighbours.dx(c);
+            int[] dy = neighbours.dy(c);
+            int[] deltas = neighbours.deltas(c);
+            for (int k = 0; k < dx.length; k++) {
+                Cell cell = game[cx + dx[k]][cy + dy[k]];
+                if (cell.getIsClicked()) {
+                    continue;
+                }
+                cell.setIsClicked(true);
+                log.opened(index + deltas[k]);
+                if (cell.getMineNumber() == 0) {
+                    if (size == stack.length) {
+                        stack = Arrays.copyOf(stack, size * 2);
                     }
+                    stack[size++] = index + deltas[k];
                 }
             }
         }
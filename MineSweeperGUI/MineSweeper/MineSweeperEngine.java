@@ -0,0 +1,97 @@
+package org.MineSweeperGUI.MineSweeper;
+
+/**
+ * This interface is what every MineSweeper engine offers: the board, the
+ * moves a player can make on it and the state of the game. MineSweeper
+ * plays on the gameBoard it made last, and BitBoardMineSweeper on its
+ * bitboards, so simulations can swap one engine for the other.
+ * <p>
+ * Undo, redo, saving and topologies other than the square grid are only
+ * offered by MineSweeper itself.
+ */
+public interface MineSweeperEngine {
+
+    /**
+     * Gets the number of columns on the board
+     *
+     * @return xDimension of the board
+     */
+    int getXDimension();
+
+    /**
+     * Gets the number of rows on the board
+     *
+     * @return yDimension of the board
+     */
+    int getYDimension();
+
+    /**
+     * Gets the number of moves made
+     *
+     * @return moveCounter of the game
+     */
+    int getMoveCounter();
+
+    /**
+     * Gets the status of the game
+     * 0 --> still playing, 1 --> user won, 2 --> user lost
+     *
+     * @return status of the game
+     */
+    int getStatus();
+
+    /**
+     * Checks if a cell is a mine
+     *
+     * @param x x value of the cell
+     * @param y y value of the cell
+     * @return boolean noting if the cell is a mine
+     */
+    boolean isMine(int x, int y);
+
+    /**
+     * Checks if a cell was opened
+     *
+     * @param x x value of the cell
+     * @param y y value of the cell
+     * @return boolean noting if the cell is clicked
+     */
+    boolean isClicked(int x, int y);
+
+    /**
+     * Checks if a cell was flagged
+     *
+     * @param x x value of the cell
+     * @param y y value of the cell
+     * @return boolean noting if the cell is flagged
+     */
+    boolean isFlagged(int x, int y);
+
+    /**
+     * Gets the number of mines next to a cell, matching Cell.getMineNumber
+     *
+     * @param x x value of the cell
+     * @param y y value of the cell
+     * @return number of adjacent mines, or -1 for a mine
+     */
+    int getMineNumber(int x, int y);
+
+    /**
+     * Opens a cell, or flags or unflags it, following the rules of
+     * MineSweeper.play.
+     *
+     * @param x       x value of the cell
+     * @param y       y value of the cell
+     * @param isRight true to toggle a flag, false to open the cell
+     */
+    void play(int x, int y, boolean isRight);
+
+    /**
+     * Opens the unflagged neighbours of an opened cell whose number of flags
+     * matches its number, following the rules of MineSweeper.chord.
+     *
+     * @param x x value of the opened cell
+     * @param y y value of the opened cell
+     */
+    void chord(int x, int y);
+}
@@ -0,0 +1,225 @@
+package org.MineSweeperGUI.MineSweeper;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * This class records the moves made in a MineSweeper game so that they can be
+ * undone and redone. Rather than storing a copy of the gameBoard for every
+ * move, each move only stores the delta of the cells it changed. Cells opened
+ * by a move are kept as a run-length list of cell indices, so a flood fill that
+ * opens a large empty region costs a handful of runs rather than one entry per
+ * cell.
+ * <p>
+ * Cell indices are flattened as {@code x * yDimension + y}, matching the
+ * layout of the Cell[x][y] gameBoard.
+ */
+public class MoveLog {
+
+    // kinds of moves that can be recorded
+    public static final int REVEAL = 0;
+    public static final int FLAG = 1;
+    public static final int MINE = 2;
+
+    private final ArrayDeque<Move> undoStack = new ArrayDeque<>();
+    private final ArrayDeque<Move> redoStack = new ArrayDeque<>();
+
+    // move currently being recorded, runs are packed as (start << 32 | length)
+    private Move current;
+    private long[] runs = new long[16];
+    private int runCount;
+
+    /**
+     * A single recorded move. Holds the clicked cell, the time it was made,
+     * the runs of cells opened by the move and the game status before and
+     * after it.
+     */
+    static final class Move {
+        final int kind;
+        final int index;
+        final long time = System.currentTimeMillis();
+        long[] runs;
+        int statusBefore;
+        int statusAfter;
+        int minutesBefore;
+        int secondsBefore;
+        int minutesAfter;
+        int secondsAfter;
+
+        Move(int kind, int index) {
+            this.kind = kind;
+            this.index = index;
+        }
+
+        /**
+         * Gets the number of cells opened by this move
+         *
+         * @return cells the total length of the opened runs
+         */
+        int openedCells() {
+            int cells = 0;
+            for (long run : runs) {
+                cells += (int) run;
+            }
+            return cells;
+        }
+    }
+
+    /**
+     * Starts recording a new move. Any moves that were undone can no longer be
+     * redone once a new move is made.
+     *
+     * @param kind  REVEAL, FLAG or MINE
+     * @param index flat index of the cell that was played
+     */
+    void begin(int kind, int index) {
+        current = new Move(kind, index);
+        runCount = 0;
+        redoStack.clear();
+    }
+
+    /**
+     * Records that the cell at the given flat index was opened by the current
+     * move. Consecutive indices are merged into the previous run as they arrive.
+     *
+     * @param index flat index of the opened cell
+     */
+    void opened(int index) {
+        if (runCount > 0) {
+            long last = runs[runCount - 1];
+            if ((int) (last >>> 32) + (int) last == index) {
+                runs[runCount - 1] = last + 1;
+                return;
+            }
+        }
+        if (runCount == runs.length) {
+            runs = Arrays.copyOf(runs, runCount * 2);
+        }
+        runs[runCount++] = ((long) index << 32) | 1;
+    }
+
+    /**
+     * Finishes recording the current move and pushes it onto the undo stack.
+     * Runs are sorted and merged so the stored delta is as compact as possible.
+     *
+     * @param statusBefore  game status before the move
+     * @param statusAfter   game status after the move
+     * @param minutesBefore minutes recorded before the move
+     * @param secondsBefore seconds recorded before the move
+     * @param minutesAfter  minutes recorded after the move
+     * @param secondsAfter  seconds recorded after the move
+     */
+    void commit(int statusBefore, int statusAfter, int minutesBefore, int secondsBefore,
+            int minutesAfter, int secondsAfter) {
+        if (current == null) {
+            return;
+        }
+        Arrays.sort(runs, 0, runCount);
+        int merged = 0;
+        for (int i = 0; i < runCount; i++) {
+            long run = runs[i];
+            if (merged > 0) {
+                long last = runs[merged - 1];
+                if ((int) (last >>> 32) + (int) last == (int) (run >>> 32)) {
+                    runs[merged - 1] = last + (int) run;
+                    continue;
+                }
+            }
+            runs[merged++] = run;
+        }
+        current.runs = Arrays.copyOf(runs, merged);
+        current.statusBefore = statusBefore;
+        current.statusAfter = statusAfter;
+        current.minutesBefore = minutesBefore;
+        current.secondsBefore = secondsBefore;
+        current.minutesAfter = minutesAfter;
+        current.secondsAfter = secondsAfter;
+        undoStack.push(current);
+        current = null;
+        if (runs.length > 1024) {
+            runs = new long[16];
+        }
+    }
+
+    /**
+     * Checks if there is a move that can be undone
+     *
+     * @return boolean noting if undo is possible
+     */
+    public boolean canUndo() {
+        return !undoStack.isEmpty();
+    }
+
+    /**
+     * Checks if there is a move that can be redone
+     *
+     * @return boolean noting if redo is possible
+     */
+    public boolean canRedo() {
+        return !redoStack.isEmpty();
+    }
+
+    /**
+     * Gets the number of moves that can be undone
+     *
+     * @return size of the undo stack
+     */
+    public int size() {
+        return undoStack.size();
+    }
+
+    /**
+     * Removes all recorded moves.
+     */
+    public void clear() {
+        undoStack.clear();
+        redoStack.clear();
+        current = null;
+        runCount = 0;
+    }
+
+    /**
+     * Gets the moves that have been made and not undone, oldest first.
+     *
+     * @return iterator over the moves in the order they were made
+     */
+    Iterator<Move> moves() {
+        return undoStack.descendingIterator();
+    }
+
+    /**
+     * Gets the most recent move without removing it.
+     *
+     * @return the last move made, or null if there is none
+     */
+    Move last() {
+        return undoStack.peek();
+    }
+
+    /**
+     * Pops the most recent move and moves it to the redo stack.
+     *
+     * @return the move to be undone, or null if there is none
+     */
+    Move popUndo() {
+        Move m = undoStack.poll();
+        if (m != null) {
+            redoStack.push(m);
+        }
+        return m;
+    }
+
+    /**
+     * Pops the most recently undone move and moves it back to the undo stack.
+     *
+     * @return the move to be redone, or null if there is none
+     */
+    Move popRedo() {
+        Move m = redoStack.poll();
+        if (m != null) {
+            undoStack.push(m);
+        }
+        return m;
+    }
+}
@@ -0,0 +1,305 @@
+package org.MineSweeperGUI.MineSweeper;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * This class lists the neighbours of every cell of a board, so that loops over
+ * the neighbours of a cell never have to check if a neighbour is on the board.
+ * <p>
+ * Cells are grouped into classes by how close they are to each edge of the
+ * board (and, on a hex board, by the parity of their row). All cells of a
+ * class have the same neighbours relative to themselves, so each class stores
+ * one list of x offsets, y offsets and flat index offsets that already leave
+ * out neighbours that are off the board, and already wrap neighbours around
+ * the edges of a torus. Looking up the neighbours of a cell is a single array
+ * read, and the loop over them has no bounds checks at all.
+ * <p>
+ * A board has at most a few dozen classes no matter its size, so a table costs
+ * one byte per cell. Tables only depend on the topology and dimensions of a
+ * board, and are cached so every game of the same size shares one table. The
+ * cache is bounded by the bytes its tables hold rather than by their number,
+ * and drops the tables used least recently when it is full, so one huge board
+ * never pushes out more than the room it needs.
+ */
+public final class NeighbourTable {
+
+    private static final long MAX_CACHED_BYTES = 16L << 20;
+    // access order, so the eldest entry is the table used least recently
+    private static final LinkedHashMap<Key, NeighbourTable> CACHE =
+            new LinkedHashMap<>(16, 0.75f, true);
+    private static long cachedBytes; // guarded by CACHE
+
+    private final int xDimension;
+    private final int yDimension;
+    private final byte[] cellClass; // class of every cell, by flat index
+    private final int[][] dx; // x offsets of the neighbours of each class
+    private final int[][] dy; // y offsets of the neighbours of each class
+    private final int[][] deltas; // flat index offsets of the neighbours of each class
+
+    /**
+     * Key of a cached table.
+     */
+    private static final class Key {
+        final Topology topology;
+        final int xDimension;
+        final int yDimension;
+
+        Key(Topology topology, int xDimension, int yDimension) {
+            this.topology = topology;
+            this.xDimension = xDimension;
+            this.yDimension = yDimension;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key k = (Key) o;
+            return topology == k.topology && xDimension == k.xDimension
+                    && yDimension == k.yDimension;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(topology, xDimension, yDimension);
+        }
+    }
+
+    /**
+     * Gets the table for a board, building it the first time a board of this
+     * topology and size is seen.
+     *
+     * @param topology   neighbourhood of the cells
+     * @param xDimension number of columns of the board
+     * @param yDimension number of rows of the board
+     * @return the shared table for boards of this topology and size
+     */
+    public static NeighbourTable of(Topology topology, int xDimension, int yDimension) {
+        Key key = new Key(topology, xDimension, yDimension);
+        synchronized (CACHE) {
+            NeighbourTable table = CACHE.get(key);
+            if (table != null) {
+                return table;
+            }
+        }
+        // built outside the lock, so a big table never holds up other boards
+        NeighbourTable built = new NeighbourTable(topology, xDimension, yDimension);
+        long size = built.byteSize();
+        if (size > MAX_CACHED_BYTES) {
+            return built;
+        }
+        synchronized (CACHE) {
+            NeighbourTable table = CACHE.get(key);
+            if (table != null) {
+                return table;
+            }
+            Iterator<NeighbourTable> eldest = CACHE.values().iterator();
+            while (cachedBytes + size > MAX_CACHED_BYTES && eldest.hasNext()) {
+                cachedBytes -= eldest.next().byteSize();
+                eldest.remove();
+            }
+            CACHE.put(key, built);
+            cachedBytes += size;
+            return built;
+        }
+    }
+
+    /**
+     * Gets roughly how many bytes the table holds: one per cell, plus the
+     * offsets of each class.
+     *
+     * @return size of the table in bytes
+     */
+    private long byteSize() {
+        long size = cellClass.length;
+        for (int[] d : deltas) {
+            size += 3L * 4 * d.length;
+        }
+        return size;
+    }
+
+    /**
+     * Constructor builds the table for a board. Use of() to share tables
+     * between boards.
+     *
+     * @param topology   neighbourhood of the cells
+     * @param xDimension number of columns of the board
+     * @param yDimension number of rows of the board
+     */
+    NeighbourTable(Topology topology, int xDimension, int yDimension) {
+        if (xDimension < topology.minDimension() || yDimension < topology.minDimension()) {
+            throw new IllegalArgumentException("Board is too small for " + topology);
+        }
+        this.xDimension = xDimension;
+        this.yDimension = yDimension;
+
+        // how far offsets reach; cells further than this from an edge are all alike
+        int reach = 0;
+        for (int parity = 0; parity < 2; parity++) {
+            for (int d : topology.dx(parity)) {
+                reach = Math.max(reach, Math.abs(d));
+            }
+            for (int d : topology.dy(parity)) {
+                reach = Math.max(reach, Math.abs(d));
+            }
+        }
+        int[] columnKey = edgeKeys(xDimension, reach, false);
+        int[] rowKey = edgeKeys(yDimension, reach, topology == Topology.HEX);
+        int keys = (reach + 1) * (reach + 1) * 2;
+
+        // numbers the classes in the order they are first seen
+        int[] classOfKey = new int[keys * keys];
+        Arrays.fill(classOfKey, -1);
+        int[][] dxOf = new int[classOfKey.length][];
+        int[][] dyOf = new int[classOfKey.length][];
+        int[][] deltaOf = new int[classOfKey.length][];
+        int classes = 0;
+        cellClass = new byte[xDimension * yDimension];
+        for (int i = 0; i < xDimension; i++) {
+            for (int j = 0; j < yDimension; j++) {
+                int key = columnKey[i] * keys + rowKey[j];
+                if (classOfKey[key] < 0) {
+                    int c = classes++;
+                    classOfKey[key] = c;
+                    buildClass(topology, i, j, c, dxOf, dyOf, deltaOf);
+                }
+                cellClass[i * yDimension + j] = (byte) classOfKey[key];
+            }
+        }
+        dx = Arrays.copyOf(dxOf, classes);
+        dy = Arrays.copyOf(dyOf, classes);
+        deltas = Arrays.copyOf(deltaOf, classes);
+    }
+
+    /**
+     * Gives every position along one axis a key made of its distance to each
+     * end of the axis, capped at the reach of the offsets.
+     *
+     * @param length   number of positions along the axis
+     * @param reach    largest offset along any axis
+     * @param byParity if the parity of the position is part of the key
+     * @return key of every position
+     */
+    private static int[] edgeKeys(int length, int reach, boolean byParity) {
+        int[] keys = new int[length];
+        for (int p = 0; p < length; p++) {
+            int key = Math.min(p, reach) * (reach + 1) + Math.min(length - 1 - p, reach);
+            keys[p] = key * 2 + (byParity ? (p & 1) : 0);
+        }
+        return keys;
+    }
+
+    /**
+     * Lists the neighbours of one cell as the neighbours of its whole class.
+     */
+    private void buildClass(Topology topology, int x, int y, int c,
+                            int[][] dxOf, int[][] dyOf, int[][] deltaOf) {
+        int[] tx = topology.dx(y);
+        int[] ty = topology.dy(y);
+        int[] cx = new int[tx.length];
+        int[] cy = new int[tx.length];
+        int[] cd = new int[tx.length];
+        int count = 0;
+        for (int k = 0; k < tx.length; k++) {
+            int i = x + tx[k];
+            int j = y + ty[k];
+            if (topology.wraps()) {
+                i = Math.floorMod(i, xDimension);
+                j = Math.floorMod(j, yDimension);
+            } else if (i < 0 || j < 0 || i >= xDimension || j >= yDimension) {
+                continue;
+            }
+            cx[count] = i - x;
+            cy[count] = j - y;
+            cd[count] = (i - x) * yDimension + (j - y);
+            count++;
+        }
+        dxOf[c] = Arrays.copyOf(cx, count);
+        dyOf[c] = Arrays.copyOf(cy, count);
+        deltaOf[c] = Arrays.copyOf(cd, count);
+    }
+
+    /**
+     * Gets the class of a cell
+     *
+     * @param x x value of the cell
+     * @param y y value of the cell
+     * @return class to look up the neighbours of the cell with
+     */
+    public int classOf(int x, int y) {
+        return cellClass[x * yDimension + y] & 0xFF;
+    }
+
+    /**
+     * Gets the class of a cell
+     *
+     * @param index flat index of the cell, x * yDimension + y
+     * @return class to look up the neighbours of the cell with
+     */
+    public int classOf(int index) {
+        return cellClass[index] & 0xFF;
+    }
+
+    /**
+     * Gets the x offsets of the neighbours of a class. The arrays returned by
+     * dx, dy and deltas are shared and must not be changed.
+     *
+     * @param c class of the cell
+     * @return x offsets, in the same order as dy and deltas
+     */
+    public int[] dx(int c) {
+        return dx[c];
+    }
+
+    /**
+     * Gets the y offsets of the neighbours of a class
+     *
+     * @param c class of the cell
+     * @return y offsets, in the same order as dx and deltas
+     */
+    public int[] dy(int c) {
+        return dy[c];
+    }
+
+    /**
+     * Gets the flat index offsets of the neighbours of a class
+     *
+     * @param c class of the cell
+     * @return flat index offsets, in the same order as dx and dy
+     */
+    public int[] deltas(int c) {
+        return deltas[c];
+    }
+
+    /**
+     * Gets the number of classes the cells were grouped into
+     *
+     * @return number of distinct neighbour lists
+     */
+    public int getClassCount() {
+        return deltas.length;
+    }
+
+    /**
+     * Gets the number of columns of the board
+     *
+     * @return xDimension of the board
+     */
+    public int getXDimension() {
+        return xDimension;
+    }
+
+    /**
+     * Gets the number of rows of the board
+     *
+     * @return yDimension of the board
+     */
+    public int getYDimension() {
+        return yDimension;
+    }
+}
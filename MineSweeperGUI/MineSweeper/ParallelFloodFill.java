@@ -0,0 +1,210 @@
+package org.MineSweeperGUI.MineSweeper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * This class opens an empty region of the gameBoard using several threads.
+ * The board is split into square tiles. The fill then runs in rounds: in each
+ * round, every tile that has cells waiting to be opened is flooded on its own
+ * ForkJoin worker, and the flood stops at the tile border. Cells it would have
+ * opened in a neighbouring tile are handed to that tile for the next round.
+ * Rounds continue until no tile has any cells waiting.
+ * <p>
+ * A tile is only ever flooded by one worker per round, so Cell objects are
+ * never touched by two threads at once, and joining the round publishes every
+ * change before the next one starts. The set of cells a flood fill opens does
+ * not depend on the order cells are visited, so the result is exactly the same
+ * as MineSweeper.recOpenCells running on a single thread.
+ */
+public class ParallelFloodFill {
+
+    public static final int DEFAULT_TILE_SIZE = 256;
+
+    private static final ParallelFloodFill COMMON = new ParallelFloodFill(
+            ForkJoinPool.commonPool(), DEFAULT_TILE_SIZE
+    );
+
+    private final ForkJoinPool pool;
+    private final int tileSize;
+
+    /**
+     * Constructor sets up a fill that runs on the given pool.
+     *
+     * @param pool     pool the tiles are flooded on
+     * @param tileSize width and height of a tile in cells
+     */
+    public ParallelFloodFill(ForkJoinPool pool, int tileSize) {
+        if (tileSize <= 0) {
+            throw new IllegalArgumentException("Tile size must be positive");
+        }
+        this.pool = pool;
+        this.tileSize = tileSize;
+    }
+
+    /**
+     * Gets the fill that runs on the common ForkJoin pool
+     *
+     * @return the shared ParallelFloodFill
+     */
+    public static ParallelFloodFill common() {
+        return COMMON;
+    }
+
+    /**
+     * A growable list of flat cell indices.
+     */
+    private static final class IntList {
+        int[] values = new int[16];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+
+    /**
+     * Floods a single tile from its waiting cells.
+     */
+    private final class TileFill extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        final Cell[][] game;
+        final int tileX;
+        final int tileY;
+        final IntList seeds;
+        final NeighbourTable neighbours;
+        final IntList opened = new IntList();
+        final IntList outside = new IntList();
+
+        TileFill(Cell[][] game, int tileX, int tileY, IntList seeds, NeighbourTable neighbours) {
+            this.game = game;
+            this.neighbours = neighbours;
+            this.tileX = tileX;
+            this.tileY = tileY;
+            this.seeds = seeds;
+        }
+
+        @Override
+        protected void compute() {
+            int height = game[0].length;
+            int width = game.length;
+            int minX = tileX * tileSize;
+            int minY = tileY * tileSize;
+            int maxX = Math.min(minX + tileSize, width) - 1;
+            int maxY = Math.min(minY + tileSize, height) - 1;
+            IntList stack = seeds;
+            while (stack.size > 0) {
+                int index = stack.values[--stack.size];
+                int x = index / height;
+                int y = index % height;
+                Cell c = game[x][y];
+                if (c.getIsClicked()) {
+                    continue;
+                }
+                c.setIsClicked(true);
+                opened.add(index);
+                if (c.getMineNumber() != 0) {
+                    continue;
+                }
+                int n = neighbours.classOf(index);
+                int[] dx = neighbours.dx(n);
+                int[] dy = neighbours.dy(n);
+                int[] deltas = neighbours.deltas(n);
+                for (int k = 0; k < dx.length; k++) {
+                    int i = x + dx[k];
+                    int j = y + dy[k];
+                    if (i < minX || i > maxX || j < minY || j > maxY) {
+                        outside.add(index + deltas[k]);
+                    } else if (!game[i][j].getIsClicked()) {
+                        stack.add(index + deltas[k]);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Opens the cell at (x, y) and, if it is a 0-value cell, the whole region
+     * around it. Every opened cell is recorded in the move log.
+     *
+     * @param game contains the gameBoard
+     * @param x    x value of the first cell
+     * @param y    y value of the first cell
+     * @param log  move log of the current move, or null
+     */
+    public void fill(Cell[][] game, int x, int y, MoveLog log) {
+        fill(game, x, y, log, Topology.SQUARE);
+    }
+
+    /**
+     * Opens the cell at (x, y) and, if it is a 0-value cell, the whole region
+     * around it, using the neighbours of the given topology.
+     *
+     * @param game     contains the gameBoard
+     * @param x        x value of the first cell
+     * @param y        y value of the first cell
+     * @param log      move log of the current move, or null
+     * @param topology neighbourhood of the cells
+     */
+    public void fill(Cell[][] game, int x, int y, MoveLog log, Topology topology) {
+        int width = game.length;
+        int height = game[0].length;
+        int tilesX = (width + tileSize - 1) / tileSize;
+        int tilesY = (height + tileSize - 1) / tileSize;
+        NeighbourTable neighbours = NeighbourTable.of(topology, width, height);
+        IntList[] waiting = new IntList[tilesX * tilesY];
+        waiting[(x / tileSize) * tilesY + y / tileSize] = new IntList();
+        waiting[(x / tileSize) * tilesY + y / tileSize].add(x * height + y);
+
+        List<TileFill> round = new ArrayList<>();
+        while (true) {
+            round.clear();
+            for (int t = 0; t < waiting.length; t++) {
+                if (waiting[t] != null && waiting[t].size > 0) {
+                    round.add(new TileFill(game, t / tilesY, t % tilesY, waiting[t], neighbours));
+                    waiting[t] = null;
+                }
+            }
+            if (round.isEmpty()) {
+                return;
+            }
+            if (round.size() == 1) {
+                round.get(0).compute();
+            } else {
+                pool.invoke(new RecursiveAction() {
+                    @Override
+                    protected void compute() {
+                        invokeAll(round);
+                    }
+                });
+            }
+            for (TileFill fill : round) {
+                if (log != null) {
+                    for (int i = 0; i < fill.opened.size; i++) {
+                        log.opened(fill.opened.values[i]);
+                    }
+                }
+                for (int i = 0; i < fill.outside.size; i++) {
+                    int index = fill.outside.values[i];
+                    int cx = index / height;
+                    int cy = index % height;
+                    if (game[cx][cy].getIsClicked()) {
+                        continue;
+                    }
+                    int t = (cx / tileSize) * tilesY + cy / tileSize;
+                    if (waiting[t] == null) {
+                        waiting[t] = new IntList();
+                    }
+                    waiting[t].add(index);
+                }
+            }
+        }
+    }
+}
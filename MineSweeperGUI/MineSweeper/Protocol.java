@@ -0,0 +1,175 @@
+package org.MineSweeperGUI.MineSweeper;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This class holds the binary protocol spoken between the GameServer and its
+ * clients. Every frame starts with an int length (the number of bytes after
+ * the length) followed by a one byte opcode and its payload.
+ * <p>
+ * Client to server:
+ * <ul>
+ * <li>NEW_GAME: int lower bound, int upper bound for the number of mines</li>
+ * <li>REVEAL, FLAG, CHORD: short x, short y</li>
+ * </ul>
+ * Server to client:
+ * <ul>
+ * <li>GAME: short width, short height, followed by a DELTA body</li>
+ * <li>DELTA: byte status, int moves, int minutes, int seconds, int run count,
+ * then for every run an int start index, an int length and one state byte per
+ * cell in the run</li>
+ * <li>ERROR: a UTF-8 message</li>
+ * </ul>
+ * Cell states are packed into a single byte: the low four bits hold the mine
+ * number (15 for a mine), followed by clicked, flagged and mine bits. Only the
+ * cells changed by a move are sent, except when the game ends, in which case
+ * the whole board is sent so the client can show where the mines were.
+ * Until then, covered cells only ever carry their flagged bit.
+ */
+public final class Protocol {
+
+    // client to server opcodes
+    public static final byte NEW_GAME = 1;
+    public static final byte REVEAL = 2;
+    public static final byte FLAG = 3;
+    public static final byte CHORD = 4;
+
+    // server to client opcodes
+    public static final byte GAME = 10;
+    public static final byte DELTA = 11;
+    public static final byte ERROR = 12;
+
+    // bits of a packed cell state
+    public static final int NUMBER_MASK = 0x0F;
+    public static final int CLICKED = 0x10;
+    public static final int FLAGGED = 0x20;
+    public static final int MINE = 0x40;
+
+    // largest frame either side will accept
+    public static final int MAX_FRAME = 1 << 26;
+
+    private Protocol() {
+    }
+
+    /**
+     * Packs the state of a cell into a single byte.
+     *
+     * @param c the cell to pack
+     * @return byte holding the number, clicked, flagged and mine bits
+     */
+    public static byte pack(Cell c) {
+        int state = c.getIsMine() ? NUMBER_MASK : (c.getMineNumber() & NUMBER_MASK);
+        if (c.getIsClicked()) {
+            state |= CLICKED;
+        }
+        if (c.getIsFlagged()) {
+            state |= FLAGGED;
+        }
+        if (c.getIsMine()) {
+            state |= MINE;
+        }
+        return (byte) state;
+    }
+
+    /**
+     * Unpacks a cell state byte into an existing cell.
+     *
+     * @param state the packed state
+     * @param c     the cell to update
+     */
+    public static void unpack(byte state, Cell c) {
+        c.setIsMine((state & MINE) != 0);
+        if ((state & MINE) == 0) {
+            c.setMineNumber(state & NUMBER_MASK);
+        }
+        c.setIsClicked((state & CLICKED) != 0);
+        c.setIsFlagged((state & FLAGGED) != 0);
+    }
+
+    /**
+     * Builds a frame asking the server to start a new game.
+     *
+     * @param lower lower bound for the number of mines
+     * @param upper upper bound for the number of mines
+     * @return buffer ready to be written
+     */
+    public static ByteBuffer newGame(int lower, int upper) {
+        ByteBuffer buf = ByteBuffer.allocate(13);
+        buf.putInt(9).put(NEW_GAME).putInt(lower).putInt(upper);
+        buf.flip();
+        return buf;
+    }
+
+    /**
+     * Builds a frame for a move on a single cell.
+     *
+     * @param op REVEAL, FLAG or CHORD
+     * @param x  x value of the cell
+     * @param y  y value of the cell
+     * @return buffer ready to be written
+     */
+    public static ByteBuffer move(byte op, int x, int y) {
+        ByteBuffer buf = ByteBuffer.allocate(9);
+        buf.putInt(5).put(op).putShort((short) x).putShort((short) y);
+        buf.flip();
+        return buf;
+    }
+
+    /**
+     * Builds an error frame.
+     *
+     * @param message description of the error
+     * @return buffer ready to be written
+     */
+    public static ByteBuffer error(String message) {
+        byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buf = ByteBuffer.allocate(5 + bytes.length);
+        buf.putInt(1 + bytes.length).put(ERROR).put(bytes);
+        buf.flip();
+        return buf;
+    }
+
+    /**
+     * Builds a GAME frame (when {@code newGame} is set) or a DELTA frame. The
+     * cells sent are either the runs opened by the last move, the single
+     * flagged cell, or the whole board once the game is over.
+     *
+     * @param m       the game model
+     * @param game    the gameBoard
+     * @param runs    runs of changed cells packed as (start << 32 | length)
+     * @param newGame true to send a GAME frame with the board dimensions
+     * @return buffer ready to be written
+     */
+    public static ByteBuffer delta(MineSweeper m, Cell[][] game, long[] runs, boolean newGame) {
+        int height = m.getYDimension();
+        int cells = 0;
+        for (long run : runs) {
+            cells += (int) run;
+        }
+        int length = 1 + (newGame ? 4 : 0) + 17 + runs.length * 8 + cells;
+        ByteBuffer buf = ByteBuffer.allocate(4 + length);
+        buf.putInt(length).put(newGame ? GAME : DELTA);
+        if (newGame) {
+            buf.putShort((short) m.getXDimension()).putShort((short) height);
+        }
+        buf.put((byte) m.getStatus()).putInt(m.getMoveCounter()).putInt(m.getMinutes())
+                .putInt(m.getSeconds()).putInt(runs.length);
+        boolean gameOver = m.getStatus() == 1 || m.getStatus() == 2;
+        for (long run : runs) {
+            int start = (int) (run >>> 32);
+            int len = (int) run;
+            buf.putInt(start).putInt(len);
+            for (int i = start; i < start + len; i++) {
+                byte state = pack(game[i / height][i % height]);
+                if (!gameOver && (state & CLICKED) == 0) {
+                    // covered cells never tell the client what is underneath
+                    state &= FLAGGED;
+                }
+                buf.put(state);
+            }
+        }
+        buf.flip();
+        return buf;
+    }
+}
@@ -0,0 +1,151 @@
+package org.MineSweeperGUI.MineSweeper;
+
+import java.time.LocalDate;
+import java.util.Random;
+
+/**
+ * This class is the puzzle mode: a fixed board that can be solved by logic
+ * alone, the same for every player on the same day. The puzzle starts with
+ * one opening already made, and from there every safe cell can be proven
+ * safe by looking at one number at a time, so the player never has to
+ * guess. Hitting a mine loses the puzzle, and moves cannot be undone.
+ * <p>
+ * The board of a puzzle is the first board of a run of seeds, drawn from the
+ * number of the puzzle, that the DifficultyAnalyser solves without a forced
+ * guess.
+ */
+public class PuzzleMode implements GameMode {
+
+    // size of the board and its number of mines
+    static final int DIMENSION = 10;
+    static final int MINES = 15;
+    // seeds tried before settling for a board that needs a guess
+    private static final int TRIES = 10000;
+
+    private final long number; // number of the puzzle, or -1 for the puzzle of the day
+
+    /**
+     * Constructor sets up the mode with the puzzle of the day, which changes
+     * at midnight.
+     */
+    public PuzzleMode() {
+        this(-1);
+    }
+
+    /**
+     * Constructor sets up the mode with a fixed puzzle.
+     *
+     * @param number number of the puzzle, at least 0
+     */
+    public PuzzleMode(long number) {
+        this.number = number;
+    }
+
+    /**
+     * Gets the name of the mode
+     *
+     * @return "Daily puzzle"
+     */
+    @Override
+    public String getName() {
+        return "Daily puzzle";
+    }
+
+    /**
+     * Gets a line telling the player what the mode is about
+     *
+     * @return description of the mode
+     */
+    @Override
+    public String getDescription() {
+        return "The same board for everyone today, solvable without guessing.";
+    }
+
+    /**
+     * Gets the leaderboard of the puzzle played now, so that only games of
+     * the same puzzle are ranked against each other.
+     *
+     * @return name of the mode followed by the number of the puzzle
+     */
+    @Override
+    public String getLeaderboardName() {
+        return getName() + " " + puzzleNumber();
+    }
+
+    /**
+     * Gets the number of the puzzle played now.
+     *
+     * @return the fixed number, or the days since 1970 for the puzzle of the day
+     */
+    long puzzleNumber() {
+        return number >= 0 ? number : LocalDate.now().toEpochDay();
+    }
+
+    /**
+     * Creates the model of the puzzle, trying seeds until one gives a board
+     * that needs no guess.
+     *
+     * @param topology neighbourhood of the cells
+     * @return model of the puzzle, with the first click not protected
+     */
+    @Override
+    public MineSweeper newModel(Topology topology) {
+        long first = new Random(puzzleNumber()).nextLong();
+        DifficultyAnalyser analyser = new DifficultyAnalyser(topology, DIMENSION, DIMENSION);
+        for (int k = 0; k < TRIES; k++) {
+            MineSweeper probe = new MineSweeper(DIMENSION, DIMENSION, first + k, topology);
+            probe.setSaveFile(null);
+            DifficultyAnalyser.Metrics metrics = analyser.analyse(
+                    probe.gameBoard(MINES, MINES + 1, false));
+            if (metrics.getOpenings() > 0 && metrics.getForcedGuesses() == 0) {
+                return new MineSweeper(DIMENSION, DIMENSION, first + k, topology);
+            }
+        }
+        return new MineSweeper(DIMENSION, DIMENSION, first, topology);
+    }
+
+    /**
+     * Creates the board of the puzzle and makes its first opening, at the
+     * first cell with no mines next to it, which is where the analyser
+     * started its solution.
+     *
+     * @param m model of the puzzle
+     * @return the gameBoard with the first opening made
+     */
+    @Override
+    public Cell[][] newBoard(MineSweeper m) {
+        Cell[][] game = m.gameBoard(MINES, MINES + 1, false);
+        for (int i = 0; i < m.getXDimension(); i++) {
+            for (int j = 0; j < m.getYDimension(); j++) {
+                if (!game[i][j].getIsMine() && game[i][j].getMineNumber() == 0) {
+                    m.play(game, i, j, false);
+                    return game;
+                }
+            }
+        }
+        return game;
+    }
+
+    /**
+     * A puzzle is solved without taking anything back.
+     *
+     * @return false
+     */
+    @Override
+    public boolean allowsUndo() {
+        return false;
+    }
+
+    /**
+     * Shows the number of the puzzle.
+     *
+     * @param m       model of the game
+     * @param game    gameBoard of the game
+     * @param elapsed seconds the game has taken so far
+     * @return number of the puzzle as text
+     */
+    @Override
+    public String status(MineSweeper m, Cell[][] game, int elapsed) {
+        return "Puzzle " + puzzleNumber() + ".";
+    }
+}
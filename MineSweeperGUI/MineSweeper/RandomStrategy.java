@@ -0,0 +1,56 @@
+package org.MineSweeperGUI.MineSweeper;
+
+import java.util.Random;
+
+/**
+ * This class is a bot that opens a random covered cell every move. It is the
+ * baseline other strategies are measured against.
+ */
+public class RandomStrategy implements Strategy {
+
+    private final Random random;
+
+    /**
+     * Constructor sets up a bot whose guesses come from the given seed.
+     *
+     * @param seed seed for picking cells
+     */
+    public RandomStrategy(long seed) {
+        random = new Random(seed);
+    }
+
+    @Override
+    public Move decide(VisibleBoard board) {
+        return guess(board, random);
+    }
+
+    /**
+     * Picks a random cell that is neither opened nor flagged and opens it.
+     *
+     * @param board  what can be seen of the board
+     * @param random source of the guess
+     * @return a reveal move, or null if every cell is opened or flagged
+     */
+    static Move guess(VisibleBoard board, Random random) {
+        int covered = 0;
+        for (int i = 0; i < board.getXDimension(); i++) {
+            for (int j = 0; j < board.getYDimension(); j++) {
+                if (board.get(i, j) == VisibleBoard.COVERED) {
+                    covered++;
+                }
+            }
+        }
+        if (covered == 0) {
+            return null;
+        }
+        int pick = random.nextInt(covered);
+        for (int i = 0; i < board.getXDimension(); i++) {
+            for (int j = 0; j < board.getYDimension(); j++) {
+                if (board.get(i, j) == VisibleBoard.COVERED && pick-- == 0) {
+                    return Move.reveal(i, j);
+                }
+            }
+        }
+        return null;
+    }
+}
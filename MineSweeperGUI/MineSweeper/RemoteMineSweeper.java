@@ -0,0 +1,179 @@
+package org.MineSweeperGUI.MineSweeper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This class is a MineSweeper model whose game is played on a GameServer. The
+ * gameBoard it hands out is a local mirror: moves are sent to the server and
+ * only the cells that changed are copied back into the mirror. Covered cells
+ * in the mirror carry no mine information until the game is over, so a
+ * GameBoard can paint it exactly like a local game.
+ */
+public class RemoteMineSweeper extends MineSweeper {
+
+    private final GameClient client;
+    private Cell[][] board;
+    private int status;
+    private int moves;
+
+    /**
+     * Constructor sets up a model that plays through the given connection.
+     *
+     * @param client connection to the server
+     */
+    public RemoteMineSweeper(GameClient client) {
+        this.client = client;
+        setSaveFile(null);
+    }
+
+    /**
+     * Asks the server for a new game and builds the local mirror of its
+     * gameBoard. Remote games cannot be loaded from a save file.
+     */
+    @Override
+    public Cell[][] gameBoard(int x, int y, boolean loadPrevious) {
+        ByteBuffer reply = send(Protocol.newGame(x, y));
+        if (reply.get() != Protocol.GAME) {
+            throw new IllegalStateException("Unexpected reply to a new game");
+        }
+        int width = reply.getShort();
+        int height = reply.getShort();
+        board = new Cell[width][height];
+        for (int i = 0; i < width; i++) {
+            for (int j = 0; j < height; j++) {
+                board[i][j] = new Cell();
+            }
+        }
+        apply(reply);
+        setStartTime(System.currentTimeMillis());
+        return board;
+    }
+
+    /**
+     * Gets the local mirror of the gameBoard on the server
+     *
+     * @return the mirror, or null before a game was started
+     */
+    @Override
+    public Cell[][] getBoard() {
+        return board;
+    }
+
+    @Override
+    public void play(Cell[][] game, int x, int y, boolean isRight) {
+        move(isRight ? Protocol.FLAG : Protocol.REVEAL, x, y);
+    }
+
+    @Override
+    public void chord(Cell[][] game, int x, int y) {
+        move(Protocol.CHORD, x, y);
+    }
+
+    /**
+     * Moves cannot be undone on the server.
+     */
+    @Override
+    public boolean undo(Cell[][] game) {
+        return false;
+    }
+
+    /**
+     * Moves cannot be redone on the server.
+     */
+    @Override
+    public boolean redo(Cell[][] game) {
+        return false;
+    }
+
+    @Override
+    public int getStatus() {
+        return status;
+    }
+
+    @Override
+    public int getMoveCounter() {
+        return moves;
+    }
+
+    @Override
+    public int getXDimension() {
+        return board == null ? super.getXDimension() : board.length;
+    }
+
+    @Override
+    public int getYDimension() {
+        return board == null ? super.getYDimension() : board[0].length;
+    }
+
+    /**
+     * Sends a move and copies the resulting delta into the mirror.
+     *
+     * @param op REVEAL, FLAG or CHORD
+     * @param x  x value of the cell
+     * @param y  y value of the cell
+     */
+    private void move(byte op, int x, int y) {
+        if (board == null || status == 1 || status == 2) {
+            return;
+        }
+        if (x < 0 || y < 0 || x >= board.length || y >= board[0].length) {
+            return;
+        }
+        ByteBuffer reply = send(Protocol.move(op, x, y));
+        if (reply.get() != Protocol.DELTA) {
+            throw new IllegalStateException("Unexpected reply to a move");
+        }
+        apply(reply);
+    }
+
+    /**
+     * Reads the status and changed cells of a GAME or DELTA body.
+     *
+     * @param reply the reply, positioned after the opcode and dimensions
+     */
+    private void apply(ByteBuffer reply) {
+        status = reply.get();
+        moves = reply.getInt();
+        int minutes = reply.getInt();
+        int seconds = reply.getInt();
+        if (status == 1 || status == 2) {
+            setMinutes(minutes);
+            setSeconds(seconds);
+        }
+        int height = board[0].length;
+        int runs = reply.getInt();
+        for (int r = 0; r < runs; r++) {
+            int start = reply.getInt();
+            int length = reply.getInt();
+            for (int i = start; i < start + length; i++) {
+                Protocol.unpack(reply.get(), board[i / height][i % height]);
+            }
+        }
+    }
+
+    /**
+     * Sends a frame, turning error replies and connection failures into
+     * exceptions.
+     *
+     * @param frame the frame to send
+     * @return the reply, positioned at its opcode
+     */
+    private ByteBuffer send(ByteBuffer frame) {
+        ByteBuffer reply;
+        try {
+            reply = client.request(frame);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (reply.get(0) == Protocol.ERROR) {
+            byte[] message = new byte[reply.remaining() - 1];
+            reply.position(1);
+            reply.get(message);
+            throw new IllegalStateException(new String(message, StandardCharsets.UTF_8));
+        }
+        return reply;
+    }
+}
@@ -0,0 +1,360 @@
+package org.MineSweeperGUI.MineSweeper;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * This class plays back a recorded game. The board of the game is rebuilt
+ * from its seed and the recorded moves are played on it once, keeping the
+ * delta of every move as the MoveLog recorded it, so any point of the game
+ * can then be shown without playing the moves again.
+ * <p>
+ * Every CHECKPOINT_INTERVAL moves, and at the end of the game, a checkpoint
+ * of the opened and flagged cells is kept. Seeking to a position close to the
+ * current one applies the deltas in between, forwards or backwards. Seeking
+ * further away restores the checkpoint nearest to the target and applies the
+ * deltas from there, so no seek applies more than half an interval of deltas
+ * however long the game is.
+ * <p>
+ * The model handed out for painting reports the status, moves and time of
+ * the current position, and ignores any moves played on it.
+ */
+public class Replay {
+
+    public static final int CHECKPOINT_INTERVAL = 32;
+
+    // bits of a cell in a checkpoint
+    private static final byte CLICKED = 1;
+    private static final byte FLAGGED = 2;
+
+    private final GameRecord record;
+    private final Cell[][] game;
+    private final MoveLog.Move[] moves;
+    private final List<byte[]> checkpoints = new ArrayList<>(); // before move k * interval
+    private final byte[] last; // after the last move
+    private final Model model;
+    private int position;
+    private int deltasApplied; // deltas applied by the last seek
+
+    /**
+     * The model of a replayed game. Its status, moves and time are those of
+     * the position being shown.
+     */
+    private final class Model extends MineSweeper {
+
+        Model() {
+            super(record.getXDimension(), record.getYDimension(), record.getSeed(),
+                    record.getTopology());
+            setSaveFile(null);
+        }
+
+        @Override
+        public int getStatus() {
+            return position == 0 ? 0 : moves[position - 1].statusAfter;
+        }
+
+        @Override
+        public int getMoveCounter() {
+            return position;
+        }
+
+        @Override
+        public int getMinutes() {
+            return position == moves.length && position > 0 ? record.getMinutes()
+                    : (int) (getTime(position) / 60000);
+        }
+
+        @Override
+        public int getSeconds() {
+            return position == moves.length && position > 0 ? record.getSeconds()
+                    : (int) (getTime(position) / 1000 % 60);
+        }
+
+        @Override
+        public int getNumMines() {
+            return record.getNumMines();
+        }
+
+        @Override
+        public void play(Cell[][] game, int x, int y, boolean isRight) {
+        }
+
+        @Override
+        public void chord(Cell[][] game, int x, int y) {
+        }
+
+        @Override
+        public boolean undo(Cell[][] game) {
+            return false;
+        }
+
+        @Override
+        public boolean redo(Cell[][] game) {
+            return false;
+        }
+    }
+
+    /**
+     * Constructor rebuilds the board of a recorded game and plays its moves
+     * once to record their deltas and checkpoints. The replay starts at the
+     * end of the game.
+     *
+     * @param record the recorded game
+     * @throws IllegalArgumentException if the moves cannot be played on the
+     *                                  board of the record's seed, for example
+     *                                  because the game was loaded from a save
+     */
+    public Replay(GameRecord record) {
+        this.record = record;
+        int yDimension = record.getYDimension();
+        MineSweeper engine = new MineSweeper(
+                record.getXDimension(), yDimension, record.getSeed(), record.getTopology()
+        );
+        engine.setSaveFile(null);
+        // a mode that is no longer installed is played by the classic rules,
+        // which allow every move any mode allows
+        GameMode mode = new GameModes().find(record.getMode());
+        engine.setMode(mode != null ? mode : GameModes.CLASSIC);
+        // draws the same number of mines the recorded game was given
+        game = engine.gameBoard(record.getNumMines(), record.getNumMines() + 1, false);
+        int n = record.getMoveCount();
+        if (record.getSafeStart() != GameRecord.SAFE_START_UNKNOWN) {
+            engine.setSafeStart(record.getSafeStart());
+        } else if (!lostOnFirstClick(record)) {
+            // an old record does not say; the first click only moved a mine
+            // if it would have hit one
+            engine.setSafeStart(MineSweeper.SAFE_START_CELL);
+        }
+        for (int i = 0; i < n; i++) {
+            if (i % CHECKPOINT_INTERVAL == 0) {
+                checkpoints.add(snapshot());
+            }
+            int cell = record.getMoveCell(i);
+            int x = cell / yDimension;
+            int y = cell % yDimension;
+            if (x >= record.getXDimension() || cell < 0) {
+                throw new IllegalArgumentException("Move " + i + " is off the board");
+            }
+            int kind = record.getMoveKind(i);
+            if (kind == MoveLog.FLAG) {
+                engine.play(game, x, y, true);
+            } else if (kind == MoveLog.REVEAL && game[x][y].getIsClicked()) {
+                engine.chord(game, x, y);
+            } else {
+                engine.play(game, x, y, false);
+            }
+            MoveLog.Move made = engine.getMoveLog().last();
+            if (engine.getMoveLog().size() != i + 1 || made.kind != kind || made.index != cell) {
+                throw new IllegalArgumentException(
+                        "Move " + i + " does not replay on the board of seed " + record.getSeed()
+                );
+            }
+        }
+        if (n % CHECKPOINT_INTERVAL == 0) {
+            checkpoints.add(snapshot());
+        }
+        last = snapshot();
+        moves = new MoveLog.Move[n];
+        Iterator<MoveLog.Move> it = engine.getMoveLog().moves();
+        for (int i = 0; i < n; i++) {
+            moves[i] = it.next();
+        }
+        position = n;
+        model = new Model();
+    }
+
+    /**
+     * Checks if a game was lost by opening a mine with its first click, which
+     * only happens in games played without a safe start. Only used for records
+     * that do not keep their safe start.
+     */
+    private static boolean lostOnFirstClick(GameRecord record) {
+        int n = record.getMoveCount();
+        for (int i = 0; i < n - 1; i++) {
+            if (record.getMoveKind(i) != MoveLog.FLAG) {
+                return false;
+            }
+        }
+        return n > 0 && record.getMoveKind(n - 1) == MoveLog.MINE;
+    }
+
+    /**
+     * Copies the opened and flagged cells of the board.
+     *
+     * @return one byte of CLICKED and FLAGGED bits per cell, by flat index
+     */
+    private byte[] snapshot() {
+        int yDimension = record.getYDimension();
+        byte[] cells = new byte[record.getXDimension() * yDimension];
+        for (int i = 0; i < cells.length; i++) {
+            Cell c = game[i / yDimension][i % yDimension];
+            cells[i] = (byte) ((c.getIsClicked() ? CLICKED : 0)
+                    | (c.getIsFlagged() ? FLAGGED : 0));
+        }
+        return cells;
+    }
+
+    /**
+     * Sets the opened and flagged cells of the board to those of a checkpoint.
+     */
+    private void restore(byte[] cells) {
+        int yDimension = record.getYDimension();
+        for (int i = 0; i < cells.length; i++) {
+            Cell c = game[i / yDimension][i % yDimension];
+            c.setIsClicked((cells[i] & CLICKED) != 0);
+            c.setIsFlagged((cells[i] & FLAGGED) != 0);
+        }
+    }
+
+    /**
+     * Applies or reverts the cell changes of one move.
+     */
+    private void apply(MoveLog.Move move, boolean forward) {
+        int yDimension = record.getYDimension();
+        if (move.kind == MoveLog.FLAG) {
+            Cell c = game[move.index / yDimension][move.index % yDimension];
+            c.setIsFlagged(!c.getIsFlagged());
+            return;
+        }
+        for (long run : move.runs) {
+            int start = (int) (run >>> 32);
+            int end = start + (int) run;
+            for (int i = start; i < end; i++) {
+                game[i / yDimension][i % yDimension].setIsClicked(forward);
+            }
+        }
+    }
+
+    /**
+     * Shows the board as it was after the given number of moves.
+     *
+     * @param target number of moves played, between 0 and getLength()
+     */
+    public void seek(int target) {
+        target = Math.max(0, Math.min(moves.length, target));
+        deltasApplied = 0;
+        if (Math.abs(target - position) > CHECKPOINT_INTERVAL / 2) {
+            int k = Math.min((target + CHECKPOINT_INTERVAL / 2) / CHECKPOINT_INTERVAL,
+                    checkpoints.size() - 1);
+            int from = k * CHECKPOINT_INTERVAL;
+            if (moves.length - target < Math.abs(target - from)) {
+                // past the last checkpoint the end of the game is nearer
+                restore(last);
+                position = moves.length;
+            } else if (Math.abs(target - from) < Math.abs(target - position)) {
+                restore(checkpoints.get(k));
+                position = from;
+            }
+        }
+        while (position < target) {
+            apply(moves[position++], true);
+            deltasApplied++;
+        }
+        while (position > target) {
+            apply(moves[--position], false);
+            deltasApplied++;
+        }
+    }
+
+    /**
+     * Steps one move forwards or backwards.
+     *
+     * @param forward true to step to the next move, false to the previous one
+     * @return boolean noting if there was a move to step to
+     */
+    public boolean step(boolean forward) {
+        int target = position + (forward ? 1 : -1);
+        if (target < 0 || target > moves.length) {
+            return false;
+        }
+        seek(target);
+        return true;
+    }
+
+    /**
+     * Gets the position reached at a time of the game, so a replay can be
+     * played back at the speed the game was played.
+     *
+     * @param millis milliseconds since the game started
+     * @return number of moves made by that time
+     */
+    public int positionAt(long millis) {
+        int low = 0;
+        int high = moves.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (record.getMoveTime(mid) <= millis) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Gets the time a position was reached
+     *
+     * @param position number of moves played
+     * @return milliseconds since the game started
+     */
+    public long getTime(int position) {
+        return position == 0 ? 0 : record.getMoveTime(position - 1);
+    }
+
+    /**
+     * Gets the number of moves played so far in the replay
+     *
+     * @return position between 0 and getLength()
+     */
+    public int getPosition() {
+        return position;
+    }
+
+    /**
+     * Gets the number of moves in the replay
+     *
+     * @return number of recorded moves
+     */
+    public int getLength() {
+        return moves.length;
+    }
+
+    /**
+     * Gets the number of deltas the last seek applied, which is at most half
+     * a checkpoint interval for any seek longer than that.
+     *
+     * @return deltas applied by the last seek
+     */
+    public int getDeltasApplied() {
+        return deltasApplied;
+    }
+
+    /**
+     * Gets the record being replayed
+     *
+     * @return the recorded game
+     */
+    public GameRecord getRecord() {
+        return record;
+    }
+
+    /**
+     * Gets the model of the replay for painting
+     *
+     * @return model reporting the current position
+     */
+    public MineSweeper getModel() {
+        return model;
+    }
+
+    /**
+     * Gets the board of the replay, which every seek updates in place
+     *
+     * @return gameBoard at the current position
+     */
+    public Cell[][] getGame() {
+        return game;
+    }
+}
@@ -6,6 +6,14 @@ import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.io.File;
+import java.io.IOException;
+import java.text.DateFormat;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
 
 /**
  * This class sets up the top-level frame and widgets for the GUI.
@@ -19,62 +27,60 @@ import java.io.File;
  * it will instantiate a MineSweeper object to serve as the game's model.
  */
 public class RunMineSweeper implements Runnable {
+
+    // number of finished games offered in the replay window
+    private static final int RECENT_GAMES = 20;
+
+    // measures startup from the JVM start to the first paint of the board
+    private final StartupTiming timing = new StartupTiming();
+
+    public RunMineSweeper() {
+        timing.mark("main");
+    }
+
+    /**
+     * Picks the Java 2D rendering pipeline named by the system property
+     * minesweeper.pipeline: opengl, xrender or metal. Without it Java picks
+     * its default for the platform, which is Direct3D on Windows, XRender on
+     * Linux and OpenGL or Metal on macOS. Must be called before anything is
+     * drawn, and has no effect if the pipeline was already set with the
+     * sun.java2d properties.
+     */
+    public static void selectPipeline() {
+        String pipeline = System.getProperty("minesweeper.pipeline", "").toLowerCase();
+        if (!pipeline.equals("opengl") && !pipeline.equals("xrender")
+                && !pipeline.equals("metal")) {
+            return;
+        }
+        String property = "sun.java2d." + pipeline;
+        if (System.getProperty(property) == null) {
+            System.setProperty(property, "true");
+        }
+    }
+
     public void run() {
 
         // Top-level frame in which game components live
         final JFrame frame = new JFrame("MineSweeper");
         frame.setLocation(450, 150);
 
-        // Checks if there is a previously unfinished game
-        File f = new File("moves.csv");
-        boolean exists = f.exists();
-        boolean loadPrevious = false;
-        if (exists) {
-            JOptionPane pane = new JOptionPane(
-                    "A previous game was detected. Would you like to load the previous game?"
-            );
-            Object[] options = new String[] { "No", "Yes" };
-            pane.setOptions(options);
-            JDialog dialog = pane.createDialog(new JFrame(), "MineSweeper: Load Previous Game?");
-            dialog.setVisible(true);
-            Object obj = pane.getValue();
-            int result = -1;
-            for (int k = 0; k < options.length; k++) {
-                if (options[k].equals(obj)) {
-                    result = k;
-                }
-            }
-            if (result == 1) {
-                loadPrevious = true;
+        // Plays on a game server if one is configured with
+        // -Dminesweeper.server=host:port, "loopback" hosts one in this process
+        Supplier<MineSweeper> models = null;
+        boolean remote = false;
+        String address = System.getProperty("minesweeper.server");
+        if (address != null) {
+            try {
+                GameClient client = connect(address);
+                models = () -> new RemoteMineSweeper(client);
+                remote = true;
+            } catch (IOException | NumberFormatException e) {
+                JOptionPane.showMessageDialog(
+                        null, "Could not connect to " + address + ". Playing locally instead."
+                );
             }
         }
 
-        // Frame for Instructions
-        JFrame instructionsPane = new JFrame("MineSweeper Instructions");
-        instructionsPane.setSize(475, 480);
-        instructionsPane.setLocation(466, 200);
-
-        JEditorPane instructionsText = new JEditorPane();
-        instructionsText.setEditable(false);
-        instructionsText.setContentType("text/html");
-        String text = "<h1 style=\"text-align:center\">MineSweeper Instructions</h1>\n" +
-                "<h2 style=\"text-align:center\">Selecting a Cell</h2>\n" +
-                "<p>Click a cell at random to start the game. The cells that have a mine number" +
-                " indicate the number of mines directly surrounding the cell (there are 8 total" +
-                " cells that surround each cell). Based on these values, open empty cells " +
-                "strategically to not hit a mine. If you hit a mine, you lose the game.</p>\n" +
-                "<h2 style=\"text-align:center\">Flagging a Cell</h2>\n<p> Flag a cell if you" +
-                " suspect that it is a mine. You can flag by right clicking on the cell.</p>\n" +
-                "<h2 style=\"text-align:center\">Winning the Game</h2>\n<p>You win the game by " +
-                "opening all the empty cells and not touching any of the mines. You do not need" +
-                " to have mine cells flagged in order to win. There are between 12 to 15 mines" +
-                " to find!</p>\n<h2 style=\"text-align:center\">Misc. Notes</h2>\n" +
-                "<p>You can't flag an opened cell. You can't open a flagged cell.</p>\n" +
-                "<h2 style=\"text-align:center\">Good luck!!</h2>\n" +
-                "\n";
-        instructionsText.setText(text);
-        instructionsPane.setContentPane(instructionsText);
-
         // Status panel
         final JPanel status_panel = new JPanel();
         frame.add(status_panel, BorderLayout.SOUTH);
@@ -82,7 +88,7 @@ public class RunMineSweeper implements Runnable {
         status_panel.add(status);
 
         // Game board
-        final GameBoard board = new GameBoard(status);
+        final GameBoard board = new GameBoard(status, models);
         frame.add(board, BorderLayout.CENTER);
 
         // Reset button
@@ -102,23 +108,625 @@ public class RunMineSweeper implements Runnable {
         });
         control_panel.add(reset);
 
+        // undo and redo buttons step through the moves made on the board
+        final JButton undo = new JButton("Undo");
+        undo.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                board.undo();
+            }
+        });
+        control_panel.add(undo);
+
+        final JButton redo = new JButton("Redo");
+        redo.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                board.redo();
+            }
+        });
+        control_panel.add(redo);
+
+        // loadButton lists the saved games from the index of the save slots
+        final JButton loadButton = new JButton("Load");
+        loadButton.setEnabled(!remote);
+        loadButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                chooseSave(frame, board);
+            }
+        });
+        control_panel.add(loadButton);
+
         // instructionsButton creation and inclusion in the control panel
+        // the instructions window and its HTML are only built when first opened
         final JButton instructionsButton = new JButton("Instructions");
 
         instructionsButton.addActionListener(new ActionListener() {
+            private JFrame instructionsPane;
+
             @Override
             public void actionPerformed(ActionEvent e) {
+                if (instructionsPane == null) {
+                    instructionsPane = createInstructionsFrame();
+                }
                 instructionsPane.setVisible(!instructionsPane.isVisible());
             }
         });
         control_panel.add(instructionsButton);
 
+        // scoresButton shows the leaderboard of the current board configuration
+        final JButton scoresButton = new JButton("Scores");
+        scoresButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                JOptionPane.showMessageDialog(
+                        frame, scoresText(board), "MineSweeper: Leaderboard",
+                        JOptionPane.PLAIN_MESSAGE
+                );
+            }
+        });
+        control_panel.add(scoresButton);
+
+        // endlessButton opens the endless game in its own window
+        final JButton endlessButton = new JButton("Endless");
+        endlessButton.addActionListener(new ActionListener() {
+            private JFrame endlessFrame;
+
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                if (endlessFrame == null) {
+                    endlessFrame = createEndlessFrame();
+                }
+                endlessFrame.setVisible(true);
+            }
+        });
+        control_panel.add(endlessButton);
+
+        // replayButton reads the latest finished games off the event thread
+        // and opens them in the replay window
+        final JButton replayButton = new JButton("Replay");
+        replayButton.addActionListener(new ActionListener() {
+            private ReplayWindow replayWindow;
+
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                replayButton.setEnabled(false);
+                new SwingWorker<List<GameRecord>, Void>() {
+                    @Override
+                    protected List<GameRecord> doInBackground() throws IOException {
+                        return recentGames(board.getHistory(), RECENT_GAMES);
+                    }
+
+                    @Override
+                    protected void done() {
+                        replayButton.setEnabled(true);
+                        List<GameRecord> games;
+                        try {
+                            games = get();
+                        } catch (InterruptedException | ExecutionException ex) {
+                            games = new ArrayList<>();
+                        }
+                        if (replayWindow == null) {
+                            replayWindow = new ReplayWindow();
+                        }
+                        if (!replayWindow.show(games)) {
+                            JOptionPane.showMessageDialog(
+                                    frame, "No finished games to replay yet."
+                            );
+                        }
+                    }
+                }.execute();
+            }
+        });
+        control_panel.add(replayButton);
+
+        // topologies changes the neighbourhood of the cells and starts a new game
+        final JComboBox<Topology> topologies = new JComboBox<>(Topology.values());
+        topologies.setEnabled(!remote);
+        topologies.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                board.setTopology((Topology) topologies.getSelectedItem());
+                board.reset(false);
+                frame.pack();
+            }
+        });
+        control_panel.add(topologies);
+
+        // practice lets a mine hit be undone, and starts a new game that is
+        // not ranked or kept in the history
+        final JCheckBox practice = new JCheckBox("Practice");
+        practice.setEnabled(!remote);
+        practice.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                board.setPractice(practice.isSelected());
+                board.reset(false);
+            }
+        });
+        control_panel.add(practice);
+
+        // modeButton lists the game modes, which are only looked up when it is
+        // first pressed, and starts a new game in the chosen one
+        final JButton modeButton = new JButton("Mode");
+        modeButton.setEnabled(!remote);
+        modeButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                GameMode mode = chooseMode(frame, board);
+                if (mode != null) {
+                    board.setMode(mode);
+                    board.reset(false);
+                    frame.pack();
+                }
+            }
+        });
+        control_panel.add(modeButton);
+
+        // Start a fresh game in a slot of its own, so the saved games are kept
+        // while the player is asked about them. The board ignores moves until
+        // then, so the fresh game never becomes the latest save.
+        board.setWaiting(!remote);
+        board.start();
+        board.setFirstPaintListener(() -> {
+            timing.mark("first_paint");
+            timing.writeInBackground(new File("startup.log"));
+        });
+
+        // Checks for a previously unfinished game off the event thread, so the
+        // board is shown while the disk is probed. The save of older versions
+        // in the working directory is moved into a slot first. The player is
+        // asked about the latest game once the probe has finished.
+        if (!remote) {
+            new SwingWorker<Boolean, Void>() {
+                @Override
+                protected Boolean doInBackground() {
+                    SaveSlots slots = board.getSaveSlots();
+                    File legacy = new File("moves.csv");
+                    if (legacy.exists()) {
+                        slots.importSave(legacy, "moves");
+                    }
+                    return slots.latest() != null;
+                }
+
+                @Override
+                protected void done() {
+                    timing.mark("save_probed");
+                    try {
+                        if (probeResult(this) && askLoadPrevious(frame)) {
+                            board.reset(true);
+                        }
+                    } finally {
+                        board.setWaiting(false);
+                    }
+                }
+            }.execute();
+        }
+
         // Put the frame on the screen
         frame.pack();
         frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         frame.setVisible(true);
+        timing.mark("frame_visible");
+    }
+
+    /**
+     * Gets the result of the save file probe, treating a failed probe as no
+     * save file.
+     *
+     * @param saveProbe the finished probe
+     * @return boolean noting if a save file exists
+     */
+    private static boolean probeResult(SwingWorker<Boolean, Void> saveProbe) {
+        try {
+            return saveProbe.get();
+        } catch (InterruptedException | ExecutionException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Asks the player if the previous unfinished game should be loaded.
+     *
+     * @param frame frame the dialog is shown over
+     * @return boolean noting if the previous game should be loaded
+     */
+    private static boolean askLoadPrevious(JFrame frame) {
+        JOptionPane pane = new JOptionPane(
+                "A previous game was detected. Would you like to load the previous game?"
+        );
+        Object[] options = new String[] { "No", "Yes" };
+        pane.setOptions(options);
+        JDialog dialog = pane.createDialog(frame, "MineSweeper: Load Previous Game?");
+        dialog.setVisible(true);
+        return options[1].equals(pane.getValue());
+    }
+
+    /**
+     * Lets the player pick a saved game to load or delete. The list is built
+     * from the index of the save slots alone, so no save is read until one is
+     * loaded.
+     *
+     * @param frame frame the dialog is shown over
+     * @param board board the chosen game is loaded on
+     */
+    private static void chooseSave(JFrame frame, GameBoard board) {
+        SaveSlots slots = board.getSaveSlots();
+        DefaultListModel<SaveSlots.Slot> saves = new DefaultListModel<>();
+        for (SaveSlots.Slot slot : slots.list()) {
+            saves.addElement(slot);
+        }
+        if (saves.isEmpty()) {
+            JOptionPane.showMessageDialog(frame, "No saved games yet.");
+            return;
+        }
+        JList<SaveSlots.Slot> list = new JList<>(saves);
+        list.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        list.setSelectedIndex(0);
+        list.setVisibleRowCount(Math.min(10, saves.size()));
+        DateFormat format = DateFormat.getDateTimeInstance(DateFormat.SHORT, DateFormat.SHORT);
+        list.setCellRenderer(new DefaultListCellRenderer() {
+            @Override
+            public Component getListCellRendererComponent(JList<?> l, Object value, int index,
+                                                          boolean selected, boolean focused) {
+                SaveSlots.Slot slot = (SaveSlots.Slot) value;
+                double progress = slot.getProgress();
+                String text = String.format("%s   %s %dx%d   %s   %d moves   %.1f KB   %s",
+                        slot.getName(), slot.getTopology(), slot.getXDimension(),
+                        slot.getYDimension(),
+                        progress < 0 ? "?" : Math.round(progress * 100) + "% opened",
+                        slot.getMoves(), slot.getBytes() / 1024.0,
+                        format.format(new Date(slot.getLastPlayed())));
+                return super.getListCellRendererComponent(l, text, index, selected, focused);
+            }
+        });
+        Object[] options = new String[] { "Load", "Delete", "Cancel" };
+        while (!saves.isEmpty()) {
+            JOptionPane pane = new JOptionPane(new JScrollPane(list), JOptionPane.PLAIN_MESSAGE,
+                    JOptionPane.DEFAULT_OPTION, null, options, options[0]);
+            pane.createDialog(frame, "MineSweeper: Saved Games").setVisible(true);
+            SaveSlots.Slot chosen = list.getSelectedValue();
+            if (chosen == null || !(options[0].equals(pane.getValue())
+                    || options[1].equals(pane.getValue()))) {
+                return;
+            }
+            if (options[0].equals(pane.getValue())) {
+                board.load(chosen.getName());
+                return;
+            }
+            slots.delete(chosen.getName());
+            saves.removeElement(chosen);
+            list.setSelectedIndex(0);
+        }
+    }
+
+    /**
+     * Creates the instructions window. Parsing the HTML is comparatively slow,
+     * so this only happens when the instructions are first opened.
+     *
+     * @return the frame holding the instructions
+     */
+    private static JFrame createInstructionsFrame() {
+        JFrame instructionsPane = new JFrame("MineSweeper Instructions");
+        instructionsPane.setSize(475, 480);
+        instructionsPane.setLocation(466, 200);
+
+        JEditorPane instructionsText = new JEditorPane();
+        instructionsText.setEditable(false);
+        instructionsText.setContentType("text/html");
+        String text = "<h1 style=\"text-align:center\">MineSweeper Instructions</h1>\n" +
+                "<h2 style=\"text-align:center\">Selecting a Cell</h2>\n" +
+                "<p>Click a cell at random to start the game; the first cell you open is never" +
+                " a mine. The cells that have a mine number" +
+                " indicate the number of mines directly surrounding the cell (there are 8 total" +
+                " cells that surround each cell). Based on these values, open empty cells " +
+                "strategically to not hit a mine. If you hit a mine, you lose the game.</p>\n" +
+                "<h2 style=\"text-align:center\">Flagging a Cell</h2>\n<p> Flag a cell if you" +
+                " suspect that it is a mine. You can flag by right clicking on the cell.</p>\n" +
+                "<h2 style=\"text-align:center\">Winning the Game</h2>\n<p>You win the game by " +
+                "opening all the empty cells and not touching any of the mines. You do not need" +
+                " to have mine cells flagged in order to win. There are between 12 to 15 mines" +
+                " to find!</p>\n<h2 style=\"text-align:center\">Misc. Notes</h2>\n" +
+                "<p>You can't flag an opened cell. You can't open a flagged cell. Middle" +
+                " click an opened cell to open all of its neighbours once enough of them" +
+                " are flagged.</p>\n<p>The box at the top picks the neighbours of each cell: the" +
+                " usual square grid, a hex grid with six neighbours, a torus that wraps" +
+                " around the edges, or the eight cells a chess knight could jump to.</p>\n" +
+                "<p>Replay shows your latest finished games. Drag the slider to jump to" +
+                " any move, or press Play to watch the game at the speed it was played.</p>\n" +
+                "<p>Mode picks how new games are played: against the clock, the daily puzzle" +
+                " that needs no guessing, or with only a few flags. Only classic games are" +
+                " saved, and each mode has its own scores.</p>\n" +
+                "<p>You can also play with the keyboard. The arrow keys move the cursor," +
+                " Space opens the cell under it, F flags it and C opens its neighbours like" +
+                " a middle click. Ctrl+Z and Ctrl+Y undo and redo.</p>\n" +
+                "<p>Games in which a move was undone are not ranked. Tick Practice to be" +
+                " able to undo hitting a mine; practice games are not ranked or kept.</p>\n" +
+                "<h2 style=\"text-align:center\">Good luck!!</h2>\n" +
+                "\n";
+        instructionsText.setText(text);
+        instructionsPane.setContentPane(instructionsText);
+        return instructionsPane;
+    }
+
+    /**
+     * Lets the player pick the mode of new games, from the description of
+     * every mode.
+     *
+     * @param frame frame the dialog is shown over
+     * @param board board whose modes are listed
+     * @return the chosen mode, or null if the dialog was cancelled
+     */
+    private static GameMode chooseMode(JFrame frame, GameBoard board) {
+        List<GameMode> modes = board.getModes().list();
+        String[] names = new String[modes.size()];
+        StringBuilder sb = new StringBuilder("<html>");
+        for (int i = 0; i < names.length; i++) {
+            names[i] = modes.get(i).getName();
+            sb.append("<p><b>").append(names[i]).append("</b>: ")
+                    .append(modes.get(i).getDescription()).append("</p>");
+        }
+        sb.append("<p>Choose a mode for new games:</p></html>");
+        Object choice = JOptionPane.showInputDialog(
+                frame, sb.toString(), "MineSweeper: Mode", JOptionPane.PLAIN_MESSAGE, null,
+                names, board.getMode().getName()
+        );
+        return choice == null ? null : board.getModes().find((String) choice);
+    }
+
+    /**
+     * Builds the leaderboard of the game shown as HTML: the ten best games on
+     * its mode and configuration, and the personal best of the player.
+     *
+     * @param board board whose game and player are shown
+     * @return HTML text for a dialog
+     */
+    private static String scoresText(GameBoard board) {
+        // ranks are kept by the configuration of the model, as recordWin submits them
+        MineSweeper m = board.getModel();
+        Topology topology = m.getTopology();
+        int x = m.getXDimension();
+        int y = m.getYDimension();
+        Leaderboard leaderboard = board.getLeaderboard();
+        StringBuilder sb = new StringBuilder("<html><h2>Best "
+                + board.getLeaderboardName() + " scores on " + topology + " " + x + "x" + y
+                + "</h2><table><tr><th>Rank</th><th>Player</th><th>Score</th><th>Moves</th>"
+                + "</tr>");
+        int rank = 1;
+        for (Leaderboard.Entry e : leaderboard.top(topology, x, y, 10)) {
+            sb.append("<tr><td>").append(rank++).append("</td><td>").append(e.getName())
+                    .append("</td><td>").append(e.getScore() / 60).append(':')
+                    .append(String.format("%02d", e.getScore() % 60)).append("</td><td>")
+                    .append(e.getMoves()).append("</td></tr>");
+        }
+        sb.append("</table>");
+        if (rank == 1) {
+            sb.append("<p>No games won yet.</p>");
+        }
+        Leaderboard.Entry best = leaderboard.personalBest(topology, x, y, board.getPlayer());
+        if (best != null) {
+            sb.append("<p>Your best: ").append(best.getScore() / 60).append(':')
+                    .append(String.format("%02d", best.getScore() % 60)).append(" in ")
+                    .append(best.getMoves()).append(" moves</p>");
+        }
+        return sb.append("</html>").toString();
+    }
+
+    /**
+     * Creates the window for the endless game mode, with its own status label
+     * and reset button.
+     *
+     * @return the frame holding an EndlessBoard
+     */
+    private static JFrame createEndlessFrame() {
+        final JFrame endlessFrame = new JFrame("MineSweeper: Endless");
+        endlessFrame.setLocation(500, 180);
+
+        final JPanel endlessStatusPanel = new JPanel();
+        endlessFrame.add(endlessStatusPanel, BorderLayout.SOUTH);
+        final JLabel endlessStatus = new JLabel("Setting up...");
+        endlessStatusPanel.add(endlessStatus);
+
+        final EndlessBoard endlessBoard = new EndlessBoard(endlessStatus, new File("endless"));
+        endlessFrame.add(endlessBoard, BorderLayout.CENTER);
+
+        final JPanel endlessControlPanel = new JPanel();
+        endlessFrame.add(endlessControlPanel, BorderLayout.NORTH);
+        final JButton endlessReset = new JButton("Reset");
+        endlessReset.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                endlessBoard.reset();
+            }
+        });
+        endlessControlPanel.add(endlessReset);
+
+        endlessFrame.pack();
+        endlessBoard.reset();
+        return endlessFrame;
+    }
+
+    /**
+     * Reads the most recent games of a history.
+     *
+     * @param history history of finished games
+     * @param n       largest number of games to return
+     * @return up to n games, newest first
+     * @throws IOException if the history could not be read
+     */
+    static List<GameRecord> recentGames(GameHistory history, int n) throws IOException {
+        ArrayDeque<GameRecord> recent = new ArrayDeque<>();
+        try (GameHistory.Reader reader = history.open()) {
+            GameRecord record;
+            while ((record = reader.next()) != null) {
+                if (recent.size() == n) {
+                    recent.removeLast();
+                }
+                recent.addFirst(record);
+            }
+        }
+        return new ArrayList<>(recent);
+    }
+
+    /**
+     * The window for watching finished games. A timeline slider seeks to any
+     * move, and playback runs at the speed the game was played, scaled by
+     * the chosen speed.
+     */
+    private static final class ReplayWindow {
+        private static final int TICK = 40; // milliseconds between playback frames
+        private static final String[] SPEEDS = { "0.5x", "1x", "2x", "4x", "8x" };
+
+        private final JFrame frame = new JFrame("MineSweeper: Replay");
+        private final JLabel status = new JLabel("Setting up...");
+        private final GameBoard board = new GameBoard(status);
+        private final JComboBox<String> games = new JComboBox<>();
+        private final JSlider timeline = new JSlider(0, 0, 0);
+        private final JButton play = new JButton("Play");
+        private final JComboBox<String> speed = new JComboBox<>(SPEEDS);
+        private final Timer timer = new Timer(TICK, e -> tick());
+        private List<GameRecord> records = new ArrayList<>();
+        private long clock; // playback time in milliseconds since the game started
+
+        ReplayWindow() {
+            frame.setLocation(520, 200);
+            speed.setSelectedItem("1x");
+
+            final JPanel controlPanel = new JPanel();
+            frame.add(controlPanel, BorderLayout.NORTH);
+            controlPanel.add(games);
+            controlPanel.add(play);
+            controlPanel.add(speed);
+            games.addActionListener(e -> load(games.getSelectedIndex()));
+            play.addActionListener(e -> {
+                if (timer.isRunning()) {
+                    pause();
+                } else if (board.getReplay() != null) {
+                    Replay replay = board.getReplay();
+                    if (replay.getPosition() == replay.getLength()) {
+                        board.seekReplay(0);
+                        timeline.setValue(0);
+                    }
+                    clock = replay.getTime(replay.getPosition());
+                    play.setText("Pause");
+                    timer.start();
+                }
+            });
+
+            frame.add(board, BorderLayout.CENTER);
+
+            final JPanel statusPanel = new JPanel(new BorderLayout());
+            frame.add(statusPanel, BorderLayout.SOUTH);
+            statusPanel.add(timeline, BorderLayout.NORTH);
+            statusPanel.add(status, BorderLayout.SOUTH);
+            // dragging the slider seeks, and playback continues from there
+            timeline.addChangeListener(e -> {
+                Replay replay = board.getReplay();
+                if (replay != null && replay.getPosition() != timeline.getValue()) {
+                    board.seekReplay(timeline.getValue());
+                    clock = replay.getTime(timeline.getValue());
+                }
+            });
+        }
+
+        /**
+         * Offers a new list of games and shows the newest one that can be
+         * replayed.
+         *
+         * @return boolean noting if a game is shown
+         */
+        boolean show(List<GameRecord> recent) {
+            records = recent;
+            DateFormat format = DateFormat.getDateTimeInstance(DateFormat.SHORT, DateFormat.SHORT);
+            DefaultComboBoxModel<String> labels = new DefaultComboBoxModel<>();
+            for (GameRecord r : records) {
+                labels.addElement(format.format(new Date(r.getEndTime())) + " "
+                        + r.getTopology() + (r.getStatus() == 1 ? " won" : " lost") + " in "
+                        + r.getMoveCount() + " moves");
+            }
+            games.setModel(labels);
+            for (int i = 0; i < records.size(); i++) {
+                if (load(i)) {
+                    games.setSelectedIndex(i);
+                    frame.setVisible(true);
+                    return true;
+                }
+            }
+            return false;
+        }
 
-        // Start the game
-        board.reset(loadPrevious);
+        /**
+         * Replays one of the offered games from its first move.
+         *
+         * @return boolean noting if the game could be replayed
+         */
+        private boolean load(int index) {
+            pause();
+            if (index < 0 || index >= records.size()) {
+                return false;
+            }
+            Replay replay;
+            try {
+                replay = new Replay(records.get(index));
+            } catch (IllegalArgumentException e) {
+                status.setText("This game was loaded from a save and cannot be replayed.");
+                return false;
+            }
+            board.showReplay(replay);
+            board.seekReplay(0);
+            timeline.setMaximum(replay.getLength());
+            timeline.setValue(0);
+            clock = 0;
+            frame.pack();
+            return true;
+        }
+
+        private void pause() {
+            timer.stop();
+            play.setText("Play");
+        }
+
+        /**
+         * Advances playback by one frame, skipping over moves that happened
+         * within the same frame.
+         */
+        private void tick() {
+            Replay replay = board.getReplay();
+            if (replay == null) {
+                pause();
+                return;
+            }
+            String s = (String) speed.getSelectedItem();
+            clock += (long) (TICK * Double.parseDouble(s.substring(0, s.length() - 1)));
+            int position = replay.positionAt(clock);
+            board.seekReplay(position);
+            timeline.setValue(position);
+            if (position == replay.getLength()) {
+                pause();
+            }
+        }
+    }
+
+    /**
+     * Connects to the game server at the given address. The address "loopback"
+     * starts a server on this machine first.
+     *
+     * @param address host:port of the server, or loopback
+     * @return the connection to the server
+     * @throws IOException if the server cannot be reached
+     */
+    private static GameClient connect(String address) throws IOException {
+        if (address.equals("loopback")) {
+            GameServer server = GameServer.loopback();
+            return new GameClient("localhost", server.getPort());
+        }
+        int colon = address.lastIndexOf(':');
+        if (colon < 0) {
+            return new GameClient(address, GameServer.DEFAULT_PORT);
+        }
+        return new GameClient(
+                address.substring(0, colon), Integer.parseInt(address.substring(colon + 1))
+        );
     }
 }
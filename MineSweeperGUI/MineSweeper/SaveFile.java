@@ -0,0 +1,489 @@
+package org.MineSweeperGUI.MineSweeper;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.CRC32C;
+
+/**
+ * This class reads and writes the save file of an unfinished game.
+ * <p>
+ * A save starts with a header line holding the shape and seed of the board,
+ * the number of mines, the moves and time played and the status, followed by
+ * one line per block of BLOCK_CELLS cells. Cells are stored as the bytes of
+ * Protocol.pack in hex, in flat index order x * yDimension + y. The header
+ * and every block end with the CRC32C of the rest of their line, so damage
+ * is found per block instead of per file:
+ * <pre>
+ * MINESWEEPER-SAVE,1,SQUARE,10,10,seed,mines,moves,minutes,seconds,status,blocks,crc
+ * block,cells,crc
+ * </pre>
+ * Loading checks the whole file before a single Cell is built: checksums,
+ * block numbers and lengths, and that every cell is a state the game can
+ * reach. Damaged or missing blocks are rebuilt from the seed when the intact
+ * blocks show the board came from it; their cells are then covered again,
+ * so only the progress in those blocks is lost. A save with a damaged header,
+ * or one whose board cannot be rebuilt, is rejected and a new game starts
+ * instead. Saves written before this format are still read.
+ * <p>
+ * Every load, successful or not, leaves a Report saying what was found and
+ * how long reading and checking the file took.
+ */
+public final class SaveFile {
+
+    public static final String MAGIC = "MINESWEEPER-SAVE";
+    public static final int VERSION = 1;
+    public static final int BLOCK_CELLS = 32;
+    private static final int HEADER_FIELDS = 13;
+    private static final long MAX_BYTES = 16L << 20; // far above any playable board
+
+    // results of a load
+    public static final int OK = 0;
+    public static final int REPAIRED = 1;
+    public static final int REJECTED = 2;
+    public static final int LEGACY = 3; // loaded from the old format, which has no checksums
+
+    private final Cell[][] game;
+    private final int moveCounter;
+    private final int minutes;
+    private final int seconds;
+    private final int numMines;
+    private final Report report;
+
+    /**
+     * What a load found and how long it took.
+     */
+    public static final class Report {
+        private final int result;
+        private final int blocks;
+        private final int damaged;
+        private final long nanos;
+        private final String reason;
+
+        Report(int result, int blocks, int damaged, long nanos, String reason) {
+            this.result = result;
+            this.blocks = blocks;
+            this.damaged = damaged;
+            this.nanos = nanos;
+            this.reason = reason;
+        }
+
+        /**
+         * Gets the outcome of the load
+         *
+         * @return OK, REPAIRED, REJECTED or LEGACY
+         */
+        public int getResult() {
+            return result;
+        }
+
+        /**
+         * Gets the number of blocks the board is stored in
+         *
+         * @return blocks of the board, 0 for the old format
+         */
+        public int getBlocks() {
+            return blocks;
+        }
+
+        /**
+         * Gets the number of damaged or missing blocks
+         *
+         * @return blocks that failed their checks
+         */
+        public int getDamaged() {
+            return damaged;
+        }
+
+        /**
+         * Gets the time taken to read and check the file
+         *
+         * @return nanoseconds spent loading
+         */
+        public long getNanos() {
+            return nanos;
+        }
+
+        /**
+         * Gets why a save was rejected
+         *
+         * @return the reason, or null if the save was loaded
+         */
+        public String getReason() {
+            return reason;
+        }
+
+        @Override
+        public String toString() {
+            String time = String.format("%.1f ms", nanos / 1e6);
+            if (result == REJECTED) {
+                return "The saved game could not be loaded (" + reason + ").";
+            } else if (result == REPAIRED) {
+                return "Repaired " + damaged + " of " + blocks + " damaged save blocks in "
+                        + time + ".";
+            }
+            return "Loaded the saved game in " + time + ".";
+        }
+    }
+
+    private SaveFile(Cell[][] game, int moveCounter, int minutes, int seconds, int numMines,
+                     Report report) {
+        this.game = game;
+        this.moveCounter = moveCounter;
+        this.minutes = minutes;
+        this.seconds = seconds;
+        this.numMines = numMines;
+        this.report = report;
+    }
+
+    private static SaveFile rejected(long start, int blocks, int damaged, String reason) {
+        return new SaveFile(null, 0, 0, 0, 0,
+                new Report(REJECTED, blocks, damaged, System.nanoTime() - start, reason));
+    }
+
+    private static int crc(String s, int end) {
+        CRC32C crc = new CRC32C();
+        crc.update(s.substring(0, end).getBytes(StandardCharsets.ISO_8859_1));
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Writes a game to a temporary file which then replaces the save in one
+     * atomic move, so a crash while saving never leaves half a save.
+     *
+     * @param m       model of the game
+     * @param game    gameBoard of the game
+     * @param f       save file
+     * @param minutes minutes played
+     * @param seconds seconds played, on top of the minutes
+     * @throws IOException if the save could not be written
+     */
+    static void write(MineSweeper m, Cell[][] game, File f, int minutes, int seconds)
+            throws IOException {
+        int yDimension = m.getYDimension();
+        int cells = m.getXDimension() * yDimension;
+        int blocks = (cells + BLOCK_CELLS - 1) / BLOCK_CELLS;
+        int mines = 0;
+        for (Cell[] column : game) {
+            for (Cell c : column) {
+                if (c.getIsMine()) {
+                    mines++;
+                }
+            }
+        }
+        StringBuilder sb = new StringBuilder(cells * 2 + blocks * 16 + 128);
+        sb.append(MAGIC).append(',').append(VERSION).append(',').append(m.getTopology())
+                .append(',').append(m.getXDimension()).append(',').append(yDimension).append(',')
+                .append(m.getSeed()).append(',').append(mines).append(',')
+                .append(m.getMoveCounter()).append(',').append(minutes).append(',')
+                .append(seconds).append(',').append(m.getStatus()).append(',').append(blocks)
+                .append(',');
+        appendLineCrc(sb, 0);
+        for (int b = 0; b < blocks; b++) {
+            int lineStart = sb.length();
+            sb.append(b).append(',');
+            for (int i = b * BLOCK_CELLS; i < Math.min(cells, (b + 1) * BLOCK_CELLS); i++) {
+                int state = Protocol.pack(game[i / yDimension][i % yDimension]) & 0xFF;
+                sb.append(Character.forDigit(state >> 4, 16))
+                        .append(Character.forDigit(state & 0xF, 16));
+            }
+            sb.append(',');
+            appendLineCrc(sb, lineStart);
+        }
+        File tmp = new File(f.getPath() + ".tmp");
+        try (FileWriter fw = new FileWriter(tmp, StandardCharsets.ISO_8859_1)) {
+            fw.write(sb.toString());
+        }
+        try {
+            Files.move(tmp.toPath(), f.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp.toPath(), f.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Appends the CRC32C of a line, from its start up to and including the
+     * last comma, and ends the line.
+     */
+    private static void appendLineCrc(StringBuilder sb, int lineStart) {
+        String line = sb.substring(lineStart);
+        sb.append(String.format("%08x", crc(line, line.length()))).append('\n');
+    }
+
+    /**
+     * Reads the topology from the header of a save, so a game can be set up
+     * on the right board before the save is loaded.
+     *
+     * @param f save file
+     * @return topology of the saved game, or null if the header is unreadable
+     */
+    public static Topology readTopology(File f) {
+        String[] header = readHeader(f);
+        return header == null ? null : Topology.valueOf(header[2]);
+    }
+
+    /**
+     * Reads only the header line of a save and checks its checksum.
+     *
+     * @param f save file
+     * @return the header fields, or null if the file has no intact header
+     */
+    static String[] readHeader(File f) {
+        try (BufferedReader br = new BufferedReader(new FileReader(f))) {
+            String line = br.readLine();
+            if (line == null || !line.startsWith(MAGIC + ",")) {
+                return null;
+            }
+            String[] header = line.split(",", -1);
+            if (header.length != HEADER_FIELDS || !crcMatches(line)) {
+                return null;
+            }
+            Topology.valueOf(header[2]);
+            return header;
+        } catch (IOException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static boolean crcMatches(String line) {
+        int comma = line.lastIndexOf(',');
+        if (comma < 0 || line.length() - comma - 1 != 8) {
+            return false;
+        }
+        try {
+            return (int) Long.parseLong(line.substring(comma + 1), 16) == crc(line, comma + 1);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Reads, checks and if needed repairs a save.
+     *
+     * @param f          save file
+     * @param topology   topology the game is set up with
+     * @param xDimension number of columns the game is set up with
+     * @param yDimension number of rows the game is set up with
+     * @return the loaded save; its board is null if the save was rejected
+     */
+    static SaveFile read(File f, Topology topology, int xDimension, int yDimension) {
+        long start = System.nanoTime();
+        if (f.length() > MAX_BYTES) {
+            return rejected(start, 0, 0, "file too large");
+        }
+        String text;
+        try {
+            text = new String(Files.readAllBytes(f.toPath()), StandardCharsets.ISO_8859_1);
+        } catch (IOException e) {
+            return rejected(start, 0, 0, "unreadable");
+        }
+        if (!text.startsWith(MAGIC + ",")) {
+            return readLegacy(text, start, xDimension, yDimension);
+        }
+        String[] lines = text.split("\n");
+        String[] header = lines[0].split(",", -1);
+        if (header.length != HEADER_FIELDS || !crcMatches(lines[0])) {
+            return rejected(start, 0, 0, "damaged header");
+        }
+        long seed;
+        int numMines;
+        int moveCounter;
+        int minutes;
+        int seconds;
+        int blocks;
+        try {
+            if (Integer.parseInt(header[1]) != VERSION) {
+                return rejected(start, 0, 0, "unknown version " + header[1]);
+            }
+            if (Topology.valueOf(header[2]) != topology
+                    || Integer.parseInt(header[3]) != xDimension
+                    || Integer.parseInt(header[4]) != yDimension) {
+                return rejected(start, 0, 0, "saved on a " + header[2] + " " + header[3] + "x"
+                        + header[4] + " board");
+            }
+            seed = Long.parseLong(header[5]);
+            numMines = Integer.parseInt(header[6]);
+            moveCounter = Integer.parseInt(header[7]);
+            minutes = Integer.parseInt(header[8]);
+            seconds = Integer.parseInt(header[9]);
+            blocks = Integer.parseInt(header[11]);
+        } catch (IllegalArgumentException e) {
+            return rejected(start, 0, 0, "damaged header");
+        }
+        int cells = xDimension * yDimension;
+        if (blocks != (cells + BLOCK_CELLS - 1) / BLOCK_CELLS || numMines < 0 || numMines > cells
+                || moveCounter < 0 || minutes < 0 || seconds < 0) {
+            return rejected(start, 0, 0, "damaged header");
+        }
+
+        // checks every block before building anything
+        byte[] states = new byte[cells];
+        boolean[] intact = new boolean[blocks];
+        int maxNumber = topology.maxNeighbours();
+        for (int l = 1; l < lines.length; l++) {
+            String line = lines[l];
+            int comma = line.indexOf(',');
+            if (comma < 0 || !crcMatches(line)) {
+                continue;
+            }
+            int b;
+            try {
+                b = Integer.parseInt(line, 0, comma, 10);
+            } catch (NumberFormatException e) {
+                continue;
+            }
+            if (b < 0 || b >= blocks || intact[b]) {
+                continue;
+            }
+            int first = b * BLOCK_CELLS;
+            int count = Math.min(cells, first + BLOCK_CELLS) - first;
+            if (line.length() - comma - 1 != count * 2 + 9) {
+                continue;
+            }
+            boolean valid = true;
+            for (int i = 0; i < count && valid; i++) {
+                int hi = Character.digit(line.charAt(comma + 1 + 2 * i), 16);
+                int lo = Character.digit(line.charAt(comma + 2 + 2 * i), 16);
+                int state = hi << 4 | lo;
+                boolean mine = (state & Protocol.MINE) != 0;
+                valid = hi >= 0 && lo >= 0 && state < 0x80
+                        && ((state & Protocol.CLICKED) == 0 || (state & Protocol.FLAGGED) == 0)
+                        && (mine ? (state & Protocol.NUMBER_MASK) == Protocol.NUMBER_MASK
+                        : (state & Protocol.NUMBER_MASK) <= maxNumber);
+                states[first + i] = (byte) state;
+            }
+            intact[b] = valid;
+        }
+        int damaged = 0;
+        for (boolean ok : intact) {
+            if (!ok) {
+                damaged++;
+            }
+        }
+
+        if (damaged > 0) {
+            // rebuilds the board from its seed, which only fits if every
+            // intact block has its mines in the same places
+            MineSweeper rebuilt = new MineSweeper(xDimension, yDimension, seed, topology);
+            rebuilt.setSaveFile(null);
+            Cell[][] reference = rebuilt.gameBoard(numMines, numMines + 1, false);
+            for (int i = 0; i < cells; i++) {
+                boolean mine = reference[i / yDimension][i % yDimension].getIsMine();
+                if (intact[i / BLOCK_CELLS]) {
+                    if (mine != ((states[i] & Protocol.MINE) != 0)) {
+                        return rejected(start, blocks, damaged, "damaged beyond repair");
+                    }
+                } else {
+                    states[i] = (byte) (mine ? Protocol.MINE | Protocol.NUMBER_MASK : 0);
+                }
+            }
+        }
+
+        Cell[][] game = new Cell[xDimension][yDimension];
+        int mines = 0;
+        for (int i = 0; i < cells; i++) {
+            Cell c = new Cell();
+            Protocol.unpack(states[i], c);
+            if (c.getIsMine()) {
+                mines++;
+            }
+            game[i / yDimension][i % yDimension] = c;
+        }
+        if (damaged == 0 && mines != numMines) {
+            return rejected(start, blocks, 0, "wrong number of mines");
+        }
+        Report report = new Report(damaged == 0 ? OK : REPAIRED, blocks, damaged,
+                System.nanoTime() - start, null);
+        return new SaveFile(game, moveCounter, minutes, seconds, mines, report);
+    }
+
+    /**
+     * Reads a save of the old format: one line of comma separated cells per
+     * row, a cell being its number followed by @ if flagged or ~ if covered,
+     * then a line of moves, minutes and seconds. Anything that does not fit
+     * the format rejects the save.
+     */
+    private static SaveFile readLegacy(String text, long start, int xDimension, int yDimension) {
+        String[] lines = text.split("\n");
+        if (lines.length < yDimension + 1) {
+            return rejected(start, 0, 0, "truncated");
+        }
+        Cell[][] game = new Cell[xDimension][yDimension];
+        int mines = 0;
+        try {
+            for (int y = 0; y < yDimension; y++) {
+                String[] splitted = lines[y].split(",", -1);
+                if (splitted.length != xDimension) {
+                    return rejected(start, 0, 0, "row " + y + " has the wrong length");
+                }
+                for (int x = 0; x < xDimension; x++) {
+                    String s = splitted[x];
+                    boolean flagged = s.endsWith("@");
+                    boolean covered = flagged || s.endsWith("~");
+                    int number = Integer.parseInt(covered ? s.substring(0, s.length() - 1) : s);
+                    Cell c = new Cell(number == -1);
+                    if (number != -1) {
+                        c.setMineNumber(number);
+                    } else {
+                        mines++;
+                    }
+                    c.setIsFlagged(flagged);
+                    c.setIsClicked(!covered);
+                    game[x][y] = c;
+                }
+            }
+            String[] splitted = lines[yDimension].trim().split(",");
+            if (splitted.length < 3) {
+                return rejected(start, 0, 0, "truncated");
+            }
+            int moveCounter = Integer.parseInt(splitted[0]);
+            int minutes = Integer.parseInt(splitted[1]);
+            int seconds = Integer.parseInt(splitted[2]);
+            return new SaveFile(game, moveCounter, minutes, seconds, mines,
+                    new Report(LEGACY, 0, 0, System.nanoTime() - start, null));
+        } catch (NumberFormatException e) {
+            return rejected(start, 0, 0, "not a save file");
+        }
+    }
+
+    /**
+     * Gets the loaded board
+     *
+     * @return gameBoard of the save, or null if it was rejected
+     */
+    Cell[][] getGame() {
+        return game;
+    }
+
+    int getMoveCounter() {
+        return moveCounter;
+    }
+
+    int getMinutes() {
+        return minutes;
+    }
+
+    int getSeconds() {
+        return seconds;
+    }
+
+    int getNumMines() {
+        return numMines;
+    }
+
+    /**
+     * Gets what the load found
+     *
+     * @return report of the load
+     */
+    public Report getReport() {
+        return report;
+    }
+}
@@ -0,0 +1,437 @@
+package org.MineSweeperGUI.MineSweeper;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class keeps any number of named saves of unfinished games in the
+ * saves directory of the player's data directory, one SaveFile per slot.
+ * <p>
+ * Next to the saves is an index file with one line per slot holding what a
+ * list of saves shows: the board, its size on disk, how many of its safe
+ * cells are open, the moves made and when it was last played. Listing the
+ * saves reads only the index, so it takes the same time for hundreds of
+ * saves as for one, and no save is opened until it is loaded. The index is
+ * updated every time a save is written and replaced in one atomic move, like
+ * the leaderboard tables. If it goes missing it is rebuilt from the headers of
+ * the saves.
+ * <p>
+ * The index has the columns:
+ * file,topology,x_dimension,y_dimension,bytes,opened,safe_cells,moves,last_played,name
+ */
+public class SaveSlots {
+
+    private static final String INDEX = "index.csv";
+    private static final String SUFFIX = ".save";
+
+    private final File directory;
+    private Map<String, Slot> slots; // by name, loaded on first use
+
+    /**
+     * The index entry of one save.
+     */
+    public static final class Slot {
+        private final String name;
+        private final String file;
+        private final Topology topology;
+        private final int xDimension;
+        private final int yDimension;
+        private final long bytes;
+        private final int opened;
+        private final int safeCells;
+        private final int moves;
+        private final long lastPlayed;
+
+        Slot(String name, String file, Topology topology, int xDimension, int yDimension,
+             long bytes, int opened, int safeCells, int moves, long lastPlayed) {
+            this.name = name;
+            this.file = file;
+            this.topology = topology;
+            this.xDimension = xDimension;
+            this.yDimension = yDimension;
+            this.bytes = bytes;
+            this.opened = opened;
+            this.safeCells = safeCells;
+            this.moves = moves;
+            this.lastPlayed = lastPlayed;
+        }
+
+        /**
+         * Gets the name of the slot
+         *
+         * @return name of the slot
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Gets the topology of the saved board
+         *
+         * @return topology deciding the neighbours of each cell
+         */
+        public Topology getTopology() {
+            return topology;
+        }
+
+        /**
+         * Gets the number of columns of the saved board
+         *
+         * @return xDimension of the board
+         */
+        public int getXDimension() {
+            return xDimension;
+        }
+
+        /**
+         * Gets the number of rows of the saved board
+         *
+         * @return yDimension of the board
+         */
+        public int getYDimension() {
+            return yDimension;
+        }
+
+        /**
+         * Gets the size of the save on disk
+         *
+         * @return bytes of the save file
+         */
+        public long getBytes() {
+            return bytes;
+        }
+
+        /**
+         * Gets how far the saved game got
+         *
+         * @return share of the safe cells that are open, between 0 and 1, or
+         *         -1 if not known
+         */
+        public double getProgress() {
+            return safeCells <= 0 || opened < 0 ? -1 : (double) opened / safeCells;
+        }
+
+        /**
+         * Gets the number of moves made in the saved game
+         *
+         * @return moves of the game
+         */
+        public int getMoves() {
+            return moves;
+        }
+
+        /**
+         * Gets the time the game was last saved
+         *
+         * @return last played in milliseconds since the epoch
+         */
+        public long getLastPlayed() {
+            return lastPlayed;
+        }
+    }
+
+    /**
+     * Constructor sets up the slots in a directory, which is created when the
+     * first save is written.
+     *
+     * @param directory directory holding the saves and their index
+     */
+    public SaveSlots(File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Gets the saves directory of the player, in the usual place for
+     * application data of the operating system. The system property
+     * minesweeper.home overrides it.
+     *
+     * @return directory for the save slots
+     */
+    public static File defaultDirectory() {
+        String home = System.getProperty("minesweeper.home");
+        if (home != null) {
+            return new File(home, "saves");
+        }
+        String user = System.getProperty("user.home", ".");
+        String os = System.getProperty("os.name", "").toLowerCase();
+        File base;
+        if (os.startsWith("windows") && System.getenv("APPDATA") != null) {
+            base = new File(System.getenv("APPDATA"), "MineSweeper");
+        } else if (os.startsWith("mac")) {
+            base = new File(user, "Library/Application Support/MineSweeper");
+        } else if (System.getenv("XDG_DATA_HOME") != null) {
+            base = new File(System.getenv("XDG_DATA_HOME"), "minesweeper");
+        } else {
+            base = new File(user, ".local/share/minesweeper");
+        }
+        return new File(base, "saves");
+    }
+
+    /**
+     * Gets the directory holding the saves and their index
+     *
+     * @return saves directory
+     */
+    public File getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Replaces the characters that would break a line of the index.
+     */
+    private static String clean(String name) {
+        return name.replaceAll("[,\\r\\n]", "_");
+    }
+
+    /**
+     * Gets the file name of a slot, keeping only characters that are safe in
+     * file names on every system.
+     */
+    private static String fileName(String name) {
+        return name.replaceAll("[^A-Za-z0-9._ -]", "_") + SUFFIX;
+    }
+
+    /**
+     * Gets the save file of a slot
+     *
+     * @param name name of the slot
+     * @return the save file, which may not exist yet
+     */
+    public synchronized File file(String name) {
+        Slot slot = slots().get(clean(name));
+        return new File(directory, slot != null ? slot.file : fileName(clean(name)));
+    }
+
+    /**
+     * Makes up a name for the slot of a new game, from the time it started.
+     *
+     * @return a name no slot has yet
+     */
+    public synchronized String newName() {
+        String base = new SimpleDateFormat("yyyy-MM-dd HH.mm.ss").format(new Date());
+        String name = base;
+        for (int i = 2; slots().containsKey(name) || new File(directory, fileName(name)).exists();
+             i++) {
+            name = base + " (" + i + ")";
+        }
+        return name;
+    }
+
+    /**
+     * Reads the index on first use, rebuilding it from the saves if it is
+     * missing.
+     */
+    private Map<String, Slot> slots() {
+        if (slots != null) {
+            return slots;
+        }
+        slots = new LinkedHashMap<>();
+        File index = new File(directory, INDEX);
+        if (!index.exists()) {
+            rebuild();
+            return slots;
+        }
+        try (BufferedReader br = new BufferedReader(new FileReader(index))) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                String[] splitted = line.split(",", 10);
+                if (splitted.length != 10) {
+                    continue;
+                }
+                try {
+                    Slot slot = new Slot(splitted[9], splitted[0], Topology.valueOf(splitted[1]),
+                            Integer.parseInt(splitted[2]), Integer.parseInt(splitted[3]),
+                            Long.parseLong(splitted[4]), Integer.parseInt(splitted[5]),
+                            Integer.parseInt(splitted[6]), Integer.parseInt(splitted[7]),
+                            Long.parseLong(splitted[8]));
+                    slots.put(slot.name, slot);
+                } catch (IllegalArgumentException e) {
+                }
+            }
+        } catch (IOException e) {
+        }
+        return slots;
+    }
+
+    /**
+     * Builds the index from the headers of the saves in the directory. How
+     * far each game got is not in the header, so it is left unknown.
+     */
+    private void rebuild() {
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(SUFFIX));
+        if (files == null) {
+            return;
+        }
+        for (File f : files) {
+            String[] header = SaveFile.readHeader(f);
+            if (header == null) {
+                continue;
+            }
+            try {
+                String name = f.getName().substring(0, f.getName().length() - SUFFIX.length());
+                slots.put(name, new Slot(name, f.getName(), Topology.valueOf(header[2]),
+                        Integer.parseInt(header[3]), Integer.parseInt(header[4]), f.length(), -1,
+                        -1, Integer.parseInt(header[7]), f.lastModified()));
+            } catch (IllegalArgumentException e) {
+            }
+        }
+        if (!slots.isEmpty()) {
+            try {
+                saveIndex();
+            } catch (IOException e) {
+            }
+        }
+    }
+
+    /**
+     * Records in the index that a slot's save was just written.
+     *
+     * @param name name of the slot
+     * @param m    model of the saved game
+     * @param game gameBoard of the saved game
+     */
+    public synchronized void update(String name, MineSweeper m, Cell[][] game) {
+        name = clean(name);
+        int opened = 0;
+        int safe = 0;
+        for (Cell[] column : game) {
+            for (Cell c : column) {
+                if (!c.getIsMine()) {
+                    safe++;
+                    if (c.getIsClicked()) {
+                        opened++;
+                    }
+                }
+            }
+        }
+        File f = file(name);
+        slots().put(name, new Slot(name, f.getName(), m.getTopology(), m.getXDimension(),
+                m.getYDimension(), f.length(), opened, safe, m.getMoveCounter(),
+                System.currentTimeMillis()));
+        try {
+            saveIndex();
+        } catch (IOException e) {
+        }
+    }
+
+    /**
+     * Deletes a slot and its save.
+     *
+     * @param name name of the slot
+     * @return boolean noting if there was such a slot
+     */
+    public synchronized boolean delete(String name) {
+        Slot slot = slots().remove(clean(name));
+        if (slot == null) {
+            return false;
+        }
+        new File(directory, slot.file).delete();
+        try {
+            saveIndex();
+        } catch (IOException e) {
+        }
+        return true;
+    }
+
+    /**
+     * Moves a save written elsewhere, like the save of older versions of the
+     * game in the working directory, into a new slot.
+     *
+     * @param f    the save to move
+     * @param name name of the new slot
+     * @return boolean noting if the save was moved
+     */
+    public synchronized boolean importSave(File f, String name) {
+        name = clean(name);
+        directory.mkdirs();
+        File target = new File(directory, fileName(name));
+        try {
+            Files.move(f.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            return false;
+        }
+        String[] header = SaveFile.readHeader(target);
+        Topology topology = Topology.SQUARE;
+        int xDimension = 10;
+        int yDimension = 10;
+        int moves = 0;
+        if (header != null) {
+            topology = Topology.valueOf(header[2]);
+            xDimension = Integer.parseInt(header[3]);
+            yDimension = Integer.parseInt(header[4]);
+            moves = Integer.parseInt(header[7]);
+        }
+        slots().put(name, new Slot(name, target.getName(), topology, xDimension, yDimension,
+                target.length(), -1, -1, moves, target.lastModified()));
+        try {
+            saveIndex();
+        } catch (IOException e) {
+        }
+        return true;
+    }
+
+    /**
+     * Gets every slot from the index
+     *
+     * @return the slots, last played first
+     */
+    public synchronized List<Slot> list() {
+        List<Slot> list = new ArrayList<>(slots().values());
+        list.sort(Comparator.comparingLong(Slot::getLastPlayed).reversed());
+        return list;
+    }
+
+    /**
+     * Gets the slot played most recently
+     *
+     * @return the latest slot, or null if there are no saves
+     */
+    public synchronized Slot latest() {
+        Slot latest = null;
+        for (Slot slot : slots().values()) {
+            if (latest == null || slot.lastPlayed > latest.lastPlayed) {
+                latest = slot;
+            }
+        }
+        return latest;
+    }
+
+    /**
+     * Writes the index to a temporary file and moves it over the old index.
+     */
+    private void saveIndex() throws IOException {
+        directory.mkdirs();
+        File tmp = new File(directory, INDEX + ".tmp");
+        try (FileWriter fw = new FileWriter(tmp)) {
+            StringBuilder sb = new StringBuilder();
+            for (Slot s : slots.values()) {
+                sb.append(s.file).append(',').append(s.topology).append(',')
+                        .append(s.xDimension).append(',').append(s.yDimension).append(',')
+                        .append(s.bytes).append(',').append(s.opened).append(',')
+                        .append(s.safeCells).append(',').append(s.moves).append(',')
+                        .append(s.lastPlayed).append(',').append(s.name).append('\n');
+            }
+            fw.write(sb.toString());
+        }
+        File index = new File(directory, INDEX);
+        try {
+            Files.move(tmp.toPath(), index.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp.toPath(), index.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package org.MineSweeperGUI.MineSweeper;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class is a MineSweeper board that many players can play at the same
+ * time from different threads. Instead of Cell objects, every cell is packed
+ * into a single byte using the same bits as Protocol, and every change to a
+ * cell is made with a compare-and-set on that byte. No locks are taken, so two
+ * flood fills running into each other can never deadlock, and a cell is only
+ * ever opened by the one thread whose compare-and-set succeeds.
+ * <p>
+ * The game is won when the number of covered safe cells reaches zero. That
+ * count is decremented exactly once per opened cell, by the thread that opened
+ * it, so the game is won exactly once no matter how the moves interleave. The
+ * rules otherwise match MineSweeper.play: a flagged cell cannot be clicked, an
+ * opened cell cannot be flagged, and a flood fill opens every cell it reaches.
+ */
+public class SharedMineSweeper {
+
+    private static final VarHandle CELLS = MethodHandles.arrayElementVarHandle(byte[].class);
+
+    private final int xDimension;
+    private final int yDimension;
+    private final byte[] cells;
+    private final NeighbourTable neighbours;
+    private final AtomicInteger covered = new AtomicInteger();
+    private final AtomicInteger moveCounter = new AtomicInteger();
+    private final AtomicInteger gameOver = new AtomicInteger();
+
+    /**
+     * Constructor sets up a shared game from a generated gameBoard. The
+     * gameBoard is only read, and can be thrown away afterwards.
+     *
+     * @param game gameBoard holding the mines and adjacent mine counts
+     */
+    public SharedMineSweeper(Cell[][] game) {
+        xDimension = game.length;
+        yDimension = game[0].length;
+        cells = new byte[xDimension * yDimension];
+        neighbours = NeighbourTable.of(Topology.SQUARE, xDimension, yDimension);
+        int safe = 0;
+        for (int i = 0; i < xDimension; i++) {
+            for (int j = 0; j < yDimension; j++) {
+                cells[i * yDimension + j] = Protocol.pack(game[i][j]);
+                if (!game[i][j].getIsMine() && !game[i][j].getIsClicked()) {
+                    safe++;
+                }
+            }
+        }
+        covered.set(safe);
+        if (safe == 0) {
+            gameOver.set(1);
+        }
+    }
+
+    /**
+     * Gets the status of the game
+     * 0 --> game is not done, 1 --> game over and players won, 2 --> game over
+     * and a mine was hit
+     *
+     * @return gameOver noting the status of the game
+     */
+    public int getStatus() {
+        return gameOver.get();
+    }
+
+    /**
+     * Gets the number of moves made by all players
+     *
+     * @return moveCounter noting the number of moves made
+     */
+    public int getMoveCounter() {
+        return moveCounter.get();
+    }
+
+    /**
+     * Gets the number of safe cells that are still covered
+     *
+     * @return covered noting how many cells are left to open
+     */
+    public int getCoveredCells() {
+        return covered.get();
+    }
+
+    /**
+     * Gets the packed state of a cell, see Protocol for the bits.
+     *
+     * @param x x value of the cell
+     * @param y y value of the cell
+     * @return byte holding the state of the cell
+     */
+    public byte getState(int x, int y) {
+        return (byte) CELLS.getVolatile(cells, x * yDimension + y);
+    }
+
+    /**
+     * Makes a move for one player. This may be called from any thread.
+     *
+     * @param x       x value of the cell
+     * @param y       y value of the cell
+     * @param isRight true to toggle a flag, false to click the cell
+     */
+    public void play(int x, int y, boolean isRight) {
+        if (isRight) {
+            flag(x, y);
+        } else {
+            reveal(x, y);
+        }
+    }
+
+    /**
+     * Clicks a cell. Clicking a mine loses the game, clicking a 0-value cell
+     * opens the region around it.
+     *
+     * @param x x value of the cell
+     * @param y y value of the cell
+     * @return the number of cells opened by this call
+     */
+    public int reveal(int x, int y) {
+        if (x >= xDimension || y >= yDimension || x < 0 || y < 0 || gameOver.get() != 0) {
+            return 0;
+        }
+        int index = x * yDimension + y;
+        int state;
+        do {
+            state = (byte) CELLS.getVolatile(cells, index);
+            if ((state & (Protocol.FLAGGED | Protocol.CLICKED)) != 0) {
+                return 0;
+            }
+            if ((state & Protocol.MINE) != 0) {
+                moveCounter.incrementAndGet();
+                gameOver.compareAndSet(0, 2);
+                return 0;
+            }
+        } while (!CELLS.compareAndSet(cells, index, (byte) state, (byte) (state | Protocol.CLICKED)));
+        moveCounter.incrementAndGet();
+        int opened = 1;
+        if ((state & Protocol.NUMBER_MASK) == 0) {
+            opened += flood(index);
+        }
+        if (covered.addAndGet(-opened) == 0) {
+            gameOver.compareAndSet(0, 1);
+        }
+        return opened;
+    }
+
+    /**
+     * Toggles the flag on a covered cell.
+     *
+     * @param x x value of the cell
+     * @param y y value of the cell
+     * @return true if the flag was toggled
+     */
+    public boolean flag(int x, int y) {
+        if (x >= xDimension || y >= yDimension || x < 0 || y < 0 || gameOver.get() != 0) {
+            return false;
+        }
+        int index = x * yDimension + y;
+        int state;
+        do {
+            state = (byte) CELLS.getVolatile(cells, index);
+            if ((state & Protocol.CLICKED) != 0) {
+                return false;
+            }
+        } while (!CELLS.compareAndSet(cells, index, (byte) state, (byte) (state ^ Protocol.FLAGGED)));
+        moveCounter.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Opens the region around an opened 0-value cell. The fill uses its own
+     * stack, and only continues from cells whose compare-and-set it won, so
+     * fills started by different players split the region between them.
+     *
+     * @param start flat index of the opened 0-value cell
+     * @return the number of cells opened, not counting the start cell
+     */
+    private int flood(int start) {
+        int[] stack = new int[64];
+        int size = 0;
+        stack[size++] = start;
+        int opened = 0;
+        while (size > 0) {
+            int index = stack[--size];
+            int[] deltas = neighbours.deltas(neighbours.classOf(index));
+            for (int k = 0; k < deltas.length; k++) {
+                int n = index + deltas[k];
+                int state = open(n);
+                if (state < 0) {
+                    continue;
+                }
+                opened++;
+                if ((state & Protocol.NUMBER_MASK) == 0) {
+                    if (size == stack.length) {
+                        stack = Arrays.copyOf(stack, size * 2);
+                    }
+                    stack[size++] = n;
+                }
+            }
+        }
+        return opened;
+    }
+
+    /**
+     * Opens a single cell reached by a flood fill.
+     *
+     * @param index flat index of the cell
+     * @return the state before opening, or -1 if the cell was already open
+     */
+    private int open(int index) {
+        int state;
+        do {
+            state = (byte) CELLS.getVolatile(cells, index);
+            if ((state & Protocol.CLICKED) != 0) {
+                return -1;
+            }
+        } while (!CELLS.compareAndSet(cells, index, (byte) state, (byte) (state | Protocol.CLICKED)));
+        return state;
+    }
+
+    /**
+     * Copies the current state into a gameBoard, for example so a GameBoard
+     * can paint it. Each cell is read atomically, but moves being made while
+     * copying may be only partly visible.
+     *
+     * @param game gameBoard of the same dimensions to copy into
+     */
+    public void copyTo(Cell[][] game) {
+        for (int i = 0; i < xDimension; i++) {
+            for (int j = 0; j < yDimension; j++) {
+                Protocol.unpack(getState(i, j), game[i][j]);
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package org.MineSweeperGUI.MineSweeper;
+
+import java.util.Random;
+
+/**
+ * This class is a bot that looks at one opened cell at a time. If the flags
+ * around a cell already account for its number, the cell is chorded to open
+ * the rest of its neighbours. If its covered neighbours are exactly the mines
+ * that are left, one of them is flagged. Only when no cell allows either does
+ * the bot guess a random covered cell.
+ */
+public class SinglePointStrategy implements Strategy {
+
+    private final Random random;
+
+    /**
+     * Constructor sets up a bot whose guesses come from the given seed.
+     *
+     * @param seed seed for picking cells when guessing
+     */
+    public SinglePointStrategy(long seed) {
+        random = new Random(seed);
+    }
+
+    @Override
+    public Move decide(VisibleBoard board) {
+        NeighbourTable neighbours = board.getNeighbours();
+        for (int x = 0; x < board.getXDimension(); x++) {
+            for (int y = 0; y < board.getYDimension(); y++) {
+                int number = board.get(x, y);
+                if (number <= 0) {
+                    continue;
+                }
+                int c = neighbours.classOf(x, y);
+                int[] dx = neighbours.dx(c);
+                int[] dy = neighbours.dy(c);
+                int flags = 0;
+                int covered = 0;
+                int lastCovered = -1;
+                for (int k = 0; k < dx.length; k++) {
+                    int shown = board.get(x + dx[k], y + dy[k]);
+                    if (shown == VisibleBoard.FLAGGED) {
+                        flags++;
+                    } else if (shown == VisibleBoard.COVERED) {
+                        covered++;
+                        lastCovered = k;
+                    }
+                }
+                if (covered == 0) {
+                    continue;
+                }
+                if (flags == number) {
+                    return Move.chord(x, y);
+                }
+                if (flags + covered == number) {
+                    return Move.flag(x + dx[lastCovered], y + dy[lastCovered]);
+                }
+            }
+        }
+        return RandomStrategy.guess(board, random);
+    }
+}
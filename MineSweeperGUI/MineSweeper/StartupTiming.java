@@ -0,0 +1,104 @@
+package org.MineSweeperGUI.MineSweeper;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * This class measures how long the GUI takes to start. Each phase of startup
+ * is marked with the number of milliseconds since the JVM process started,
+ * so the time spent loading classes before main runs is included. Once the
+ * board has been painted for the first time the marks are appended as a
+ * single line to a timing log, on a background thread so writing the log
+ * never delays the game.
+ * <p>
+ * Marks only note the current time. The start of the JVM is looked up when
+ * the marks are read, so the management classes that report it are not
+ * loaded during startup. A launcher can pass the time it started the JVM as
+ * the system property minesweeper.launchTime, in milliseconds since the
+ * epoch, to measure from there instead.
+ * <p>
+ * A line of the log looks like:
+ * 2026-01-01T12:00:00Z main=180 frame_visible=420 first_paint=455
+ */
+public class StartupTiming {
+
+    private final Map<String, Long> marks = new LinkedHashMap<>(); // phase -> epoch millis
+    private boolean written;
+
+    /**
+     * Records that a phase of startup has finished.
+     *
+     * @param phase name of the phase, without spaces
+     */
+    public synchronized void mark(String phase) {
+        marks.put(phase, System.currentTimeMillis());
+    }
+
+    /**
+     * Gets the time the process started
+     *
+     * @return start in milliseconds since the epoch
+     */
+    private static long start() {
+        long launch = Long.getLong("minesweeper.launchTime", -1);
+        if (launch > 0) {
+            return launch;
+        }
+        return ManagementFactory.getRuntimeMXBean().getStartTime();
+    }
+
+    /**
+     * Gets the time from the start of the process to a phase
+     *
+     * @param phase name of a marked phase
+     * @return milliseconds since the process started, or -1 if not marked
+     */
+    public synchronized long getElapsed(String phase) {
+        Long time = marks.get(phase);
+        return time == null ? -1 : time - start();
+    }
+
+    /**
+     * Gets the phases marked so far
+     *
+     * @return the marks as name=milliseconds pairs separated by spaces
+     */
+    public synchronized String getMarks() {
+        long start = start();
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, Long> e : marks.entrySet()) {
+            if (sb.length() > 0) {
+                sb.append(' ');
+            }
+            sb.append(e.getKey()).append('=').append(e.getValue() - start);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Appends the marks to the timing log on a background thread. Only the
+     * first call writes anything, so it is safe to call from a paint method.
+     *
+     * @param log file the timing line is appended to
+     */
+    public synchronized void writeInBackground(File log) {
+        if (written) {
+            return;
+        }
+        written = true;
+        Thread writer = new Thread(() -> {
+            String line = Instant.now() + " " + getMarks() + "\n";
+            try (FileWriter fw = new FileWriter(log, true)) {
+                fw.write(line);
+            } catch (IOException e) {
+            }
+        }, "startup-timing");
+        writer.setDaemon(true);
+        writer.start();
+    }
+}
@@ -0,0 +1,102 @@
+package org.MineSweeperGUI.MineSweeper;
+
+/**
+ * This interface is a bot that plays MineSweeper. Given what can be seen of
+ * the board it picks the next move, and the engine running it makes the move.
+ * Bots never touch Swing, so any number of games can be played by bots at
+ * once, for example in a Tournament.
+ * <p>
+ * A strategy is used for a single game at a time, so it may keep state
+ * between moves, but it must not change the board it is given.
+ */
+public interface Strategy {
+
+    /**
+     * Picks the next move.
+     *
+     * @param board what can be seen of the board, read live from the game
+     * @return the move to make; null or a move that changes nothing gives up
+     *         the game
+     */
+    Move decide(VisibleBoard board);
+
+    /**
+     * A move picked by a strategy.
+     */
+    final class Move {
+        // kinds of moves
+        public static final int REVEAL = 0;
+        public static final int FLAG = 1;
+        public static final int CHORD = 2;
+
+        private final int kind;
+        private final int x;
+        private final int y;
+
+        private Move(int kind, int x, int y) {
+            this.kind = kind;
+            this.x = x;
+            this.y = y;
+        }
+
+        /**
+         * Creates a move that opens a cell
+         *
+         * @param x x value of the cell
+         * @param y y value of the cell
+         * @return the move
+         */
+        public static Move reveal(int x, int y) {
+            return new Move(REVEAL, x, y);
+        }
+
+        /**
+         * Creates a move that flags or unflags a cell
+         *
+         * @param x x value of the cell
+         * @param y y value of the cell
+         * @return the move
+         */
+        public static Move flag(int x, int y) {
+            return new Move(FLAG, x, y);
+        }
+
+        /**
+         * Creates a move that chords on an opened cell
+         *
+         * @param x x value of the cell
+         * @param y y value of the cell
+         * @return the move
+         */
+        public static Move chord(int x, int y) {
+            return new Move(CHORD, x, y);
+        }
+
+        /**
+         * Gets the kind of the move
+         *
+         * @return REVEAL, FLAG or CHORD
+         */
+        public int getKind() {
+            return kind;
+        }
+
+        /**
+         * Gets the x value of the cell the move is made on
+         *
+         * @return x value of the cell
+         */
+        public int getX() {
+            return x;
+        }
+
+        /**
+         * Gets the y value of the cell the move is made on
+         *
+         * @return y value of the cell
+         */
+        public int getY() {
+            return y;
+        }
+    }
+}
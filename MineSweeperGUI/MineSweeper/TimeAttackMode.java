@@ -0,0 +1,65 @@
+package org.MineSweeperGUI.MineSweeper;
+
+/**
+ * This class is the time attack mode: the classic board has to be cleared
+ * within a minute, and the clock keeps running, so moves cannot be undone.
+ */
+public class TimeAttackMode extends ClassicMode {
+
+    // seconds a game may take
+    static final int TIME_LIMIT = 60;
+
+    /**
+     * Gets the name of the mode
+     *
+     * @return "Time attack"
+     */
+    @Override
+    public String getName() {
+        return "Time attack";
+    }
+
+    /**
+     * Gets a line telling the player what the mode is about
+     *
+     * @return description of the mode
+     */
+    @Override
+    public String getDescription() {
+        return "Clear the board within " + TIME_LIMIT + " seconds, without undo.";
+    }
+
+    /**
+     * Gets the time a game may take
+     *
+     * @return TIME_LIMIT in seconds
+     */
+    @Override
+    public int getTimeLimit() {
+        return TIME_LIMIT;
+    }
+
+    /**
+     * Moves cannot be undone against the clock.
+     *
+     * @return false
+     */
+    @Override
+    public boolean allowsUndo() {
+        return false;
+    }
+
+    /**
+     * Shows the time left.
+     *
+     * @param m       model of the game
+     * @param game    gameBoard of the game
+     * @param elapsed seconds the game has taken so far
+     * @return time left as text
+     */
+    @Override
+    public String status(MineSweeper m, Cell[][] game, int elapsed) {
+        int left = Math.max(0, TIME_LIMIT - elapsed);
+        return "Time left: " + left / 60 + ":" + String.format("%02d", left % 60) + ".";
+    }
+}
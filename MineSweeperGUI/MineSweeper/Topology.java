@@ -0,0 +1,114 @@
+package org.MineSweeperGUI.MineSweeper;
+
+/**
+ * This enum describes which cells count as the neighbours of a cell. The
+ * neighbours are listed in precomputed offset tables, so code that visits the
+ * neighbours of a cell (counting adjacent mines, opening empty regions,
+ * chording) is a single loop over two int arrays instead of nested loops.
+ * <p>
+ * <ul>
+ * <li>SQUARE: the classic eight surrounding cells.</li>
+ * <li>HEX: six neighbours, with every odd row drawn shifted right by half a
+ * cell so the cells tile like hexagons.</li>
+ * <li>TORUS: the eight surrounding cells, wrapping around the edges of the
+ * board so that every cell has eight neighbours.</li>
+ * <li>KNIGHT: the eight cells a chess knight could move to.</li>
+ * </ul>
+ */
+public enum Topology {
+
+    SQUARE(false,
+            new int[] { -1, -1, -1, 0, 0, 1, 1, 1 },
+            new int[] { -1, 0, 1, -1, 1, -1, 0, 1 }),
+    HEX(false,
+            new int[] { -1, 0, -1, 1, -1, 0 },
+            new int[] { -1, -1, 0, 0, 1, 1 },
+            new int[] { 0, 1, -1, 1, 0, 1 },
+            new int[] { -1, -1, 0, 0, 1, 1 }),
+    TORUS(true,
+            new int[] { -1, -1, -1, 0, 0, 1, 1, 1 },
+            new int[] { -1, 0, 1, -1, 1, -1, 0, 1 }),
+    KNIGHT(false,
+            new int[] { -2, -2, -1, -1, 1, 1, 2, 2 },
+            new int[] { -1, 1, -2, 2, -2, 2, -1, 1 });
+
+    private final boolean wraps;
+    private final int[] evenDx;
+    private final int[] evenDy;
+    private final int[] oddDx;
+    private final int[] oddDy;
+
+    Topology(boolean wraps, int[] dx, int[] dy) {
+        this(wraps, dx, dy, dx, dy);
+    }
+
+    Topology(boolean wraps, int[] evenDx, int[] evenDy, int[] oddDx, int[] oddDy) {
+        this.wraps = wraps;
+        this.evenDx = evenDx;
+        this.evenDy = evenDy;
+        this.oddDx = oddDx;
+        this.oddDy = oddDy;
+    }
+
+    /**
+     * Gets the x offsets of the neighbours of a cell in the given row. Only the
+     * hex topology has different offsets for even and odd rows.
+     *
+     * @param y row of the cell
+     * @return x offsets, in the same order as dy
+     */
+    public int[] dx(int y) {
+        return (y & 1) == 0 ? evenDx : oddDx;
+    }
+
+    /**
+     * Gets the y offsets of the neighbours of a cell in the given row.
+     *
+     * @param y row of the cell
+     * @return y offsets, in the same order as dx
+     */
+    public int[] dy(int y) {
+        return (y & 1) == 0 ? evenDy : oddDy;
+    }
+
+    /**
+     * Checks if neighbours wrap around the edges of the board. If not,
+     * neighbours outside the board are skipped.
+     *
+     * @return boolean noting if the board wraps around
+     */
+    public boolean wraps() {
+        return wraps;
+    }
+
+    /**
+     * Gets the largest number of neighbours a cell can have
+     *
+     * @return length of the offset tables
+     */
+    public int maxNeighbours() {
+        return evenDx.length;
+    }
+
+    /**
+     * Gets the smallest board width and height this topology supports. A
+     * wrapping board narrower than three cells would count some cells as a
+     * neighbour twice.
+     *
+     * @return smallest number of rows and columns
+     */
+    public int minDimension() {
+        return wraps ? 3 : 1;
+    }
+
+    /**
+     * Gets how far the cells of a row are shifted right when drawn, as a
+     * fraction of a cell. Odd rows of a hex board are shifted by half a cell.
+     *
+     * @param y row of the cell
+     * @return shift of the row, between 0 and 1
+     */
+    public double rowShift(int y) {
+        return this == HEX && (y & 1) == 1 ? 0.5 : 0;
+    }
+}
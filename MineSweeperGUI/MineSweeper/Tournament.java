@@ -0,0 +1,300 @@
+package org.MineSweeperGUI.MineSweeper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.LongFunction;
+
+/**
+ * This class pits bots against each other. Every strategy plays the same set
+ * of boards, made from the same seeds, so differences in the results come
+ * from the strategies and not from the boards they were dealt.
+ * <p>
+ * Games run in parallel on a thread pool, each with its own engine, board and
+ * strategy. Each strategy is asked for its moves through a VisibleBoard that
+ * reads the game's own gameBoard, and the time every decision takes is
+ * measured so the latency of strategies can be compared as well as how well
+ * they play.
+ */
+public class Tournament {
+
+    private final Topology topology;
+    private final int xDimension;
+    private final int yDimension;
+    private final int minMines;
+    private final int maxMines;
+    private final List<String> names = new ArrayList<>();
+    private final List<LongFunction<Strategy>> strategies = new ArrayList<>();
+
+    /**
+     * The outcome of one game played by a bot.
+     */
+    private static final class Outcome {
+        boolean won;
+        int moves;
+        long[] latencies = new long[64]; // nanoseconds of each decision
+        int decisions;
+    }
+
+    /**
+     * The results of one strategy over all boards of a tournament.
+     */
+    public static final class Result {
+        private final String name;
+        private final int games;
+        private final int wins;
+        private final long moves;
+        private final long[] latencies; // sorted nanoseconds of every decision
+
+        Result(String name, int games, int wins, long moves, long[] latencies) {
+            this.name = name;
+            this.games = games;
+            this.wins = wins;
+            this.moves = moves;
+            this.latencies = latencies;
+        }
+
+        /**
+         * Gets the name the strategy was entered under
+         *
+         * @return name of the strategy
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Gets the number of games the strategy played
+         *
+         * @return number of boards in the tournament
+         */
+        public int getGames() {
+            return games;
+        }
+
+        /**
+         * Gets the number of games the strategy won
+         *
+         * @return games won
+         */
+        public int getWins() {
+            return wins;
+        }
+
+        /**
+         * Gets the share of games the strategy won
+         *
+         * @return wins divided by games, between 0 and 1
+         */
+        public double getWinRate() {
+            return games == 0 ? 0 : (double) wins / games;
+        }
+
+        /**
+         * Gets the average number of moves of a game
+         *
+         * @return moves made per game, won or lost
+         */
+        public double getAverageMoves() {
+            return games == 0 ? 0 : (double) moves / games;
+        }
+
+        /**
+         * Gets a percentile of the time the strategy took to pick a move
+         *
+         * @param percentile between 0 and 100
+         * @return nanoseconds of the decision at that percentile, 0 if none
+         *         were made
+         */
+        public long getLatency(double percentile) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(percentile / 100 * latencies.length) - 1;
+            return latencies[Math.max(0, Math.min(latencies.length - 1, rank))];
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-14s win rate %5.1f%%  moves %6.1f  latency p50 %7.1f us"
+                            + "  p90 %7.1f us  p99 %7.1f us", name, getWinRate() * 100,
+                    getAverageMoves(), getLatency(50) / 1e3, getLatency(90) / 1e3,
+                    getLatency(99) / 1e3);
+        }
+    }
+
+    /**
+     * Constructor sets up a tournament on boards of the given shape.
+     *
+     * @param topology   neighbourhood of the cells
+     * @param xDimension number of columns of each board
+     * @param yDimension number of rows of each board
+     * @param minMines   lower bound for the number of mines of a board
+     * @param maxMines   upper bound for the number of mines of a board, exclusive
+     */
+    public Tournament(Topology topology, int xDimension, int yDimension, int minMines,
+                      int maxMines) {
+        if (minMines < 0 || maxMines <= minMines || maxMines > xDimension * yDimension) {
+            throw new IllegalArgumentException("Bad mine range " + minMines + "-" + maxMines);
+        }
+        this.topology = topology;
+        this.xDimension = xDimension;
+        this.yDimension = yDimension;
+        this.minMines = minMines;
+        this.maxMines = maxMines;
+    }
+
+    /**
+     * Enters a strategy. A new strategy is made for every game, so games can
+     * run at the same time and strategies may keep state within a game.
+     *
+     * @param name     name shown in the results
+     * @param strategy makes the strategy of one game from a seed for its own
+     *                 random choices
+     * @return this tournament
+     */
+    public Tournament add(String name, LongFunction<Strategy> strategy) {
+        names.add(name);
+        strategies.add(strategy);
+        return this;
+    }
+
+    /**
+     * Plays one game with a strategy until it is won, lost or given up.
+     *
+     * @param strategy the bot
+     * @param seed     seed of the board
+     * @return the outcome of the game
+     */
+    private Outcome play(Strategy strategy, long seed) {
+        MineSweeper m = new MineSweeper(xDimension, yDimension, seed, topology);
+        m.setSaveFile(null);
+        Cell[][] board = m.gameBoard(minMines, maxMines, false);
+        VisibleBoard view = new VisibleBoard(m, board);
+        Outcome game = new Outcome();
+        while (m.getStatus() == 0) {
+            long start = System.nanoTime();
+            Strategy.Move move = strategy.decide(view);
+            long latency = System.nanoTime() - start;
+            if (game.decisions == game.latencies.length) {
+                game.latencies = Arrays.copyOf(game.latencies, game.decisions * 2);
+            }
+            game.latencies[game.decisions++] = latency;
+            int before = m.getMoveCounter();
+            if (move != null) {
+                int x = move.getX();
+                int y = move.getY();
+                if (move.getKind() == Strategy.Move.CHORD) {
+                    m.chord(board, x, y);
+                } else {
+                    m.play(board, x, y, move.getKind() == Strategy.Move.FLAG);
+                }
+            }
+            if (m.getMoveCounter() == before) {
+                // the strategy gave up or repeated a move that does nothing
+                break;
+            }
+        }
+        game.won = m.getStatus() == 1;
+        game.moves = m.getMoveCounter();
+        return game;
+    }
+
+    /**
+     * Plays every strategy on the same boards.
+     *
+     * @param games   number of boards
+     * @param seed    seed the boards and the strategies' own seeds are drawn from
+     * @param threads number of games played at the same time
+     * @return the results of every strategy, in the order they were entered
+     * @throws InterruptedException if interrupted while waiting for the games
+     */
+    public List<Result> run(int games, long seed, int threads) throws InterruptedException {
+        Random random = new Random(seed);
+        long[] boardSeeds = new long[games];
+        long[] botSeeds = new long[games];
+        for (int i = 0; i < games; i++) {
+            boardSeeds[i] = random.nextLong();
+            botSeeds[i] = random.nextLong();
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<List<Future<Outcome>>> futures = new ArrayList<>();
+            for (LongFunction<Strategy> strategy : strategies) {
+                List<Future<Outcome>> played = new ArrayList<>(games);
+                for (int i = 0; i < games; i++) {
+                    long board = boardSeeds[i];
+                    long bot = botSeeds[i];
+                    played.add(pool.submit(() -> play(strategy.apply(bot), board)));
+                }
+                futures.add(played);
+            }
+            List<Result> results = new ArrayList<>();
+            for (int s = 0; s < strategies.size(); s++) {
+                int wins = 0;
+                long moves = 0;
+                long[] latencies = new long[0];
+                int decisions = 0;
+                for (Future<Outcome> f : futures.get(s)) {
+                    Outcome game = get(f);
+                    wins += game.won ? 1 : 0;
+                    moves += game.moves;
+                    if (decisions + game.decisions > latencies.length) {
+                        int size = Math.max(latencies.length * 2, decisions + game.decisions);
+                        latencies = Arrays.copyOf(latencies, size);
+                    }
+                    System.arraycopy(game.latencies, 0, latencies, decisions, game.decisions);
+                    decisions += game.decisions;
+                }
+                latencies = Arrays.copyOf(latencies, decisions);
+                Arrays.sort(latencies);
+                results.add(new Result(names.get(s), games, wins, moves, latencies));
+            }
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static Outcome get(Future<Outcome> f) throws InterruptedException {
+        try {
+            return f.get();
+        } catch (ExecutionException e) {
+            // passes on what the strategy threw
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * Runs a tournament of the bundled strategies on 10x10 boards with 12 to
+     * 15 mines, like the game itself, and prints the results.
+     *
+     * @param args number of games and number of threads, both optional
+     * @throws InterruptedException if interrupted while waiting for the games
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1])
+                : Runtime.getRuntime().availableProcessors();
+        Tournament tournament = new Tournament(Topology.SQUARE, 10, 10, 12, 15)
+                .add("random", RandomStrategy::new)
+                .add("single-point", SinglePointStrategy::new);
+        long start = System.nanoTime();
+        List<Result> results = tournament.run(games, 42, threads);
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("%d games per strategy on %d threads in %d ms%n", games, threads,
+                elapsed / 1_000_000);
+        for (Result r : results) {
+            System.out.println(r);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package org.MineSweeperGUI.MineSweeper;
+
+/**
+ * This class is what a bot can see of a game: the opened cells with their
+ * numbers, the flags and the shape of the board, but not where the mines are.
+ * <p>
+ * The view reads straight from the gameBoard of the game, so nothing is
+ * copied when a bot is asked for a move, and it always shows the board as it
+ * is now. It has no methods that change the board; moves are made by the
+ * engine running the bot.
+ */
+public final class VisibleBoard {
+
+    // values of get for cells that show no number
+    public static final int COVERED = -1;
+    public static final int FLAGGED = -2;
+
+    private final MineSweeper model;
+    private final Cell[][] game;
+    private final NeighbourTable neighbours;
+
+    /**
+     * Constructor sets up a view of a game.
+     *
+     * @param model model of the game
+     * @param game  gameBoard of the game, which is read but not copied
+     */
+    public VisibleBoard(MineSweeper model, Cell[][] game) {
+        this.model = model;
+        this.game = game;
+        this.neighbours = NeighbourTable.of(
+                model.getTopology(), model.getXDimension(), model.getYDimension()
+        );
+    }
+
+    /**
+     * Gets what a cell shows
+     *
+     * @param x x value of the cell
+     * @param y y value of the cell
+     * @return number of adjacent mines of an opened cell, FLAGGED or COVERED
+     */
+    public int get(int x, int y) {
+        Cell c = game[x][y];
+        if (c.getIsClicked()) {
+            return c.getMineNumber();
+        }
+        return c.getIsFlagged() ? FLAGGED : COVERED;
+    }
+
+    /**
+     * Checks if a cell has been opened
+     *
+     * @param x x value of the cell
+     * @param y y value of the cell
+     * @return boolean noting if the cell shows its number
+     */
+    public boolean isOpened(int x, int y) {
+        return game[x][y].getIsClicked();
+    }
+
+    /**
+     * Checks if a cell is flagged
+     *
+     * @param x x value of the cell
+     * @param y y value of the cell
+     * @return boolean noting if the cell carries a flag
+     */
+    public boolean isFlagged(int x, int y) {
+        return game[x][y].getIsFlagged();
+    }
+
+    /**
+     * Gets the neighbours of the cells of the board
+     *
+     * @return shared neighbour table of the board's topology and size
+     */
+    public NeighbourTable getNeighbours() {
+        return neighbours;
+    }
+
+    /**
+     * Gets the number of columns of the board
+     *
+     * @return xDimension of the board
+     */
+    public int getXDimension() {
+        return model.getXDimension();
+    }
+
+    /**
+     * Gets the number of rows of the board
+     *
+     * @return yDimension of the board
+     */
+    public int getYDimension() {
+        return model.getYDimension();
+    }
+
+    /**
+     * Gets the topology of the board
+     *
+     * @return topology deciding the neighbours of each cell
+     */
+    public Topology getTopology() {
+        return model.getTopology();
+    }
+
+    /**
+     * Gets the number of mines on the board
+     *
+     * @return numMines of the board
+     */
+    public int getNumMines() {
+        return model.getNumMines();
+    }
+
+    /**
+     * Gets the number of moves made so far
+     *
+     * @return moveCounter of the game
+     */
+    public int getMoveCounter() {
+        return model.getMoveCounter();
+    }
+}
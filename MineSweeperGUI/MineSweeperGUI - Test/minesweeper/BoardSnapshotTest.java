@@ -0,0 +1,138 @@
+package org.MineSweeperGUI.minesweeper;
+
+import org.MineSweeperGUI.MineSweeper.BoardSnapshot;
+import org.MineSweeperGUI.MineSweeper.Cell;
+import org.MineSweeperGUI.MineSweeper.MineSweeper;
+import org.MineSweeperGUI.MineSweeper.Protocol;
+import org.MineSweeperGUI.MineSweeper.Topology;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for immutable board snapshots
+ */
+public class BoardSnapshotTest {
+
+    private static void assertMatches(Cell[][] game, BoardSnapshot s) {
+        for (int i = 0; i < game.length; i++) {
+            for (int j = 0; j < game[i].length; j++) {
+                assertEquals(Protocol.pack(game[i][j]), s.get(i, j), i + "," + j);
+            }
+        }
+    }
+
+    private static String state(BoardSnapshot s) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < s.getXDimension(); i++) {
+            for (int j = 0; j < s.getYDimension(); j++) {
+                sb.append((char) ('A' + s.get(i, j)));
+            }
+        }
+        return sb.toString();
+    }
+
+    @Test
+    public void testSnapshotsFollowMovesAndNeverChange() {
+        MineSweeper m = new MineSweeper(21, 13, 17, Topology.HEX);
+        m.setSaveFile(null);
+        m.setPractice(true);
+        Cell[][] game = m.gameBoard(30, 40, false);
+        assertMatches(game, m.getSnapshot());
+        List<BoardSnapshot> snapshots = new ArrayList<>();
+        List<String> states = new ArrayList<>();
+        Random random = new Random(2);
+        while (m.getStatus() == 0) {
+            int x = random.nextInt(21);
+            int y = random.nextInt(13);
+            m.play(game, x, y, game[x][y].getIsMine() && random.nextInt(8) != 0);
+            BoardSnapshot s = m.getSnapshot();
+            assertMatches(game, s);
+            assertEquals(m.getMoveCounter(), s.getMoveCounter());
+            assertEquals(m.getStatus(), s.getStatus());
+            snapshots.add(s);
+            states.add(state(s));
+        }
+        while (m.undo(game)) {
+            assertMatches(game, m.getSnapshot());
+        }
+        while (m.redo(game)) {
+            assertMatches(game, m.getSnapshot());
+        }
+        // snapshots taken earlier still show the board as it was then
+        for (int i = 0; i < snapshots.size(); i++) {
+            assertEquals(states.get(i), state(snapshots.get(i)));
+        }
+    }
+
+    @Test
+    public void testUnchangedTilesAreShared() {
+        MineSweeper m = new MineSweeper(64, 64, 5);
+        m.setSaveFile(null);
+        Cell[][] game = m.gameBoard(100, 101, false);
+        BoardSnapshot before = m.getSnapshot();
+        m.play(game, 0, 0, true);
+        BoardSnapshot after = m.getSnapshot();
+        assertEquals(before.getVersion() + 1, after.getVersion());
+        assertFalse(after.sharesTile(before, 0, 0));
+        int shared = 0;
+        for (int i = 0; i < 64; i += BoardSnapshot.TILE) {
+            for (int j = 0; j < 64; j += BoardSnapshot.TILE) {
+                if (after.sharesTile(before, i, j)) {
+                    shared++;
+                }
+            }
+        }
+        assertEquals(64 / BoardSnapshot.TILE * (64 / BoardSnapshot.TILE) - 1, shared);
+        assertFalse(before.isFlagged(0, 0));
+        assertTrue(after.isFlagged(0, 0));
+    }
+
+    @Test
+    public void testReaderThreadSeesConsistentBoards() throws InterruptedException {
+        MineSweeper m = new MineSweeper(40, 40, 8);
+        m.setSaveFile(null);
+        Cell[][] game = m.gameBoard(150, 151, false);
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<String> failure = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            long version = -1;
+            int opened = 0;
+            while (!done.get() && failure.get() == null) {
+                BoardSnapshot s = m.getSnapshot();
+                int count = 0;
+                for (int i = 0; i < 40; i++) {
+                    for (int j = 0; j < 40; j++) {
+                        if (s.isClicked(i, j)) {
+                            count++;
+                        }
+                    }
+                }
+                // cells only ever open, so a newer board has at least as many
+                if (s.getVersion() < version || (s.getVersion() > version && count < opened)) {
+                    failure.set("went back at version " + s.getVersion());
+                }
+                version = s.getVersion();
+                opened = count;
+            }
+        });
+        reader.start();
+        for (int i = 0; i < 40 && m.getStatus() == 0; i++) {
+            for (int j = 0; j < 40 && m.getStatus() == 0; j++) {
+                if (!game[i][j].getIsMine()) {
+                    m.play(game, i, j, false);
+                }
+            }
+        }
+        done.set(true);
+        reader.join();
+        assertNull(failure.get());
+        assertEquals(1, m.getSnapshot().getStatus());
+    }
+}
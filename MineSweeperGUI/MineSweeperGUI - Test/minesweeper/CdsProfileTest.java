@@ -0,0 +1,46 @@
+package org.MineSweeperGUI.minesweeper;
+
+import org.MineSweeperGUI.MineSweeper.CdsProfile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the training run of the class-data-sharing launch profile
+ */
+public class CdsProfileTest {
+
+    @TempDir
+    File dir;
+
+    private static Set<String> list(File directory) {
+        String[] names = directory.list();
+        return new HashSet<>(Arrays.asList(names == null ? new String[0] : names));
+    }
+
+    @Test
+    public void testTrainRunsHeadlessWithoutWriting() {
+        System.setProperty("java.awt.headless", "true");
+        File workingDirectory = new File(System.getProperty("user.dir"));
+        Set<String> before = list(workingDirectory);
+        assertDoesNotThrow(() -> CdsProfile.train(dir));
+        // the games are practice games, so not even the training directory
+        // gets a leaderboard or history
+        assertEquals(Set.of(), list(dir));
+        assertEquals(before, list(workingDirectory));
+    }
+
+    @Test
+    public void testTrainCanRunTwice() {
+        System.setProperty("java.awt.headless", "true");
+        CdsProfile.train(dir);
+        assertDoesNotThrow(() -> CdsProfile.train(dir));
+        assertEquals(Set.of(), list(dir));
+    }
+}
@@ -0,0 +1,112 @@
+package org.MineSweeperGUI.minesweeper;
+
+import org.MineSweeperGUI.MineSweeper.ChunkedBoard;
+import org.MineSweeperGUI.MineSweeper.Protocol;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the ChunkedBoard used by the endless game mode
+ */
+public class ChunkedBoardTest {
+
+    @Test
+    public void testSameSeedSameBoardInAnyOrder() throws IOException {
+        ChunkedBoard a = new ChunkedBoard(7, 0.2, 64, null);
+        ChunkedBoard b = new ChunkedBoard(7, 0.2, 64, null);
+        for (int x = 200; x >= -200; x--) {
+            b.getState(x, -x);
+        }
+        for (int x = -200; x <= 200; x++) {
+            assertEquals(a.getState(x, -x), b.getState(x, -x));
+        }
+    }
+
+    @Test
+    public void testCountsAcrossChunkBorders() throws IOException {
+        ChunkedBoard board = new ChunkedBoard(3, 0.2, 64, null);
+        for (int x = -70; x <= 70; x++) {
+            for (int y = -3; y <= 3; y++) {
+                byte state = board.getState(x, y);
+                if ((state & Protocol.MINE) != 0) {
+                    continue;
+                }
+                int count = 0;
+                for (int i = x - 1; i <= x + 1; i++) {
+                    for (int j = y - 1; j <= y + 1; j++) {
+                        if ((board.getState(i, j) & Protocol.MINE) != 0) {
+                            count++;
+                        }
+                    }
+                }
+                assertEquals(count, state & Protocol.NUMBER_MASK);
+            }
+        }
+    }
+
+    @Test
+    public void testEvictedChunksKeepChanges(@TempDir File dir) throws IOException {
+        ChunkedBoard board = new ChunkedBoard(11, 0.2, 9, dir);
+        board.play(5, 5, true);
+        for (int x = 0; x < 40; x++) {
+            board.getState(x * ChunkedBoard.CHUNK_SIZE, 1000);
+        }
+        assertTrue(board.getResidentChunks() <= 9);
+        assertTrue((board.getState(5, 5) & Protocol.FLAGGED) != 0);
+        board.deleteEvicted();
+    }
+
+    @Test
+    public void testRevealOpensRegion() throws IOException {
+        ChunkedBoard board = new ChunkedBoard(5, 0.15, 64, null);
+        int x = 0;
+        while (board.getState(x, 0) != 0) {
+            x++;
+        }
+        board.play(x, 0, false);
+        assertEquals(0, board.getStatus());
+        assertTrue(board.getOpenedCells() > 1);
+        assertTrue((board.getState(x + 1, 1) & Protocol.CLICKED) != 0);
+    }
+
+    @Test
+    public void testFailedEvictionKeepsChunk(@TempDir File dir) throws IOException {
+        File chunks = new File(dir, "chunks");
+        ChunkedBoard board = new ChunkedBoard(11, 0.2, 9, chunks);
+        board.play(5, 5, true);
+        // the chunk directory can no longer be written to
+        assertTrue(chunks.delete());
+        assertTrue(chunks.createNewFile());
+        assertThrows(IOException.class, () -> {
+            for (int x = 0; x < 40; x++) {
+                board.getState(x * ChunkedBoard.CHUNK_SIZE, 1000);
+            }
+        });
+        assertTrue(chunks.delete());
+        assertTrue(chunks.mkdirs());
+        assertTrue((board.getState(5, 5) & Protocol.FLAGGED) != 0);
+    }
+
+    @Test
+    public void testChangedChunksLimitedWithoutDirectory() throws IOException {
+        ChunkedBoard board = new ChunkedBoard(11, 0.2, 9, null);
+        for (int x = 0; x < 9; x++) {
+            board.play(x * ChunkedBoard.CHUNK_SIZE, 0, true);
+        }
+        int moves = board.getMoveCounter();
+        assertThrows(IOException.class, () -> board.play(40 * ChunkedBoard.CHUNK_SIZE, 0, true));
+        assertEquals(moves, board.getMoveCounter());
+        for (int x = 0; x < 40; x++) {
+            board.getState(x * ChunkedBoard.CHUNK_SIZE, 1000);
+        }
+        assertTrue(board.getResidentChunks() <= 9);
+        for (int x = 0; x < 9; x++) {
+            assertTrue((board.getState(x * ChunkedBoard.CHUNK_SIZE, 0) & Protocol.FLAGGED) != 0);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package org.MineSweeperGUI.minesweeper;
+
+import org.MineSweeperGUI.MineSweeper.Cell;
+import org.MineSweeperGUI.MineSweeper.DifficultyAnalyser;
+import org.MineSweeperGUI.MineSweeper.MineSweeper;
+import org.MineSweeperGUI.MineSweeper.Topology;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the board difficulty analyser
+ */
+public class DifficultyAnalyserTest {
+
+    private static Cell[][] board(int xDimension, int yDimension, int... mines) {
+        Cell[][] game = new Cell[xDimension][yDimension];
+        for (int i = 0; i < xDimension; i++) {
+            for (int j = 0; j < yDimension; j++) {
+                game[i][j] = new Cell();
+            }
+        }
+        for (int mine : mines) {
+            game[mine / yDimension][mine % yDimension].setIsMine(true);
+        }
+        return game;
+    }
+
+    @Test
+    public void testSingleOpening() {
+        DifficultyAnalyser analyser = new DifficultyAnalyser(Topology.SQUARE, 5, 5);
+        DifficultyAnalyser.Metrics metrics = analyser.analyse(board(5, 5, 0));
+        assertEquals(1, metrics.getThreeBV());
+        assertEquals(1, metrics.getOpenings());
+        assertEquals(0, metrics.getForcedGuesses());
+    }
+
+    @Test
+    public void testSeparateOpeningsNeedAGuess() {
+        // 0 1 * 1 0
+        DifficultyAnalyser analyser = new DifficultyAnalyser(Topology.SQUARE, 5, 1);
+        DifficultyAnalyser.Metrics metrics = analyser.analyse(board(5, 1, 2));
+        assertEquals(2, metrics.getThreeBV());
+        assertEquals(2, metrics.getOpenings());
+        assertEquals(1, metrics.getForcedGuesses());
+    }
+
+    @Test
+    public void testNumbersOutsideOpenings() {
+        // 1 * 2 * 1, and the analyser is reused for a second board
+        DifficultyAnalyser analyser = new DifficultyAnalyser(Topology.SQUARE, 1, 5);
+        analyser.analyse(board(1, 5));
+        DifficultyAnalyser.Metrics metrics = analyser.analyse(board(1, 5, 1, 3));
+        assertEquals(3, metrics.getThreeBV());
+        assertEquals(0, metrics.getOpenings());
+        assertEquals(2, metrics.getForcedGuesses());
+    }
+
+    /**
+     * Checks the 3BV against the engine: clicking every opening and then
+     * every safe cell still covered opens the board in exactly 3BV clicks.
+     */
+    @Test
+    public void testThreeBVMatchesClicks() {
+        for (Topology topology : new Topology[] { Topology.SQUARE, Topology.HEX, Topology.TORUS }) {
+            DifficultyAnalyser analyser = new DifficultyAnalyser(topology, 12, 9);
+            for (long seed = 0; seed < 100; seed++) {
+                MineSweeper m = new MineSweeper(12, 9, seed, topology);
+                m.setSaveFile(null);
+                Cell[][] game = m.gameBoard(15, 20, false);
+                DifficultyAnalyser.Metrics metrics = analyser.analyse(game);
+                int clicks = 0;
+                for (int pass = 0; pass < 2; pass++) {
+                    for (int i = 0; i < 12; i++) {
+                        for (int j = 0; j < 9; j++) {
+                            Cell c = game[i][j];
+                            if (!c.getIsMine() && !c.getIsClicked()
+                                    && (pass == 1 || c.getMineNumber() == 0)) {
+                                m.play(game, i, j, false);
+                                clicks++;
+                            }
+                        }
+                    }
+                }
+                assertEquals(1, m.getStatus());
+                assertEquals(clicks, metrics.getThreeBV(), topology + " seed " + seed);
+                assertTrue(metrics.getOpenings() <= metrics.getThreeBV());
+                assertTrue(metrics.getForcedGuesses() < metrics.getThreeBV());
+            }
+        }
+    }
+
+    @Test
+    public void testHistogramDoesNotDependOnThreads() throws InterruptedException {
+        DifficultyAnalyser.Histogram one =
+                DifficultyAnalyser.histogram(Topology.SQUARE, 10, 10, 12, 15, 7, 2000, 1);
+        DifficultyAnalyser.Histogram four =
+                DifficultyAnalyser.histogram(Topology.SQUARE, 10, 10, 12, 15, 7, 2000, 4);
+        assertEquals(2000, four.getBoards());
+        for (int metric : new int[] { DifficultyAnalyser.THREE_BV, DifficultyAnalyser.OPENINGS,
+                DifficultyAnalyser.FORCED_GUESSES }) {
+            long boards = 0;
+            for (int v = 0; v <= 100; v++) {
+                assertEquals(one.getCount(metric, v), four.getCount(metric, v));
+                boards += four.getCount(metric, v);
+            }
+            assertEquals(2000, boards);
+            assertEquals(one.getMean(metric), four.getMean(metric), 1e-9);
+        }
+    }
+}
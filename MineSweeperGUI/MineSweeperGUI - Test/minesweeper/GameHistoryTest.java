@@ -0,0 +1,147 @@
+package org.MineSweeperGUI.minesweeper;
+
+import org.MineSweeperGUI.MineSweeper.Cell;
+import org.MineSweeperGUI.MineSweeper.GameHistory;
+import org.MineSweeperGUI.MineSweeper.GameModes;
+import org.MineSweeperGUI.MineSweeper.GameRecord;
+import org.MineSweeperGUI.MineSweeper.MineSweeper;
+import org.MineSweeperGUI.MineSweeper.MoveLog;
+import org.MineSweeperGUI.MineSweeper.Topology;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the GameHistory and its records
+ */
+public class GameHistoryTest {
+
+    @TempDir
+    File dir;
+
+    private static GameRecord record(long seed) {
+        return new GameRecord(
+                1000 + seed, seed, Topology.HEX, 10, 12, 13, seed % 2 == 0 ? 1 : 2, 3, 1, 7,
+                MineSweeper.SAFE_START_OPENING, "Time attack",
+                new int[] { MoveLog.REVEAL, MoveLog.FLAG, MoveLog.MINE },
+                new int[] { 0, 55, 119 }, new int[] { 10, 2000, 65000 }
+        );
+    }
+
+    @Test
+    public void testRecordRoundTrip() {
+        GameRecord r = GameRecord.parse(record(4).toCsv(new StringBuilder()).toString());
+        assertEquals(4, r.getSeed());
+        assertEquals(Topology.HEX, r.getTopology());
+        assertEquals(12, r.getYDimension());
+        assertEquals(1, r.getStatus());
+        assertEquals(3, r.getMoveCount());
+        assertEquals(MoveLog.MINE, r.getMoveKind(2));
+        assertEquals(55, r.getMoveCell(1));
+        assertEquals(65000, r.getMoveTime(2));
+        assertEquals(MineSweeper.SAFE_START_OPENING, r.getSafeStart());
+        assertEquals("Time attack", r.getMode());
+    }
+
+    @Test
+    public void testOldRecordIsRead() {
+        GameRecord r = GameRecord.parse("1004,4,HEX,10,12,13,won,3,1,7,R:0:10;F:55:2000");
+        assertEquals(4, r.getSeed());
+        assertEquals(2, r.getMoveCount());
+        assertEquals(GameRecord.SAFE_START_UNKNOWN, r.getSafeStart());
+        assertEquals(GameModes.CLASSIC.getName(), r.getMode());
+        assertEquals(55, r.getMoveCell(1));
+    }
+
+    @Test
+    public void testAppendsRollIntoSegments() throws IOException {
+        GameHistory history = new GameHistory(dir, 200);
+        for (long seed = 0; seed < 50; seed++) {
+            history.append(record(seed));
+        }
+        assertTrue(history.segments().length > 1);
+        List<Long> seeds = new ArrayList<>();
+        long count = new GameHistory(dir).scan(r -> seeds.add(r.getSeed()));
+        assertEquals(50, count);
+        for (int i = 0; i < 50; i++) {
+            assertEquals(i, (long) seeds.get(i));
+        }
+    }
+
+    @Test
+    public void testCutOffMemberIsSkipped() throws IOException {
+        GameHistory history = new GameHistory(dir);
+        history.append(record(0));
+        history.append(record(1));
+        File segment = history.segments()[0];
+        try (FileOutputStream out = new FileOutputStream(segment, true)) {
+            out.write(new byte[] { 0x1f, (byte) 0x8b, 8, 0, 0, 0 });
+        }
+        assertEquals(2, history.scan(r -> { }));
+        // appends after the damage go to a fresh segment and stay readable
+        GameHistory reopened = new GameHistory(dir);
+        reopened.append(record(2));
+        assertEquals(2, reopened.segments().length);
+        assertEquals(3, reopened.scan(r -> { }));
+    }
+
+    @Test
+    public void testFinishedGameIsRecorded() throws IOException {
+        MineSweeper m = new MineSweeper(10, 10, 42, Topology.SQUARE);
+        m.setSaveFile(null);
+        m.setHistory(new GameHistory(dir));
+        Cell[][] ms = m.gameBoard(0, 0, false);
+        ms[7][9].setIsMine(true);
+        m.setAdjacentValues(ms);
+        m.play(ms, 7, 9, true);
+        m.play(ms, 0, 0, false);
+        List<GameRecord> records = new ArrayList<>();
+        new GameHistory(dir).scan(records::add);
+        assertEquals(1, records.size());
+        GameRecord r = records.get(0);
+        assertEquals(42, r.getSeed());
+        assertEquals(1, r.getStatus());
+        assertEquals(2, r.getMoveCount());
+        assertEquals(MoveLog.FLAG, r.getMoveKind(0));
+        assertEquals(7 * 10 + 9, r.getMoveCell(0));
+        assertEquals(MoveLog.REVEAL, r.getMoveKind(1));
+    }
+
+    @Test
+    public void testGameIsRecordedOnce() throws IOException {
+        GameHistory history = new GameHistory(dir);
+        MineSweeper m = new MineSweeper();
+        m.setSaveFile(null);
+        m.setHistory(history);
+        Cell[][] ms = m.gameBoard(0, 0, false);
+        ms[7][9].setIsMine(true);
+        m.setAdjacentValues(ms);
+        m.play(ms, 0, 0, false);
+        assertEquals(1, m.getStatus());
+        assertTrue(m.undo(ms));
+        m.play(ms, 0, 0, false);
+        assertEquals(1, m.getStatus());
+        assertEquals(1, history.scan(r -> { }));
+
+        // practice games are not recorded at all
+        MineSweeper practice = new MineSweeper();
+        practice.setSaveFile(null);
+        practice.setHistory(history);
+        practice.setPractice(true);
+        ms = practice.gameBoard(0, 0, false);
+        ms[7][9].setIsMine(true);
+        practice.setAdjacentValues(ms);
+        practice.play(ms, 7, 9, false);
+        assertTrue(practice.undo(ms));
+        practice.play(ms, 0, 0, false);
+        assertEquals(1, practice.getStatus());
+        assertEquals(1, history.scan(r -> { }));
+    }
+}
@@ -2,6 +2,7 @@ package org.MineSweeperGUI.minesweeper;
 
 import org.MineSweeperGUI.MineSweeper.Cell;
 import org.MineSweeperGUI.MineSweeper.MineSweeper;
+import org.MineSweeperGUI.MineSweeper.Topology;
 import org.junit.jupiter.api.Test;
 
 import java.io.File;
@@ -202,5 +203,138 @@ public class GameTest {
         assertEquals(m.getMoveCounter(), 1);
     }
 
+    @Test
+    public void testUndoRecursiveOpening() {
+        MineSweeper m = new MineSweeper();
+        Cell[][] ms = m.gameBoard(0, 0, false);
+        ms[7][9].setIsMine(true);
+        ms[9][9].setIsMine(true);
+        m.setAdjacentValues(ms);
+        m.play(ms, 0, 0, false);
+        assertTrue(ms[5][5].getIsClicked());
+        assertTrue(m.undo(ms));
+        assertEquals(0, m.getMoveCounter());
+        for (int i = 0; i < ms.length; i++) {
+            for (int j = 0; j < ms[i].length; j++) {
+                assertFalse(ms[i][j].getIsClicked());
+            }
+        }
+        assertFalse(m.undo(ms));
+        assertTrue(m.redo(ms));
+        assertEquals(1, m.getMoveCounter());
+        assertTrue(ms[0][0].getIsClicked());
+        assertTrue(ms[5][5].getIsClicked());
+        assertFalse(ms[8][9].getIsClicked());
+    }
+
+    @Test
+    public void testUndoFlag() {
+        MineSweeper m = new MineSweeper();
+        Cell[][] ms = m.gameBoard(0, 0, false);
+        ms[7][9].setIsMine(true);
+        m.setAdjacentValues(ms);
+        m.play(ms, 3, 4, true);
+        assertTrue(ms[3][4].getIsFlagged());
+        assertTrue(m.undo(ms));
+        assertFalse(ms[3][4].getIsFlagged());
+        assertTrue(m.redo(ms));
+        assertTrue(ms[3][4].getIsFlagged());
+        assertFalse(m.redo(ms));
+    }
 
+    @Test
+    public void testUndoMineHitOnlyInPractice() {
+        MineSweeper m = new MineSweeper();
+        Cell[][] ms = m.gameBoard(0, 0, false);
+        ms[7][9].setIsMine(true);
+        m.setAdjacentValues(ms);
+        m.play(ms, 3, 4, true);
+        m.play(ms, 7, 9, false);
+        assertEquals(2, m.getStatus());
+        assertFalse(m.undo(ms));
+        assertEquals(2, m.getStatus());
+        assertFalse(m.getUsedUndo());
+    }
+
+    @Test
+    public void testUndoMineHit() {
+        MineSweeper m = new MineSweeper();
+        m.setPractice(true);
+        Cell[][] ms = m.gameBoard(0, 0, false);
+        ms[7][9].setIsMine(true);
+        m.setAdjacentValues(ms);
+        m.play(ms, 7, 9, false);
+        assertEquals(2, m.getStatus());
+        assertTrue(m.undo(ms));
+        assertTrue(m.getUsedUndo());
+        assertEquals(0, m.getStatus());
+        m.play(ms, 0, 0, false);
+        assertEquals(1, m.getStatus());
+        assertFalse(m.redo(ms));
+    }
+
+    @Test
+    public void testChordOpensNeighbours() {
+        MineSweeper m = new MineSweeper();
+        Cell[][] ms = m.gameBoard(0, 0, false);
+        ms[7][9].setIsMine(true);
+        m.setAdjacentValues(ms);
+        m.play(ms, 8, 8, false);
+        m.play(ms, 7, 9, true);
+        m.chord(ms, 8, 8);
+        assertEquals(3, m.getMoveCounter());
+        assertTrue(ms[9][9].getIsClicked());
+        assertEquals(1, m.getStatus());
+    }
+
+    @Test
+    public void testChordWithWrongFlag() {
+        MineSweeper m = new MineSweeper();
+        Cell[][] ms = m.gameBoard(0, 0, false);
+        ms[7][9].setIsMine(true);
+        m.setAdjacentValues(ms);
+        m.play(ms, 8, 8, false);
+        m.chord(ms, 8, 8);
+        assertEquals(1, m.getMoveCounter());
+        m.play(ms, 9, 9, true);
+        m.chord(ms, 8, 8);
+        assertEquals(2, m.getStatus());
+    }
+
+    @Test
+    public void testTorusWrapsNeighbours() {
+        MineSweeper m = new MineSweeper(10, 10, 1, Topology.TORUS);
+        Cell[][] ms = m.gameBoard(0, 0, false);
+        ms[0][0].setIsMine(true);
+        m.setAdjacentValues(ms);
+        assertEquals(1, ms[9][9].getMineNumber());
+        assertEquals(1, ms[9][0].getMineNumber());
+        assertEquals(0, ms[8][8].getMineNumber());
+        m.play(ms, 5, 5, false);
+        assertEquals(1, m.getStatus());
+    }
+
+    @Test
+    public void testHexNeighbours() {
+        MineSweeper m = new MineSweeper(10, 10, 1, Topology.HEX);
+        Cell[][] ms = m.gameBoard(0, 0, false);
+        ms[5][5].setIsMine(true);
+        m.setAdjacentValues(ms);
+        assertEquals(1, ms[5][4].getMineNumber());
+        assertEquals(1, ms[6][4].getMineNumber());
+        assertEquals(1, ms[6][6].getMineNumber());
+        assertEquals(0, ms[4][4].getMineNumber());
+        assertEquals(0, ms[4][6].getMineNumber());
+    }
+
+    @Test
+    public void testKnightNeighbours() {
+        MineSweeper m = new MineSweeper(10, 10, 1, Topology.KNIGHT);
+        Cell[][] ms = m.gameBoard(0, 0, false);
+        ms[5][5].setIsMine(true);
+        m.setAdjacentValues(ms);
+        assertEquals(1, ms[7][6].getMineNumber());
+        assertEquals(1, ms[4][3].getMineNumber());
+        assertEquals(0, ms[6][6].getMineNumber());
+    }
 }
@@ -0,0 +1,166 @@
+package org.MineSweeperGUI.minesweeper;
+
+import org.MineSweeperGUI.MineSweeper.Cell;
+import org.MineSweeperGUI.MineSweeper.MineSweeper;
+import org.MineSweeperGUI.MineSweeper.NeighbourTable;
+import org.MineSweeperGUI.MineSweeper.Topology;
+
+import java.util.Random;
+
+/**
+ * Compares counting adjacent mines and opening a large empty region with the
+ * NeighbourTable against the bounds-checked loops it replaced. Both fills
+ * skip the move log so only the neighbour loops are measured. Run with main,
+ * optionally passing the width and height of the board.
+ */
+public class NeighbourTableBenchmark {
+
+    private static final int ROUNDS = 10;
+
+    /**
+     * Counts adjacent mines the way setAdjacentValues did before the table,
+     * checking every neighbour against the edges of the board.
+     */
+    private static void boundsCheckedCounts(Cell[][] game) {
+        int width = game.length;
+        int height = game[0].length;
+        for (int i = 0; i < width; i++) {
+            for (int j = 0; j < height; j++) {
+                if (game[i][j].getIsMine()) {
+                    game[i][j].setMineNumber(-1);
+                    continue;
+                }
+                int count = 0;
+                for (int z = i - 1; z <= i + 1; z++) {
+                    for (int w = j - 1; w <= j + 1; w++) {
+                        if (z >= 0 && w >= 0 && z < width && w < height && game[z][w].getIsMine()) {
+                            count++;
+                        }
+                    }
+                }
+                game[i][j].setMineNumber(count);
+            }
+        }
+    }
+
+    /**
+     * Opens the region around (x, y) the way recOpenCells did before the
+     * table.
+     */
+    private static void boundsCheckedFill(Cell[][] game, int x, int y) {
+        int width = game.length;
+        int height = game[0].length;
+        int[] stack = new int[width * height];
+        int size = 0;
+        game[x][y].setIsClicked(true);
+        stack[size++] = x * height + y;
+        while (size > 0) {
+            int index = stack[--size];
+            int cx = index / height;
+            int cy = index % height;
+            for (int i = cx - 1; i <= cx + 1; i++) {
+                for (int j = cy - 1; j <= cy + 1; j++) {
+                    if (i < 0 || j < 0 || i >= width || j >= height || game[i][j].getIsClicked()) {
+                        continue;
+                    }
+                    game[i][j].setIsClicked(true);
+                    if (game[i][j].getMineNumber() == 0) {
+                        stack[size++] = i * height + j;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Opens the region around (x, y) with the same loop as recOpenCells.
+     */
+    private static void tableFill(Cell[][] game, NeighbourTable neighbours, int x, int y) {
+        int height = game[0].length;
+        int[] stack = new int[game.length * height];
+        int size = 0;
+        game[x][y].setIsClicked(true);
+        stack[size++] = x * height + y;
+        while (size > 0) {
+            int index = stack[--size];
+            int cx = index / height;
+            int cy = index % height;
+            int c = neighbours.classOf(index);
+            int[] dx = neighbours.dx(c);
+            int[] dy = neighbours.dy(c);
+            int[] deltas = neighbours.deltas(c);
+            for (int k = 0; k < dx.length; k++) {
+                Cell cell = game[cx + dx[k]][cy + dy[k]];
+                if (cell.getIsClicked()) {
+                    continue;
+                }
+                cell.setIsClicked(true);
+                if (cell.getMineNumber() == 0) {
+                    stack[size++] = index + deltas[k];
+                }
+            }
+        }
+    }
+
+    private static Cell[][] board(MineSweeper m, long seed) {
+        Random random = new Random(seed);
+        Cell[][] game = m.gameBoard(0, 0, false);
+        for (Cell[] column : game) {
+            for (Cell c : column) {
+                c.setIsMine(random.nextInt(400) == 0);
+            }
+        }
+        return game;
+    }
+
+    private static void cover(Cell[][] game) {
+        for (Cell[] column : game) {
+            for (Cell c : column) {
+                c.setIsClicked(false);
+            }
+        }
+    }
+
+    public static void main(String[] args) {
+        int width = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int height = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+        MineSweeper m = new MineSweeper(width, height);
+        m.setSaveFile(null);
+        Cell[][] game = board(m, 1);
+        long[] counts = new long[2];
+        long[] fills = new long[2];
+        // the first half of the rounds warms up the JIT and is not measured
+        for (int round = 0; round < ROUNDS * 2; round++) {
+            boolean measured = round >= ROUNDS;
+            long start = System.nanoTime();
+            boundsCheckedCounts(game);
+            long middle = System.nanoTime();
+            m.setAdjacentValues(game);
+            long end = System.nanoTime();
+            if (measured) {
+                counts[0] += middle - start;
+                counts[1] += end - middle;
+            }
+
+            cover(game);
+            start = System.nanoTime();
+            boundsCheckedFill(game, 0, 0);
+            end = System.nanoTime();
+            if (measured) {
+                fills[0] += end - start;
+            }
+            cover(game);
+            start = System.nanoTime();
+            tableFill(game, NeighbourTable.of(Topology.SQUARE, width, height), 0, 0);
+            end = System.nanoTime();
+            if (measured) {
+                fills[1] += end - start;
+            }
+        }
+        System.out.printf("%dx%d board, %d rounds%n", width, height, ROUNDS);
+        System.out.printf("adjacent counts: bounds checked %.2f ms, table %.2f ms%n",
+                counts[0] / 1e6 / ROUNDS, counts[1] / 1e6 / ROUNDS);
+        System.out.printf("flood fill:      bounds checked %.2f ms, table %.2f ms%n",
+                fills[0] / 1e6 / ROUNDS, fills[1] / 1e6 / ROUNDS);
+    }
+}
@@ -0,0 +1,93 @@
+package org.MineSweeperGUI.minesweeper;
+
+import org.MineSweeperGUI.MineSweeper.NeighbourTable;
+import org.MineSweeperGUI.MineSweeper.Topology;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that the NeighbourTable lists the same neighbours as the offset tables
+ */
+public class NeighbourTableTest {
+
+    private static List<Integer> expected(Topology t, int width, int height, int x, int y) {
+        List<Integer> result = new ArrayList<>();
+        int[] dx = t.dx(y);
+        int[] dy = t.dy(y);
+        for (int k = 0; k < dx.length; k++) {
+            int i = x + dx[k];
+            int j = y + dy[k];
+            if (t.wraps()) {
+                i = Math.floorMod(i, width);
+                j = Math.floorMod(j, height);
+            } else if (i < 0 || j < 0 || i >= width || j >= height) {
+                continue;
+            }
+            result.add(i * height + j);
+        }
+        Collections.sort(result);
+        return result;
+    }
+
+    @Test
+    public void testSameNeighboursAsOffsets() {
+        for (Topology t : Topology.values()) {
+            for (int width = t.minDimension(); width < 9; width++) {
+                for (int height = t.minDimension(); height < 9; height++) {
+                    NeighbourTable table = NeighbourTable.of(t, width, height);
+                    for (int x = 0; x < width; x++) {
+                        for (int y = 0; y < height; y++) {
+                            int index = x * height + y;
+                            int c = table.classOf(x, y);
+                            assertEquals(c, table.classOf(index));
+                            List<Integer> actual = new ArrayList<>();
+                            for (int k = 0; k < table.deltas(c).length; k++) {
+                                int n = index + table.deltas(c)[k];
+                                assertEquals(n, (x + table.dx(c)[k]) * height + y + table.dy(c)[k]);
+                                actual.add(n);
+                            }
+                            Collections.sort(actual);
+                            assertEquals(expected(t, width, height, x, y), actual);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testTablesAreCached() {
+        NeighbourTable table = NeighbourTable.of(Topology.SQUARE, 300, 200);
+        assertSame(table, NeighbourTable.of(Topology.SQUARE, 300, 200));
+        assertNotSame(table, NeighbourTable.of(Topology.TORUS, 300, 200));
+        assertEquals(9, table.getClassCount());
+        assertEquals(25, NeighbourTable.of(Topology.KNIGHT, 300, 200).getClassCount());
+    }
+
+    @Test
+    public void testCacheDropsLeastRecentlyUsedTables() {
+        // four tables of 4 MiB each do not fit in the 16 MiB the cache may hold
+        NeighbourTable square = NeighbourTable.of(Topology.SQUARE, 2048, 2048);
+        NeighbourTable torus = NeighbourTable.of(Topology.TORUS, 2048, 2048);
+        assertSame(square, NeighbourTable.of(Topology.SQUARE, 2048, 2048));
+        NeighbourTable.of(Topology.KNIGHT, 2048, 2048);
+        NeighbourTable.of(Topology.HEX, 2048, 2048);
+        assertSame(square, NeighbourTable.of(Topology.SQUARE, 2048, 2048));
+        assertNotSame(torus, NeighbourTable.of(Topology.TORUS, 2048, 2048));
+    }
+
+    @Test
+    public void testTableLargerThanCacheIsNotKept() {
+        NeighbourTable table = NeighbourTable.of(Topology.SQUARE, 5000, 5000);
+        assertNotSame(table, NeighbourTable.of(Topology.SQUARE, 5000, 5000));
+        // the tables already cached are still there
+        NeighbourTable small = NeighbourTable.of(Topology.SQUARE, 30, 20);
+        NeighbourTable.of(Topology.SQUARE, 5000, 5000);
+        assertSame(small, NeighbourTable.of(Topology.SQUARE, 30, 20));
+    }
+}
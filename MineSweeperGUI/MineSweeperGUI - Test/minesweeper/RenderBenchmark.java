@@ -0,0 +1,146 @@
+package org.MineSweeperGUI.minesweeper;
+
+import org.MineSweeperGUI.MineSweeper.Cell;
+import org.MineSweeperGUI.MineSweeper.GameBoard;
+import org.MineSweeperGUI.MineSweeper.MineSweeper;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+/**
+ * Measures the cost of painting the GameBoard. Boards of several sizes are
+ * painted into an offscreen image in headless mode, fresh, half opened, with
+ * every cell flagged and after a mine was hit (which paints through
+ * printBoard), and the frames per second and bytes allocated per frame are
+ * printed for each. Then boards that fill a 3840x2160 screen are painted, at
+ * a scale of 1 with 76x43 cells and at a scale of 2 (a 4K screen with 200%
+ * scaling) with 38x21 cells, and the time of a frame is printed. Run with
+ * main, optionally passing the milliseconds to spend on each case.
+ */
+public class RenderBenchmark {
+
+    private static final int[][] SIZES = { { 10, 10 }, { 16, 16 }, { 30, 16 }, { 40, 40 } };
+    private static final String[] STATES = { "fresh", "mid-game", "all flagged", "game over" };
+    // cells filling a 4K screen, and the scale they are drawn at
+    private static final int[][] SIZES_4K = { { 76, 43, 1 }, { 38, 21, 2 } };
+
+    /**
+     * Sets up a game of the given size in one of the states.
+     */
+    private static Cell[][] setUp(MineSweeper m, String state) {
+        int cells = m.getXDimension() * m.getYDimension();
+        Cell[][] game = m.gameBoard(cells / 7, cells / 6, false);
+        Random random = new Random(1);
+        for (int i = 0; i < game.length; i++) {
+            for (int j = 0; j < game[i].length; j++) {
+                Cell c = game[i][j];
+                if (state.equals("all flagged")) {
+                    c.setIsFlagged(true);
+                } else if (state.equals("mid-game") && random.nextBoolean()) {
+                    if (c.getIsMine()) {
+                        c.setIsFlagged(true);
+                    } else {
+                        c.setIsClicked(true);
+                    }
+                }
+            }
+        }
+        if (state.equals("game over")) {
+            for (int i = 0; i < game.length && m.getStatus() == 0; i++) {
+                for (int j = 0; j < game[i].length && m.getStatus() == 0; j++) {
+                    if (game[i][j].getIsMine()) {
+                        m.play(game, i, j, false);
+                    }
+                }
+            }
+        }
+        return game;
+    }
+
+    /**
+     * Gets the bytes allocated by the current thread so far, if the JVM
+     * reports them.
+     */
+    private static long allocated() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean)
+                    .getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    /**
+     * Paints the board over and over for about the given time.
+     *
+     * @return frames per second and bytes allocated per frame
+     */
+    private static double[] run(GameBoard board, Graphics2D g, long millis) {
+        for (int i = 0; i < 50; i++) {
+            board.paintComponent(g);
+        }
+        int frames = 0;
+        long allocatedBefore = allocated();
+        long start = System.nanoTime();
+        long end = start + millis * 1_000_000;
+        long now = start;
+        while (now < end) {
+            for (int i = 0; i < 10; i++) {
+                board.paintComponent(g);
+            }
+            frames += 10;
+            now = System.nanoTime();
+        }
+        long allocatedAfter = allocated();
+        double seconds = (now - start) / 1e9;
+        double bytes = allocatedBefore < 0 ? Double.NaN
+                : (double) (allocatedAfter - allocatedBefore) / frames;
+        return new double[] { frames / seconds, bytes };
+    }
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        long millis = args.length > 0 ? Long.parseLong(args[0]) : 1000;
+        System.out.printf("%-8s %-12s %12s %16s%n", "board", "state", "frames/s", "bytes/frame");
+        for (int[] size : SIZES) {
+            for (String state : STATES) {
+                MineSweeper m = new MineSweeper(size[0], size[1], 1);
+                m.setSaveFile(null);
+                Cell[][] game = setUp(m, state);
+                GameBoard board = new GameBoard(new JLabel());
+                board.setGame(m, game);
+                Dimension d = board.getPreferredSize();
+                board.setSize(d);
+                BufferedImage image = new BufferedImage(
+                        d.width, d.height, BufferedImage.TYPE_INT_RGB
+                );
+                Graphics2D g = image.createGraphics();
+                double[] result = run(board, g, millis);
+                g.dispose();
+                System.out.printf("%-8s %-12s %12.1f %16.0f%n", size[0] + "x" + size[1], state,
+                        result[0], result[1]);
+            }
+        }
+        System.out.printf("%n%-8s %-6s %-12s %14s%n", "4K board", "scale", "state", "ms/frame");
+        for (int[] size : SIZES_4K) {
+            for (String state : STATES) {
+                MineSweeper m = new MineSweeper(size[0], size[1], 1);
+                m.setSaveFile(null);
+                Cell[][] game = setUp(m, state);
+                GameBoard board = new GameBoard(new JLabel());
+                board.setGame(m, game);
+                board.setSize(board.getPreferredSize());
+                BufferedImage image = new BufferedImage(3840, 2160, BufferedImage.TYPE_INT_RGB);
+                Graphics2D g = image.createGraphics();
+                g.scale(size[2], size[2]);
+                double[] result = run(board, g, millis);
+                g.dispose();
+                System.out.printf("%-8s %-6d %-12s %14.2f%n", size[0] + "x" + size[1], size[2],
+                        state, 1000 / result[0]);
+            }
+        }
+    }
+}
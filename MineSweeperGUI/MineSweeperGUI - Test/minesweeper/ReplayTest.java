@@ -0,0 +1,165 @@
+package org.MineSweeperGUI.minesweeper;
+
+import org.MineSweeperGUI.MineSweeper.Cell;
+import org.MineSweeperGUI.MineSweeper.GameHistory;
+import org.MineSweeperGUI.MineSweeper.GameRecord;
+import org.MineSweeperGUI.MineSweeper.MineSweeper;
+import org.MineSweeperGUI.MineSweeper.Replay;
+import org.MineSweeperGUI.MineSweeper.Topology;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for replaying recorded games
+ */
+public class ReplayTest {
+
+    @TempDir
+    File dir;
+
+    private static String state(Cell[][] game) {
+        StringBuilder sb = new StringBuilder();
+        for (Cell[] column : game) {
+            for (Cell c : column) {
+                sb.append(c.getIsClicked() ? 'o' : c.getIsFlagged() ? 'f' : '.');
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Plays a long game of flags and reveals, keeping the board after every
+     * move, and returns its record from the history.
+     */
+    private GameRecord playGame(Topology topology, long seed, List<String> states)
+            throws IOException {
+        GameHistory history = new GameHistory(new File(dir, topology + "-" + seed));
+        MineSweeper m = new MineSweeper(10, 10, seed, topology);
+        m.setSaveFile(null);
+        m.setHistory(history);
+        Cell[][] game = m.gameBoard(12, 15, false);
+        states.add(state(game));
+        Random random = new Random(seed);
+        while (m.getStatus() == 0) {
+            int x = random.nextInt(10);
+            int y = random.nextInt(10);
+            int before = m.getMoveCounter();
+            if (states.size() > 150 && game[x][y].getIsMine()) {
+                if (game[x][y].getIsFlagged()) {
+                    m.play(game, x, y, true);
+                    states.add(state(game));
+                }
+                m.play(game, x, y, false);
+            } else if (game[x][y].getIsMine() || random.nextInt(4) != 0) {
+                m.play(game, x, y, true);
+            } else if (game[x][y].getIsClicked()) {
+                m.chord(game, x, y);
+            } else if (!game[x][y].getIsFlagged()) {
+                m.play(game, x, y, false);
+            }
+            if (m.getMoveCounter() != before) {
+                states.add(state(game));
+            }
+        }
+        List<GameRecord> records = new ArrayList<>();
+        history.scan(records::add);
+        assertEquals(1, records.size());
+        return records.get(0);
+    }
+
+    @Test
+    public void testSeeksMatchThePlayedGame() throws IOException {
+        for (Topology topology : Topology.values()) {
+            List<String> states = new ArrayList<>();
+            GameRecord record = playGame(topology, 7 + topology.ordinal(), states);
+            Replay replay = new Replay(record);
+            assertEquals(states.size() - 1, replay.getLength());
+            assertEquals(replay.getLength(), replay.getPosition());
+            assertEquals(states.get(replay.getLength()), state(replay.getGame()));
+            Random random = new Random(3);
+            for (int i = 0; i < 300; i++) {
+                int target = random.nextInt(replay.getLength() + 1);
+                replay.seek(target);
+                assertEquals(target, replay.getPosition());
+                assertEquals(states.get(target), state(replay.getGame()), topology + " " + target);
+                assertTrue(replay.getDeltasApplied() <= Replay.CHECKPOINT_INTERVAL / 2);
+            }
+            replay.seek(0);
+            for (int i = 1; i <= replay.getLength(); i++) {
+                assertTrue(replay.step(true));
+                assertEquals(states.get(i), state(replay.getGame()));
+            }
+            assertFalse(replay.step(true));
+        }
+    }
+
+    @Test
+    public void testModelReportsThePosition() throws IOException {
+        List<String> states = new ArrayList<>();
+        GameRecord record = playGame(Topology.SQUARE, 11, states);
+        Replay replay = new Replay(record);
+        MineSweeper model = replay.getModel();
+        assertEquals(record.getStatus(), model.getStatus());
+        assertEquals(record.getMoveCount(), model.getMoveCounter());
+        replay.seek(0);
+        assertEquals(0, model.getStatus());
+        assertEquals(0, model.getMoveCounter());
+        replay.seek(5);
+        assertEquals(5, model.getMoveCounter());
+        // moves played on the model of a replay are ignored
+        String before = state(replay.getGame());
+        model.play(replay.getGame(), 0, 0, true);
+        assertEquals(before, state(replay.getGame()));
+        assertEquals(0, replay.positionAt(-1));
+        assertEquals(record.getMoveCount(), replay.positionAt(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testForeignRecordIsRejected() {
+        // a mine click on a cell that is not a mine on the board of the seed
+        MineSweeper m = new MineSweeper(10, 10, 5);
+        m.setSaveFile(null);
+        Cell[][] game = m.gameBoard(12, 15, false);
+        int safe = 0;
+        while (game[safe / 10][safe % 10].getIsMine()) {
+            safe++;
+        }
+        GameRecord record = new GameRecord(0, 5, Topology.SQUARE, 10, 10, m.getNumMines(), 2,
+                1, 0, 1, MineSweeper.SAFE_START_OFF, "Classic", new int[] { 2 },
+                new int[] { safe }, new int[] { 100 });
+        assertThrows(IllegalArgumentException.class, () -> new Replay(record));
+    }
+
+    @Test
+    public void testSafeStartOpeningIsReplayed() throws IOException {
+        // a first click next to mines clears more than the clicked cell, which
+        // an opening start does and a cell start does not
+        for (long seed = 0; seed < 20; seed++) {
+            GameHistory history = new GameHistory(new File(dir, "opening-" + seed));
+            MineSweeper m = new MineSweeper(10, 10, seed);
+            m.setSaveFile(null);
+            m.setHistory(history);
+            m.setSafeStart(MineSweeper.SAFE_START_OPENING);
+            Cell[][] game = m.gameBoard(12, 15, false);
+            Random random = new Random(seed);
+            while (m.getStatus() == 0) {
+                m.play(game, random.nextInt(10), random.nextInt(10), false);
+            }
+            List<GameRecord> records = new ArrayList<>();
+            history.scan(records::add);
+            GameRecord record = records.get(0);
+            assertEquals(MineSweeper.SAFE_START_OPENING, record.getSafeStart());
+            Replay replay = new Replay(record);
+            assertEquals(state(game), state(replay.getGame()), "seed " + seed);
+            assertEquals(m.getStatus(), replay.getModel().getStatus());
+        }
+    }
+}
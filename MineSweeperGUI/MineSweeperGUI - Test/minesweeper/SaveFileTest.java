@@ -0,0 +1,196 @@
+package org.MineSweeperGUI.minesweeper;
+
+import org.MineSweeperGUI.MineSweeper.Cell;
+import org.MineSweeperGUI.MineSweeper.MineSweeper;
+import org.MineSweeperGUI.MineSweeper.SaveFile;
+import org.MineSweeperGUI.MineSweeper.Topology;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the checksummed save file
+ */
+public class SaveFileTest {
+
+    @TempDir
+    File dir;
+
+    /**
+     * Plays a few safe cells of a seeded game and saves it.
+     */
+    private Cell[][] savedGame(File save, long seed) {
+        MineSweeper m = new MineSweeper(16, 12, seed, Topology.TORUS);
+        m.setSaveFile(save);
+        Cell[][] game = m.gameBoard(30, 31, false);
+        int played = 0;
+        for (int i = 0; i < 16 && played < 5; i++) {
+            for (int j = 0; j < 12 && played < 5; j++) {
+                if (!game[i][j].getIsMine() && !game[i][j].getIsClicked()
+                        && game[i][j].getMineNumber() > 0) {
+                    m.play(game, i, j, false);
+                    played++;
+                }
+            }
+        }
+        int mine = 0;
+        while (!game[15 - mine / 12][mine % 12].getIsMine()) {
+            mine++;
+        }
+        m.play(game, 15 - mine / 12, mine % 12, true);
+        return game;
+    }
+
+    private static MineSweeper loader(File save) {
+        MineSweeper m = new MineSweeper(16, 12, 99, Topology.TORUS);
+        m.setSaveFile(save);
+        return m;
+    }
+
+    private static void assertSameBoard(Cell[][] expected, Cell[][] actual) {
+        for (int i = 0; i < expected.length; i++) {
+            for (int j = 0; j < expected[i].length; j++) {
+                assertEquals(expected[i][j].getIsMine(), actual[i][j].getIsMine());
+                assertEquals(expected[i][j].getMineNumber(), actual[i][j].getMineNumber());
+                assertEquals(expected[i][j].getIsClicked(), actual[i][j].getIsClicked());
+                assertEquals(expected[i][j].getIsFlagged(), actual[i][j].getIsFlagged());
+            }
+        }
+    }
+
+    private static void rewriteLine(File f, int line, String replacement) throws IOException {
+        List<String> lines = Files.readAllLines(f.toPath(), StandardCharsets.ISO_8859_1);
+        lines.set(line, replacement.replace("$", lines.get(line)));
+        Files.write(f.toPath(), lines, StandardCharsets.ISO_8859_1);
+    }
+
+    @Test
+    public void testRoundTrip() {
+        File save = new File(dir, "save.csv");
+        Cell[][] game = savedGame(save, 21);
+        MineSweeper m = loader(save);
+        Cell[][] loaded = m.gameBoard(12, 15, true);
+        assertSameBoard(game, loaded);
+        assertEquals(6, m.getMoveCounter());
+        assertEquals(SaveFile.OK, m.getLoadReport().getResult());
+        assertEquals(6, m.getLoadReport().getBlocks());
+        assertTrue(m.getLoadReport().getNanos() > 0);
+        assertEquals(Topology.TORUS, SaveFile.readTopology(save));
+    }
+
+    @Test
+    public void testDamagedBlockIsRebuiltFromTheSeed() throws IOException {
+        File save = new File(dir, "save.csv");
+        Cell[][] game = savedGame(save, 22);
+        // flips a character in the first block, whose checksum no longer fits
+        rewriteLine(save, 1, "$");
+        List<String> lines = Files.readAllLines(save.toPath(), StandardCharsets.ISO_8859_1);
+        char[] block = lines.get(1).toCharArray();
+        block[5] = block[5] == '0' ? '1' : '0';
+        lines.set(1, new String(block));
+        Files.write(save.toPath(), lines, StandardCharsets.ISO_8859_1);
+
+        MineSweeper m = loader(save);
+        Cell[][] loaded = m.recreateGame();
+        assertNotNull(loaded);
+        assertEquals(SaveFile.REPAIRED, m.getLoadReport().getResult());
+        assertEquals(1, m.getLoadReport().getDamaged());
+        for (int i = 0; i < 16; i++) {
+            for (int j = 0; j < 12; j++) {
+                assertEquals(game[i][j].getIsMine(), loaded[i][j].getIsMine());
+                assertEquals(game[i][j].getMineNumber(), loaded[i][j].getMineNumber());
+                if (i * 12 + j < SaveFile.BLOCK_CELLS) {
+                    // progress in the damaged block is lost
+                    assertFalse(loaded[i][j].getIsClicked());
+                } else {
+                    assertEquals(game[i][j].getIsClicked(), loaded[i][j].getIsClicked());
+                    assertEquals(game[i][j].getIsFlagged(), loaded[i][j].getIsFlagged());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testTruncatedSaveIsRepaired() throws IOException {
+        File save = new File(dir, "save.csv");
+        Cell[][] game = savedGame(save, 23);
+        byte[] bytes = Files.readAllBytes(save.toPath());
+        Files.write(save.toPath(), Arrays.copyOf(bytes, bytes.length - 40));
+        MineSweeper m = loader(save);
+        Cell[][] loaded = m.recreateGame();
+        assertEquals(SaveFile.REPAIRED, m.getLoadReport().getResult());
+        assertEquals(1, m.getLoadReport().getDamaged());
+        assertEquals(game[0][0].getIsClicked(), loaded[0][0].getIsClicked());
+    }
+
+    @Test
+    public void testDamagedHeaderStartsANewGame() throws IOException {
+        File save = new File(dir, "save.csv");
+        savedGame(save, 24);
+        rewriteLine(save, 0, "$0");
+        MineSweeper m = loader(save);
+        assertNull(m.recreateGame());
+        assertEquals(SaveFile.REJECTED, m.getLoadReport().getResult());
+        assertNull(SaveFile.readTopology(save));
+        Cell[][] fresh = m.gameBoard(12, 15, true);
+        assertNotNull(fresh);
+        assertEquals(0, m.getMoveCounter());
+    }
+
+    @Test
+    public void testBoardNotFromItsSeedCannotBeRepaired() throws IOException {
+        File save = new File(dir, "save.csv");
+        MineSweeper m = new MineSweeper(10, 10, 3);
+        m.setSaveFile(save);
+        Cell[][] ms = m.gameBoard(0, 0, false);
+        ms[7][9].setIsMine(true);
+        ms[9][9].setIsMine(true);
+        m.setAdjacentValues(ms);
+        m.writeToCSV(ms);
+        rewriteLine(save, 2, "x$");
+        MineSweeper other = new MineSweeper(10, 10, 3);
+        other.setSaveFile(save);
+        assertNull(other.recreateGame());
+        assertEquals("damaged beyond repair", other.getLoadReport().getReason());
+    }
+
+    @Test
+    public void testOldFormatIsStillRead() throws IOException {
+        File save = new File(dir, "save.csv");
+        StringBuilder sb = new StringBuilder();
+        for (int y = 0; y < 10; y++) {
+            for (int x = 0; x < 10; x++) {
+                sb.append(x == 9 && y == 9 ? "-1@" : x < 2 ? "0" : "0~");
+                if (x < 9) {
+                    sb.append(',');
+                }
+            }
+            sb.append('\n');
+        }
+        sb.append("4,1,30,0");
+        Files.write(save.toPath(), sb.toString().getBytes(StandardCharsets.ISO_8859_1));
+        MineSweeper m = new MineSweeper(10, 10, 3);
+        m.setSaveFile(save);
+        Cell[][] game = m.recreateGame();
+        assertEquals(SaveFile.LEGACY, m.getLoadReport().getResult());
+        assertTrue(game[9][9].getIsMine());
+        assertTrue(game[9][9].getIsFlagged());
+        assertTrue(game[1][5].getIsClicked());
+        assertFalse(game[2][5].getIsClicked());
+        assertEquals(4, m.getMoveCounter());
+        assertEquals(1, m.getMinutes());
+
+        // a cut off old save is rejected instead of half loaded
+        Files.write(save.toPath(), sb.substring(0, 50).getBytes(StandardCharsets.ISO_8859_1));
+        assertNull(m.recreateGame());
+        assertEquals(SaveFile.REJECTED, m.getLoadReport().getResult());
+    }
+}
@@ -0,0 +1,122 @@
+package org.MineSweeperGUI.minesweeper;
+
+import org.MineSweeperGUI.MineSweeper.Cell;
+import org.MineSweeperGUI.MineSweeper.MineSweeper;
+import org.MineSweeperGUI.MineSweeper.SaveSlots;
+import org.MineSweeperGUI.MineSweeper.Topology;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the save slots and their index
+ */
+public class SaveSlotsTest {
+
+    @TempDir
+    File dir;
+
+    /**
+     * Plays the first safe cell with a number of a seeded game saved to a slot.
+     */
+    private static Cell[][] play(MineSweeper m, SaveSlots slots, String name) {
+        m.setSaveSlot(slots, name);
+        Cell[][] game = m.gameBoard(20, 21, false);
+        for (int i = 0; i < m.getXDimension(); i++) {
+            for (int j = 0; j < m.getYDimension(); j++) {
+                if (!game[i][j].getIsMine() && game[i][j].getMineNumber() > 0) {
+                    m.play(game, i, j, false);
+                    return game;
+                }
+            }
+        }
+        return game;
+    }
+
+    @Test
+    public void testSlotsAreIndexed() {
+        SaveSlots slots = new SaveSlots(dir);
+        MineSweeper first = new MineSweeper(12, 10, 5, Topology.HEX);
+        play(first, slots, "first");
+        MineSweeper second = new MineSweeper(10, 10, 6);
+        play(second, slots, "second");
+
+        // a new instance sees both slots from the index alone
+        List<SaveSlots.Slot> list = new SaveSlots(dir).list();
+        assertEquals(2, list.size());
+        SaveSlots.Slot slot = list.get(0).getName().equals("first") ? list.get(0) : list.get(1);
+        assertEquals(Topology.HEX, slot.getTopology());
+        assertEquals(12, slot.getXDimension());
+        assertEquals(10, slot.getYDimension());
+        assertEquals(1, slot.getMoves());
+        assertEquals(slots.file("first").length(), slot.getBytes());
+        assertEquals(1.0 / (12 * 10 - 20), slot.getProgress(), 1e-9);
+    }
+
+    @Test
+    public void testLoadFromSlot() {
+        SaveSlots slots = new SaveSlots(dir);
+        MineSweeper m = new MineSweeper(10, 10, 7);
+        Cell[][] game = play(m, slots, "game");
+        play(new MineSweeper(10, 10, 8), slots, "other");
+
+        MineSweeper loaded = new MineSweeper(10, 10, 1);
+        loaded.setSaveSlot(new SaveSlots(dir), "game");
+        Cell[][] again = loaded.gameBoard(12, 15, true);
+        assertEquals(1, loaded.getMoveCounter());
+        for (int i = 0; i < 10; i++) {
+            for (int j = 0; j < 10; j++) {
+                assertEquals(game[i][j].getIsMine(), again[i][j].getIsMine());
+                assertEquals(game[i][j].getIsClicked(), again[i][j].getIsClicked());
+            }
+        }
+    }
+
+    @Test
+    public void testFinishedGameLeavesIndex() {
+        SaveSlots slots = new SaveSlots(dir);
+        MineSweeper m = new MineSweeper(10, 10, 9);
+        Cell[][] game = play(m, slots, "lost");
+        assertEquals(1, slots.list().size());
+        File save = slots.file("lost");
+        assertTrue(save.exists());
+        int mine = 0;
+        while (!game[mine / 10][mine % 10].getIsMine()) {
+            mine++;
+        }
+        m.play(game, mine / 10, mine % 10, false);
+        assertEquals(2, m.getStatus());
+        assertFalse(save.exists());
+        assertTrue(new SaveSlots(dir).list().isEmpty());
+    }
+
+    @Test
+    public void testIndexIsRebuiltAndLegacySavesImported() {
+        SaveSlots slots = new SaveSlots(dir);
+        play(new MineSweeper(10, 10, 10), slots, "kept");
+        assertTrue(new File(dir, "index.csv").delete());
+
+        File legacy = new File(dir.getParentFile(), dir.getName() + "-moves.csv");
+        MineSweeper old = new MineSweeper(10, 10, 11, Topology.TORUS);
+        old.setSaveFile(legacy);
+        Cell[][] game = old.gameBoard(20, 21, false);
+        old.play(game, 0, 0, true);
+
+        SaveSlots rebuilt = new SaveSlots(dir);
+        assertTrue(rebuilt.importSave(legacy, "moves"));
+        assertFalse(legacy.exists());
+        List<SaveSlots.Slot> list = rebuilt.list();
+        assertEquals(2, list.size());
+        for (SaveSlots.Slot slot : list) {
+            assertEquals(1, slot.getMoves());
+            assertEquals(slot.getName().equals("moves") ? Topology.TORUS : Topology.SQUARE,
+                    slot.getTopology());
+        }
+        assertTrue(rebuilt.delete("kept"));
+        assertEquals(1, new SaveSlots(dir).list().size());
+    }
+}
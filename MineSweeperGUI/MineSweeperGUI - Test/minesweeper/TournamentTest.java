@@ -0,0 +1,75 @@
+package org.MineSweeperGUI.minesweeper;
+
+import org.MineSweeperGUI.MineSweeper.Cell;
+import org.MineSweeperGUI.MineSweeper.MineSweeper;
+import org.MineSweeperGUI.MineSweeper.RandomStrategy;
+import org.MineSweeperGUI.MineSweeper.SinglePointStrategy;
+import org.MineSweeperGUI.MineSweeper.Strategy;
+import org.MineSweeperGUI.MineSweeper.Topology;
+import org.MineSweeperGUI.MineSweeper.Tournament;
+import org.MineSweeperGUI.MineSweeper.VisibleBoard;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for bots and the tournament harness
+ */
+public class TournamentTest {
+
+    @Test
+    public void testVisibleBoardIsLiveAndHidesMines() {
+        MineSweeper m = new MineSweeper(10, 10, 3);
+        m.setSaveFile(null);
+        Cell[][] game = m.gameBoard(12, 15, false);
+        VisibleBoard view = new VisibleBoard(m, game);
+        for (int i = 0; i < 10; i++) {
+            for (int j = 0; j < 10; j++) {
+                assertEquals(VisibleBoard.COVERED, view.get(i, j));
+            }
+        }
+        int x = 0;
+        while (game[x][0].getIsMine()) {
+            x++;
+        }
+        m.play(game, x, 0, false);
+        assertTrue(view.isOpened(x, 0));
+        assertEquals(game[x][0].getMineNumber(), view.get(x, 0));
+        m.play(game, 9, 9, true);
+        if (!game[9][9].getIsClicked()) {
+            assertEquals(VisibleBoard.FLAGGED, view.get(9, 9));
+        }
+        assertEquals(m.getMoveCounter(), view.getMoveCounter());
+    }
+
+    @Test
+    public void testSameSeedsGiveSameResults() throws InterruptedException {
+        Tournament t = new Tournament(Topology.SQUARE, 10, 10, 12, 15)
+                .add("random", RandomStrategy::new)
+                .add("single-point", SinglePointStrategy::new);
+        List<Tournament.Result> first = t.run(200, 9, 4);
+        List<Tournament.Result> second = t.run(200, 9, 1);
+        assertEquals(2, first.size());
+        for (int i = 0; i < first.size(); i++) {
+            assertEquals(first.get(i).getName(), second.get(i).getName());
+            assertEquals(first.get(i).getWins(), second.get(i).getWins());
+            assertEquals(first.get(i).getAverageMoves(), second.get(i).getAverageMoves());
+            assertEquals(200, first.get(i).getGames());
+            assertTrue(first.get(i).getLatency(50) <= first.get(i).getLatency(99));
+        }
+        // deducing beats guessing on the same boards
+        assertTrue(first.get(1).getWinRate() > first.get(0).getWinRate());
+    }
+
+    @Test
+    public void testStrategyThatGivesUpEndsItsGame() throws InterruptedException {
+        Strategy idle = board -> null;
+        Tournament.Result r = new Tournament(Topology.HEX, 8, 8, 5, 6)
+                .add("idle", seed -> idle).run(10, 1, 2).get(0);
+        assertEquals(0, r.getWins());
+        assertEquals(0, r.getAverageMoves());
+        assertTrue(r.getLatency(100) >= 0);
+    }
+}
@@ -0,0 +1,123 @@
+package org.MineSweeperGUI.minesweeper;
+
+import org.MineSweeperGUI.MineSweeper.BitBoardMineSweeper;
+import org.MineSweeperGUI.MineSweeper.Cell;
+import org.MineSweeperGUI.MineSweeper.MineSweeper;
+import org.MineSweeperGUI.MineSweeper.MineSweeperEngine;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Differential tests checking the BitBoardMineSweeper against MineSweeper on
+ * randomly seeded boards and moves
+ */
+public class BitBoardMineSweeperTest {
+
+    private static void assertSameBoard(Cell[][] game, BitBoardMineSweeper b) {
+        for (int i = 0; i < game.length; i++) {
+            for (int j = 0; j < game[0].length; j++) {
+                assertEquals(game[i][j].getIsMine(), b.isMine(i, j));
+                assertEquals(game[i][j].getMineNumber(), b.getMineNumber(i, j));
+                assertEquals(game[i][j].getIsClicked(), b.isClicked(i, j));
+                assertEquals(game[i][j].getIsFlagged(), b.isFlagged(i, j));
+            }
+        }
+    }
+
+    @Test
+    public void testSameBoardFromSeed() {
+        int[][] sizes = { { 10, 10 }, { 64, 64 }, { 65, 30 }, { 130, 7 }, { 1, 1 } };
+        for (int[] size : sizes) {
+            for (long seed = 0; seed < 10; seed++) {
+                int cells = size[0] * size[1];
+                MineSweeper m = new MineSweeper(size[0], size[1], seed);
+                Cell[][] game = m.gameBoard(cells / 10, cells / 5 + 1, false);
+                BitBoardMineSweeper b = new BitBoardMineSweeper(
+                        size[0], size[1], seed, cells / 10, cells / 5 + 1
+                );
+                assertSameBoard(game, b);
+            }
+        }
+    }
+
+    @Test
+    public void testSameGameForRandomMoves() {
+        int[][] sizes = { { 10, 10 }, { 70, 40 }, { 128, 128 }, { 200, 3 } };
+        for (int[] size : sizes) {
+            for (long seed = 0; seed < 25; seed++) {
+                int cells = size[0] * size[1];
+                MineSweeper m = new MineSweeper(size[0], size[1], seed);
+                m.setSaveFile(null);
+                Cell[][] game = m.gameBoard(cells / 12, cells / 8, false);
+                BitBoardMineSweeper b = new BitBoardMineSweeper(
+                        size[0], size[1], seed, cells / 12, cells / 8
+                );
+                Random moves = new Random(seed);
+                for (int k = 0; k < 200 && m.getStatus() == 0; k++) {
+                    int x = moves.nextInt(size[0]);
+                    int y = moves.nextInt(size[1]);
+                    boolean isRight = game[x][y].getIsMine() ? moves.nextInt(4) != 0
+                            : moves.nextInt(5) == 0;
+                    m.play(game, x, y, isRight);
+                    b.play(x, y, isRight);
+                    assertEquals(m.getStatus(), b.getStatus());
+                    assertEquals(m.getMoveCounter(), b.getMoveCounter());
+                }
+                assertSameBoard(game, b);
+            }
+        }
+    }
+
+    @Test
+    public void testFromCells() {
+        MineSweeper m = new MineSweeper();
+        m.setSaveFile(null);
+        Cell[][] ms = m.gameBoard(0, 0, false);
+        ms[7][9].setIsMine(true);
+        ms[9][9].setIsMine(true);
+        m.setAdjacentValues(ms);
+        BitBoardMineSweeper b = BitBoardMineSweeper.fromCells(ms);
+        m.play(ms, 0, 0, false);
+        b.play(0, 0, false);
+        assertSameBoard(ms, b);
+        assertFalse(b.isClicked(8, 9));
+    }
+
+    @Test
+    public void testSameGameThroughEngineInterface() {
+        for (long seed = 0; seed < 40; seed++) {
+            MineSweeper m = new MineSweeper(70, 40, seed);
+            m.setSaveFile(null);
+            m.gameBoard(300, 400, false);
+            MineSweeperEngine[] engines = {
+                    m, new BitBoardMineSweeper(70, 40, seed, 300, 400)
+            };
+            Random moves = new Random(seed);
+            for (int k = 0; k < 400 && m.getStatus() == 0; k++) {
+                int x = moves.nextInt(70);
+                int y = moves.nextInt(40);
+                int kind = m.isClicked(x, y) ? 2 : m.isMine(x, y) ? moves.nextInt(8) == 0 ? 0 : 1
+                        : moves.nextInt(6) == 0 ? 1 : 0;
+                for (MineSweeperEngine e : engines) {
+                    if (kind == 2) {
+                        e.chord(x, y);
+                    } else {
+                        e.play(x, y, kind == 1);
+                    }
+                }
+                assertEquals(m.getStatus(), engines[1].getStatus());
+                assertEquals(m.getMoveCounter(), engines[1].getMoveCounter());
+            }
+            for (int i = 0; i < 70; i++) {
+                for (int j = 0; j < 40; j++) {
+                    assertEquals(m.isClicked(i, j), engines[1].isClicked(i, j));
+                    assertEquals(m.isFlagged(i, j), engines[1].isFlagged(i, j));
+                    assertEquals(m.getMineNumber(i, j), engines[1].getMineNumber(i, j));
+                }
+            }
+        }
+    }
+}
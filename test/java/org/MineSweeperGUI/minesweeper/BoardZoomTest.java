@@ -0,0 +1,86 @@
+package org.MineSweeperGUI.minesweeper;
+
+import org.MineSweeperGUI.MineSweeper.Cell;
+import org.MineSweeperGUI.MineSweeper.GameBoard;
+import org.MineSweeperGUI.MineSweeper.MineSweeper;
+import org.MineSweeperGUI.MineSweeper.Topology;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.JLabel;
+import java.awt.Dimension;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseListener;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for finding the cell under a click on a zoomed board
+ */
+public class BoardZoomTest {
+
+    @AfterEach
+    public void clearZoom() {
+        System.clearProperty("minesweeper.zoom");
+    }
+
+    private static GameBoard board(String zoom, MineSweeper m, Cell[][] game) {
+        System.setProperty("minesweeper.zoom", zoom);
+        GameBoard board = new GameBoard(new JLabel());
+        board.setGame(m, game);
+        return board;
+    }
+
+    private static void rightClick(GameBoard board, int px, int py) {
+        MouseEvent e = new MouseEvent(board, MouseEvent.MOUSE_RELEASED, 0, 0, px, py, 1,
+                false, MouseEvent.BUTTON3);
+        for (MouseListener l : board.getMouseListeners()) {
+            l.mouseReleased(e);
+        }
+    }
+
+    @Test
+    public void testClicksAreScaledBackToCells() {
+        MineSweeper m = new MineSweeper(10, 10, 3);
+        m.setSaveFile(null);
+        Cell[][] game = m.gameBoard(12, 15, false);
+        GameBoard board = board("2", m, game);
+        assertEquals(new Dimension(1000, 1000), board.getPreferredSize());
+        // the first and last screen pixels of cell (3, 4)
+        rightClick(board, 300, 400);
+        assertTrue(game[3][4].getIsFlagged());
+        rightClick(board, 399, 499);
+        assertFalse(game[3][4].getIsFlagged());
+        // the first pixel past it is the next cell
+        rightClick(board, 400, 500);
+        assertTrue(game[4][5].getIsFlagged());
+    }
+
+    @Test
+    public void testFractionalZoom() {
+        MineSweeper m = new MineSweeper(10, 10, 3);
+        m.setSaveFile(null);
+        Cell[][] game = m.gameBoard(12, 15, false);
+        GameBoard board = board("1.5", m, game);
+        assertEquals(new Dimension(750, 750), board.getPreferredSize());
+        rightClick(board, 74, 75);
+        assertTrue(game[0][1].getIsFlagged());
+        rightClick(board, 749, 749);
+        assertTrue(game[9][9].getIsFlagged());
+    }
+
+    @Test
+    public void testShiftedHexRowsAtZoom() {
+        MineSweeper m = new MineSweeper(10, 10, 3, Topology.HEX);
+        m.setSaveFile(null);
+        Cell[][] game = m.gameBoard(12, 15, false);
+        GameBoard board = board("2", m, game);
+        int shifted = (int) (Topology.HEX.rowShift(1) * 100);
+        assertEquals(1050, board.getPreferredSize().width);
+        // in a shifted row the cell starts the shift further right
+        rightClick(board, 200 + shifted, 100);
+        assertTrue(game[2][1].getIsFlagged());
+        rightClick(board, 200 + shifted - 1, 100);
+        assertTrue(game[1][1].getIsFlagged());
+    }
+}
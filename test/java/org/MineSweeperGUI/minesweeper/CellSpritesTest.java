@@ -0,0 +1,129 @@
+package org.MineSweeperGUI.minesweeper;
+
+import org.MineSweeperGUI.MineSweeper.Cell;
+import org.MineSweeperGUI.MineSweeper.GameBoard;
+import org.MineSweeperGUI.MineSweeper.MineSweeper;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.JLabel;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the cell images the board is painted from
+ */
+public class CellSpritesTest {
+
+    private static final int COVERED = Color.BLUE.getRGB();
+    private static final int OPENED = Color.LIGHT_GRAY.getRGB();
+
+    private static BufferedImage paint(GameBoard board, double scale) {
+        BufferedImage image = new BufferedImage((int) (510 * scale), (int) (510 * scale),
+                BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.scale(scale, scale);
+        board.paintComponent(g);
+        g.dispose();
+        return image;
+    }
+
+    private static int firstSafe(Cell[][] game) {
+        for (int i = 0; i < 100; i++) {
+            if (!game[i / 10][i % 10].getIsMine()) {
+                return i;
+            }
+        }
+        throw new AssertionError("No safe cell");
+    }
+
+    @Test
+    public void testCellsArePaintedByKind() {
+        MineSweeper m = new MineSweeper(10, 10, 3);
+        m.setSaveFile(null);
+        Cell[][] game = m.gameBoard(12, 15, false);
+        int safe = firstSafe(game);
+        m.play(game, safe / 10, safe % 10, false);
+        GameBoard board = new GameBoard(new JLabel());
+        board.setGame(m, game);
+        board.setSize(board.getPreferredSize());
+        BufferedImage image = paint(board, 1);
+        for (int i = 0; i < 10; i++) {
+            for (int j = 0; j < 10; j++) {
+                // a corner inside the cell, clear of numbers and flags
+                int rgb = image.getRGB(i * 50 + 6, j * 50 + 6);
+                assertEquals(game[i][j].getIsClicked() ? OPENED : COVERED, rgb, i + "," + j);
+            }
+        }
+    }
+
+    @Test
+    public void testCellsAreDrawnAtTheScaleOfTheGraphics() {
+        MineSweeper m = new MineSweeper(10, 10, 3);
+        m.setSaveFile(null);
+        Cell[][] game = m.gameBoard(12, 15, false);
+        GameBoard board = new GameBoard(new JLabel());
+        board.setGame(m, game);
+        board.setSize(board.getPreferredSize());
+        BufferedImage once = paint(board, 1);
+        BufferedImage twice = paint(board, 2);
+        // the border is one device pixel wide at every scale, and the cell
+        // starts right after it
+        assertEquals(Color.BLACK.getRGB(), twice.getRGB(100, 120));
+        assertEquals(COVERED, twice.getRGB(109, 120));
+        assertEquals(COVERED, once.getRGB(55, 60));
+        assertNotEquals(COVERED, twice.getRGB(104, 120));
+    }
+
+    @Test
+    public void testImagesAreDrawnAgainOnANewBackground() {
+        MineSweeper m = new MineSweeper(10, 10, 3);
+        m.setSaveFile(null);
+        Cell[][] game = m.gameBoard(12, 15, false);
+        GameBoard board = new GameBoard(new JLabel());
+        board.setGame(m, game);
+        board.setSize(board.getPreferredSize());
+        board.setBackground(Color.GREEN);
+        assertEquals(Color.GREEN.getRGB(), paint(board, 1).getRGB(52, 52));
+        board.setBackground(Color.PINK);
+        assertEquals(Color.PINK.getRGB(), paint(board, 1).getRGB(52, 52));
+    }
+
+    @Test
+    public void testPrintBoardDrawsTheGivenBoard() {
+        MineSweeper m = new MineSweeper(10, 10, 3);
+        m.setSaveFile(null);
+        Cell[][] game = m.gameBoard(12, 15, false);
+        MineSweeper other = new MineSweeper(10, 10, 4);
+        other.setSaveFile(null);
+        Cell[][] otherGame = other.gameBoard(12, 15, false);
+
+        GameBoard board = new GameBoard(new JLabel());
+        board.setGame(m, game);
+        GameBoard shown = new GameBoard(new JLabel());
+        shown.setGame(m, otherGame);
+        BufferedImage printed = new BufferedImage(510, 510, BufferedImage.TYPE_INT_RGB);
+        BufferedImage expected = new BufferedImage(510, 510, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = printed.createGraphics();
+        board.printBoard(otherGame, g);
+        g.dispose();
+        g = expected.createGraphics();
+        shown.printBoard(otherGame, g);
+        g.dispose();
+        for (int x = 0; x < 510; x++) {
+            for (int y = 0; y < 510; y++) {
+                assertEquals(expected.getRGB(x, y), printed.getRGB(x, y), x + "," + y);
+            }
+        }
+        // and not the board the model is playing
+        int mine = 0;
+        while (!otherGame[mine / 10][mine % 10].getIsMine()
+                || game[mine / 10][mine % 10].getIsMine()) {
+            mine++;
+        }
+        assertEquals(Color.RED.getRGB(), printed.getRGB(mine / 10 * 50 + 27,
+                mine % 10 * 50 + 27));
+    }
+}
@@ -0,0 +1,142 @@
+package org.MineSweeperGUI.minesweeper;
+
+import org.MineSweeperGUI.MineSweeper.Cell;
+import org.MineSweeperGUI.MineSweeper.GameEvent;
+import org.MineSweeperGUI.MineSweeper.GameListener;
+import org.MineSweeperGUI.MineSweeper.MineSweeper;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the events sent by the game engine
+ */
+public class GameEventTest {
+
+    private static int countOpened(Cell[][] game) {
+        int opened = 0;
+        for (Cell[] column : game) {
+            for (Cell c : column) {
+                if (c.getIsClicked()) {
+                    opened++;
+                }
+            }
+        }
+        return opened;
+    }
+
+    @Test
+    public void testEventsDescribeTheMoves() {
+        MineSweeper m = new MineSweeper(30, 30, 4);
+        m.setSaveFile(null);
+        m.setPractice(true);
+        Cell[][] game = m.gameBoard(60, 61, false);
+        List<int[]> events = new ArrayList<>();
+        m.addListener(e -> events.add(new int[] {
+                e.getType(), e.getIndex(), e.getLength(), e.isFlagged() ? 1 : 0, e.getMoveCounter()
+        }));
+        // opens an empty cell, which floods a region of several ranges
+        int x = 0;
+        int y = 0;
+        search:
+        for (x = 0; x < 30; x++) {
+            for (y = 0; y < 30; y++) {
+                if (game[x][y].getMineNumber() == 0) {
+                    break search;
+                }
+            }
+        }
+        m.play(game, x, y, false);
+        int revealed = 0;
+        for (int[] e : events) {
+            assertEquals(GameEvent.CELLS_REVEALED, e[0]);
+            assertEquals(1, e[4]);
+            for (int i = e[1]; i < e[1] + e[2]; i++) {
+                assertTrue(game[i / 30][i % 30].getIsClicked());
+            }
+            revealed += e[2];
+        }
+        assertEquals(countOpened(game), revealed);
+        int ranges = events.size();
+
+        events.clear();
+        int mine = 0;
+        while (!game[mine / 30][mine % 30].getIsMine()) {
+            mine++;
+        }
+        m.play(game, mine / 30, mine % 30, true);
+        assertEquals(1, events.size());
+        assertArrayEquals(new int[] { GameEvent.CELL_FLAGGED, mine, 1, 1, 2 }, events.get(0));
+
+        events.clear();
+        m.play(game, mine / 30, mine % 30, true);
+        m.play(game, mine / 30, mine % 30, false);
+        assertEquals(GameEvent.CELL_FLAGGED, events.get(0)[0]);
+        assertEquals(0, events.get(0)[3]);
+        assertEquals(GameEvent.GAME_LOST, events.get(events.size() - 1)[0]);
+
+        events.clear();
+        m.undo(game);
+        assertEquals(GameEvent.GAME_RESUMED, events.get(events.size() - 1)[0]);
+        events.clear();
+        m.undo(game);
+        m.undo(game);
+        m.undo(game);
+        assertEquals(ranges + 2, events.size());
+        assertEquals(GameEvent.CELLS_COVERED, events.get(events.size() - 1)[0]);
+        assertEquals(0, countOpened(game));
+    }
+
+    @Test
+    public void testSlotsAreReused() {
+        MineSweeper m = new MineSweeper(40, 40, 6);
+        m.setSaveFile(null);
+        Cell[][] game = m.gameBoard(100, 101, false);
+        Set<GameEvent> slots = Collections.newSetFromMap(new IdentityHashMap<>());
+        int[] count = new int[1];
+        GameListener listener = e -> {
+            slots.add(e);
+            count[0]++;
+        };
+        m.addListener(listener);
+        for (int round = 0; round < 20; round++) {
+            for (int i = 0; i < 40; i++) {
+                for (int j = 0; j < 40; j++) {
+                    if (!game[i][j].getIsClicked()) {
+                        m.play(game, i, j, true);
+                    }
+                }
+            }
+        }
+        assertEquals(m.getMoveCounter(), count[0]);
+        assertTrue(count[0] > 1000);
+        assertTrue(slots.size() <= 64);
+        m.removeListener(listener);
+        m.play(game, 0, 0, true);
+        assertEquals(m.getMoveCounter() - 1, count[0]);
+    }
+
+    @Test
+    public void testTimerTicksOncePerSecond() {
+        MineSweeper m = new MineSweeper(10, 10, 1);
+        m.setSaveFile(null);
+        m.gameBoard(12, 15, false);
+        List<Integer> ticks = new ArrayList<>();
+        m.addListener(e -> {
+            if (e.getType() == GameEvent.TIMER_TICK) {
+                ticks.add(e.getMinutes() * 60 + e.getSeconds());
+            }
+        });
+        m.tick();
+        m.tick();
+        m.tick();
+        assertEquals(1, ticks.size());
+        assertEquals(0, (int) ticks.get(0));
+    }
+}
@@ -0,0 +1,182 @@
+package org.MineSweeperGUI.minesweeper;
+
+import org.MineSweeperGUI.MineSweeper.Cell;
+import org.MineSweeperGUI.MineSweeper.ClassicMode;
+import org.MineSweeperGUI.MineSweeper.DifficultyAnalyser;
+import org.MineSweeperGUI.MineSweeper.GameBoard;
+import org.MineSweeperGUI.MineSweeper.GameEvent;
+import org.MineSweeperGUI.MineSweeper.GameMode;
+import org.MineSweeperGUI.MineSweeper.GameModes;
+import org.MineSweeperGUI.MineSweeper.Leaderboard;
+import org.MineSweeperGUI.MineSweeper.LimitedFlagsMode;
+import org.MineSweeperGUI.MineSweeper.MineSweeper;
+import org.MineSweeperGUI.MineSweeper.PuzzleMode;
+import org.MineSweeperGUI.MineSweeper.TimeAttackMode;
+import org.MineSweeperGUI.MineSweeper.Topology;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.swing.JLabel;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the game modes and the rules they add to the model
+ */
+public class GameModesTest {
+
+    @TempDir
+    File dir;
+
+    private static MineSweeper model(GameMode mode) {
+        MineSweeper m = mode.newModel(Topology.SQUARE);
+        m.setSaveFile(null);
+        m.setMode(mode);
+        return m;
+    }
+
+    /**
+     * A mode shipped as a plugin.
+     */
+    public static class PluginMode extends ClassicMode {
+        @Override
+        public String getName() {
+            return "Plugin";
+        }
+    }
+
+    @Test
+    public void testBuiltInModesFound() {
+        // needs no services file on the class path
+        GameModes modes = new GameModes();
+        assertSame(GameModes.CLASSIC, modes.find("Classic"));
+        List<GameMode> list = modes.list();
+        assertSame(GameModes.CLASSIC, list.get(0));
+        assertTrue(modes.find("Time attack") instanceof TimeAttackMode);
+        assertTrue(modes.find("Daily puzzle") instanceof PuzzleMode);
+        assertTrue(modes.find("Limited flags") instanceof LimitedFlagsMode);
+        assertNull(modes.find("No such mode"));
+        assertSame(list, modes.list());
+    }
+
+    @Test
+    public void testPluginFound() throws IOException {
+        File services = new File(dir, "META-INF/services");
+        assertTrue(services.mkdirs());
+        Files.write(new File(services, GameMode.class.getName()).toPath(), List.of(
+                "# a broken plugin is skipped", "no.such.Mode", PluginMode.class.getName(),
+                // a plugin cannot replace a built in mode
+                ClassicMode.class.getName()));
+        try (URLClassLoader loader = new URLClassLoader(new URL[] { dir.toURI().toURL() },
+                GameModesTest.class.getClassLoader())) {
+            GameModes modes = new GameModes(loader);
+            List<GameMode> list = modes.list();
+            assertEquals(5, list.size());
+            assertTrue(modes.find("Plugin") instanceof PluginMode);
+            assertSame(list.get(4), modes.find("Plugin"));
+            assertSame(GameModes.CLASSIC, modes.find("Classic"));
+        }
+    }
+
+    @Test
+    public void testLimitedFlags() {
+        MineSweeper m = model(new LimitedFlagsMode());
+        Cell[][] game = m.getMode().newBoard(m);
+        for (int i = 0; i < 10; i++) {
+            m.play(game, i, 0, true);
+        }
+        int flags = 0;
+        for (int i = 0; i < 10; i++) {
+            flags += game[i][0].getIsFlagged() ? 1 : 0;
+        }
+        assertEquals(5, flags);
+        assertEquals(5, m.getMoveCounter());
+        // a flag can always be taken off, and placed again elsewhere
+        m.play(game, 0, 0, true);
+        assertFalse(game[0][0].getIsFlagged());
+        m.play(game, 9, 0, true);
+        assertTrue(game[9][0].getIsFlagged());
+    }
+
+    @Test
+    public void testTimeRunsOut() {
+        MineSweeper m = model(new TimeAttackMode());
+        Cell[][] game = m.getMode().newBoard(m);
+        List<Integer> events = new ArrayList<>();
+        m.addListener(e -> events.add(e.getType()));
+        m.tick();
+        assertEquals(0, m.getStatus());
+        m.play(game, 0, 0, true);
+        assertFalse(m.undo(game));
+        m.setStartTime(System.currentTimeMillis() - 61000);
+        m.tick();
+        assertEquals(2, m.getStatus());
+        assertTrue(m.getTimeUp());
+        assertEquals(1, m.getMinutes());
+        assertEquals(0, m.getSeconds());
+        assertEquals(2, m.getSnapshot().getStatus());
+        assertEquals(GameEvent.GAME_LOST, events.get(events.size() - 1));
+        assertFalse(m.undo(game));
+    }
+
+    @Test
+    public void testMoveAfterTimeIsLost() {
+        MineSweeper m = model(new TimeAttackMode());
+        Cell[][] game = m.getMode().newBoard(m);
+        m.setStartTime(System.currentTimeMillis() - 61000);
+        m.play(game, 0, 0, true);
+        assertEquals(2, m.getStatus());
+        assertTrue(m.getTimeUp());
+    }
+
+    @Test
+    public void testPuzzleIsFixedAndNeedsNoGuess() {
+        for (long number = 0; number < 5; number++) {
+            MineSweeper a = model(new PuzzleMode(number));
+            MineSweeper b = model(new PuzzleMode(number));
+            assertEquals(a.getSeed(), b.getSeed());
+            Cell[][] game = a.getMode().newBoard(a);
+            assertEquals(15, a.getNumMines());
+            assertEquals(1, a.getMoveCounter());
+            assertEquals(0, a.getStatus());
+            assertFalse(a.undo(game));
+            DifficultyAnalyser analyser = new DifficultyAnalyser(Topology.SQUARE, 10, 10);
+            assertEquals(0, analyser.analyse(game).getForcedGuesses());
+        }
+        assertNotEquals(model(new PuzzleMode(1)).getSeed(), model(new PuzzleMode(2)).getSeed());
+    }
+
+    @Test
+    public void testEachPuzzleHasItsOwnLeaderboard() {
+        assertEquals("Classic", GameModes.CLASSIC.getLeaderboardName());
+        assertEquals("Time attack", new TimeAttackMode().getLeaderboardName());
+        assertEquals("Daily puzzle 7", new PuzzleMode(7).getLeaderboardName());
+        assertNotEquals(new PuzzleMode(7).getLeaderboardName(),
+                new PuzzleMode(8).getLeaderboardName());
+        assertEquals(new PuzzleMode(LocalDate.now().toEpochDay()).getLeaderboardName(),
+                new PuzzleMode().getLeaderboardName());
+    }
+
+    @Test
+    public void testScoresFollowTheGameShown() {
+        GameBoard board = new GameBoard(new JLabel(), null, dir);
+        Leaderboard classic = board.getLeaderboard();
+        // choosing a mode only changes the next game
+        board.setMode(new TimeAttackMode());
+        assertEquals("Classic", board.getLeaderboardName());
+        assertSame(classic, board.getLeaderboard());
+        board.reset(false);
+        assertEquals("Time attack", board.getLeaderboardName());
+        assertNotSame(classic, board.getLeaderboard());
+        assertEquals(10, board.getModel().getXDimension());
+    }
+}
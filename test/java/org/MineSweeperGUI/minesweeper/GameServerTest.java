@@ -0,0 +1,97 @@
+package org.MineSweeperGUI.minesweeper;
+
+import com.sun.management.UnixOperatingSystemMXBean;
+import org.MineSweeperGUI.MineSweeper.Cell;
+import org.MineSweeperGUI.MineSweeper.GameClient;
+import org.MineSweeperGUI.MineSweeper.GameServer;
+import org.MineSweeperGUI.MineSweeper.RemoteMineSweeper;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Tests for the GameServer, played over the loopback interface
+ */
+public class GameServerTest {
+
+    @Test
+    public void testRemoteFlagAndWin() throws Exception {
+        try (GameServer server = GameServer.loopback();
+                GameClient client = new GameClient("localhost", server.getPort())) {
+            RemoteMineSweeper m = new RemoteMineSweeper(client);
+            Cell[][] ms = m.gameBoard(0, 0, false);
+            assertEquals(10, ms.length);
+            m.play(ms, 3, 3, true);
+            assertTrue(ms[3][3].getIsFlagged());
+            assertEquals(1, m.getMoveCounter());
+            m.play(ms, 3, 3, true);
+            assertFalse(ms[3][3].getIsFlagged());
+            m.play(ms, 0, 0, false);
+            assertEquals(1, m.getStatus());
+            assertEquals(3, m.getMoveCounter());
+            assertTrue(ms[9][9].getIsClicked());
+        }
+    }
+
+    @Test
+    public void testCoveredCellsAreHidden() throws Exception {
+        try (GameServer server = GameServer.loopback();
+                GameClient client = new GameClient("localhost", server.getPort())) {
+            RemoteMineSweeper m = new RemoteMineSweeper(client);
+            Cell[][] ms = m.gameBoard(99, 99, false);
+            m.play(ms, 0, 0, true);
+            assertTrue(ms[0][0].getIsFlagged());
+            assertFalse(ms[0][0].getIsMine());
+            m.play(ms, 1, 1, false);
+            assertEquals(2, m.getStatus());
+        }
+    }
+
+    @Test
+    public void testManyConcurrentGames() throws Exception {
+        // thousands of sessions open at once, each holding a socket at both ends
+        int games = 4000;
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        if (os instanceof UnixOperatingSystemMXBean) {
+            long fds = ((UnixOperatingSystemMXBean) os).getMaxFileDescriptorCount();
+            assumeTrue(fds >= 2L * games + 256, "Needs ulimit -n of " + (2 * games + 256));
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(32);
+        try (GameServer server = GameServer.loopback()) {
+            List<GameClient> clients = new ArrayList<>();
+            for (int i = 0; i < games; i++) {
+                clients.add(new GameClient("localhost", server.getPort()));
+            }
+            List<Future<Integer>> results = new ArrayList<>();
+            for (GameClient client : clients) {
+                results.add(pool.submit(() -> {
+                    RemoteMineSweeper m = new RemoteMineSweeper(client);
+                    Cell[][] ms = m.gameBoard(0, 0, false);
+                    for (int k = 0; k < 10; k++) {
+                        m.play(ms, k, 9 - k, true);
+                    }
+                    m.play(ms, 0, 0, false);
+                    return m.getMoveCounter();
+                }));
+            }
+            for (Future<Integer> result : results) {
+                assertEquals(11, result.get());
+            }
+            assertEquals(games, server.getSessionCount());
+            for (GameClient client : clients) {
+                client.close();
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
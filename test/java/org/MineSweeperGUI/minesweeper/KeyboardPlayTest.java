@@ -0,0 +1,56 @@
+package org.MineSweeperGUI.minesweeper;
+
+import org.MineSweeperGUI.MineSweeper.Cell;
+import org.MineSweeperGUI.MineSweeper.GameBoard;
+import org.MineSweeperGUI.MineSweeper.MineSweeper;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.JLabel;
+import javax.swing.SwingUtilities;
+import java.awt.event.ActionEvent;
+import java.lang.reflect.InvocationTargetException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for playing the board from the keyboard
+ */
+public class KeyboardPlayTest {
+
+    private static void press(GameBoard board, String action) {
+        board.getActionMap().get(action).actionPerformed(
+                new ActionEvent(board, ActionEvent.ACTION_PERFORMED, action));
+    }
+
+    @Test
+    public void testQueuedKeysArePlayedInOneBatch()
+            throws InterruptedException, InvocationTargetException {
+        MineSweeper m = new MineSweeper(10, 10, 21);
+        m.setSaveFile(null);
+        m.setSafeStart(MineSweeper.SAFE_START_CELL);
+        Cell[][] game = m.gameBoard(12, 15, false);
+        GameBoard[] board = new GameBoard[1];
+        int[] before = new int[2];
+        SwingUtilities.invokeAndWait(() -> {
+            board[0] = new GameBoard(new JLabel());
+            board[0].setGame(m, game);
+            for (int i = 0; i < 12; i++) {
+                // runs past the edge of the board and stops there
+                press(board[0], "cursor-right");
+            }
+            press(board[0], "cursor-down");
+            press(board[0], "cursor-down");
+            press(board[0], "reveal");
+            press(board[0], "cursor-left");
+            press(board[0], "flag");
+            // nothing is played until the batch runs
+            before[0] = m.getMoveCounter();
+        });
+        SwingUtilities.invokeAndWait(() -> {
+        });
+        assertEquals(0, before[0]);
+        assertTrue(game[9][2].getIsClicked());
+        assertEquals(game[8][2].getIsClicked() ? 1 : 2, m.getMoveCounter());
+        assertEquals(!game[8][2].getIsClicked(), game[8][2].getIsFlagged());
+    }
+}
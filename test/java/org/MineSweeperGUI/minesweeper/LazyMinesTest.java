@@ -0,0 +1,107 @@
+package org.MineSweeperGUI.minesweeper;
+
+import org.MineSweeperGUI.MineSweeper.Cell;
+import org.MineSweeperGUI.MineSweeper.MineSweeper;
+import org.MineSweeperGUI.MineSweeper.Topology;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for placing the mines of a board on the first reveal
+ */
+public class LazyMinesTest {
+
+    @TempDir
+    File dir;
+
+    private static MineSweeper model(long seed, Topology topology, boolean lazy, int safeStart) {
+        MineSweeper m = new MineSweeper(16, 12, seed, topology);
+        m.setSaveFile(null);
+        m.setLazyMines(lazy);
+        m.setSafeStart(safeStart);
+        return m;
+    }
+
+    private static void assertSameBoard(Cell[][] expected, Cell[][] actual) {
+        for (int i = 0; i < expected.length; i++) {
+            for (int j = 0; j < expected[i].length; j++) {
+                assertEquals(expected[i][j].getIsMine(), actual[i][j].getIsMine());
+                assertEquals(expected[i][j].getMineNumber(), actual[i][j].getMineNumber());
+                assertEquals(expected[i][j].getIsClicked(), actual[i][j].getIsClicked());
+                assertEquals(expected[i][j].getIsFlagged(), actual[i][j].getIsFlagged());
+            }
+        }
+    }
+
+    @Test
+    public void testNoMinesBeforeFirstReveal() {
+        MineSweeper m = model(1, Topology.SQUARE, true, MineSweeper.SAFE_START_OFF);
+        Cell[][] game = m.gameBoard(30, 31, false);
+        assertEquals(30, m.getNumMines());
+        m.play(game, 3, 3, true);
+        for (Cell[] column : game) {
+            for (Cell c : column) {
+                assertFalse(c.getIsMine());
+            }
+        }
+        m.play(game, 5, 5, false);
+        int mines = 0;
+        for (int i = 0; i < 16; i++) {
+            for (int j = 0; j < 12; j++) {
+                mines += game[i][j].getIsMine() ? 1 : 0;
+                assertEquals(game[i][j].getIsMine(), m.getSnapshot().isMine(i, j));
+            }
+        }
+        assertEquals(30, mines);
+    }
+
+    @Test
+    public void testSameBoardAsEager() {
+        for (Topology topology : Topology.values()) {
+            for (int safeStart : new int[] { MineSweeper.SAFE_START_OFF,
+                    MineSweeper.SAFE_START_CELL, MineSweeper.SAFE_START_OPENING }) {
+                for (long seed = 0; seed < 20; seed++) {
+                    MineSweeper eager = model(seed, topology, false, safeStart);
+                    MineSweeper lazy = model(seed, topology, true, safeStart);
+                    Cell[][] a = eager.gameBoard(25, 35, false);
+                    Cell[][] b = lazy.gameBoard(25, 35, false);
+                    Random random = new Random(seed);
+                    while (eager.getStatus() == 0 && eager.getMoveCounter() < 40) {
+                        int x = random.nextInt(16);
+                        int y = random.nextInt(12);
+                        boolean isRight = random.nextInt(5) == 0;
+                        eager.play(a, x, y, isRight);
+                        lazy.play(b, x, y, isRight);
+                    }
+                    assertEquals(eager.getStatus(), lazy.getStatus());
+                    assertEquals(eager.getMoveCounter(), lazy.getMoveCounter());
+                    assertSameBoard(a, b);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSaveBeforeFirstRevealHasMines() {
+        File save = new File(dir, "lazy.csv");
+        MineSweeper lazy = model(4, Topology.HEX, true, MineSweeper.SAFE_START_CELL);
+        lazy.setSaveFile(save);
+        Cell[][] game = lazy.gameBoard(25, 26, false);
+        lazy.play(game, 0, 0, true);
+
+        MineSweeper eager = model(4, Topology.HEX, false, MineSweeper.SAFE_START_CELL);
+        Cell[][] expected = eager.gameBoard(25, 26, false);
+        eager.play(expected, 0, 0, true);
+
+        MineSweeper loader = new MineSweeper(16, 12, 0, Topology.HEX);
+        loader.setSaveFile(save);
+        Cell[][] loaded = loader.gameBoard(12, 15, true);
+        assertEquals(25, loader.getNumMines());
+        assertSameBoard(expected, loaded);
+    }
+}
@@ -0,0 +1,139 @@
+package org.MineSweeperGUI.minesweeper;
+
+import org.MineSweeperGUI.MineSweeper.Leaderboard;
+import org.MineSweeperGUI.MineSweeper.Topology;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the Leaderboard
+ */
+public class LeaderboardTest {
+
+    @TempDir
+    File dir;
+
+    @Test
+    public void testSortedByTimeThenMoves() throws IOException {
+        Leaderboard board = new Leaderboard(dir);
+        assertEquals(1, board.submit(Topology.SQUARE, 10, 10, new Leaderboard.Entry("a", 90, 30, 1)));
+        assertEquals(1, board.submit(Topology.SQUARE, 10, 10, new Leaderboard.Entry("b", 60, 40, 2)));
+        assertEquals(2, board.submit(Topology.SQUARE, 10, 10, new Leaderboard.Entry("c", 60, 50, 3)));
+        assertEquals(2, board.submit(Topology.SQUARE, 10, 10, new Leaderboard.Entry("a", 60, 45, 4)));
+        List<Leaderboard.Entry> top = board.top(Topology.SQUARE, 10, 10, 3);
+        assertEquals(3, top.size());
+        assertEquals("b", top.get(0).getName());
+        assertEquals(45, top.get(1).getMoves());
+        assertEquals("c", top.get(2).getName());
+        assertEquals(60, board.personalBest(Topology.SQUARE, 10, 10, "a").getScore());
+        assertNull(board.personalBest(Topology.SQUARE, 10, 10, "d"));
+    }
+
+    @Test
+    public void testConfigurationsAreSeparate() throws IOException {
+        Leaderboard board = new Leaderboard(dir);
+        board.submit(Topology.SQUARE, 10, 10, new Leaderboard.Entry("a", 90, 30, 1));
+        board.submit(Topology.HEX, 10, 10, new Leaderboard.Entry("a", 30, 30, 1));
+        assertEquals(1, board.size(Topology.SQUARE, 10, 10));
+        assertEquals(90, board.personalBest(Topology.SQUARE, 10, 10, "a").getScore());
+        assertEquals(0, board.size(Topology.SQUARE, 12, 10));
+    }
+
+    @Test
+    public void testTablesAreSavedAndLoadedLazily() throws IOException {
+        File sub = new File(dir, "scores");
+        Leaderboard board = new Leaderboard(sub);
+        assertFalse(sub.exists());
+        board.submit(Topology.TORUS, 10, 10, new Leaderboard.Entry("x,y", 75, 20, 5));
+        board.submit(Topology.TORUS, 10, 10, new Leaderboard.Entry("z", 70, 20, 6));
+        assertEquals(1, sub.listFiles().length);
+
+        Leaderboard reloaded = new Leaderboard(sub);
+        List<Leaderboard.Entry> top = reloaded.top(Topology.TORUS, 10, 10, 10);
+        assertEquals(2, top.size());
+        assertEquals("z", top.get(0).getName());
+        assertEquals("x_y", top.get(1).getName());
+        assertEquals(75, reloaded.personalBest(Topology.TORUS, 10, 10, "x,y").getScore());
+    }
+
+    @Test
+    public void testEntriesAreAppendedThenCompacted() throws IOException {
+        Leaderboard board = new Leaderboard(dir);
+        File file = new File(dir, "square-10x10.csv");
+        for (int i = 0; i < 10; i++) {
+            board.submit(Topology.SQUARE, 10, 10, new Leaderboard.Entry("p", 100 - i, 10, i));
+        }
+        List<String> lines = Files.readAllLines(file.toPath());
+        assertEquals(10, lines.size());
+        // appended in the order they were won, not sorted
+        assertTrue(lines.get(0).startsWith("100,"));
+
+        for (int i = 10; i < 64; i++) {
+            board.submit(Topology.SQUARE, 10, 10, new Leaderboard.Entry("p", 100 - i, 10, i));
+        }
+        lines = Files.readAllLines(file.toPath());
+        assertEquals(64, lines.size());
+        assertTrue(lines.get(0).startsWith("37,"));
+        assertEquals(64, new Leaderboard(dir).size(Topology.SQUARE, 10, 10));
+    }
+
+    @Test
+    public void testDamagedFileIsCompacted() throws IOException {
+        File file = new File(dir, "square-10x10.csv");
+        Files.write(file.toPath(), "60,20,1,a\n50,20,2,b\n40,2".getBytes());
+        Leaderboard board = new Leaderboard(dir);
+        assertEquals(2, board.size(Topology.SQUARE, 10, 10));
+        assertEquals(2, board.submit(Topology.SQUARE, 10, 10, new Leaderboard.Entry("c", 55, 9, 3)));
+        assertEquals(List.of("50,20,2,b", "55,9,3,c", "60,20,1,a"),
+                Files.readAllLines(file.toPath()));
+    }
+
+    @Test
+    public void testRanksMatchSortedOrder() throws IOException {
+        Leaderboard board = new Leaderboard(dir);
+        Random random = new Random(5);
+        List<Leaderboard.Entry> sorted = new ArrayList<>();
+        Comparator<Leaderboard.Entry> order = Comparator.comparingInt(Leaderboard.Entry::getScore)
+                .thenComparingInt(Leaderboard.Entry::getMoves)
+                .thenComparingLong(Leaderboard.Entry::getDate);
+        for (int i = 0; i < 500; i++) {
+            Leaderboard.Entry e = new Leaderboard.Entry("p", random.nextInt(100),
+                    random.nextInt(10), i);
+            int expected = 0;
+            while (expected < sorted.size() && order.compare(sorted.get(expected), e) <= 0) {
+                expected++;
+            }
+            sorted.add(expected, e);
+            assertEquals(expected + 1, board.submit(Topology.SQUARE, 10, 10, e));
+        }
+        assertEquals(sorted, board.top(Topology.SQUARE, 10, 10, 500));
+    }
+
+    @Test
+    public void testAppendedLinesCountAfterReload() throws IOException {
+        File file = new File(dir, "square-10x10.csv");
+        Leaderboard board = new Leaderboard(dir);
+        for (int i = 0; i < 63; i++) {
+            board.submit(Topology.SQUARE, 10, 10, new Leaderboard.Entry("p", 100 - i, 10, i));
+        }
+        // all but the first of the lines are out of order, and are due for
+        // compaction with the next appended line
+        Leaderboard reloaded = new Leaderboard(dir);
+        reloaded.submit(Topology.SQUARE, 10, 10, new Leaderboard.Entry("p", 5, 10, 63));
+        reloaded.submit(Topology.SQUARE, 10, 10, new Leaderboard.Entry("p", 4, 10, 64));
+        List<String> lines = Files.readAllLines(file.toPath());
+        assertEquals(65, lines.size());
+        assertTrue(lines.get(0).startsWith("4,"));
+        assertTrue(lines.get(64).startsWith("100,"));
+    }
+}
@@ -0,0 +1,75 @@
+package org.MineSweeperGUI.minesweeper;
+
+import org.MineSweeperGUI.MineSweeper.Cell;
+import org.MineSweeperGUI.MineSweeper.MineSweeper;
+import org.MineSweeperGUI.MineSweeper.ParallelFloodFill;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that the ParallelFloodFill opens exactly what the sequential fill opens
+ */
+public class ParallelFloodFillTest {
+
+    private static Cell[][] randomBoard(MineSweeper m, long seed, int density) {
+        Random random = new Random(seed);
+        Cell[][] game = m.gameBoard(0, 0, false);
+        for (Cell[] column : game) {
+            for (Cell c : column) {
+                c.setIsMine(random.nextInt(density) == 0);
+            }
+        }
+        m.setAdjacentValues(game);
+        return game;
+    }
+
+    @Test
+    public void testSameCellsAsSequentialFill() {
+        ParallelFloodFill fill = new ParallelFloodFill(new ForkJoinPool(4), 16);
+        for (long seed = 0; seed < 20; seed++) {
+            MineSweeper sequential = new MineSweeper(200, 150);
+            sequential.setSaveFile(null);
+            Cell[][] expected = randomBoard(sequential, seed, 12);
+            MineSweeper parallel = new MineSweeper(200, 150);
+            parallel.setSaveFile(null);
+            Cell[][] actual = randomBoard(parallel, seed, 12);
+            for (int x = 0; x < 200; x += 37) {
+                for (int y = 0; y < 150; y += 23) {
+                    if (expected[x][y].getMineNumber() == 0 && !expected[x][y].getIsClicked()) {
+                        sequential.recOpenCells(x, y, expected);
+                        fill.fill(actual, x, y, null);
+                    }
+                }
+            }
+            for (int x = 0; x < 200; x++) {
+                for (int y = 0; y < 150; y++) {
+                    assertEquals(expected[x][y].getIsClicked(), actual[x][y].getIsClicked());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testParallelRevealIsUndoable() {
+        MineSweeper m = new MineSweeper(300, 300);
+        m.setSaveFile(null);
+        m.setParallelReveal(true);
+        Cell[][] game = m.gameBoard(0, 0, false);
+        game[150][150].setIsMine(true);
+        m.setAdjacentValues(game);
+        m.play(game, 0, 0, false);
+        assertEquals(1, m.getStatus());
+        assertTrue(game[299][299].getIsClicked());
+        assertFalse(game[150][150].getIsClicked());
+        m.undo(game);
+        for (Cell[] column : game) {
+            for (Cell c : column) {
+                assertFalse(c.getIsClicked());
+            }
+        }
+    }
+}
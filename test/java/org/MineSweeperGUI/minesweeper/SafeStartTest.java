@@ -0,0 +1,187 @@
+package org.MineSweeperGUI.minesweeper;
+
+import org.MineSweeperGUI.MineSweeper.Cell;
+import org.MineSweeperGUI.MineSweeper.GameHistory;
+import org.MineSweeperGUI.MineSweeper.GameRecord;
+import org.MineSweeperGUI.MineSweeper.MineSweeper;
+import org.MineSweeperGUI.MineSweeper.Replay;
+import org.MineSweeperGUI.MineSweeper.Topology;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the safe first click
+ */
+public class SafeStartTest {
+
+    @TempDir
+    File dir;
+
+    private static MineSweeper model(long seed, Topology topology, int safeStart) {
+        MineSweeper m = new MineSweeper(10, 10, seed, topology);
+        m.setSaveFile(null);
+        m.setSafeStart(safeStart);
+        return m;
+    }
+
+    private static int[] mineAt(Cell[][] game) {
+        for (int i = 0; i < game.length; i++) {
+            for (int j = 0; j < game[i].length; j++) {
+                if (game[i][j].getIsMine()) {
+                    return new int[] { i, j };
+                }
+            }
+        }
+        return null;
+    }
+
+    private static int countMines(Cell[][] game) {
+        int mines = 0;
+        for (Cell[] column : game) {
+            for (Cell c : column) {
+                mines += c.getIsMine() ? 1 : 0;
+            }
+        }
+        return mines;
+    }
+
+    /**
+     * Checks that the numbers updated around moved mines are those a full
+     * count of the board gives.
+     */
+    private static void assertNumbersCounted(MineSweeper m, Cell[][] game) {
+        int[][] numbers = new int[game.length][game[0].length];
+        for (int i = 0; i < game.length; i++) {
+            for (int j = 0; j < game[i].length; j++) {
+                numbers[i][j] = game[i][j].getMineNumber();
+            }
+        }
+        m.setAdjacentValues(game);
+        for (int i = 0; i < game.length; i++) {
+            for (int j = 0; j < game[i].length; j++) {
+                assertEquals(game[i][j].getMineNumber(), numbers[i][j]);
+            }
+        }
+    }
+
+    @Test
+    public void testOffByDefault() {
+        MineSweeper m = new MineSweeper(10, 10, 3);
+        m.setSaveFile(null);
+        assertEquals(MineSweeper.SAFE_START_OFF, m.getSafeStart());
+        Cell[][] game = m.gameBoard(12, 15, false);
+        int[] mine = mineAt(game);
+        m.play(game, mine[0], mine[1], false);
+        assertEquals(2, m.getStatus());
+    }
+
+    @Test
+    public void testFirstClickOnMineIsMoved() {
+        for (Topology topology : Topology.values()) {
+            for (long seed = 0; seed < 50; seed++) {
+                MineSweeper m = model(seed, topology, MineSweeper.SAFE_START_CELL);
+                Cell[][] game = m.gameBoard(12, 15, false);
+                int mines = countMines(game);
+                int[] mine = mineAt(game);
+                m.play(game, mine[0], mine[1], false);
+                assertNotEquals(2, m.getStatus());
+                assertTrue(game[mine[0]][mine[1]].getIsClicked());
+                assertEquals(mines, countMines(game));
+                assertFalse(m.getSnapshot().isMine(mine[0], mine[1]));
+                assertNumbersCounted(m, game);
+
+                // a later click on a mine still loses
+                int[] other = mineAt(game);
+                m.play(game, other[0], other[1], false);
+                assertEquals(2, m.getStatus());
+            }
+        }
+    }
+
+    @Test
+    public void testFirstClickOpensAnOpening() {
+        for (long seed = 0; seed < 50; seed++) {
+            MineSweeper m = model(seed, Topology.SQUARE, MineSweeper.SAFE_START_OPENING);
+            Cell[][] game = m.gameBoard(12, 15, false);
+            int mines = countMines(game);
+            int x = (int) (seed % 10);
+            int y = (int) (seed / 10 % 10);
+            m.play(game, x, y, false);
+            assertEquals(0, game[x][y].getMineNumber());
+            assertEquals(mines, countMines(game));
+            assertNumbersCounted(m, game);
+        }
+    }
+
+    @Test
+    public void testCrowdedBoardClearsClickedCellFirst() {
+        MineSweeper m = new MineSweeper(3, 3, 4);
+        m.setSaveFile(null);
+        m.setSafeStart(MineSweeper.SAFE_START_OPENING);
+        Cell[][] game = m.gameBoard(8, 9, false);
+        m.play(game, 1, 1, false);
+        assertEquals(1, m.getStatus());
+        assertEquals(8, game[1][1].getMineNumber());
+    }
+
+    @Test
+    public void testMovedMinesFollowTheSeed() {
+        MineSweeper first = model(8, Topology.HEX, MineSweeper.SAFE_START_OPENING);
+        MineSweeper second = model(8, Topology.HEX, MineSweeper.SAFE_START_OPENING);
+        Cell[][] a = first.gameBoard(12, 15, false);
+        Cell[][] b = second.gameBoard(12, 15, false);
+        int[] mine = mineAt(a);
+        first.play(a, mine[0], mine[1], false);
+        second.play(b, mine[0], mine[1], false);
+        for (int i = 0; i < 10; i++) {
+            for (int j = 0; j < 10; j++) {
+                assertEquals(a[i][j].getIsMine(), b[i][j].getIsMine());
+            }
+        }
+    }
+
+    @Test
+    public void testReplayAfterMovedMine() throws IOException {
+        for (int safeStart : new int[] { MineSweeper.SAFE_START_OFF,
+                MineSweeper.SAFE_START_CELL }) {
+            GameHistory history = new GameHistory(new File(dir, "history-" + safeStart));
+            MineSweeper m = model(5, Topology.SQUARE, safeStart);
+            m.setHistory(history);
+            Cell[][] game = m.gameBoard(12, 15, false);
+            int[] mine = mineAt(game);
+            int flagged = 99;
+            while (!game[flagged / 10][flagged % 10].getIsMine()) {
+                flagged--;
+            }
+            m.play(game, flagged / 10, flagged % 10, true);
+            m.play(game, mine[0], mine[1], false);
+            // plays every safe cell, or stops at the lost first click
+            for (int i = 0; i < 10 && m.getStatus() == 0; i++) {
+                for (int j = 0; j < 10; j++) {
+                    if (!game[i][j].getIsMine() && !game[i][j].getIsClicked()
+                            && !game[i][j].getIsFlagged()) {
+                        m.play(game, i, j, false);
+                    }
+                }
+            }
+            List<GameRecord> records = new ArrayList<>();
+            history.scan(records::add);
+            Replay replay = new Replay(records.get(0));
+            assertEquals(m.getStatus(), replay.getModel().getStatus());
+            for (int i = 0; i < 10; i++) {
+                for (int j = 0; j < 10; j++) {
+                    assertEquals(game[i][j].getIsMine(), replay.getGame()[i][j].getIsMine());
+                    assertEquals(game[i][j].getIsClicked(),
+                            replay.getGame()[i][j].getIsClicked());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package org.MineSweeperGUI.minesweeper;
+
+import org.MineSweeperGUI.MineSweeper.Cell;
+import org.MineSweeperGUI.MineSweeper.MineSweeper;
+import org.MineSweeperGUI.MineSweeper.SharedMineSweeper;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the SharedMineSweeper, played from several threads at once
+ */
+public class SharedMineSweeperTest {
+
+    @Test
+    public void testMatchesSingleThreadedPlay() {
+        MineSweeper m = new MineSweeper();
+        m.setSaveFile(null);
+        Cell[][] ms = m.gameBoard(0, 0, false);
+        ms[7][9].setIsMine(true);
+        ms[9][9].setIsMine(true);
+        m.setAdjacentValues(ms);
+        SharedMineSweeper shared = new SharedMineSweeper(ms);
+        m.play(ms, 0, 0, false);
+        shared.play(0, 0, false);
+        Cell[][] copy = m.gameBoard(0, 0, false);
+        shared.copyTo(copy);
+        for (int i = 0; i < 10; i++) {
+            for (int j = 0; j < 10; j++) {
+                assertEquals(ms[i][j].getIsClicked(), copy[i][j].getIsClicked());
+            }
+        }
+        assertEquals(m.getStatus(), shared.getStatus());
+        assertEquals(1, shared.getMoveCounter());
+    }
+
+    @Test
+    public void testFlagBlocksClick() {
+        MineSweeper m = new MineSweeper();
+        m.setSaveFile(null);
+        Cell[][] ms = m.gameBoard(0, 0, false);
+        ms[7][9].setIsMine(true);
+        m.setAdjacentValues(ms);
+        SharedMineSweeper shared = new SharedMineSweeper(ms);
+        assertTrue(shared.flag(7, 9));
+        assertEquals(0, shared.reveal(7, 9));
+        assertEquals(0, shared.getStatus());
+        assertTrue(shared.flag(7, 9));
+        shared.reveal(7, 9);
+        assertEquals(2, shared.getStatus());
+    }
+
+    @Test
+    public void testConcurrentRevealsOpenEveryCellOnce() throws Exception {
+        int size = 300;
+        Cell[][] game = new Cell[size][size];
+        Random random = new Random(42);
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                game[i][j] = new Cell(random.nextInt(100) == 0);
+            }
+        }
+        int safe = 0;
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                int count = 0;
+                for (int z = i - 1; z <= i + 1; z++) {
+                    for (int w = j - 1; w <= j + 1; w++) {
+                        if (z >= 0 && w >= 0 && z < size && w < size && game[z][w].getIsMine()) {
+                            count++;
+                        }
+                    }
+                }
+                if (!game[i][j].getIsMine()) {
+                    game[i][j].setMineNumber(count);
+                    safe++;
+                }
+            }
+        }
+        SharedMineSweeper shared = new SharedMineSweeper(game);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            final int offset = t;
+            results.add(pool.submit(() -> {
+                int opened = 0;
+                for (int i = 0; i < size; i++) {
+                    for (int j = 0; j < size; j++) {
+                        int x = (i + offset * 37) % size;
+                        if (!game[x][j].getIsMine()) {
+                            opened += shared.reveal(x, j);
+                        }
+                    }
+                }
+                return opened;
+            }));
+        }
+        int total = 0;
+        for (Future<Integer> result : results) {
+            total += result.get();
+        }
+        pool.shutdown();
+        assertEquals(safe, total);
+        assertEquals(0, shared.getCoveredCells());
+        assertEquals(1, shared.getStatus());
+    }
+}
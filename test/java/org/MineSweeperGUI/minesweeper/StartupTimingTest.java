@@ -0,0 +1,83 @@
+package org.MineSweeperGUI.minesweeper;
+
+import org.MineSweeperGUI.MineSweeper.StartupTiming;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the StartupTiming
+ */
+public class StartupTimingTest {
+
+    @TempDir
+    File dir;
+
+    @AfterEach
+    public void clearLaunchTime() {
+        System.clearProperty("minesweeper.launchTime");
+    }
+
+    @Test
+    public void testMarksAreMeasuredFromLaunchTime() {
+        long launch = System.currentTimeMillis() - 5000;
+        System.setProperty("minesweeper.launchTime", Long.toString(launch));
+        StartupTiming timing = new StartupTiming();
+        timing.mark("main");
+        timing.mark("frame_visible");
+        long main = timing.getElapsed("main");
+        assertTrue(main >= 5000 && main < 65000, "main=" + main);
+        assertTrue(timing.getElapsed("frame_visible") >= main);
+        assertEquals(-1, timing.getElapsed("first_paint"));
+        assertTrue(timing.getMarks().matches("main=\\d+ frame_visible=\\d+"),
+                timing.getMarks());
+    }
+
+    @Test
+    public void testMarkingAgainKeepsOrderAndTakesLatestTime() {
+        System.setProperty("minesweeper.launchTime",
+                Long.toString(System.currentTimeMillis() - 1000));
+        StartupTiming timing = new StartupTiming();
+        assertEquals("", timing.getMarks());
+        timing.mark("a");
+        timing.mark("b");
+        long first = timing.getElapsed("a");
+        timing.mark("a");
+        assertTrue(timing.getElapsed("a") >= first);
+        assertTrue(timing.getMarks().startsWith("a="));
+    }
+
+    @Test
+    public void testBadLaunchTimeFallsBackToJvmStart() {
+        System.setProperty("minesweeper.launchTime", "soon");
+        StartupTiming timing = new StartupTiming();
+        timing.mark("main");
+        long main = timing.getElapsed("main");
+        // the JVM started before this test, and not before the epoch
+        assertTrue(main >= 0 && main < System.currentTimeMillis(), "main=" + main);
+    }
+
+    @Test
+    public void testLogIsWrittenOnce() throws IOException, InterruptedException {
+        StartupTiming timing = new StartupTiming();
+        timing.mark("main");
+        timing.mark("first_paint");
+        File log = new File(dir, "startup.log");
+        timing.writeInBackground(log);
+        timing.writeInBackground(log);
+        for (int i = 0; i < 200 && (!log.exists() || log.length() == 0); i++) {
+            Thread.sleep(10);
+        }
+        Thread.sleep(50);
+        List<String> lines = Files.readAllLines(log.toPath());
+        assertEquals(1, lines.size());
+        assertTrue(lines.get(0).matches("\\S+Z main=\\d+ first_paint=\\d+"), lines.get(0));
+    }
+}